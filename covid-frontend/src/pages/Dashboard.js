@@ -41,8 +41,7 @@ import { captureAndDownload } from "../utils/screenshot";
  * - Global statistics cards (Total Cases, Deaths, Recovered, Active)
  * - Recovery rate and death rate with progress bars
  * - Interactive charts (Bar chart and Pie chart)
- * - Data aggregation from multiple sources (Worldometer, Country-wise)
- * - Fallback mechanism if one API fails
+ * - Server-side global totals (/api/summary, Worldometer with Country-wise fallback)
  * - Real-time data refresh
  */
 export default function Dashboard() {
@@ -71,17 +70,15 @@ export default function Dashboard() {
   /**
    * Fetch Dashboard Data
    * 
-   * Fetches and aggregates COVID-19 data from multiple sources
-   * Uses fallback mechanism: tries Worldometer first, then Country-wise
+   * Fetches precomputed global COVID-19 totals from the backend
+   * The server keeps these totals up to date on every write, so the dashboard
+   * no longer downloads the full Worldometer / Country-wise tables to sum them up
    * 
    * @param {boolean} showRefreshing - If true, shows refreshing indicator instead of loading
    * 
    * Process:
-   * 1. Try to fetch from Worldometer API
-   * 2. Aggregate all countries' data (sum up totals)
-   * 3. If Worldometer fails or returns empty, try Country-wise API
-   * 4. Aggregate Country-wise data (different field names)
-   * 5. Update summary state with aggregated data
+   * 1. Fetch /api/summary (Worldometer totals, or Country-wise totals as fallback)
+   * 2. Update summary state with the returned totals
    */
   const fetchData = async (showRefreshing = false) => {
     try {
@@ -93,57 +90,17 @@ export default function Dashboard() {
       }
       setError("");
       
-      // Initialize aggregated data object
-      let aggregated = { totalCases: 0, totalDeaths: 0, totalRecovered: 0, activeCases: 0 };
-      
-      // Try Worldometer API first (primary data source)
-      try {
-        const worldometerRes = await axios.get("/api/worldometer/all");
-        const worldometerData = worldometerRes.data || [];
-        
-        // If data exists, aggregate it
-        if (worldometerData.length > 0) {
-          // Sum up all countries' statistics
-          aggregated = worldometerData.reduce(
-            (acc, item) => ({
-              totalCases: (acc.totalCases || 0) + (Number(item.totalCases) || 0),
-              totalDeaths: (acc.totalDeaths || 0) + (Number(item.totalDeaths) || 0),
-              totalRecovered: (acc.totalRecovered || 0) + (Number(item.totalRecovered) || 0),
-              activeCases: (acc.activeCases || 0) + (Number(item.activeCases) || 0),
-            }),
-            { totalCases: 0, totalDeaths: 0, totalRecovered: 0, activeCases: 0 }
-          );
-        }
-      } catch (worldometerErr) {
-        // Worldometer API failed - will try fallback
-        console.warn("Worldometer API failed, trying country-wise:", worldometerErr);
-      }
-      
-      // Fallback: Use Country-wise API if Worldometer is empty or failed
-      if (aggregated.totalCases === 0) {
-        try {
-          const countryRes = await axios.get("/api/country/all");
-          const countryData = countryRes.data || [];
-          
-          // Aggregate Country-wise data (different field names)
-          if (countryData.length > 0) {
-            aggregated = countryData.reduce(
-              (acc, item) => ({
-                totalCases: (acc.totalCases || 0) + (Number(item.confirmed) || 0),
-                totalDeaths: (acc.totalDeaths || 0) + (Number(item.deaths) || 0),
-                totalRecovered: (acc.totalRecovered || 0) + (Number(item.recovered) || 0),
-                activeCases: (acc.activeCases || 0) + (Number(item.active) || 0),
-              }),
-              { totalCases: 0, totalDeaths: 0, totalRecovered: 0, activeCases: 0 }
-            );
-          }
-        } catch (countryErr) {
-          console.warn("Country-wise API also failed:", countryErr);
-        }
-      }
+      // Fetch server-side global summary (a few hundred bytes)
+      const summaryRes = await axios.get("/api/summary");
+      const data = summaryRes.data || {};
       
       // Update state with aggregated data
-      setSummary(aggregated);
+      setSummary({
+        totalCases: Number(data.totalCases) || 0,
+        totalDeaths: Number(data.totalDeaths) || 0,
+        totalRecovered: Number(data.totalRecovered) || 0,
+        activeCases: Number(data.activeCases) || 0,
+      });
       setLoading(false);
       setRefreshing(false);
       setErrorObj(null);
@@ -31,8 +31,20 @@ export default function UsaCountryWisePage() {
         setLoading(true);
       }
       setError("");
-      const res = await axios.get("/api/usa/all");
-      setData(res.data);
+      // /api/usa/all returns pages ({ items, nextCursor, hasMore }): follow nextCursor to the end
+      // (a plain array when the server serves a pre-serialized snapshot instead)
+      const rows = [];
+      let cursor = null;
+      do {
+        const res = await axios.get("/api/usa/all", cursor ? { params: { cursor } } : undefined);
+        if (Array.isArray(res.data)) {
+          rows.push(...res.data);
+          break;
+        }
+        rows.push(...res.data.items);
+        cursor = res.data.hasMore ? res.data.nextCursor : null;
+      } while (cursor);
+      setData(rows);
       setLoading(false);
       setRefreshing(false);
     } catch (err) {
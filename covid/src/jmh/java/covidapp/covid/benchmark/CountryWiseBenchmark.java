@@ -0,0 +1,66 @@
+package covidapp.covid.benchmark;
+
+import covidapp.covid.entity.CountryWiseLatest;
+import covidapp.covid.repository.CountryWiseRepository;
+import covidapp.covid.repository.WorldometerRepository;
+import covidapp.covid.service.CountryWiseService;
+import covidapp.covid.service.DatasetVersions;
+import covidapp.covid.service.GlobalSummaryService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Country Wise Benchmark
+ *
+ * Red-alert cost on the /api/country read and write paths
+ * - getAll: current read path (flag is stored, nothing computed per request)
+ * - recomputeRedAlerts: the per-row ratio loop getAll used to run on every request
+ * - saveCountry: ratio and flag calculation done once per write
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CountryWiseBenchmark {
+
+    // 187 = real country_wise_latest size
+    @Param({"187", "10000"})
+    public int countries;
+
+    private CountryWiseService service;
+    private List<CountryWiseLatest> rows;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        rows = SyntheticData.countries(countries);
+        CountryWiseRepository repo = SyntheticData.repository(CountryWiseRepository.class, rows);
+        GlobalSummaryService summary = new GlobalSummaryService(
+                SyntheticData.repository(WorldometerRepository.class, List.of()), repo);
+        service = new CountryWiseService(repo, summary, new DatasetVersions(), 0.1);
+    }
+
+    @Benchmark
+    public List<CountryWiseLatest> getAll() {
+        return service.getAll();
+    }
+
+    @Benchmark
+    public void recomputeRedAlerts(Blackhole blackhole) {
+        for (CountryWiseLatest country : service.getAll()) {
+            Double ratio = CountryWiseService.deathsRecoveredRatio(country);
+            blackhole.consume(ratio != null && ratio > 0.1);
+        }
+    }
+
+    @Benchmark
+    public CountryWiseLatest saveCountry() {
+        CountryWiseLatest row = rows.get(next++ % rows.size());
+        return service.saveCountry(row);
+    }
+}
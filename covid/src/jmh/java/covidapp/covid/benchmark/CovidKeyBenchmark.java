@@ -0,0 +1,84 @@
+package covidapp.covid.benchmark;
+
+import covidapp.covid.entity.CovidKey;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Covid Key Benchmark
+ *
+ * Hashing and HashMap lookup of the covid_19_clean_complete composite key
+ * (49,068 keys = real table size)
+ *
+ * Lookups use equal but distinct key objects, like keys built from request parameters,
+ * so equals() is exercised instead of the identity shortcut
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CovidKeyBenchmark {
+
+    private static final int KEYS = 49_068;
+
+    private List<CovidKey> keys;
+    private List<CovidKey> probes;
+    private List<CovidKey> misses;
+    private Map<CovidKey, Integer> index;
+
+    @Setup
+    public void setUp() {
+        keys = SyntheticData.cleanCompleteKeys(KEYS);
+        index = new HashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            index.put(keys.get(i), i);
+        }
+        probes = new ArrayList<>(keys.size());
+        misses = new ArrayList<>(keys.size());
+        for (CovidKey key : keys) {
+            probes.add(new CovidKey(key.getProvinceState(), key.getCountryRegion(), key.getDate()));
+            misses.add(new CovidKey(key.getProvinceState(), key.getCountryRegion(), "1999-01-01"));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYS)
+    public void hashCodes(Blackhole blackhole) {
+        for (CovidKey key : probes) {
+            blackhole.consume(key.hashCode());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYS)
+    public void lookupHit(Blackhole blackhole) {
+        for (CovidKey key : probes) {
+            blackhole.consume(index.get(key));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEYS)
+    public void lookupMiss(Blackhole blackhole) {
+        for (CovidKey key : misses) {
+            blackhole.consume(index.get(key));
+        }
+    }
+
+    @Benchmark
+    public Map<CovidKey, Integer> buildIndex() {
+        Map<CovidKey, Integer> map = new HashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            map.put(keys.get(i), i);
+        }
+        return map;
+    }
+}
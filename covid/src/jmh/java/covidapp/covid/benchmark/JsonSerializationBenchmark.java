@@ -0,0 +1,70 @@
+package covidapp.covid.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import covidapp.covid.entity.FullGrouped;
+import covidapp.covid.entity.UsaCountryWise;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON Serialization Benchmark
+ *
+ * Jackson cost of the large list responses, with the same ObjectMapper setup Spring MVC uses
+ * - full_grouped: one date (187 rows) and the whole table (35,156)
+ * - usa_county_wise: one page (2,000) and one large state (50,000)
+ *
+ * Output goes to a null stream so only serialization is measured
+ * (a new one per call - Jackson closes the target after writeValue)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class FullGroupedRows {
+        @Param({"187", "35156"})
+        public int rows;
+
+        ObjectMapper mapper;
+        List<FullGrouped> data;
+
+        @Setup
+        public void setUp() {
+            mapper = Jackson2ObjectMapperBuilder.json().build();
+            data = SyntheticData.fullGrouped(rows);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class UsaRows {
+        @Param({"2000", "50000"})
+        public int rows;
+
+        ObjectMapper mapper;
+        List<UsaCountryWise> data;
+
+        @Setup
+        public void setUp() {
+            mapper = Jackson2ObjectMapperBuilder.json().build();
+            data = SyntheticData.usaCounties(rows);
+        }
+    }
+
+    @Benchmark
+    public void fullGroupedList(FullGroupedRows state) throws IOException {
+        state.mapper.writeValue(OutputStream.nullOutputStream(), state.data);
+    }
+
+    @Benchmark
+    public void usaCountyList(UsaRows state) throws IOException {
+        state.mapper.writeValue(OutputStream.nullOutputStream(), state.data);
+    }
+}
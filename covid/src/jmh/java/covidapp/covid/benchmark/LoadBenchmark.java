@@ -0,0 +1,253 @@
+package covidapp.covid.benchmark;
+
+import covidapp.covid.CovidApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load Benchmark
+ *
+ * End-to-end HTTP load test comparing Tomcat on platform threads with Tomcat on
+ * virtual threads (spring.threads.virtual.enabled) while every request blocks on MySQL
+ *
+ * Not a JMH benchmark: JMH measures single methods, this starts the whole application
+ * (against the MySQL database configured in application.properties) once per mode and
+ * drives it over HTTP with closed-loop clients (each client sends its next request as
+ * soon as the previous one returns)
+ *
+ * Per mode and concurrency level:
+ * - warmup, then a timed run against GET /api/test/slow-query?millis=100 (SELECT SLEEP)
+ * - throughput (successful requests / second), p50 / p90 / p99 / max latency, errors
+ *
+ * Run (from the covid directory, MySQL running):
+ *   mvn -Pbenchmark -DskipTests test-compile exec:exec@load-benchmark
+ *   mvn -Pbenchmark -DskipTests test-compile exec:exec@load-benchmark \
+ *       -Dload.args="--levels=100,400,1600 --duration=30 --pool-size=400"
+ *
+ * Options (--name=value):
+ * - levels: Concurrent clients, one run each (default 50,100,200,400,800)
+ * - duration / warmup: Seconds per measured / warmup run (default 20 / 5)
+ * - path: Request path (default /api/test/slow-query?millis=100)
+ * - modes: platform, virtual or both (default platform,virtual)
+ * - pool-size: HikariCP maximum-pool-size for both modes (default 250, above the 200
+ *   Tomcat threads so the pool is not what limits the platform-thread run;
+ *   MySQL max_connections must allow it)
+ * - tomcat-threads: server.tomcat.threads.max for the platform run (default 200)
+ * - out: CSV file with all results (default target/load-benchmark.csv)
+ *
+ * Clients and server share one JVM, so compare runs made on the same machine only
+ */
+public final class LoadBenchmark {
+
+    private static final int[] DEFAULT_LEVELS = {50, 100, 200, 400, 800};
+
+    private LoadBenchmark() {
+    }
+
+    /**
+     * Result of one timed run
+     */
+    record Result(String mode, int clients, int seconds, long requests, long errors,
+                  double throughput, double p50, double p90, double p99, double max) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int[] levels = options.containsKey("levels")
+                ? Arrays.stream(options.get("levels").split(",")).mapToInt(s -> Integer.parseInt(s.trim())).toArray()
+                : DEFAULT_LEVELS;
+        int duration = Integer.parseInt(options.getOrDefault("duration", "20"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "5"));
+        String path = options.getOrDefault("path", "/api/test/slow-query?millis=100");
+        String poolSize = options.getOrDefault("pool-size", "250");
+        String tomcatThreads = options.getOrDefault("tomcat-threads", "200");
+        Path out = Path.of(options.getOrDefault("out", "target/load-benchmark.csv"));
+
+        List<Result> results = new ArrayList<>();
+        for (String mode : options.getOrDefault("modes", "platform,virtual").split(",")) {
+            boolean virtual = switch (mode.trim()) {
+                case "platform" -> false;
+                case "virtual" -> true;
+                default -> throw new IllegalArgumentException("Unknown mode: " + mode);
+            };
+            try (ConfigurableApplicationContext app = start(virtual, poolSize, tomcatThreads)) {
+                int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+                String url = "http://localhost:" + port + path;
+                System.out.printf("%n== %s threads (pool-size=%s, tomcat-threads=%s) %s%n",
+                        mode.trim(), poolSize, virtual ? "-" : tomcatThreads, url);
+                check(url);
+                for (int clients : levels) {
+                    run(url, mode.trim(), clients, warmup);
+                    Result result = run(url, mode.trim(), clients, duration);
+                    results.add(result);
+                    System.out.printf(Locale.ROOT, "%6d clients: %8.1f req/s  p50 %7.1f ms  p90 %7.1f ms  p99 %7.1f ms  max %7.1f ms  errors %d%n",
+                            clients, result.throughput(), result.p50(), result.p90(), result.p99(), result.max(), result.errors());
+                }
+            }
+        }
+        printComparison(results, levels);
+        write(out, results);
+        System.out.println("\nResults written to " + out.toAbsolutePath());
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtual, String poolSize, String tomcatThreads) {
+        // Passed as command-line arguments so they override application.properties
+        return new SpringApplicationBuilder(CovidApplication.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--server.tomcat.threads.max=" + tomcatThreads,
+                "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                "--app.test.slow-query.enabled=true",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN");
+    }
+
+    /**
+     * One request before the runs: fails fast on a wrong path or database, and shows which
+     * kind of thread served it (the slow-query endpoint reports it)
+     */
+    private static void check(String url) throws IOException, InterruptedException {
+        try (HttpClient http = HttpClient.newHttpClient()) {
+            HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(url)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("GET " + url + " returned " + response.statusCode() + ": " + response.body());
+            }
+            System.out.println("   " + response.body());
+        }
+    }
+
+    /**
+     * Closed-loop run: each client sends its next request as soon as the previous one returns
+     */
+    private static Result run(String url, String mode, int clients, int seconds) throws InterruptedException {
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(60)).GET().build();
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        long[][] latencies = new long[clients][];
+        int[] counts = new int[clients];
+        AtomicLong errors = new AtomicLong();
+
+        Thread[] threads = new Thread[clients];
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            threads[c] = Thread.ofVirtual().start(() -> {
+                long[] own = new long[1024];
+                int n = 0;
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                    } catch (IOException e) {
+                        errors.incrementAndGet();
+                        continue;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                    if (n == own.length) {
+                        own = Arrays.copyOf(own, n * 2);
+                    }
+                    own[n++] = System.nanoTime() - start;
+                }
+                latencies[client] = own;
+                counts[client] = n;
+            });
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        http.close();
+
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int c = 0; c < clients; c++) {
+            System.arraycopy(latencies[c], 0, all, offset, counts[c]);
+            offset += counts[c];
+        }
+        Arrays.sort(all);
+        return new Result(mode, clients, seconds, total, errors.get(), (double) total / seconds,
+                percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99),
+                total == 0 ? 0 : all[total - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double q) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(q * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static void printComparison(List<Result> results, int[] levels) {
+        System.out.printf("%n== virtual vs platform%n");
+        for (int clients : levels) {
+            Result platform = find(results, "platform", clients);
+            Result virtual = find(results, "virtual", clients);
+            if (platform == null || virtual == null) {
+                continue;
+            }
+            System.out.printf(Locale.ROOT, "%6d clients: throughput x%.2f  p99 %7.1f ms -> %7.1f ms%n", clients,
+                    platform.throughput() == 0 ? 0 : virtual.throughput() / platform.throughput(),
+                    platform.p99(), virtual.p99());
+        }
+    }
+
+    private static Result find(List<Result> results, String mode, int clients) {
+        return results.stream().filter(r -> r.mode().equals(mode) && r.clients() == clients).findFirst().orElse(null);
+    }
+
+    private static void write(Path out, List<Result> results) throws IOException {
+        if (out.getParent() != null) {
+            Files.createDirectories(out.getParent());
+        }
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(out))) {
+            writer.println("mode,clients,seconds,requests,errors,throughput,p50_ms,p90_ms,p99_ms,max_ms");
+            for (Result r : results) {
+                writer.printf(Locale.ROOT, "%s,%d,%d,%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f%n", r.mode(), r.clients(),
+                        r.seconds(), r.requests(), r.errors(), r.throughput(), r.p50(), r.p90(), r.p99(), r.max());
+            }
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+}
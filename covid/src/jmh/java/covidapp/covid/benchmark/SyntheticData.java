@@ -0,0 +1,137 @@
+package covidapp.covid.benchmark;
+
+import covidapp.covid.entity.CountryWiseLatest;
+import covidapp.covid.entity.CovidKey;
+import covidapp.covid.entity.FullGrouped;
+import covidapp.covid.entity.UsaCountryWise;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic Data
+ *
+ * Deterministic (fixed seed) datasets shaped like the real CSV files, so
+ * benchmark runs are comparable between commits without a database
+ *
+ * Real sizes for reference:
+ * - country_wise_latest: 187 rows
+ * - full_grouped: 35,156 rows (187 countries x 188 days)
+ * - covid_19_clean_complete: 49,068 rows (261 locations x 188 days)
+ * - usa_county_wise: 627,920 rows (3,340 counties x 188 days)
+ */
+final class SyntheticData {
+
+    static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 22);
+
+    private static final DateTimeFormatter US_DATE = DateTimeFormatter.ofPattern("M/d/yy");
+    private static final String[] REGIONS = {
+            "Africa", "Americas", "Eastern Mediterranean", "Europe", "South-East Asia", "Western Pacific"};
+    private static final long SEED = 20200122L;
+
+    private SyntheticData() {
+    }
+
+    static List<CountryWiseLatest> countries(int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<CountryWiseLatest> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            CountryWiseLatest row = new CountryWiseLatest();
+            int confirmed = random.nextInt(1, 5_000_000);
+            int deaths = random.nextInt(0, confirmed / 10 + 1);
+            // About 5% of countries report no recoveries (ratio undefined)
+            int recovered = random.nextInt(20) == 0 ? 0 : random.nextInt(0, confirmed - deaths + 1);
+            row.setCountry("Country " + i);
+            row.setConfirmed(confirmed);
+            row.setDeaths(deaths);
+            row.setRecovered(recovered);
+            row.setActive(confirmed - deaths - recovered);
+            row.setNewCases(random.nextInt(0, 10_000));
+            row.setWhoRegion(REGIONS[i % REGIONS.length]);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    static List<FullGrouped> fullGrouped(int rows) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        int countries = 187;
+        List<FullGrouped> result = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            FullGrouped row = new FullGrouped();
+            row.setDate(FIRST_DAY.plusDays(i / countries));
+            row.setCountryRegion("Country " + (i % countries));
+            row.setConfirmed(random.nextInt(0, 4_000_000));
+            row.setDeaths(random.nextInt(0, 150_000));
+            row.setRecovered(random.nextInt(0, 2_000_000));
+            row.setActive(random.nextInt(0, 2_000_000));
+            row.setNewCases(random.nextInt(0, 70_000));
+            row.setNewDeaths(random.nextInt(0, 2_000));
+            row.setNewRecovered(random.nextInt(0, 50_000));
+            row.setWhoRegion(REGIONS[(i % countries) % REGIONS.length]);
+            result.add(row);
+        }
+        return result;
+    }
+
+    static List<UsaCountryWise> usaCounties(int rows) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        int counties = 3340;
+        List<UsaCountryWise> result = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            int county = i % counties;
+            LocalDate day = FIRST_DAY.plusDays(i / counties);
+            UsaCountryWise row = new UsaCountryWise();
+            row.setUid(84000000L + i);
+            row.setIso2("US");
+            row.setIso3("USA");
+            row.setCode3(840);
+            row.setFips(1000 + county);
+            row.setAdmin2("County " + county);
+            row.setProvinceState("State " + county % 58);
+            row.setCountryRegion("US");
+            row.setLatitude(25 + random.nextDouble() * 24);
+            row.setLongitude(-124 + random.nextDouble() * 57);
+            row.setCombinedKey(row.getAdmin2() + ", " + row.getProvinceState() + ", US");
+            row.setDate(day.format(US_DATE));
+            row.setReportDate(day);
+            row.setConfirmed(random.nextInt(0, 100_000));
+            row.setDeaths(random.nextInt(0, 2_000));
+            result.add(row);
+        }
+        return result;
+    }
+
+    static List<CovidKey> cleanCompleteKeys(int rows) {
+        int locations = 261;
+        List<CovidKey> keys = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            int location = i % locations;
+            // About a third of the locations have a province, the rest use ""
+            String province = location % 3 == 0 ? "Province " + location : "";
+            keys.add(new CovidKey(province, "Country " + location / 2, FIRST_DAY.plusDays(i / locations).toString()));
+        }
+        return keys;
+    }
+
+    /**
+     * In-memory stand-in for a Spring Data repository
+     * findAll returns the given rows, save returns its argument, anything else is unsupported
+     */
+    @SuppressWarnings("unchecked")
+    static <R> R repository(Class<R> type, List<?> rows) {
+        return (R) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) ->
+                switch (method.getName()) {
+                    case "findAll" -> new ArrayList<>(rows);
+                    case "save" -> args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> type.getSimpleName() + "(synthetic)";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
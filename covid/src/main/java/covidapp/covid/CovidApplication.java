@@ -1,13 +1,20 @@
 package covidapp.covid;
 
+import covidapp.covid.ingest.CsvIngestRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
 
 @SpringBootApplication
 public class CovidApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(CovidApplication.class, args);
+		ConfigurableApplicationContext context = SpringApplication.run(CovidApplication.class, args);
+
+		// Command-line CSV load (--ingest.dataset=...): shut down and exit with its result
+		if (context.getBean(CsvIngestRunner.class).hasRun()) {
+			System.exit(SpringApplication.exit(context));
+		}
 	}
 
 }
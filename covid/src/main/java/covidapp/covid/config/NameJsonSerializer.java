@@ -0,0 +1,50 @@
+package covidapp.covid.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import covidapp.covid.service.NameDictionary;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.IOException;
+
+/**
+ * Name JSON Serializer
+ *
+ * Writes country, province/state, WHO region and continent names from the shared
+ * NameDictionary: a known name is written as its pre-encoded SerializedString
+ * (quoted and UTF-8 encoded once per name, not once per row)
+ *
+ * Usage: @JsonSerialize(using = NameJsonSerializer.class) on the name fields
+ *
+ * Created by Spring's Jackson setup, which injects the dictionary; names are only looked
+ * up here (find), never added: the dictionary is filled by load and ingest, so response
+ * values cannot use up its size limit
+ * An ObjectMapper built outside Spring uses the no-argument constructor and writes
+ * plain strings, so the JSON is the same either way
+ */
+public class NameJsonSerializer extends StdSerializer<String> {
+
+    private final NameDictionary dictionary;
+
+    public NameJsonSerializer() {
+        this(null);
+    }
+
+    @Autowired
+    public NameJsonSerializer(NameDictionary dictionary) {
+        super(String.class);
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public void serialize(String value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        SerializedString encoded = dictionary != null ? dictionary.serialized(dictionary.find(value)) : null;
+        if (encoded != null) {
+            gen.writeString(encoded);
+        } else {
+            gen.writeString(value);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package covidapp.covid.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Response Size Metrics Filter
+ *
+ * Records the body size of every response as the "http.server.response.size"
+ * distribution (bytes), tagged like http.server.requests:
+ * - method: GET, POST, ...
+ * - uri: the matched route template (e.g. /api/fullgrouped/country/{name}), UNKNOWN if none matched
+ * - status: HTTP status code
+ *
+ * Bytes are counted as the application writes them (before any compression by the server),
+ * so chunked and streamed responses are measured too
+ * Async responses (e.g. /api/clean/export) are recorded once, when the async request
+ * completes, times out or fails (whichever comes first)
+ */
+@Component
+public class ResponseSizeMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry registry;
+
+    /**
+     * Constructor - Dependency injection
+     * Spring automatically injects the MeterRegistry
+     */
+    public ResponseSizeMetricsFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        CountingResponse counting = new CountingResponse(response);
+        try {
+            filterChain.doFilter(request, counting);
+        } finally {
+            if (request.isAsyncStarted()) {
+                AtomicBoolean recorded = new AtomicBoolean();
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        recordOnce();
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                        recordOnce();
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                        recordOnce();
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                        // A restarted async cycle drops its listeners - stay registered
+                        event.getAsyncContext().addListener(this);
+                    }
+
+                    // onComplete also follows a timeout or error, so only the first event counts
+                    private void recordOnce() {
+                        if (recorded.compareAndSet(false, true)) {
+                            record(request, counting);
+                        }
+                    }
+                });
+            } else {
+                record(request, counting);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, CountingResponse response) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder("http.server.response.size")
+                .description("Response body size")
+                .baseUnit("bytes")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                .tag("status", String.valueOf(response.getStatus()))
+                .register(registry)
+                .record(response.bytes.sum());
+    }
+
+    /**
+     * Response wrapper that counts the bytes written to the body
+     */
+    private static class CountingResponse extends HttpServletResponseWrapper {
+
+        private final LongAdder bytes = new LongAdder();
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new CountingOutputStream(super.getOutputStream(), bytes);
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new CountingWriter(super.getWriter(), Charset.forName(getCharacterEncoding()), bytes);
+            }
+            return writer;
+        }
+    }
+
+    /**
+     * Writer that passes text straight through (no extra buffering) and counts its encoded size
+     *
+     * The size is computed from the characters without encoding a copy of them:
+     * - UTF-8: 1 to 3 bytes per char by code range, 4 per surrogate pair
+     * - ISO-8859-1 / US-ASCII: 1 byte per char
+     * - Other charsets: encoded into a small reused buffer that is only measured
+     */
+    private static class CountingWriter extends PrintWriter {
+
+        private final LongAdder bytes;
+        private final boolean utf8;
+        private final boolean singleByte;
+        private final CharsetEncoder encoder;
+        private ByteBuffer scratch;
+
+        // View of the last char passed to write(int)
+        private final char[] single = new char[1];
+        private final CharBuffer singleView = CharBuffer.wrap(single);
+
+        CountingWriter(PrintWriter delegate, Charset charset, LongAdder bytes) {
+            super(delegate);
+            this.bytes = bytes;
+            this.utf8 = charset.equals(StandardCharsets.UTF_8);
+            this.singleByte = charset.equals(StandardCharsets.ISO_8859_1) || charset.equals(StandardCharsets.US_ASCII);
+            this.encoder = utf8 || singleByte ? null : charset.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+
+        @Override
+        public void write(int c) {
+            super.write(c);
+            single[0] = (char) c;
+            // One half of a surrogate pair written char by char: 2 of the pair's 4 UTF-8 bytes
+            bytes.add(utf8 && Character.isSurrogate(single[0]) ? 2 : encodedLength(singleView, 0, 1));
+        }
+
+        @Override
+        public void write(char[] buf, int off, int len) {
+            super.write(buf, off, len);
+            bytes.add(encodedLength(CharBuffer.wrap(buf), off, len));
+        }
+
+        @Override
+        public void write(String s, int off, int len) {
+            super.write(s, off, len);
+            bytes.add(encodedLength(s, off, len));
+        }
+
+        private long encodedLength(CharSequence chars, int off, int len) {
+            if (singleByte) {
+                return len;
+            }
+            if (utf8) {
+                long length = 0;
+                int end = off + len;
+                for (int i = off; i < end; i++) {
+                    char c = chars.charAt(i);
+                    if (c < 0x80) {
+                        length++;
+                    } else if (c < 0x800) {
+                        length += 2;
+                    } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(chars.charAt(i + 1))) {
+                        length += 4;
+                        i++;
+                    } else if (Character.isSurrogate(c)) {
+                        length++; // unpaired surrogate, encoded as '?'
+                    } else {
+                        length += 3;
+                    }
+                }
+                return length;
+            }
+            // Writes come from one thread per response, so the encoder and buffer can be reused
+            if (scratch == null) {
+                scratch = ByteBuffer.allocate(1024);
+            }
+            CharBuffer in = CharBuffer.wrap(chars, off, off + len);
+            encoder.reset();
+            long length = 0;
+            CoderResult result;
+            do {
+                scratch.clear();
+                result = encoder.encode(in, scratch, true);
+                length += scratch.position();
+            } while (result.isOverflow());
+            do {
+                scratch.clear();
+                result = encoder.flush(scratch);
+                length += scratch.position();
+            } while (result.isOverflow());
+            return length;
+        }
+    }
+
+    private static class CountingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+        private final LongAdder bytes;
+
+        CountingOutputStream(ServletOutputStream delegate, LongAdder bytes) {
+            this.delegate = delegate;
+            this.bytes = bytes;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            bytes.increment();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            bytes.add(len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            delegate.setWriteListener(listener);
+        }
+    }
+}
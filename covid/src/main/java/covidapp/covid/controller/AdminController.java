@@ -0,0 +1,101 @@
+package covidapp.covid.controller;
+
+import covidapp.covid.dataset.Dataset;
+import covidapp.covid.dto.AuditReport;
+import covidapp.covid.dto.IngestReport;
+import covidapp.covid.ingest.CsvIngestService;
+import covidapp.covid.service.OtpEmailOutbox;
+import covidapp.covid.service.ReconciliationAudit;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+
+/**
+ * Admin Controller
+ *
+ * Operational endpoints for monitoring and loading the application
+ *
+ * Base URL: /api/admin
+ *
+ * Endpoints:
+ * - GET /email-outbox - OTP email outbox metrics (queue depth, delivery counts, latency)
+ * - POST /ingest/{dataset} - Bulk-load a CSV file into a dataset table
+ * - GET /audit - Cross-dataset reconciliation report
+ */
+@RestController
+@RequestMapping("/api/admin")
+@CrossOrigin(origins = "*", allowedHeaders = "*", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.OPTIONS})
+public class AdminController {
+
+    // Outbox that delivers OTP emails in the background
+    private final OtpEmailOutbox otpEmailOutbox;
+
+    // Bulk CSV loader
+    private final CsvIngestService ingestService;
+
+    // Cross-dataset consistency checks
+    private final ReconciliationAudit audit;
+
+    /**
+     * Constructor - Dependency injection
+     * Spring automatically injects OtpEmailOutbox, CsvIngestService and ReconciliationAudit
+     */
+    public AdminController(OtpEmailOutbox otpEmailOutbox, CsvIngestService ingestService,
+                           ReconciliationAudit audit) {
+        this.otpEmailOutbox = otpEmailOutbox;
+        this.ingestService = ingestService;
+        this.audit = audit;
+    }
+
+    /**
+     * Get OTP Email Outbox Metrics
+     *
+     * GET /api/admin/email-outbox
+     *
+     * @return Queue depth, capacity, enqueued/delivered/failed/rejected/retry counts and delivery latency
+     */
+    @GetMapping("/email-outbox")
+    public OtpEmailOutbox.OutboxStats getEmailOutboxStats() {
+        return otpEmailOutbox.stats();
+    }
+
+    /**
+     * Bulk-Load a CSV File
+     *
+     * POST /api/admin/ingest/{dataset}?mode=replace
+     * Body: the raw CSV file (e.g. curl --data-binary @usa_county_wise.csv -H "Content-Type: text/csv")
+     *
+     * The body is streamed straight into the ingest pipeline (never held in memory as a whole)
+     *
+     * @param dataset Table name, e.g. usa_county_wise, full_grouped, worldometer
+     * @param mode "replace" (default) swaps in the new rows atomically, "append" keeps existing rows
+     * @param body Request body stream
+     * @return Report with rows inserted/rejected, first errors and rows/sec
+     */
+    @PostMapping("/ingest/{dataset}")
+    public IngestReport ingest(@PathVariable String dataset,
+                               @RequestParam(defaultValue = "replace") String mode,
+                               InputStream body) {
+        boolean replace = switch (mode.trim().toLowerCase()) {
+            case "replace" -> true;
+            case "append" -> false;
+            default -> throw new IllegalArgumentException("mode must be replace or append");
+        };
+        return ingestService.ingest(Dataset.from(dataset), body, replace);
+    }
+
+    /**
+     * Run the Reconciliation Audit
+     *
+     * GET /api/admin/audit
+     *
+     * Compares day_wise, country_wise_latest, covid_19_clean_complete, usa_county_wise and
+     * worldometer against full_grouped (409 if an audit is already running)
+     *
+     * @return Discrepancy counts and samples per check
+     */
+    @GetMapping("/audit")
+    public AuditReport audit() {
+        return audit.run();
+    }
+}
@@ -2,7 +2,10 @@ package covidapp.covid.controller;
 
 import covidapp.covid.entity.User;
 import covidapp.covid.repository.UserRepository;
-import covidapp.covid.service.EmailService;
+import covidapp.covid.service.LoginRateLimiter;
+import covidapp.covid.service.OtpEmailOutbox;
+import covidapp.covid.service.SessionTokenService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -28,6 +31,7 @@ import java.util.concurrent.ConcurrentHashMap;
  * - Session token generation for secure authentication
  * - Session expiration based on configurable timeout
  * - Single session per user (new login invalidates old session)
+ * - Login and OTP attempts are rate limited per username and per client IP (429 + Retry-After)
  */
 @RestController
 @RequestMapping("/api/auth")
@@ -37,8 +41,14 @@ public class AuthController {
     // Repository for database operations on User entity
     private final UserRepository userRepository;
     
-    // Service for sending OTP emails
-    private final EmailService emailService;
+    // Outbox that sends OTP emails asynchronously (login does not wait for SMTP)
+    private final OtpEmailOutbox otpEmailOutbox;
+
+    // Issues stateless signed session tokens (when app.session.token.mode=signed)
+    private final SessionTokenService sessionTokenService;
+
+    // Token buckets for login and OTP attempts
+    private final LoginRateLimiter rateLimiter;
     
     // Temporary storage for pending OTPs (username -> OTP)
     // Uses ConcurrentHashMap for thread-safe operations
@@ -50,11 +60,14 @@ public class AuthController {
 
     /**
      * Constructor - Dependency injection
-     * Spring automatically injects UserRepository and EmailService
+     * Spring automatically injects UserRepository, OtpEmailOutbox, SessionTokenService and LoginRateLimiter
      */
-    public AuthController(UserRepository userRepository, EmailService emailService) {
+    public AuthController(UserRepository userRepository, OtpEmailOutbox otpEmailOutbox,
+                          SessionTokenService sessionTokenService, LoginRateLimiter rateLimiter) {
         this.userRepository = userRepository;
-        this.emailService = emailService;
+        this.otpEmailOutbox = otpEmailOutbox;
+        this.sessionTokenService = sessionTokenService;
+        this.rateLimiter = rateLimiter;
     }
 
     /**
@@ -106,18 +119,24 @@ public class AuthController {
      * This is the first step of two-factor authentication
      * 
      * @param request User object containing username and password
+     * @param httpRequest Servlet request (client IP for rate limiting)
      * @return ResponseEntity with success message and username, or error message
      * 
      * Process:
-     * 1. Validates username and password are provided
-     * 2. Finds user in database by username
-     * 3. Verifies password matches
-     * 4. Generates 6-digit OTP and stores it temporarily
-     * 5. Sends OTP to user's email address
-     * 6. Returns success message (user must verify OTP in next step)
+     * 1. Takes a rate-limit token for the username and client IP (429 if either is exhausted)
+     * 2. Validates username and password are provided
+     * 3. Finds user in database by username
+     * 4. Verifies password matches
+     * 5. Generates 6-digit OTP and stores it temporarily
+     * 6. Queues the OTP email in the outbox (sent asynchronously); if the outbox is full,
+     *    restores the previously sent OTP and returns 503
+     * 7. Returns success message (user must verify OTP in next step)
      */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody User request) {
+    public ResponseEntity<?> login(@RequestBody User request, HttpServletRequest httpRequest) {
+        // Throttle before any database lookup or email
+        rateLimiter.acquire(LoginRateLimiter.Endpoint.LOGIN, request.getUsername(), httpRequest.getRemoteAddr());
+
         // Validate required fields
         if (request.getUsername() == null || request.getPassword() == null) {
             return ResponseEntity.badRequest().body("Username and password are required");
@@ -131,15 +150,19 @@ public class AuthController {
                     String otp = String.format("%06d", new Random().nextInt(1_000_000));
                     
                     // Store OTP temporarily (will be removed after verification or expiration)
-                    pendingOtps.put(user.getUsername(), otp);
-
-                    // Send OTP to user's email address
-                    try {
-                        emailService.sendOtpEmail(user.getEmail(), otp);
-                    } catch (Exception e) {
-                        System.err.println("Failed to send OTP email: " + e.getMessage());
-                        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                                .body("Failed to send OTP email. Please try again.");
+                    // Stored before queueing, so the email can never arrive before its OTP is known
+                    String previousOtp = pendingOtps.put(user.getUsername(), otp);
+
+                    // Queue OTP email for asynchronous delivery (retried in the background)
+                    if (!otpEmailOutbox.enqueue(user.getEmail(), otp)) {
+                        // Not sent: the OTP emailed earlier stays valid (unless a newer login replaced ours)
+                        if (previousOtp != null) {
+                            pendingOtps.replace(user.getUsername(), otp, previousOtp);
+                        } else {
+                            pendingOtps.remove(user.getUsername(), otp);
+                        }
+                        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .body("Too many pending OTP emails. Please try again shortly.");
                     }
 
                     // Return success response
@@ -162,25 +185,32 @@ public class AuthController {
      * Creates a session token and sets expiration time
      * 
      * @param request Map containing username and otp
+     * @param httpRequest Servlet request (client IP for rate limiting)
      * @return ResponseEntity with session token and username, or error message
      * 
      * Process:
-     * 1. Validates username and OTP are provided
-     * 2. Retrieves expected OTP from temporary storage
-     * 3. Compares provided OTP with expected OTP
-     * 4. If valid:
+     * 1. Takes a rate-limit token for the username and client IP (429 if either is exhausted,
+     *    which caps OTP guesses per user)
+     * 2. Validates username and OTP are provided
+     * 3. Retrieves expected OTP from temporary storage
+     * 4. Compares provided OTP with expected OTP
+     * 5. If valid:
      *    - Removes OTP from temporary storage
-     *    - Generates unique session token (UUID)
      *    - Calculates session expiration time (current time + timeout)
-     *    - Updates user in database with session token and expiry
-     *    - This automatically invalidates any previous sessions (single session feature)
-     * 5. Returns session token to frontend for authentication
+     *    - Signed mode: issues an HMAC-signed token carrying username and expiry
+     *      (no database write; older tokens of the user are revoked in memory)
+     *    - Database mode: generates a UUID token and stores it with the expiry on the user row
+     *    - Either way any previous session is invalidated (single session feature)
+     * 6. Returns session token to frontend for authentication
      */
     @PostMapping("/verify-otp")
-    public ResponseEntity<?> verifyOtp(@RequestBody Map<String, String> request) {
+    public ResponseEntity<?> verifyOtp(@RequestBody Map<String, String> request, HttpServletRequest httpRequest) {
         String username = request.get("username");
         String otp = request.get("otp");
 
+        // Throttle OTP guesses
+        rateLimiter.acquire(LoginRateLimiter.Endpoint.VERIFY_OTP, username, httpRequest.getRemoteAddr());
+
         // Validate required fields
         if (username == null || otp == null) {
             return ResponseEntity.badRequest().body("Username and OTP are required");
@@ -194,20 +224,26 @@ public class AuthController {
             // Remove OTP from temporary storage (one-time use)
             pendingOtps.remove(username);
 
-            // Generate unique session token using UUID (e.g., "a1b2c3d4-e5f6-7890-abcd-ef1234567890")
-            String sessionToken = UUID.randomUUID().toString();
-            
             // Calculate when this session will expire
             // Current time in milliseconds + (timeout minutes * 60 seconds * 1000 milliseconds)
             long expiryTime = System.currentTimeMillis() + (sessionTimeoutMinutes * 60 * 1000L);
-            
-            // Update user in database with new session token and expiry time
-            // This automatically invalidates any previous sessions (single session per user)
-            userRepository.findByUsername(username).ifPresent(user -> {
-                user.setSessionToken(sessionToken);
-                user.setSessionExpiryTime(expiryTime);
-                userRepository.save(user);
-            });
+
+            String sessionToken;
+            if (sessionTokenService.isSignedMode()) {
+                // Stateless token - validate-session checks the signature, no database needed
+                sessionToken = sessionTokenService.issue(username, expiryTime);
+            } else {
+                // Generate unique session token using UUID (e.g., "a1b2c3d4-e5f6-7890-abcd-ef1234567890")
+                sessionToken = UUID.randomUUID().toString();
+
+                // Update user in database with new session token and expiry time
+                // This automatically invalidates any previous sessions (single session per user)
+                userRepository.findByUsername(username).ifPresent(user -> {
+                    user.setSessionToken(sessionToken);
+                    user.setSessionExpiryTime(expiryTime);
+                    userRepository.save(user);
+                });
+            }
 
             // Return success response with session token
             Map<String, Object> response = new HashMap<>();
@@ -1,8 +1,13 @@
 package covidapp.covid.controller;
    
+import covidapp.covid.dataset.Dataset;
 import covidapp.covid.entity.CountryWiseLatest;
 import covidapp.covid.service.CountryWiseService;
+import covidapp.covid.service.DatasetVersions;
+import covidapp.covid.service.ResponseSnapshots;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 
@@ -16,10 +21,13 @@ import java.util.List;
  * 
  * Endpoints:
  * - GET /all - Get all countries
+ * - GET /alerts - Get red-alert countries only
  * - GET /{country} - Get specific country by name
  * - POST /add - Add new country data
  * - PUT /{country} - Update existing country data
  * - DELETE /{country} - Delete country data
+ *
+ * List endpoints send an ETag and answer 304 when the client copy is current
  */
 @RestController
 @RequestMapping("/api/country")
@@ -29,12 +37,21 @@ public class CountryWiseController {
     // Service layer for business logic
     private final CountryWiseService service;
 
+    // Dataset version counters for ETag (304 without reading data)
+    private final DatasetVersions versions;
+
+    // Pre-serialized JSON (identity / gzip) for the full list
+    private final ResponseSnapshots snapshots;
+
     /**
      * Constructor - Dependency injection
-     * Spring automatically injects CountryWiseService
+     * Spring automatically injects CountryWiseService, DatasetVersions and ResponseSnapshots
      */
-    public CountryWiseController(CountryWiseService service) {
+    public CountryWiseController(CountryWiseService service, DatasetVersions versions,
+                                 ResponseSnapshots snapshots) {
         this.service = service;
+        this.versions = versions;
+        this.snapshots = snapshots;
     }
 
     /**
@@ -45,12 +62,40 @@ public class CountryWiseController {
      * Retrieves all country-wise COVID-19 data
      * Each country includes red alert status calculation
      * 
-     * @return List of all countries with their COVID-19 statistics
+     * @return List of all countries with their COVID-19 statistics (empty 304 if unchanged)
      */
     @GetMapping("/all")
-    public List<CountryWiseLatest> getAll() {
-        // Service handles fetching and red alert calculation
-        return service.getAll();
+    public ResponseEntity<?> getAll(ServletWebRequest request) {
+        if (snapshots.checkNotModified(request, Dataset.COUNTRY_WISE_LATEST)) {
+            return null;
+        }
+        ResponseEntity<byte[]> snapshot = snapshots.serve(request, Dataset.COUNTRY_WISE_LATEST);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        // Service handles fetching; red alert status is stored on each row
+        return ResponseEntity.ok(service.getAll());
+    }
+
+    /**
+     * Get Red Alert Countries
+     *
+     * GET /api/country/alerts
+     * GET /api/country/alerts?threshold=0.2
+     *
+     * Returns only countries whose deaths:recovered ratio is above the threshold
+     * Served by an indexed query, highest ratio first
+     *
+     * @param threshold Optional ratio to use instead of the configured app.country.red-alert-threshold
+     * @return Red-alert countries
+     */
+    @GetMapping("/alerts")
+    public List<CountryWiseLatest> getAlerts(@RequestParam(required = false) Double threshold,
+                                             ServletWebRequest request) {
+        if (versions.checkNotModified(request, Dataset.COUNTRY_WISE_LATEST)) {
+            return null;
+        }
+        return service.getAlerts(threshold);
     }
 
     /**
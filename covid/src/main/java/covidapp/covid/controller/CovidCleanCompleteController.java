@@ -1,9 +1,17 @@
 package covidapp.covid.controller;
 
+import covidapp.covid.dataset.Dataset;
 import covidapp.covid.entity.CovidCleanComplete;
 import covidapp.covid.entity.CovidKey;
+import covidapp.covid.service.CovidCleanCompleteExporter;
 import covidapp.covid.service.CovidCleanCompleteService;
+import covidapp.covid.service.DatasetVersions;
+import covidapp.covid.service.ResponseSnapshots;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -14,13 +22,74 @@ public class CovidCleanCompleteController {
 
     private final CovidCleanCompleteService service;
 
-    public CovidCleanCompleteController(CovidCleanCompleteService service) {
+    // Entity-free JDBC -> JSON streaming for full-table exports
+    private final CovidCleanCompleteExporter exporter;
+
+    // Dataset version counters for ETag (304 without reading data)
+    private final DatasetVersions versions;
+
+    // Pre-serialized JSON (identity / gzip) for the full list
+    private final ResponseSnapshots snapshots;
+
+    public CovidCleanCompleteController(CovidCleanCompleteService service, CovidCleanCompleteExporter exporter,
+                                        DatasetVersions versions, ResponseSnapshots snapshots) {
         this.service = service;
+        this.exporter = exporter;
+        this.versions = versions;
+        this.snapshots = snapshots;
     }
 
     @GetMapping("/all")
-    public List<CovidCleanComplete> getAll() {
-        return service.getAll();
+    public ResponseEntity<?> getAll(ServletWebRequest request) {
+        if (snapshots.checkNotModified(request, Dataset.COVID_19_CLEAN_COMPLETE)) {
+            return null;
+        }
+        ResponseEntity<byte[]> snapshot = snapshots.serve(request, Dataset.COVID_19_CLEAN_COMPLETE);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        return ResponseEntity.ok(service.getAll());
+    }
+
+    /**
+     * Bounding Box Query
+     *
+     * GET /api/clean/bbox?minLat=35&maxLat=47&minLon=6&maxLon=19&date=2020-04-01
+     *
+     * Map viewports fetch only the visible points, answered from an in-memory grid
+     * (minLon > maxLon selects a box crossing the antimeridian)
+     *
+     * @param date yyyy-MM-dd; omit for the latest date in the dataset
+     * @return Rows of that date inside the box, ordered by country, then province (empty 304 if unchanged)
+     */
+    @GetMapping("/bbox")
+    public List<CovidCleanComplete> getInBox(@RequestParam double minLat, @RequestParam double maxLat,
+                                             @RequestParam double minLon, @RequestParam double maxLon,
+                                             @RequestParam(required = false) String date,
+                                             ServletWebRequest request) {
+        if (versions.checkNotModified(request, Dataset.COVID_19_CLEAN_COMPLETE)) {
+            return null;
+        }
+        return service.getInBox(minLat, maxLat, minLon, maxLon, date);
+    }
+
+    /**
+     * Streaming Export
+     *
+     * GET /api/clean/export?format=ndjson|json
+     *
+     * Same rows as /all, but written to the response as they are read from JDBC
+     * (memory use stays flat regardless of table size)
+     *
+     * @param format "ndjson" (default, one object per line) or "json" (chunked JSON array)
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(required = false) String format) {
+        CovidCleanCompleteExporter.Format exportFormat = CovidCleanCompleteExporter.Format.from(format);
+        StreamingResponseBody body = out -> exporter.export(out, exportFormat);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .body(body);
     }
 
     // GET by Composite Key
@@ -1,11 +1,16 @@
 package covidapp.covid.controller;
 
+import covidapp.covid.dataset.Dataset;
+import covidapp.covid.dto.RollingWindowPoint;
 import covidapp.covid.entity.DayWise;
+import covidapp.covid.service.DatasetVersions;
 import covidapp.covid.service.DayWiseService;
+import covidapp.covid.service.ResponseSnapshots;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.time.LocalDate;
 import java.util.HashMap;
@@ -19,12 +24,27 @@ public class DayWiseController {
 
     private final DayWiseService service;
 
-    public DayWiseController(DayWiseService service) {
+    // Dataset version counters for ETag (304 without reading data)
+    private final DatasetVersions versions;
+
+    // Pre-serialized JSON (identity / gzip) for the full list
+    private final ResponseSnapshots snapshots;
+
+    public DayWiseController(DayWiseService service, DatasetVersions versions, ResponseSnapshots snapshots) {
         this.service = service;
+        this.versions = versions;
+        this.snapshots = snapshots;
     }
 
     @GetMapping
-    public ResponseEntity<?> getAll() {
+    public ResponseEntity<?> getAll(ServletWebRequest request) {
+        if (snapshots.checkNotModified(request, Dataset.DAY_WISE)) {
+            return null;
+        }
+        ResponseEntity<byte[]> snapshot = snapshots.serve(request, Dataset.DAY_WISE);
+        if (snapshot != null) {
+            return snapshot;
+        }
         try {
             List<DayWise> data = service.getAll();
             return ResponseEntity.ok(data);
@@ -36,6 +56,26 @@ public class DayWiseController {
         }
     }
 
+    /**
+     * Rolling-Window Analytics
+     *
+     * GET /api/daywise/analytics?window=7
+     *
+     * Moving averages of new cases/deaths, daily growth rate and doubling time of
+     * confirmed cases for every day, maintained incrementally on the server
+     *
+     * @param window Window length in days (default 7; see app.daywise.analytics.windows)
+     * @return One point per day, ordered by date (empty 304 if unchanged)
+     */
+    @GetMapping("/analytics")
+    public List<RollingWindowPoint> getAnalytics(@RequestParam(defaultValue = "7") int window,
+                                                 ServletWebRequest request) {
+        if (versions.checkNotModified(request, Dataset.DAY_WISE)) {
+            return null;
+        }
+        return service.getAnalytics(window);
+    }
+
     @GetMapping("/{id}")
     public DayWise getById(@PathVariable Long id) {
         return service.getById(id);
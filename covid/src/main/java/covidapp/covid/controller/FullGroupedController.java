@@ -1,10 +1,19 @@
 package covidapp.covid.controller;
 
+import covidapp.covid.dataset.Dataset;
+import covidapp.covid.dto.BulkWriteReport;
+import covidapp.covid.dto.PerCapitaSeries;
+import covidapp.covid.dto.RollupPoint;
 import covidapp.covid.entity.FullGrouped;
+import covidapp.covid.entity.FullGroupedId;
+import covidapp.covid.service.DatasetVersions;
 import covidapp.covid.service.FullGroupedService;
+import covidapp.covid.service.PerCapitaService;
+import covidapp.covid.service.ResponseSnapshots;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.time.LocalDate;
 import java.util.HashMap;
@@ -24,10 +33,19 @@ import java.util.Map;
  * - GET /country/{name} - Get all data for a country
  * - GET /date/{date} - Get all data for a specific date
  * - GET /region/{region} - Get all data for a WHO region
+ * - GET /rollup?granularity=week&country=India - Weekly or monthly totals for a country,
+ *   a WHO region (whoRegion=...) or the world (neither)
+ * - GET /per-capita/{country} - Daily series per 100,000 people (worldometer population)
+ * - GET /per-capita/populations - Which worldometer population each country was matched to
  * - GET /{date}/{country} - Get specific record by date and country
  * - POST / - Create new full grouped data
  * - PUT /{date}/{country} - Update existing data
  * - DELETE /{date}/{country} - Delete data
+ * - POST /bulk - Create many rows in one transaction (existing keys are reported, not overwritten)
+ * - PUT /bulk - Insert or update many rows in one transaction
+ * - DELETE /bulk - Delete many rows by key (body: [{"date": ..., "countryRegion": ...}])
+ *
+ * List endpoints send an ETag and answer 304 when the client copy is current
  */
 @RestController
 @RequestMapping("/api/fullgrouped")
@@ -37,16 +55,37 @@ public class FullGroupedController {
     // Service layer for business logic
     private final FullGroupedService service;
 
+    // Dataset version counters for ETag (304 without reading data)
+    private final DatasetVersions versions;
+
+    // Pre-serialized JSON (identity / gzip) for the full list
+    private final ResponseSnapshots snapshots;
+
+    // Cached per-capita series (full_grouped joined with worldometer population)
+    private final PerCapitaService perCapitaService;
+
     /**
      * Constructor - Dependency injection
-     * Spring automatically injects FullGroupedService
+     * Spring automatically injects FullGroupedService, DatasetVersions, ResponseSnapshots
+     * and PerCapitaService
      */
-    public FullGroupedController(FullGroupedService service) {
+    public FullGroupedController(FullGroupedService service, DatasetVersions versions,
+                                 ResponseSnapshots snapshots, PerCapitaService perCapitaService) {
         this.service = service;
+        this.versions = versions;
+        this.snapshots = snapshots;
+        this.perCapitaService = perCapitaService;
     }
 
     @GetMapping("/all")
-    public ResponseEntity<?> getAll() {
+    public ResponseEntity<?> getAll(ServletWebRequest request) {
+        if (snapshots.checkNotModified(request, Dataset.FULL_GROUPED)) {
+            return null;
+        }
+        ResponseEntity<byte[]> snapshot = snapshots.serve(request, Dataset.FULL_GROUPED);
+        if (snapshot != null) {
+            return snapshot;
+        }
         try {
             List<FullGrouped> data = service.getAll();
             return ResponseEntity.ok(data);
@@ -59,20 +98,57 @@ public class FullGroupedController {
     }
 
     @GetMapping("/country/{name}")
-    public List<FullGrouped> getByCountry(@PathVariable String name) {
+    public List<FullGrouped> getByCountry(@PathVariable String name, ServletWebRequest request) {
+        if (versions.checkNotModified(request, Dataset.FULL_GROUPED)) {
+            return null;
+        }
         return service.getByCountry(name);
     }
 
     @GetMapping("/date/{date}")
-    public List<FullGrouped> getByDate(@PathVariable String date) {
+    public List<FullGrouped> getByDate(@PathVariable String date, ServletWebRequest request) {
+        if (versions.checkNotModified(request, Dataset.FULL_GROUPED)) {
+            return null;
+        }
         return service.getByDate(LocalDate.parse(date));
     }
 
     @GetMapping("/region/{region}")
-    public List<FullGrouped> getByRegion(@PathVariable String region) {
+    public List<FullGrouped> getByRegion(@PathVariable String region, ServletWebRequest request) {
+        if (versions.checkNotModified(request, Dataset.FULL_GROUPED)) {
+            return null;
+        }
         return service.getByRegion(region);
     }
 
+    @GetMapping("/rollup")
+    public List<RollupPoint> getRollup(@RequestParam(defaultValue = "week") String granularity,
+                                       @RequestParam(required = false) String country,
+                                       @RequestParam(required = false) String whoRegion,
+                                       ServletWebRequest request) {
+        if (versions.checkNotModified(request, Dataset.FULL_GROUPED)) {
+            return null;
+        }
+        return service.getRollup(granularity, country, whoRegion);
+    }
+
+    @GetMapping("/per-capita/populations")
+    public List<PerCapitaSeries.Match> getPopulationMatches(ServletWebRequest request) {
+        if (versions.checkNotModified(request, Dataset.FULL_GROUPED, Dataset.WORLDOMETER)) {
+            return null;
+        }
+        return perCapitaService.getMatches();
+    }
+
+    @GetMapping("/per-capita/{country}")
+    public ResponseEntity<PerCapitaSeries> getPerCapita(@PathVariable String country, ServletWebRequest request) {
+        if (versions.checkNotModified(request, Dataset.FULL_GROUPED, Dataset.WORLDOMETER)) {
+            return null;
+        }
+        PerCapitaSeries series = perCapitaService.getSeries(country);
+        return series != null ? ResponseEntity.ok(series) : ResponseEntity.notFound().build();
+    }
+
     @GetMapping("/{date}/{country}")
     public FullGrouped getById(
             @PathVariable String date,
@@ -102,4 +178,19 @@ public class FullGroupedController {
     ) {
         service.delete(LocalDate.parse(date), country);
     }
+
+    @PostMapping("/bulk")
+    public BulkWriteReport bulkCreate(@RequestBody List<FullGrouped> rows) {
+        return service.bulkCreate(rows);
+    }
+
+    @PutMapping("/bulk")
+    public BulkWriteReport bulkUpsert(@RequestBody List<FullGrouped> rows) {
+        return service.bulkUpsert(rows);
+    }
+
+    @DeleteMapping("/bulk")
+    public BulkWriteReport bulkDelete(@RequestBody List<FullGroupedId> keys) {
+        return service.bulkDelete(keys);
+    }
 }
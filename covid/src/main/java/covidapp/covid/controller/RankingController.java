@@ -0,0 +1,81 @@
+package covidapp.covid.controller;
+
+import covidapp.covid.dataset.Dataset;
+import covidapp.covid.dto.Ranking;
+import covidapp.covid.service.DatasetVersions;
+import covidapp.covid.service.RankingService;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ranking Controller
+ *
+ * REST API endpoints for top-N country leaderboards
+ * Replaces downloading /api/worldometer/all or /api/country/all and sorting on the client
+ *
+ * Base URL: /api/rankings
+ *
+ * Endpoints:
+ * - GET ?metric=deaths1M&n=20 - Top n countries by a metric
+ *   Optional: order=asc|desc (default desc), continent=Europe (worldometer only),
+ *   whoRegion=Africa, source=worldometer|country_wise
+ * - GET /metrics - Rankable metrics per source
+ */
+@RestController
+@RequestMapping("/api/rankings")
+@CrossOrigin(origins = "*", allowedHeaders = "*", methods = {RequestMethod.GET, RequestMethod.OPTIONS})
+public class RankingController {
+
+    // Service doing the top-N selection
+    private final RankingService service;
+
+    // Dataset version counters for ETag (304 without reading data)
+    private final DatasetVersions versions;
+
+    /**
+     * Constructor - Dependency injection
+     * Spring automatically injects RankingService and DatasetVersions
+     */
+    public RankingController(RankingService service, DatasetVersions versions) {
+        this.service = service;
+        this.versions = versions;
+    }
+
+    /**
+     * Get Top-N Ranking
+     *
+     * GET /api/rankings?metric=deaths1M&n=20&continent=Europe
+     *
+     * The ETag covers both source tables, so it changes when either of them does
+     *
+     * @return Ranking with at most n rows (empty 304 if unchanged)
+     */
+    @GetMapping
+    public Ranking getRanking(@RequestParam String metric,
+                              @RequestParam(defaultValue = "10") int n,
+                              @RequestParam(required = false) String order,
+                              @RequestParam(required = false) String continent,
+                              @RequestParam(required = false) String whoRegion,
+                              @RequestParam(required = false) String source,
+                              ServletWebRequest request) {
+        if (versions.checkNotModified(request, Dataset.WORLDOMETER, Dataset.COUNTRY_WISE_LATEST)) {
+            return null;
+        }
+        return service.rank(metric, n, order, continent, whoRegion, source);
+    }
+
+    /**
+     * Get Rankable Metrics
+     *
+     * GET /api/rankings/metrics
+     *
+     * @return Metric names per source
+     */
+    @GetMapping("/metrics")
+    public Map<String, List<String>> getMetrics() {
+        return service.metrics();
+    }
+}
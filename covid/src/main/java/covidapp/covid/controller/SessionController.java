@@ -1,6 +1,7 @@
 package covidapp.covid.controller;
 
 import covidapp.covid.repository.UserRepository;
+import covidapp.covid.service.SessionTokenService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -20,6 +21,7 @@ import java.util.Map;
  * - Session expiration checking (compares current time with expiry time)
  * - Automatic session cleanup when expired
  * - Returns remaining session time to frontend
+ * - Signed tokens (app.session.token.mode=signed) are validated without touching the database
  */
 @RestController
 @RequestMapping("/api/auth")
@@ -29,12 +31,16 @@ public class SessionController {
     // Repository for database operations on User entity
     private final UserRepository userRepository;
 
+    // Verifies and revokes stateless signed session tokens
+    private final SessionTokenService sessionTokenService;
+
     /**
      * Constructor - Dependency injection
-     * Spring automatically injects UserRepository
+     * Spring automatically injects UserRepository and SessionTokenService
      */
-    public SessionController(UserRepository userRepository) {
+    public SessionController(UserRepository userRepository, SessionTokenService sessionTokenService) {
         this.userRepository = userRepository;
+        this.sessionTokenService = sessionTokenService;
     }
 
     /**
@@ -50,6 +56,7 @@ public class SessionController {
      * 
      * Process:
      * 1. Validates username and sessionToken are provided
+     *    (signed tokens: verify signature, expiry and revocation in memory, then return)
      * 2. Finds user in database
      * 3. Checks if sessionToken matches user's stored token
      * 4. Checks if session has expired (current time > expiry time)
@@ -66,6 +73,19 @@ public class SessionController {
             return ResponseEntity.badRequest().body("Username and session token are required");
         }
 
+        // Signed token - pure CPU check, no database round-trip
+        if (sessionTokenService.isSignedToken(sessionToken)) {
+            SessionTokenService.TokenClaims claims = sessionTokenService.verify(username, sessionToken);
+            if (claims == null) {
+                return invalidSessionResponse();
+            }
+            Map<String, Object> response = new HashMap<>();
+            response.put("valid", true);
+            response.put("username", username);
+            response.put("remainingTime", (claims.expiryMillis() - System.currentTimeMillis()) / 1000);
+            return ResponseEntity.ok(response);
+        }
+
         // Find user and validate session
         return userRepository.findByUsername(username)
                 .filter(user -> {
@@ -104,13 +124,17 @@ public class SessionController {
                     
                     return ResponseEntity.ok(response);
                 })
-                .orElseGet(() -> {
-                    // Session is invalid or expired
-                    Map<String, Object> response = new HashMap<>();
-                    response.put("valid", false);
-                    response.put("message", "Session expired or invalid. Please login again.");
-                    return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
-                });
+                .orElseGet(this::invalidSessionResponse);
+    }
+
+    /**
+     * Build the 401 response for an invalid or expired session
+     */
+    private ResponseEntity<Map<String, Object>> invalidSessionResponse() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("valid", false);
+        response.put("message", "Session expired or invalid. Please login again.");
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
     }
 
     /**
@@ -125,10 +149,11 @@ public class SessionController {
      * 
      * Process:
      * 1. Gets username from request
-     * 2. Finds user in database
-     * 3. Clears sessionToken and sessionExpiryTime
-     * 4. Saves updated user to database
-     * 5. Returns success message
+     * 2. Revokes the user's signed tokens (in-memory revocation set)
+     * 3. Finds user in database
+     * 4. Clears sessionToken and sessionExpiryTime
+     * 5. Saves updated user to database
+     * 6. Returns success message
      */
     @PostMapping("/logout")
     public ResponseEntity<?> logout(@RequestBody Map<String, String> request) {
@@ -136,6 +161,9 @@ public class SessionController {
 
         // Clear session if username is provided
         if (username != null) {
+            // Reject every signed token issued to this user so far
+            sessionTokenService.revokeAll(username);
+
             userRepository.findByUsername(username).ifPresent(user -> {
                 // Clear session token and expiry time
                 user.setSessionToken(null);
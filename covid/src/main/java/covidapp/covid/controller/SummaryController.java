@@ -0,0 +1,57 @@
+package covidapp.covid.controller;
+
+import covidapp.covid.dataset.Dataset;
+import covidapp.covid.dto.GlobalSummary;
+import covidapp.covid.service.DatasetVersions;
+import covidapp.covid.service.GlobalSummaryService;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Summary Controller
+ *
+ * REST API endpoint for precomputed global COVID-19 totals
+ * Replaces downloading /api/worldometer/all and /api/country/all just to sum them up
+ *
+ * Base URL: /api/summary
+ *
+ * Endpoints:
+ * - GET / - Global totals, red-alert count, per-continent and per-WHO-region breakdowns
+ */
+@RestController
+@RequestMapping("/api/summary")
+@CrossOrigin(origins = "*", allowedHeaders = "*", methods = {RequestMethod.GET, RequestMethod.OPTIONS})
+public class SummaryController {
+
+    // Service holding the incrementally maintained totals
+    private final GlobalSummaryService service;
+
+    // Dataset version counters for ETag (304 without reading data)
+    private final DatasetVersions versions;
+
+    /**
+     * Constructor - Dependency injection
+     * Spring automatically injects GlobalSummaryService and DatasetVersions
+     */
+    public SummaryController(GlobalSummaryService service, DatasetVersions versions) {
+        this.service = service;
+        this.versions = versions;
+    }
+
+    /**
+     * Get Global Summary
+     *
+     * GET /api/summary
+     *
+     * The ETag covers both source tables, so it changes when either of them does
+     *
+     * @return GlobalSummary with totals and breakdowns (a few hundred bytes; empty 304 if unchanged)
+     */
+    @GetMapping
+    public GlobalSummary getSummary(ServletWebRequest request) {
+        if (versions.checkNotModified(request, Dataset.WORLDOMETER, Dataset.COUNTRY_WISE_LATEST)) {
+            return null;
+        }
+        return service.getSummary();
+    }
+}
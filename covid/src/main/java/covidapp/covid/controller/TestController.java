@@ -1,18 +1,74 @@
 package covidapp.covid.controller;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/test")
 @CrossOrigin(origins = "*", allowedHeaders = "*", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE, RequestMethod.OPTIONS})
 public class TestController {
 
+    // Runs the simulated slow query
+    private final JdbcTemplate jdbcTemplate;
+
+    // Slow-query endpoint is off unless enabled (it holds a pooled connection per call)
+    private final boolean slowQueryEnabled;
+    private final int slowQueryMaxMillis;
+
+    /**
+     * Constructor - Dependency injection
+     * Spring automatically injects JdbcTemplate and the app.test.slow-query settings
+     */
+    public TestController(JdbcTemplate jdbcTemplate,
+                          @Value("${app.test.slow-query.enabled:false}") boolean slowQueryEnabled,
+                          @Value("${app.test.slow-query.max-millis:10000}") int slowQueryMaxMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.slowQueryEnabled = slowQueryEnabled;
+        this.slowQueryMaxMillis = slowQueryMaxMillis;
+    }
+
     @GetMapping
     public ResponseEntity<String> test() {
         return ResponseEntity.ok("Backend is running! CORS is working!");
     }
 
+    /**
+     * Simulated Slow Query
+     *
+     * GET /api/test/slow-query?millis=200
+     *
+     * Runs SELECT SLEEP(millis / 1000) on MySQL, so the request thread blocks on JDBC
+     * exactly like a slow real query; used by the load benchmark (LoadBenchmark)
+     * to compare platform and virtual request threads
+     *
+     * @param millis Time the query takes (0 to app.test.slow-query.max-millis)
+     * @return Requested and measured time, and the thread that handled the request
+     */
+    @GetMapping("/slow-query")
+    public ResponseEntity<Map<String, Object>> slowQuery(@RequestParam(defaultValue = "100") int millis) {
+        if (!slowQueryEnabled) {
+            return ResponseEntity.notFound().build();
+        }
+        if (millis < 0 || millis > slowQueryMaxMillis) {
+            throw new IllegalArgumentException("millis must be between 0 and " + slowQueryMaxMillis);
+        }
+        long start = System.nanoTime();
+        jdbcTemplate.queryForObject("SELECT SLEEP(?)", Integer.class, millis / 1000.0);
+
+        Thread thread = Thread.currentThread();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("millis", millis);
+        body.put("elapsedMillis", (System.nanoTime() - start) / 1_000_000);
+        body.put("virtualThread", thread.isVirtual());
+        body.put("thread", thread.toString());
+        return ResponseEntity.ok(body);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<String> testPut(@PathVariable String id) {
         return ResponseEntity.ok("PUT request successful for: " + id);
@@ -28,4 +84,3 @@ public class TestController {
         return ResponseEntity.ok().build();
     }
 }
-
@@ -1,12 +1,33 @@
 package covidapp.covid.controller;
 
-import covidapp.covid.entity.UsaCountryWise;
+import covidapp.covid.dataset.Dataset;
+import covidapp.covid.service.DatasetVersions;
+import covidapp.covid.service.ResponseSnapshots;
 import covidapp.covid.service.UsaCountryWiseService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.time.LocalDate;
-import java.util.List;
 
+/**
+ * USA County Wise Controller
+ *
+ * Base URL: /api/usa
+ *
+ * Every list endpoint returns a keyset-paginated CursorPage:
+ * - Without paging params: the first page at app.pagination.default-page-size
+ *   (/all serves the pre-serialized full list instead when a snapshot is configured for it)
+ * - With ?limit= and/or ?cursor=: the requested page
+ *   (page size capped by app.pagination.max-page-size, follow nextCursor until hasMore=false)
+ *
+ * Date ranges:
+ * - /province/{name}?from=2020-03-01&to=2020-03-31 returns only those days, ordered by date
+ *   (either bound may be omitted; cannot be combined with paging)
+ *
+ * Every GET sends an ETag and answers 304 when the client copy is current
+ */
 @RestController
 @RequestMapping("/api/usa")
 @CrossOrigin("*")
@@ -14,29 +35,81 @@ public class UsaCountryWiseController {
 
     private final UsaCountryWiseService service;
 
-    public UsaCountryWiseController(UsaCountryWiseService service) {
+    // Dataset version counters for ETag (304 without reading data)
+    private final DatasetVersions versions;
+
+    // Pre-serialized JSON (identity / gzip) for the full list
+    private final ResponseSnapshots snapshots;
+
+    public UsaCountryWiseController(UsaCountryWiseService service, DatasetVersions versions,
+                                    ResponseSnapshots snapshots) {
         this.service = service;
+        this.versions = versions;
+        this.snapshots = snapshots;
     }
 
     @GetMapping("/all")
-    public List<UsaCountryWise> getAll() {
-        return service.getAll();
+    public ResponseEntity<?> getAll(@RequestParam(required = false) String cursor,
+                                    @RequestParam(required = false) Integer limit,
+                                    ServletWebRequest request) {
+        if (isPaged(cursor, limit)) {
+            if (versions.checkNotModified(request, Dataset.USA_COUNTY_WISE)) {
+                return null;
+            }
+            return ResponseEntity.ok(service.getAllPage(cursor, limit));
+        }
+        if (snapshots.checkNotModified(request, Dataset.USA_COUNTY_WISE)) {
+            return null;
+        }
+        ResponseEntity<byte[]> snapshot = snapshots.serve(request, Dataset.USA_COUNTY_WISE);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        return ResponseEntity.ok(service.getAllPage(null, null));
     }
 
     @GetMapping("/country/{name}")
-    public List<UsaCountryWise> getByCountry(@PathVariable String name) {
-        return service.getByCountry(name);
+    public ResponseEntity<?> getByCountry(@PathVariable String name,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer limit,
+                                          ServletWebRequest request) {
+        if (versions.checkNotModified(request, Dataset.USA_COUNTY_WISE)) {
+            return null;
+        }
+        return ResponseEntity.ok(service.getByCountryPage(name, cursor, limit));
     }
 
     @GetMapping("/province/{name}")
-    public List<UsaCountryWise> getByProvince(@PathVariable String name) {
-        return service.getByProvince(name);
+    public ResponseEntity<?> getByProvince(@PathVariable String name,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(required = false) Integer limit,
+                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                           ServletWebRequest request) {
+        if (versions.checkNotModified(request, Dataset.USA_COUNTY_WISE)) {
+            return null;
+        }
+        if (from != null || to != null) {
+            if (isPaged(cursor, limit)) {
+                throw new IllegalArgumentException("from/to cannot be combined with cursor/limit");
+            }
+            return ResponseEntity.ok(service.getByProvinceBetween(name, from, to));
+        }
+        return ResponseEntity.ok(service.getByProvincePage(name, cursor, limit));
     }
 
     @GetMapping("/date")
-    public List<UsaCountryWise> getByDate(@RequestParam String date) {
-        return service.getByDate(date);
+    public ResponseEntity<?> getByDate(@RequestParam String date,
+                                       @RequestParam(required = false) String cursor,
+                                       @RequestParam(required = false) Integer limit,
+                                       ServletWebRequest request) {
+        if (versions.checkNotModified(request, Dataset.USA_COUNTY_WISE)) {
+            return null;
+        }
+        return ResponseEntity.ok(service.getByDatePage(date, cursor, limit));
     }
 
-
+    private static boolean isPaged(String cursor, Integer limit) {
+        return cursor != null || limit != null;
+    }
 }
@@ -1,10 +1,14 @@
 package covidapp.covid.controller;
 
+import covidapp.covid.dataset.Dataset;
+import covidapp.covid.dto.WorldometerView;
 import covidapp.covid.entity.WorldometerData;
+import covidapp.covid.service.ResponseSnapshots;
 import covidapp.covid.service.WorldometerService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.HashMap;
 import java.util.List;
@@ -25,6 +29,8 @@ import java.util.Map;
  * - POST / - Create new worldometer data
  * - PUT /{id} - Update existing data by ID
  * - DELETE /{id} - Delete data by ID
+ *
+ * GET /all sends an ETag and answers 304 when the client copy is current
  */
 @RestController
 @RequestMapping("/api/worldometer")
@@ -34,12 +40,16 @@ public class WorldometerController {
     // Service layer for business logic
     private final WorldometerService service;
 
+    // Pre-serialized JSON (identity / gzip) for the full list, and its ETag / 304 check
+    private final ResponseSnapshots snapshots;
+
     /**
      * Constructor - Dependency injection
      * Spring automatically injects WorldometerService
      */
-    public WorldometerController(WorldometerService service) {
+    public WorldometerController(WorldometerService service, ResponseSnapshots snapshots) {
         this.service = service;
+        this.snapshots = snapshots;
     }
 
     /**
@@ -47,12 +57,19 @@ public class WorldometerController {
      * 
      * GET /api/worldometer/all
      * 
-     * @return List of all worldometer COVID-19 data
+     * @return List of all worldometer COVID-19 data (empty 304 if unchanged)
      */
     @GetMapping("/all")
-    public ResponseEntity<?> getAll() {
+    public ResponseEntity<?> getAll(ServletWebRequest request) {
+        if (snapshots.checkNotModified(request, Dataset.WORLDOMETER)) {
+            return null;
+        }
+        ResponseEntity<byte[]> snapshot = snapshots.serve(request, Dataset.WORLDOMETER);
+        if (snapshot != null) {
+            return snapshot;
+        }
         try {
-            List<WorldometerData> data = service.getAll();
+            List<WorldometerView> data = service.getAll();
             return ResponseEntity.ok(data);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
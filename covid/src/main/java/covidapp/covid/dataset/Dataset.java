@@ -0,0 +1,288 @@
+package covidapp.covid.dataset;
+
+import covidapp.covid.entity.UsaCountryWise;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Dataset
+ *
+ * The six public COVID CSV files and the tables they load into
+ *
+ * Shared by the whole application as the key of a table: bulk ingest (CSV columns),
+ * DatasetVersions (ETags and change listeners) and ResponseSnapshots
+ *
+ * Each dataset lists its columns as (CSV header, table column, type, required)
+ * - Headers are matched case-insensitively; extra CSV columns are ignored
+ * - A header may feed more than one column (usa_county_wise Date -> Date and Report_Date)
+ * - A row with a missing required value or an unparsable number/date is rejected
+ * - Generated columns (auto-increment ids) are not listed and are filled by the database
+ */
+public enum Dataset {
+
+    COUNTRY_WISE_LATEST("country_wise_latest",
+            required("Country/Region", "country/region", Type.TEXT),
+            optional("Confirmed", "confirmed", Type.INTEGER),
+            optional("Deaths", "deaths", Type.INTEGER),
+            optional("Recovered", "recovered", Type.INTEGER),
+            optional("Active", "active", Type.INTEGER),
+            optional("New cases", "new cases", Type.INTEGER),
+            optional("New deaths", "new deaths", Type.INTEGER),
+            optional("New recovered", "new recovered", Type.INTEGER),
+            optional("Deaths / 100 Cases", "deaths / 100 cases", Type.DOUBLE),
+            optional("Recovered / 100 Cases", "recovered / 100 cases", Type.DOUBLE),
+            optional("Deaths / 100 Recovered", "deaths / 100 recovered", Type.DOUBLE),
+            optional("Confirmed last week", "confirmed last week", Type.INTEGER),
+            optional("1 week change", "1 week change", Type.INTEGER),
+            optional("1 week % increase", "1 week % increase", Type.DOUBLE),
+            optional("WHO Region", "who region", Type.TEXT)),
+
+    DAY_WISE("day_wise",
+            required("Date", "date", Type.ISO_DATE),
+            optional("Confirmed", "confirmed", Type.INTEGER),
+            optional("Deaths", "deaths", Type.INTEGER),
+            optional("Recovered", "recovered", Type.INTEGER),
+            optional("Active", "active", Type.INTEGER),
+            optional("New cases", "new cases", Type.INTEGER),
+            optional("New deaths", "new deaths", Type.INTEGER),
+            optional("New recovered", "new recovered", Type.INTEGER),
+            optional("Deaths / 100 Cases", "deaths / 100 cases", Type.DOUBLE),
+            optional("Recovered / 100 Cases", "recovered / 100 cases", Type.DOUBLE),
+            optional("Deaths / 100 Recovered", "deaths / 100 recovered", Type.DOUBLE),
+            optional("No. of countries", "no_of_countries", Type.INTEGER)),
+
+    FULL_GROUPED("full_grouped",
+            required("Date", "date", Type.ISO_DATE),
+            required("Country/Region", "country/region", Type.TEXT),
+            optional("Confirmed", "confirmed", Type.INTEGER),
+            optional("Deaths", "deaths", Type.INTEGER),
+            optional("Recovered", "recovered", Type.INTEGER),
+            optional("Active", "active", Type.INTEGER),
+            optional("New cases", "new cases", Type.INTEGER),
+            optional("New deaths", "new deaths", Type.INTEGER),
+            optional("New recovered", "new recovered", Type.INTEGER),
+            optional("WHO Region", "who region", Type.TEXT)),
+
+    USA_COUNTY_WISE("usa_county_wise",
+            required("UID", "uid", Type.LONG),
+            optional("iso2", "iso2", Type.TEXT),
+            optional("iso3", "iso3", Type.TEXT),
+            optional("code3", "code3", Type.INTEGER),
+            optional("FIPS", "fips", Type.INTEGER),
+            optional("Admin2", "admin2", Type.TEXT),
+            optional("Province_State", "province_state", Type.TEXT),
+            optional("Country_Region", "country_region", Type.TEXT),
+            optional("Lat", "lat", Type.DOUBLE),
+            optional("Long_", "long_", Type.DOUBLE),
+            optional("Combined_Key", "combined_key", Type.TEXT),
+            optional("Date", "date", Type.TEXT),
+            optional("Date", "report_date", Type.SHORT_DATE),
+            optional("Confirmed", "confirmed", Type.INTEGER),
+            optional("Deaths", "deaths", Type.INTEGER)),
+
+    COVID_19_CLEAN_COMPLETE("covid_19_clean_complete",
+            // Part of the primary key: a missing province is stored as "" (not NULL)
+            required("Province/State", "province/state", Type.TEXT_OR_EMPTY),
+            required("Country/Region", "country/region", Type.TEXT),
+            optional("Lat", "lat", Type.DOUBLE),
+            optional("Long", "long", Type.DOUBLE),
+            required("Date", "date", Type.TEXT),
+            optional("Confirmed", "confirmed", Type.INTEGER),
+            optional("Deaths", "deaths", Type.INTEGER),
+            optional("Recovered", "recovered", Type.INTEGER),
+            optional("Active", "active", Type.INTEGER),
+            optional("WHO Region", "who region", Type.TEXT)),
+
+    WORLDOMETER("worldometer",
+            required("Country/Region", "country/region", Type.TEXT),
+            optional("Continent", "continent", Type.TEXT),
+            optional("Population", "population", Type.LONG),
+            optional("TotalCases", "total_cases", Type.LONG),
+            optional("NewCases", "new_cases", Type.LONG),
+            optional("TotalDeaths", "total_deaths", Type.LONG),
+            optional("NewDeaths", "new_deaths", Type.LONG),
+            optional("TotalRecovered", "total_recovered", Type.LONG),
+            optional("NewRecovered", "new_recovered", Type.LONG),
+            optional("ActiveCases", "active_cases", Type.LONG),
+            optional("Serious,Critical", "serious,critical", Type.LONG),
+            optional("Tot Cases/1M pop", "tot cases/1m pop", Type.LONG),
+            optional("Deaths/1M pop", "deaths/1m pop", Type.LONG),
+            optional("TotalTests", "total_tests", Type.LONG),
+            optional("Tests/1M pop", "tests/1m pop", Type.LONG),
+            optional("WHO Region", "who region", Type.TEXT));
+
+    /**
+     * Value type of a column
+     */
+    public enum Type {
+        TEXT,           // empty -> NULL
+        TEXT_OR_EMPTY,  // empty -> ""
+        INTEGER,
+        LONG,           // also accepts "1234.0" (Worldometer exports whole numbers as decimals)
+        DOUBLE,
+        ISO_DATE,       // 2020-01-22
+        SHORT_DATE      // 1/22/20
+    }
+
+    /**
+     * One target column
+     *
+     * @param header CSV header the value comes from
+     * @param column Physical column name in the table
+     * @param type Value type
+     * @param required Reject the row if the value is missing
+     */
+    public record Column(String header, String column, Type type, boolean required) {
+    }
+
+    private final String table;
+    private final List<Column> columns;
+
+    Dataset(String table, Column... columns) {
+        this.table = table;
+        this.columns = List.of(columns);
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public List<Column> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Look Up a Dataset by Table Name or Enum Name
+     *
+     * @param name e.g. "usa_county_wise" or "USA_COUNTY_WISE"
+     * @return Matching dataset
+     * @throws IllegalArgumentException if no dataset matches
+     */
+    public static Dataset from(String name) {
+        if (name != null) {
+            for (Dataset dataset : values()) {
+                if (dataset.table.equalsIgnoreCase(name.trim()) || dataset.name().equalsIgnoreCase(name.trim())) {
+                    return dataset;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unknown dataset: " + name + " (use one of " +
+                Arrays.stream(values()).map(Dataset::getTable).collect(Collectors.joining(", ")) + ")");
+    }
+
+    /**
+     * @return INSERT statement with one placeholder per column, in getColumns() order
+     */
+    public String insertSql() {
+        return insertSql(table);
+    }
+
+    /**
+     * @param into Table to insert into (this dataset's table or a staging copy of it)
+     * @return INSERT statement with one placeholder per column, in getColumns() order
+     */
+    public String insertSql(String into) {
+        String names = columns.stream().map(c -> "`" + c.column() + "`").collect(Collectors.joining(", "));
+        String placeholders = columns.stream().map(c -> "?").collect(Collectors.joining(", "));
+        return "INSERT INTO `" + into + "` (" + names + ") VALUES (" + placeholders + ")";
+    }
+
+    /**
+     * Bind CSV Headers to Columns
+     *
+     * @param headers Header row of the CSV file
+     * @return For each column, the index of its CSV field (-1 if the file does not have it)
+     * @throws IllegalArgumentException if a required column is missing from the file
+     */
+    public int[] bind(String[] headers) {
+        int[] indexes = new int[columns.size()];
+        List<String> missing = new ArrayList<>();
+        for (int c = 0; c < columns.size(); c++) {
+            Column column = columns.get(c);
+            indexes[c] = -1;
+            for (int h = 0; h < headers.length; h++) {
+                if (headers[h].trim().equalsIgnoreCase(column.header())) {
+                    indexes[c] = h;
+                    break;
+                }
+            }
+            if (indexes[c] < 0 && column.required()) {
+                missing.add(column.header());
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("CSV for " + table + " is missing required columns: " + missing);
+        }
+        return indexes;
+    }
+
+    /**
+     * Convert One CSV Record into Insert Parameters
+     *
+     * @param fields Parsed CSV fields
+     * @param indexes Result of bind()
+     * @return Values in getColumns() order
+     * @throws IllegalArgumentException describing the first invalid value
+     */
+    public Object[] toRow(String[] fields, int[] indexes) {
+        Object[] row = new Object[columns.size()];
+        for (int c = 0; c < columns.size(); c++) {
+            Column column = columns.get(c);
+            String raw = indexes[c] >= 0 && indexes[c] < fields.length ? fields[indexes[c]].trim() : "";
+            Object value;
+            try {
+                value = convert(raw, column.type());
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException(column.header() + ": invalid " +
+                        column.type().name().toLowerCase(Locale.ROOT) + " '" + raw + "'");
+            }
+            if (value == null && column.required()) {
+                throw new IllegalArgumentException(column.header() + ": value is required");
+            }
+            row[c] = value;
+        }
+        return row;
+    }
+
+    private static Object convert(String raw, Type type) {
+        if (raw.isEmpty()) {
+            return type == Type.TEXT_OR_EMPTY ? "" : null;
+        }
+        return switch (type) {
+            case TEXT, TEXT_OR_EMPTY -> raw;
+            case INTEGER -> Integer.valueOf(raw);
+            case LONG -> parseLong(raw);
+            case DOUBLE -> Double.valueOf(raw);
+            case ISO_DATE -> LocalDate.parse(raw);
+            case SHORT_DATE -> {
+                LocalDate date = UsaCountryWise.parseDate(raw);
+                if (date == null) {
+                    throw new DateTimeParseException("not M/d/yy", raw, 0);
+                }
+                yield date;
+            }
+        };
+    }
+
+    private static Long parseLong(String raw) {
+        try {
+            return Long.valueOf(raw);
+        } catch (NumberFormatException e) {
+            return Math.round(Double.parseDouble(raw));
+        }
+    }
+
+    private static Column required(String header, String column, Type type) {
+        return new Column(header, column, type, true);
+    }
+
+    private static Column optional(String header, String column, Type type) {
+        return new Column(header, column, type, false);
+    }
+}
@@ -0,0 +1,72 @@
+package covidapp.covid.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Audit Report
+ *
+ * Result of one cross-dataset reconciliation run, returned by GET /api/admin/audit
+ *
+ * Fields:
+ * - startedAt: When the run started
+ * - elapsedMillis: Wall-clock time of the whole run
+ * - parallelism: Fork-join worker threads used
+ * - countries: Country partition keys scanned (union over the country-keyed tables)
+ * - dates: Date partition keys scanned (union over the date-keyed tables)
+ * - discrepancies: Total over all checks
+ * - checks: One entry per check, in a fixed order
+ */
+public record AuditReport(
+        Instant startedAt,
+        long elapsedMillis,
+        int parallelism,
+        int countries,
+        int dates,
+        long discrepancies,
+        List<Check> checks
+) {
+
+    /**
+     * One table checked against its expected figures
+     *
+     * - name: Table checked, e.g. "day_wise"
+     * - expected: Where the expected figures come from, e.g. "SUM(full_grouped) per date"
+     * - status: "ok", "mismatch" or "skipped" (the checked table is empty)
+     * - compared: Rows or groups compared
+     * - discrepancies: Discrepancies found
+     * - samples: Up to app.audit.max-samples of the discrepancies, sorted by country and date
+     */
+    public record Check(
+            String name,
+            String expected,
+            String status,
+            long compared,
+            long discrepancies,
+            List<Discrepancy> samples
+    ) {
+    }
+
+    /**
+     * One disagreement
+     *
+     * - country, date: Key of the row or group (either may be null for date-only or
+     *   country-only keys)
+     * - field: Column compared, or "row" when a whole row is missing on one side
+     * - expected: Expected value (null when the expected row is missing)
+     * - actual: Value in the checked table (null when the checked row is missing)
+     * - problem: "mismatch", "missing" (expected but not in the checked table),
+     *   "unexpected" (in the checked table only), "unparsable date", "below expected"
+     *   or "inconsistent"
+     */
+    public record Discrepancy(
+            String country,
+            LocalDate date,
+            String field,
+            Long expected,
+            Long actual,
+            String problem
+    ) {
+    }
+}
@@ -0,0 +1,68 @@
+package covidapp.covid.dto;
+
+import covidapp.covid.entity.UsaCountryWise;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Audit Totals
+ *
+ * One GROUP BY row of the reconciliation audit queries: a table's figures summed
+ * per date (full_grouped, usa_county_wise) or per country and date (covid_19_clean_complete)
+ * Selected with a constructor projection, so the database does the summing and only
+ * one row per group reaches the application
+ *
+ * Fields:
+ * - country: Country of the group (null when grouped by date only)
+ * - date: Date of the group (null when the table's text date could not be parsed)
+ * - rawDate: The date as stored, for text date columns (null for LocalDate columns)
+ * - confirmed ... newRecovered: Column sums (null when the table has no such column
+ *   or every row of the group is null)
+ * - rows: Rows in the group
+ */
+public record AuditTotals(
+        String country,
+        LocalDate date,
+        String rawDate,
+        Long confirmed,
+        Long deaths,
+        Long recovered,
+        Long active,
+        Long newCases,
+        Long newDeaths,
+        Long newRecovered,
+        long rows
+) {
+
+    /**
+     * full_grouped per date
+     */
+    public AuditTotals(LocalDate date, Long confirmed, Long deaths, Long recovered, Long active,
+                       Long newCases, Long newDeaths, Long newRecovered, Long rows) {
+        this(null, date, null, confirmed, deaths, recovered, active, newCases, newDeaths, newRecovered, rows);
+    }
+
+    /**
+     * covid_19_clean_complete per country and date (Date is yyyy-MM-dd text)
+     */
+    public AuditTotals(String country, String date, Long confirmed, Long deaths, Long recovered, Long active,
+                       Long rows) {
+        this(country, parseIsoDate(date), date, confirmed, deaths, recovered, active, null, null, null, rows);
+    }
+
+    /**
+     * usa_county_wise per date (Date is M/d/yy text)
+     */
+    public AuditTotals(String date, Long confirmed, Long deaths, Long rows) {
+        this(null, UsaCountryWise.parseDate(date), date, confirmed, deaths, null, null, null, null, null, rows);
+    }
+
+    private static LocalDate parseIsoDate(String date) {
+        try {
+            return date == null ? null : LocalDate.parse(date.trim());
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
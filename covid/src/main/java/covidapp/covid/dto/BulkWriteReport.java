@@ -0,0 +1,39 @@
+package covidapp.covid.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Bulk Write Report
+ *
+ * Result of a bulk create/upsert/delete on /api/fullgrouped/bulk
+ *
+ * Fields:
+ * - received: Rows in the request
+ * - inserted, updated, deleted: Rows written
+ * - rejected: Rows not written (invalid, duplicate in the request, already existing on create, not found on delete)
+ * - elapsedMillis: Time spent, including the database transaction
+ * - results: One entry per request row, in request order
+ */
+public record BulkWriteReport(
+        int received,
+        int inserted,
+        int updated,
+        int deleted,
+        int rejected,
+        long elapsedMillis,
+        List<RowResult> results
+) {
+
+    /**
+     * Outcome for one request row
+     *
+     * @param index Position of the row in the request (0-based)
+     * @param date Key date (as sent)
+     * @param countryRegion Key country (as sent)
+     * @param status inserted, updated, deleted, conflict, not_found or invalid
+     * @param message Reason for conflict/not_found/invalid (null otherwise)
+     */
+    public record RowResult(int index, LocalDate date, String countryRegion, String status, String message) {
+    }
+}
@@ -0,0 +1,21 @@
+package covidapp.covid.dto;
+
+import java.util.List;
+
+/**
+ * Cursor Page
+ *
+ * One page of a keyset-paginated list response
+ *
+ * Fields:
+ * - items: Rows in this page (at most "limit" rows)
+ * - limit: Page size that was applied (after the server-side maximum)
+ * - nextCursor: Opaque continuation token for the next page, null on the last page
+ * - hasMore: True if another page exists
+ *
+ * Usage:
+ * - First request: GET ...?limit=500
+ * - Next request: GET ...?limit=500&cursor={nextCursor}
+ */
+public record CursorPage<T>(List<T> items, int limit, String nextCursor, boolean hasMore) {
+}
@@ -0,0 +1,38 @@
+package covidapp.covid.dto;
+
+import java.util.Map;
+
+/**
+ * Global Summary
+ *
+ * Precomputed global COVID-19 totals returned by GET /api/summary
+ * Field names match what the Dashboard page displays
+ *
+ * Fields:
+ * - totalCases, totalDeaths, totalRecovered, activeCases, newCases: Global totals
+ * - countries: Number of countries included in the totals
+ * - redAlertCountries: Number of countries with red alert (deaths:recovered > 1:10)
+ * - source: Dataset the totals come from ("worldometer", or "country_wise" as fallback)
+ * - byContinent: Totals per continent (worldometer only)
+ * - byWhoRegion: Totals per WHO region
+ */
+public record GlobalSummary(
+        long totalCases,
+        long totalDeaths,
+        long totalRecovered,
+        long activeCases,
+        long newCases,
+        int countries,
+        int redAlertCountries,
+        String source,
+        Map<String, Totals> byContinent,
+        Map<String, Totals> byWhoRegion
+) {
+
+    /**
+     * Totals for one continent or WHO region
+     */
+    public record Totals(long totalCases, long totalDeaths, long totalRecovered, long activeCases,
+                         long newCases, int countries) {
+    }
+}
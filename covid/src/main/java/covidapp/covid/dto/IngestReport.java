@@ -0,0 +1,30 @@
+package covidapp.covid.dto;
+
+import java.util.List;
+
+/**
+ * Ingest Report
+ *
+ * Result of one bulk CSV load, returned by POST /api/admin/ingest/{dataset} and logged by the CLI
+ *
+ * Fields:
+ * - dataset: Table that was loaded
+ * - mode: "replace" (table emptied first) or "append"
+ * - rowsRead: Data records read from the file (header excluded)
+ * - rowsInserted: Rows written to the table
+ * - rowsRejected: Rows skipped by validation
+ * - errors: First validation errors, as "line N: message"
+ * - elapsedMillis: Wall-clock time of the whole load
+ * - rowsPerSecond: rowsInserted / elapsed seconds
+ */
+public record IngestReport(
+        String dataset,
+        String mode,
+        long rowsRead,
+        long rowsInserted,
+        long rowsRejected,
+        List<String> errors,
+        long elapsedMillis,
+        double rowsPerSecond
+) {
+}
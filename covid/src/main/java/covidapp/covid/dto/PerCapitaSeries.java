@@ -0,0 +1,44 @@
+package covidapp.covid.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import covidapp.covid.config.NameJsonSerializer;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Per Capita Series
+ *
+ * A country's full_grouped series divided by its worldometer population,
+ * returned by GET /api/fullgrouped/per-capita/{country}
+ *
+ * Fields:
+ * - countryRegion: Country name as in full_grouped
+ * - populationCountry: Matching worldometer country name (may differ, e.g. "US" -> "USA")
+ * - population: Population used for the division
+ * - points: One per day, oldest first; every figure is per 100,000 people
+ *   (rounded to 3 decimals, null where the daily value is null)
+ */
+public record PerCapitaSeries(
+        @JsonSerialize(using = NameJsonSerializer.class) String countryRegion,
+        @JsonSerialize(using = NameJsonSerializer.class) String populationCountry,
+        long population,
+        List<Point> points
+) {
+
+    /**
+     * One day, per 100,000 people
+     */
+    public record Point(LocalDate date, Double confirmed, Double deaths, Double recovered, Double active,
+                        Double newCases, Double newDeaths, Double newRecovered) {
+    }
+
+    /**
+     * How one full_grouped country was matched to a worldometer population
+     * (populationCountry and population are null when no match was found)
+     */
+    public record Match(@JsonSerialize(using = NameJsonSerializer.class) String countryRegion,
+                        @JsonSerialize(using = NameJsonSerializer.class) String populationCountry,
+                        Long population) {
+    }
+}
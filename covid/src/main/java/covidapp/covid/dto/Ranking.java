@@ -0,0 +1,41 @@
+package covidapp.covid.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import covidapp.covid.config.NameJsonSerializer;
+
+import java.util.List;
+
+/**
+ * Ranking
+ *
+ * Top-N countries by one metric, returned by GET /api/rankings
+ *
+ * Fields:
+ * - metric: Ranked column (e.g. deaths1M)
+ * - source: Dataset the rows come from ("worldometer" or "country_wise")
+ * - order: "desc" (highest first) or "asc" (lowest first)
+ * - matched: Rows that passed the filters and have a value for the metric
+ * - entries: At most n rows, best first (ties ordered by country name)
+ */
+public record Ranking(
+        String metric,
+        String source,
+        String order,
+        int matched,
+        List<Entry> entries
+) {
+
+    /**
+     * One ranked row
+     *
+     * @param rank Position, starting at 1
+     * @param countryRegion Country name
+     * @param value Metric value as stored (whole numbers stay whole)
+     * @param row Full row (WorldometerView or CountryWiseLatest)
+     */
+    public record Entry(int rank,
+                        @JsonSerialize(using = NameJsonSerializer.class) String countryRegion,
+                        Number value,
+                        Object row) {
+    }
+}
@@ -0,0 +1,30 @@
+package covidapp.covid.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Rolling Window Point
+ *
+ * One day of the global day_wise series with its rolling-window figures,
+ * returned by GET /api/daywise/analytics?window=N
+ *
+ * Fields:
+ * - date, confirmed, newCases, newDeaths: Values of that day
+ * - newCasesAverage, newDeathsAverage: Mean over the last N days (this day included)
+ * - growthRate: Average daily growth of confirmed cases over the last N days (0.05 = 5% per day)
+ * - doublingTimeDays: Days for confirmed cases to double at that growth rate
+ *
+ * Window figures are null until N consecutive days are available,
+ * and doublingTimeDays is null while cases are not growing
+ */
+public record RollingWindowPoint(
+        LocalDate date,
+        Long confirmed,
+        Long newCases,
+        Long newDeaths,
+        Double newCasesAverage,
+        Double newDeathsAverage,
+        Double growthRate,
+        Double doublingTimeDays
+) {
+}
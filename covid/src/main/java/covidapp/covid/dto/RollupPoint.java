@@ -0,0 +1,35 @@
+package covidapp.covid.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Rollup Point
+ *
+ * One week or month of the full_grouped series for a country, a WHO region or the world,
+ * returned by GET /api/fullgrouped/rollup
+ *
+ * Fields:
+ * - period: "2020-W04" (ISO week, Monday to Sunday) or "2020-03"
+ * - start: First day of the period
+ * - end: Last day of the period with data
+ * - days: Days of the period with data
+ * - confirmed, deaths, recovered, active: Cumulative figures on the last day with data
+ *   (for a region, summed over its countries)
+ * - newCases, newDeaths, newRecovered: Sum over the period
+ *
+ * A figure is null when no row of the period has a value for it
+ */
+public record RollupPoint(
+        String period,
+        LocalDate start,
+        LocalDate end,
+        int days,
+        Long confirmed,
+        Long deaths,
+        Long recovered,
+        Long active,
+        Long newCases,
+        Long newDeaths,
+        Long newRecovered
+) {
+}
@@ -0,0 +1,35 @@
+package covidapp.covid.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import covidapp.covid.config.NameJsonSerializer;
+
+import java.time.LocalDate;
+
+/**
+ * USA County Wise View
+ *
+ * Read-only row of "usa_county_wise" returned by the list endpoints of /api/usa
+ * Selected with a constructor projection, so rows are never managed entities
+ * (no persistence-context entry and no dirty-checking snapshot per row)
+ *
+ * Components have the same names and order as the UsaCountryWise fields,
+ * so the JSON is the same as for the entity
+ */
+public record UsaCountryWiseView(
+        Long uid,
+        String iso2,
+        String iso3,
+        Integer code3,
+        Integer fips,
+        String admin2,
+        @JsonSerialize(using = NameJsonSerializer.class) String provinceState,
+        @JsonSerialize(using = NameJsonSerializer.class) String countryRegion,
+        Double latitude,
+        Double longitude,
+        String combinedKey,
+        String date,
+        Integer confirmed,
+        Integer deaths,
+        LocalDate reportDate
+) {
+}
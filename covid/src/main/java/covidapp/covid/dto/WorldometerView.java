@@ -0,0 +1,35 @@
+package covidapp.covid.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import covidapp.covid.config.NameJsonSerializer;
+
+/**
+ * Worldometer View
+ *
+ * Read-only row of "worldometer" returned by GET /api/worldometer/all
+ * Selected with a constructor projection, so rows are never managed entities
+ * (no persistence-context entry and no dirty-checking snapshot per row)
+ *
+ * Components have the same names and order as the WorldometerData fields,
+ * so the JSON is the same as for the entity
+ */
+public record WorldometerView(
+        Long id,
+        @JsonSerialize(using = NameJsonSerializer.class) String countryRegion,
+        @JsonSerialize(using = NameJsonSerializer.class) String continent,
+        Long population,
+        Long totalCases,
+        Long newCases,
+        Long totalDeaths,
+        Long newDeaths,
+        Long totalRecovered,
+        Long newRecovered,
+        Long activeCases,
+        Long seriousCritical,
+        Long totalCases1M,
+        Long deaths1M,
+        Long totalTests,
+        Long tests1M,
+        @JsonSerialize(using = NameJsonSerializer.class) String whoRegion
+) {
+}
@@ -25,10 +25,16 @@ import lombok.Data;
  * - oneWeekChange: Change in cases over one week
  * - oneWeekPercentIncrease: Percentage increase over one week
  * - whoRegion: WHO region classification
- * - redAlert: Transient field (not in DB) - calculated based on deaths:recovered ratio
+ * - deathsRecoveredRatio: deaths / recovered (null if recovered is 0 or missing), maintained by the service
+ * - redAlert: true if deathsRecoveredRatio is above the configured threshold, maintained by the service
  */
 @Entity
-@Table(name = "country_wise_latest")
+@Table(name = "country_wise_latest", indexes = {
+        // /api/country/alerts: "red_alert = true ORDER BY ratio DESC" is an index range scan
+        @Index(name = "idx_country_red_alert_ratio", columnList = "red_alert, deaths_recovered_ratio"),
+        // /api/country/alerts?threshold=: "ratio > ?" is an index range scan
+        @Index(name = "idx_country_ratio", columnList = "deaths_recovered_ratio")
+})
 @Data // Lombok annotation - automatically generates getters, setters, toString, equals, hashCode
 public class CountryWiseLatest {
 
@@ -79,17 +85,27 @@ public class CountryWiseLatest {
     private String whoRegion;
 
     /**
-     * Red Alert Flag (Transient Field)
-     * 
-     * This field is NOT stored in the database (@Transient annotation)
-     * It is calculated dynamically in the service layer
-     * 
+     * Deaths to Recovered Ratio
+     *
+     * Stored so the red alert tier can be re-evaluated in SQL (no per-row Java recompute)
+     * Set by CountryWiseService on every save; null if recovered is 0 or missing
+     */
+    @Column(name = "deaths_recovered_ratio")
+    private Double deathsRecoveredRatio;
+
+    /**
+     * Red Alert Flag
+     *
+     * Stored and indexed so red-alert countries can be filtered in SQL
+     * Set by CountryWiseService on every save and re-synced at startup
+     * when app.country.red-alert-threshold changes
+     *
      * Red Alert Logic:
-     * - true: If deaths:recovered ratio > 1:10 (deaths/recovered > 0.1)
+     * - true: If deaths:recovered ratio > threshold (default 0.1, i.e. 1:10)
      * - false: Otherwise
-     * 
+     *
      * Used in frontend to highlight countries with high mortality rates
      */
-    @Transient // Not persisted to database
-    private boolean redAlert;
+    @Column(name = "red_alert")
+    private Boolean redAlert;
 }
@@ -1,5 +1,7 @@
 package covidapp.covid.entity;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import covidapp.covid.config.NameJsonSerializer;
 import jakarta.persistence.*;
 import lombok.Data;
 
@@ -30,5 +32,6 @@ public class CovidCleanComplete {
     private Integer active;
 
     @Column(name = "WHO Region")
+    @JsonSerialize(using = NameJsonSerializer.class)
     private String whoRegion;
 }
@@ -1,5 +1,7 @@
 package covidapp.covid.entity;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import covidapp.covid.config.NameJsonSerializer;
 import jakarta.persistence.*;
 import java.io.Serializable;
 import java.util.Objects;
@@ -8,9 +10,11 @@ import java.util.Objects;
 public class CovidKey implements Serializable {
 
     @Column(name = "Province/State")
+    @JsonSerialize(using = NameJsonSerializer.class)
     private String provinceState;
 
     @Column(name = "Country/Region")
+    @JsonSerialize(using = NameJsonSerializer.class)
     private String countryRegion;
 
     @Column(name = "Date")
@@ -24,6 +28,11 @@ public class CovidKey implements Serializable {
         this.date = date;
     }
 
+    // Getters (needed for JSON serialization of the embedded id)
+    public String getProvinceState() { return provinceState; }
+    public String getCountryRegion() { return countryRegion; }
+    public String getDate() { return date; }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -1,5 +1,7 @@
 package covidapp.covid.entity;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import covidapp.covid.config.NameJsonSerializer;
 import jakarta.persistence.*;
 import java.time.LocalDate;
 import lombok.Data;
@@ -16,6 +18,7 @@ public class FullGrouped {
 
     @Id
     @Column(name = "Country/Region")
+    @JsonSerialize(using = NameJsonSerializer.class)
     private String countryRegion;
 
     @Column(name = "Confirmed")
@@ -40,5 +43,6 @@ public class FullGrouped {
     private Integer newRecovered;
 
     @Column(name = "WHO Region")
+    @JsonSerialize(using = NameJsonSerializer.class)
     private String whoRegion;
 }
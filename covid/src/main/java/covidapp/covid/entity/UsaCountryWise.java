@@ -1,13 +1,31 @@
 package covidapp.covid.entity;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import covidapp.covid.config.NameJsonSerializer;
 import jakarta.persistence.*;
 import lombok.Data;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
 @Entity
 @Data
-@Table(name = "usa_county_wise")
+@Table(name = "usa_county_wise", indexes = {
+        // Keyset pagination on (UID, Report_Date), optionally after a filter column, so
+        // "col = ? AND (UID, Report_Date) > (?, ?) ORDER BY UID, Report_Date" is an index range scan
+        @Index(name = "idx_usa_uid_report_date", columnList = "UID, Report_Date"),
+        @Index(name = "idx_usa_country_uid_report_date", columnList = "Country_Region, UID, Report_Date"),
+        @Index(name = "idx_usa_province_uid_report_date", columnList = "Province_State, UID, Report_Date"),
+        @Index(name = "idx_usa_date_uid_report_date", columnList = "Date, UID, Report_Date"),
+        // Date ranges per state: "Province_State = ? AND Report_Date BETWEEN ? AND ?" is an index range scan
+        @Index(name = "idx_usa_province_report_date", columnList = "Province_State, Report_Date")
+})
 public class UsaCountryWise {
 
+    // Format of the string Date column ("1/22/20")
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("M/d/yy");
+
     @Id
     @Column(name = "UID")
     private Long uid;
@@ -28,9 +46,11 @@ public class UsaCountryWise {
     private String admin2;
 
     @Column(name = "Province_State")
+    @JsonSerialize(using = NameJsonSerializer.class)
     private String provinceState;
 
     @Column(name = "Country_Region")
+    @JsonSerialize(using = NameJsonSerializer.class)
     private String countryRegion;
 
     @Column(name = "Lat")
@@ -51,4 +71,32 @@ public class UsaCountryWise {
 
     @Column(name = "Deaths")
     private Integer deaths;
+
+    // Typed copy of Date - indexed, used for range queries and ordering
+    // Derived from Date on save; rows loaded straight into the table are backfilled at startup
+    @Column(name = "Report_Date")
+    private LocalDate reportDate;
+
+    @PrePersist
+    @PreUpdate
+    void syncReportDate() {
+        reportDate = parseDate(date);
+    }
+
+    /**
+     * Parse the String Date Column
+     *
+     * @param date Date as stored in the Date column (e.g. "1/22/20")
+     * @return Parsed date, or null if missing or not in M/d/yy form
+     */
+    public static LocalDate parseDate(String date) {
+        if (date == null || date.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(date.trim(), DATE_FORMAT);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
 }
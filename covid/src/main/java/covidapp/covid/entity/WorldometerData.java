@@ -1,5 +1,7 @@
 package covidapp.covid.entity;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import covidapp.covid.config.NameJsonSerializer;
 import jakarta.persistence.*;
 
 @Entity
@@ -11,9 +13,11 @@ public class WorldometerData {
     private Long id;
 
     @Column(name = "`Country/Region`")
+    @JsonSerialize(using = NameJsonSerializer.class)
     private String countryRegion;
 
     @Column(name = "Continent")
+    @JsonSerialize(using = NameJsonSerializer.class)
     private String continent;
 
     @Column(name = "Population")
@@ -56,6 +60,7 @@ public class WorldometerData {
     private Long tests1M;
 
     @Column(name = "`WHO Region`")
+    @JsonSerialize(using = NameJsonSerializer.class)
     private String whoRegion;
 
     // Getters & Setters
@@ -1,9 +1,17 @@
 package covidapp.covid.exception;
 
+import covidapp.covid.ingest.CsvIngestService;
+import covidapp.covid.service.LoginRateLimiter;
+import covidapp.covid.service.ReconciliationAudit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -17,16 +25,68 @@ import java.util.Map;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    /**
+     * Handle invalid client input (bad cursor, out-of-range parameter, ...)
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, Object>> handleIllegalArgumentException(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body(HttpStatus.BAD_REQUEST, e.getMessage()));
+    }
+
+    /**
+     * Handle request parameters of the wrong type (e.g. ?from=not-a-date)
+     */
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<Map<String, Object>> handleTypeMismatch(MethodArgumentTypeMismatchException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body(HttpStatus.BAD_REQUEST, "Invalid value for parameter '" + e.getName() + "': " + e.getValue()));
+    }
+
+    /**
+     * Handle a required request parameter that was not sent (e.g. /api/clean/bbox without maxLat)
+     */
+    @ExceptionHandler(MissingServletRequestParameterException.class)
+    public ResponseEntity<Map<String, Object>> handleMissingParameter(MissingServletRequestParameterException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body(HttpStatus.BAD_REQUEST, "Missing required parameter '" + e.getParameterName() + "'"));
+    }
+
+    /**
+     * Handle a bulk ingest requested while another one is running
+     */
+    @ExceptionHandler(CsvIngestService.IngestInProgressException.class)
+    public ResponseEntity<Map<String, Object>> handleIngestInProgress(CsvIngestService.IngestInProgressException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body(HttpStatus.CONFLICT, e.getMessage()));
+    }
+
+    /**
+     * Handle a reconciliation audit requested while another one is running
+     */
+    @ExceptionHandler(ReconciliationAudit.AuditInProgressException.class)
+    public ResponseEntity<Map<String, Object>> handleAuditInProgress(ReconciliationAudit.AuditInProgressException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body(HttpStatus.CONFLICT, e.getMessage()));
+    }
+
+    /**
+     * Handle a login or OTP attempt over the rate limit (Retry-After tells the client when to retry)
+     */
+    @ExceptionHandler(LoginRateLimiter.RateLimitedException.class)
+    public ResponseEntity<Map<String, Object>> handleRateLimited(LoginRateLimiter.RateLimitedException e) {
+        Map<String, Object> error = body(HttpStatus.TOO_MANY_REQUESTS, e.getMessage());
+        error.put("retryAfterSeconds", e.getRetryAfterSeconds());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()))
+                .body(error);
+    }
+
     /**
      * Handle all RuntimeException
      */
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<Map<String, Object>> handleRuntimeException(RuntimeException e) {
-        Map<String, Object> error = new HashMap<>();
-        error.put("message", e.getMessage());
-        error.put("error", "RuntimeException");
-        error.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        log.error("Unhandled {}: {}", e.getClass().getSimpleName(), e.getMessage(), e);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(body(HttpStatus.INTERNAL_SERVER_ERROR, "RuntimeException", e.getMessage()));
     }
 
     /**
@@ -34,15 +94,29 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleException(Exception e) {
-        Map<String, Object> error = new HashMap<>();
-        error.put("message", e.getMessage() != null ? e.getMessage() : "An unexpected error occurred");
-        error.put("error", e.getClass().getSimpleName());
-        error.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
-        
         // Log the full stack trace for debugging
-        e.printStackTrace();
-        
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        log.error("Unhandled {}: {}", e.getClass().getSimpleName(), e.getMessage(), e);
+
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(body(HttpStatus.INTERNAL_SERVER_ERROR,
+                e.getClass().getSimpleName(), e.getMessage() != null ? e.getMessage() : "An unexpected error occurred"));
+    }
+
+    /**
+     * Error body with the status's reason phrase as "error" (e.g. "Bad Request", "Conflict")
+     */
+    private static Map<String, Object> body(HttpStatus status, String message) {
+        return body(status, status.getReasonPhrase(), message);
+    }
+
+    /**
+     * Error body: { message, error, status } (mutable, so a handler can add fields)
+     */
+    private static Map<String, Object> body(HttpStatus status, String error, String message) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("message", message);
+        body.put("error", error);
+        body.put("status", status.value());
+        return body;
     }
 }
 
@@ -0,0 +1,84 @@
+package covidapp.covid.ingest;
+
+import covidapp.covid.dataset.Dataset;
+import covidapp.covid.dto.IngestReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * CSV Ingest Runner
+ *
+ * Command-line entry point for bulk loads; does nothing unless --ingest.dataset is given
+ *
+ * Usage:
+ *   java -jar covid.jar --spring.main.web-application-type=none \
+ *        --ingest.dataset=usa_county_wise --ingest.file=/data/usa_county_wise.csv [--ingest.mode=append]
+ *
+ * The options may be repeated to load several files in one run (datasets and files are paired in order)
+ * The application exits after the load: code 0 on success, 1 on failure
+ * (the code is reported through ExitCodeGenerator; CovidApplication.main passes it to the JVM)
+ */
+@Component
+public class CsvIngestRunner implements ApplicationRunner, ExitCodeGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(CsvIngestRunner.class);
+
+    private final CsvIngestService ingestService;
+
+    // Set once a command-line load has run (the application should then exit)
+    private volatile boolean ran;
+    private volatile int exitCode;
+
+    public CsvIngestRunner(CsvIngestService ingestService) {
+        this.ingestService = ingestService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<String> datasets = args.getOptionValues("ingest.dataset");
+        if (datasets == null || datasets.isEmpty()) {
+            return;
+        }
+        List<String> files = args.getOptionValues("ingest.file");
+        List<String> modes = args.getOptionValues("ingest.mode");
+        boolean replace = modes == null || !"append".equalsIgnoreCase(modes.get(0));
+
+        ran = true;
+        try {
+            if (files == null || files.size() != datasets.size()) {
+                throw new IllegalArgumentException("Give one --ingest.file per --ingest.dataset");
+            }
+            for (int i = 0; i < datasets.size(); i++) {
+                Dataset dataset = Dataset.from(datasets.get(i));
+                try (InputStream in = Files.newInputStream(Path.of(files.get(i)))) {
+                    IngestReport report = ingestService.ingest(dataset, in, replace);
+                    report.errors().forEach(error -> log.warn("{}: {}", dataset.getTable(), error));
+                }
+            }
+        } catch (Exception e) {
+            log.error("Ingest failed: {}", e.getMessage(), e);
+            exitCode = 1;
+        }
+    }
+
+    /**
+     * @return true if --ingest.dataset was given and the load has run
+     */
+    public boolean hasRun() {
+        return ran;
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+}
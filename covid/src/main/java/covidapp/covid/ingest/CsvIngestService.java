@@ -0,0 +1,349 @@
+package covidapp.covid.ingest;
+
+import covidapp.covid.dataset.Dataset;
+import covidapp.covid.dto.IngestReport;
+import covidapp.covid.service.CountryWiseService;
+import covidapp.covid.service.DatasetVersions;
+import covidapp.covid.service.DayWiseAnalytics;
+import covidapp.covid.service.FullGroupedColumnStore;
+import covidapp.covid.service.GlobalSummaryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * CSV Ingest Service
+ *
+ * Bulk-loads one of the six COVID CSV files into its table
+ *
+ * Pipeline:
+ * 1. A reader thread splits the file into chunks of chunkRows records
+ * 2. Parser threads turn chunks into validated insert parameters in parallel
+ * 3. The calling thread writes chunks in file order with JDBC batch inserts,
+ *    committing every rowsPerTransaction rows
+ *
+ * The queue between reader and writer is bounded, so memory use stays flat
+ * however large the file is (parsing waits while the database catches up)
+ *
+ * Modes:
+ * - replace: load into an empty staging copy of the table ("<table>_staging"), then swap it
+ *   in with one atomic RENAME TABLE. Readers see the old rows until the swap, and a failed
+ *   load leaves the live table, caches and versions untouched. Rows written to the live
+ *   table through the API while a replace is loading are discarded by the swap
+ * - append: insert only, straight into the table (batches committed before a failure stay)
+ *
+ * Invalid rows are skipped and counted; the first MAX_ERRORS are listed in the report
+ * Only one ingest runs at a time
+ */
+@Service
+public class CsvIngestService {
+
+    private static final Logger log = LoggerFactory.getLogger(CsvIngestService.class);
+
+    // Validation errors kept for the report
+    private static final int MAX_ERRORS = 20;
+
+    // Replace mode: the new rows are loaded into <table>_staging, the old ones end up in <table>_retired
+    private static final String STAGING_SUFFIX = "_staging";
+    private static final String RETIRED_SUFFIX = "_retired";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CountryWiseService countryWiseService;
+    private final GlobalSummaryService summaryService;
+    private final FullGroupedColumnStore fullGroupedStore;
+    private final DayWiseAnalytics dayWiseAnalytics;
+    private final DatasetVersions versions;
+
+    private final int parseThreads;
+    private final int chunkRows;
+    private final int rowsPerTransaction;
+
+    private final ReentrantLock running = new ReentrantLock();
+
+    /**
+     * One parsed chunk, in file order
+     */
+    private record Chunk(List<Object[]> rows, int read, List<String> errors, int rejected) {
+    }
+
+    // Marks the end of the file in the chunk queue
+    private static final Chunk END = new Chunk(List.of(), 0, List.of(), 0);
+
+    /**
+     * Thrown when an ingest is requested while another one is running
+     */
+    public static class IngestInProgressException extends RuntimeException {
+        public IngestInProgressException() {
+            super("Another ingest is already running");
+        }
+    }
+
+    public CsvIngestService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                            CountryWiseService countryWiseService, GlobalSummaryService summaryService,
+                            FullGroupedColumnStore fullGroupedStore, DayWiseAnalytics dayWiseAnalytics,
+                            DatasetVersions versions,
+                            @Value("${app.ingest.parse-threads:0}") int parseThreads,
+                            @Value("${app.ingest.chunk-rows:5000}") int chunkRows,
+                            @Value("${app.ingest.rows-per-transaction:50000}") int rowsPerTransaction) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.countryWiseService = countryWiseService;
+        this.summaryService = summaryService;
+        this.fullGroupedStore = fullGroupedStore;
+        this.dayWiseAnalytics = dayWiseAnalytics;
+        this.versions = versions;
+        this.parseThreads = parseThreads > 0 ? parseThreads : Runtime.getRuntime().availableProcessors();
+        this.chunkRows = Math.max(1, chunkRows);
+        this.rowsPerTransaction = Math.max(this.chunkRows, rowsPerTransaction);
+    }
+
+    /**
+     * Load a CSV File
+     *
+     * @param dataset Target dataset
+     * @param in CSV content (UTF-8, header row first); not closed
+     * @param replace true to replace all rows (atomically), false to append
+     * @return Report with counts, first errors and rows/sec
+     * @throws IllegalArgumentException if the file is empty or misses required columns
+     * @throws IngestInProgressException if another ingest is running
+     */
+    public IngestReport ingest(Dataset dataset, InputStream in, boolean replace) {
+        if (!running.tryLock()) {
+            throw new IngestInProgressException();
+        }
+        try {
+            long start = System.nanoTime();
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+            String header = CsvParser.readRecord(reader);
+            if (header == null) {
+                throw new IllegalArgumentException("CSV file is empty");
+            }
+            int[] indexes = dataset.bind(CsvParser.parse(header));
+
+            long[] counts = new long[3]; // read, inserted, rejected
+            List<String> errors = new ArrayList<>();
+            String staging = dataset.getTable() + STAGING_SUFFIX;
+            String retired = dataset.getTable() + RETIRED_SUFFIX;
+            // Append commits as it goes, so even a failed append may have changed the table
+            boolean changed = !replace;
+            try {
+                if (replace) {
+                    createStaging(dataset, staging, retired);
+                }
+                try (ExecutorService parsers = Executors.newFixedThreadPool(parseThreads)) {
+                    BlockingQueue<Future<Chunk>> chunks = new ArrayBlockingQueue<>(parseThreads * 2);
+                    Thread readerThread = Thread.ofVirtual().name("csv-ingest-reader")
+                            .start(() -> readChunks(reader, dataset, indexes, parsers, chunks));
+                    try {
+                        write(dataset.insertSql(replace ? staging : dataset.getTable()), chunks, counts, errors);
+                    } finally {
+                        readerThread.interrupt();
+                    }
+                }
+                if (replace) {
+                    // One statement, atomic in MySQL: readers see either all old or all new rows
+                    jdbcTemplate.execute("RENAME TABLE `" + dataset.getTable() + "` TO `" + retired + "`, `"
+                            + staging + "` TO `" + dataset.getTable() + "`");
+                    changed = true;
+                }
+            } finally {
+                if (replace) {
+                    dropQuietly(changed ? retired : staging);
+                }
+                if (changed) {
+                    afterIngest(dataset);
+                }
+            }
+
+            long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+            double rowsPerSecond = counts[1] * 1000.0 / elapsedMillis;
+
+            IngestReport report = new IngestReport(dataset.getTable(), replace ? "replace" : "append",
+                    counts[0], counts[1], counts[2], errors, elapsedMillis, Math.round(rowsPerSecond * 10) / 10.0);
+            log.info("Ingested {}: {} rows inserted, {} rejected in {} ms ({} rows/s)",
+                    dataset.getTable(), counts[1], counts[2], elapsedMillis, report.rowsPerSecond());
+            return report;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read CSV for " + dataset.getTable(), e);
+        } finally {
+            running.unlock();
+        }
+    }
+
+    /**
+     * Reader - splits the file into chunks and hands each to a parser thread
+     * (records are read sequentially; parsing and validation run in parallel)
+     */
+    private void readChunks(BufferedReader reader, Dataset dataset, int[] indexes,
+                            ExecutorService parsers, BlockingQueue<Future<Chunk>> chunks) {
+        try {
+            long line = 2; // line 1 is the header
+            List<String> records = new ArrayList<>(chunkRows);
+            long chunkStart = line;
+            String record;
+            while ((record = CsvParser.readRecord(reader)) != null) {
+                if (!record.isBlank()) {
+                    records.add(record);
+                }
+                line++;
+                if (records.size() == chunkRows) {
+                    submit(records, chunkStart, dataset, indexes, parsers, chunks);
+                    records = new ArrayList<>(chunkRows);
+                    chunkStart = line;
+                }
+            }
+            if (!records.isEmpty()) {
+                submit(records, chunkStart, dataset, indexes, parsers, chunks);
+            }
+            chunks.put(CompletableFuture.completedFuture(END));
+        } catch (InterruptedException e) {
+            // Writer stopped early - nothing left to do
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            try {
+                chunks.put(CompletableFuture.failedFuture(e));
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void submit(List<String> records, long firstLine, Dataset dataset, int[] indexes,
+                        ExecutorService parsers, BlockingQueue<Future<Chunk>> chunks) throws InterruptedException {
+        // put() blocks while the writer is behind - this is the back-pressure
+        chunks.put(parsers.submit(() -> parseChunk(records, firstLine, dataset, indexes)));
+    }
+
+    /**
+     * Parser - converts one chunk of records into insert parameters
+     * Line numbers are approximate when a quoted field spans several lines
+     */
+    private static Chunk parseChunk(List<String> records, long firstLine, Dataset dataset, int[] indexes) {
+        List<Object[]> rows = new ArrayList<>(records.size());
+        List<String> errors = new ArrayList<>();
+        int rejected = 0;
+        for (int i = 0; i < records.size(); i++) {
+            try {
+                rows.add(dataset.toRow(CsvParser.parse(records.get(i)), indexes));
+            } catch (IllegalArgumentException e) {
+                rejected++;
+                if (errors.size() < MAX_ERRORS) {
+                    errors.add("line " + (firstLine + i) + ": " + e.getMessage());
+                }
+            }
+        }
+        return new Chunk(rows, records.size(), errors, rejected);
+    }
+
+    /**
+     * Replace mode - empty copy of the table (same columns and indexes) to load into
+     * Leftovers of an earlier run that died before cleaning up are dropped first
+     */
+    private void createStaging(Dataset dataset, String staging, String retired) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS `" + staging + "`");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS `" + retired + "`");
+        jdbcTemplate.execute("CREATE TABLE `" + staging + "` LIKE `" + dataset.getTable() + "`");
+    }
+
+    private void dropQuietly(String table) {
+        try {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS `" + table + "`");
+        } catch (RuntimeException e) {
+            // The next replace drops it before loading
+            log.warn("Could not drop {}: {}", table, e.getMessage());
+        }
+    }
+
+    /**
+     * Writer - inserts chunks in file order, one transaction per rowsPerTransaction rows
+     */
+    private void write(String sql, BlockingQueue<Future<Chunk>> chunks, long[] counts, List<String> errors) {
+        boolean[] done = {false};
+        while (!done[0]) {
+            transactionTemplate.executeWithoutResult(status -> {
+                long inTransaction = 0;
+                while (inTransaction < rowsPerTransaction) {
+                    Chunk chunk = take(chunks);
+                    if (chunk == END) {
+                        done[0] = true;
+                        return;
+                    }
+                    if (!chunk.rows().isEmpty()) {
+                        jdbcTemplate.batchUpdate(sql, chunk.rows());
+                    }
+                    counts[0] += chunk.read();
+                    counts[1] += chunk.rows().size();
+                    counts[2] += chunk.rejected();
+                    for (String error : chunk.errors()) {
+                        if (errors.size() < MAX_ERRORS) {
+                            errors.add(error);
+                        }
+                    }
+                    inTransaction += chunk.rows().size();
+                }
+            });
+        }
+    }
+
+    private static Chunk take(BlockingQueue<Future<Chunk>> chunks) {
+        try {
+            return chunks.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ingest interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw new UncheckedIOException("Failed to read CSV", io);
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("CSV parsing failed", cause);
+        }
+    }
+
+    /**
+     * Refresh in-memory data derived from the table that was just loaded
+     * and advance its version (cached client copies become stale)
+     */
+    private void afterIngest(Dataset dataset) {
+        switch (dataset) {
+            case FULL_GROUPED -> fullGroupedStore.invalidate();
+            case DAY_WISE -> dayWiseAnalytics.invalidate();
+            case COUNTRY_WISE_LATEST -> {
+                // Fills the stored deaths/recovered ratio and red-alert flag
+                countryWiseService.syncRedAlerts();
+                summaryService.invalidate();
+            }
+            case WORLDOMETER -> summaryService.invalidate();
+            default -> {
+                // usa_county_wise gets Report_Date during the insert; no other caches
+            }
+        }
+        // After the caches are dropped, so bump listeners never rebuild from stale ones
+        versions.bump(dataset);
+    }
+}
@@ -0,0 +1,99 @@
+package covidapp.covid.ingest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV Parser
+ *
+ * Minimal RFC 4180 parser for the COVID datasets
+ *
+ * Supports:
+ * - Comma-separated fields, optionally wrapped in double quotes
+ * - Commas and line breaks inside quoted fields ("Korea, South")
+ * - Escaped quotes inside quoted fields ("" -> ")
+ * - A UTF-8 byte order mark at the start of the file
+ */
+public final class CsvParser {
+
+    private static final char QUOTE = '"';
+    private static final char SEPARATOR = ',';
+    private static final char BOM = '\uFEFF';
+
+    private CsvParser() {
+    }
+
+    /**
+     * Read One Record
+     *
+     * Reads one physical line, plus following lines while a quoted field is still open
+     *
+     * @param reader Source reader
+     * @return Raw record text (without the trailing line break), or null at end of input
+     */
+    public static String readRecord(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if (line == null || !hasOpenQuote(line)) {
+            return line;
+        }
+        StringBuilder record = new StringBuilder(line);
+        while (hasOpenQuote(record)) {
+            String next = reader.readLine();
+            if (next == null) {
+                break;
+            }
+            record.append('\n').append(next);
+        }
+        return record.toString();
+    }
+
+    /**
+     * Split One Record into Fields
+     *
+     * @param record Raw record text from readRecord
+     * @return Field values (quotes removed, never null)
+     */
+    public static String[] parse(String record) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int start = !record.isEmpty() && record.charAt(0) == BOM ? 1 : 0;
+        boolean quoted = false;
+
+        for (int i = start; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c == QUOTE) {
+                    if (i + 1 < record.length() && record.charAt(i + 1) == QUOTE) {
+                        field.append(QUOTE);
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == QUOTE) {
+                quoted = true;
+            } else if (c == SEPARATOR) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c != '\r') {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    private static boolean hasOpenQuote(CharSequence text) {
+        int quotes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == QUOTE) {
+                quotes++;
+            }
+        }
+        return (quotes & 1) == 1;
+    }
+}
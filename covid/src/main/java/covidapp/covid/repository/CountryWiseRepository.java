@@ -3,8 +3,51 @@ package covidapp.covid.repository;
 
 
 import covidapp.covid.entity.CountryWiseLatest;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
 
 public interface CountryWiseRepository extends JpaRepository<CountryWiseLatest, String> {
-}
 
+    // List endpoint, snapshot and summary loads - rows are loaded read-only (no dirty-checking snapshots)
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<CountryWiseLatest> findAll();
+
+    // Red-alert countries, highest ratio first (uses idx_country_red_alert_ratio)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<CountryWiseLatest> findByRedAlertTrueOrderByDeathsRecoveredRatioDesc();
+
+    // Countries above an ad-hoc threshold, highest ratio first (uses idx_country_ratio)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<CountryWiseLatest> findByDeathsRecoveredRatioGreaterThanOrderByDeathsRecoveredRatioDesc(double threshold);
+
+    // Fill the ratio for rows written before the column existed (or loaded straight into the table)
+    @Modifying
+    @Transactional
+    @Query("UPDATE CountryWiseLatest c SET c.deathsRecoveredRatio = c.deaths * 1.0 / c.recovered " +
+            "WHERE c.deathsRecoveredRatio IS NULL AND c.deaths IS NOT NULL AND c.recovered > 0")
+    int backfillDeathsRecoveredRatio();
+
+    // Raise the flag only on rows that are above the threshold but not flagged yet
+    @Modifying
+    @Transactional
+    @Query("UPDATE CountryWiseLatest c SET c.redAlert = true " +
+            "WHERE c.deathsRecoveredRatio > :threshold AND (c.redAlert IS NULL OR c.redAlert = false)")
+    int raiseRedAlerts(@Param("threshold") double threshold);
+
+    // Clear the flag only on rows that are flagged (or unset) but no longer above the threshold
+    @Modifying
+    @Transactional
+    @Query("UPDATE CountryWiseLatest c SET c.redAlert = false " +
+            "WHERE (c.deathsRecoveredRatio IS NULL OR c.deathsRecoveredRatio <= :threshold) " +
+            "AND (c.redAlert IS NULL OR c.redAlert = true)")
+    int clearRedAlerts(@Param("threshold") double threshold);
+}
@@ -1,9 +1,32 @@
 package covidapp.covid.repository;
 
+import covidapp.covid.dto.AuditTotals;
 import covidapp.covid.entity.CovidCleanComplete;
 import covidapp.covid.entity.CovidKey;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface CovidCleanCompleteRepository
         extends JpaRepository<CovidCleanComplete, CovidKey> {
+
+    // List endpoint, snapshot and spatial index loads - rows are loaded read-only (no dirty-checking snapshots)
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<CovidCleanComplete> findAll();
+
+    // Reconciliation audit - provinces summed per country and date, one country partition at a time
+    @Query("SELECT new covidapp.covid.dto.AuditTotals(c.id.countryRegion, c.id.date, SUM(c.confirmed), " +
+            "SUM(c.deaths), SUM(c.recovered), SUM(c.active), COUNT(c)) FROM CovidCleanComplete c " +
+            "WHERE c.id.countryRegion IN :countries GROUP BY c.id.countryRegion, c.id.date")
+    List<AuditTotals> sumByCountryAndDate(@Param("countries") Collection<String> countries);
+
+    @Query("SELECT DISTINCT c.id.countryRegion FROM CovidCleanComplete c")
+    List<String> findCountryRegions();
 }
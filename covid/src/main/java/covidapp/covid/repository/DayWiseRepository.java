@@ -1,13 +1,30 @@
 package covidapp.covid.repository;
 
 import covidapp.covid.entity.DayWise;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface DayWiseRepository extends JpaRepository<DayWise, Long> {
+
+    // List endpoint and analytics load - rows are loaded read-only (no dirty-checking snapshots)
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<DayWise> findAll();
+
     Optional<DayWise> findByDate(LocalDate date);
+
+    // FullGroupedViewMaintainer - the date's totals, locked until the commit, so concurrent
+    // writes to the same date add their deltas one after the other instead of overwriting each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<DayWise> findForUpdateByDate(LocalDate date);
 }
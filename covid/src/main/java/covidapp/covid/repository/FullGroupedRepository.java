@@ -1,17 +1,52 @@
 package covidapp.covid.repository;
 
+import covidapp.covid.dto.AuditTotals;
 import covidapp.covid.entity.FullGrouped;
 import covidapp.covid.entity.FullGroupedId;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface FullGroupedRepository extends JpaRepository<FullGrouped, FullGroupedId> {
 
+    // Loads the column store - rows are copied into columns, so they are loaded read-only (no snapshots)
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<FullGrouped> findAll();
+
     List<FullGrouped> findByCountryRegion(String countryRegion);
 
+    // Single-row writes (FullGroupedService) - the stored row, locked until the commit,
+    // so the "before" of the change is the committed row and concurrent writes queue up
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<FullGrouped> findForUpdateByDateAndCountryRegion(LocalDate date, String countryRegion);
+
+    // Latest row of a country (FullGroupedViewMaintainer rebuilds country_wise_latest from it)
+    Optional<FullGrouped> findFirstByCountryRegionOrderByDateDesc(String countryRegion);
+
     List<FullGrouped> findByDate(LocalDate date);
 
     List<FullGrouped> findByWhoRegion(String whoRegion);
+
+    // Reconciliation audit - one country partition at a time, read-only
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<FullGrouped> findByCountryRegionIn(Collection<String> countryRegions);
+
+    // Reconciliation audit - expected day_wise figures, summed by the database
+    @Query("SELECT new covidapp.covid.dto.AuditTotals(f.date, SUM(f.confirmed), SUM(f.deaths), SUM(f.recovered), " +
+            "SUM(f.active), SUM(f.newCases), SUM(f.newDeaths), SUM(f.newRecovered), COUNT(f)) " +
+            "FROM FullGrouped f GROUP BY f.date")
+    List<AuditTotals> sumByDate();
+
+    @Query("SELECT DISTINCT f.countryRegion FROM FullGrouped f")
+    List<String> findCountryRegions();
 }
@@ -1,17 +1,68 @@
 package covidapp.covid.repository;
 
+import covidapp.covid.dto.AuditTotals;
+import covidapp.covid.dto.UsaCountryWiseView;
 import covidapp.covid.entity.UsaCountryWise;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
 
 public interface UsaCountryWiseRepository extends JpaRepository<UsaCountryWise, Long> {
 
-    List<UsaCountryWise> findByCountryRegion(String country);
+    // List queries return UsaCountryWiseView (constructor projection) - rows are never managed
 
-    List<UsaCountryWise> findByProvinceState(String province);
+    List<UsaCountryWiseView> findAllBy();
 
-    List<UsaCountryWise> findByDate(String date);  // FIXED !!
-}
+    // Keyset pagination - rows after the (UID, Report_Date) cursor, ordered by UID then Report_Date
+    // (one row per county per day shares a UID, so UID alone would skip the rest of a UID cut by a page)
+    // Each filter has a (filter column, UID, Report_Date) index, so every page is an index range scan
+    // A missing Report_Date (not backfilled yet) sorts first and is compared as NO_REPORT_DATE, so
+    // NULL never meets ">" and a cursor on such a row still resumes inside its UID
+    LocalDate NO_REPORT_DATE = LocalDate.of(1000, 1, 1);
+    String VIEW = "SELECT new covidapp.covid.dto.UsaCountryWiseView(u.uid, u.iso2, u.iso3, u.code3, u.fips, " +
+            "u.admin2, u.provinceState, u.countryRegion, u.latitude, u.longitude, u.combinedKey, u.date, " +
+            "u.confirmed, u.deaths, u.reportDate) FROM UsaCountryWise u ";
+    String AFTER_CURSOR = "(u.uid > :uid OR (u.uid = :uid AND COALESCE(u.reportDate, {d '1000-01-01'}) > :reportDate)) " +
+            "ORDER BY u.uid, u.reportDate";
+
+    @Query(VIEW + "WHERE " + AFTER_CURSOR)
+    List<UsaCountryWiseView> findPageAfter(@Param("uid") Long uid, @Param("reportDate") LocalDate reportDate,
+                                           Limit limit);
+
+    @Query(VIEW + "WHERE u.countryRegion = :country AND " + AFTER_CURSOR)
+    List<UsaCountryWiseView> findPageByCountryRegionAfter(@Param("country") String country, @Param("uid") Long uid,
+                                                          @Param("reportDate") LocalDate reportDate, Limit limit);
+
+    @Query(VIEW + "WHERE u.provinceState = :province AND " + AFTER_CURSOR)
+    List<UsaCountryWiseView> findPageByProvinceStateAfter(@Param("province") String province, @Param("uid") Long uid,
+                                                          @Param("reportDate") LocalDate reportDate, Limit limit);
+
+    @Query(VIEW + "WHERE u.date = :date AND " + AFTER_CURSOR)
+    List<UsaCountryWiseView> findPageByDateAfter(@Param("date") String date, @Param("uid") Long uid,
+                                                 @Param("reportDate") LocalDate reportDate, Limit limit);
 
+    // Date range for one state, oldest first (uses idx_usa_province_report_date)
+    List<UsaCountryWiseView> findByProvinceStateAndReportDateBetweenOrderByReportDateAscUidAsc(
+            String province, LocalDate from, LocalDate to);
+
+    // Distinct string dates whose typed Report_Date has not been filled yet
+    @Query("SELECT DISTINCT u.date FROM UsaCountryWise u WHERE u.reportDate IS NULL AND u.date IS NOT NULL")
+    List<String> findDatesMissingReportDate();
+
+    // Fill Report_Date for every row with the given string date (uses idx_usa_date_uid_report_date)
+    @Modifying
+    @Transactional
+    @Query("UPDATE UsaCountryWise u SET u.reportDate = :reportDate WHERE u.date = :date AND u.reportDate IS NULL")
+    int backfillReportDate(@Param("date") String date, @Param("reportDate") LocalDate reportDate);
+
+    // Reconciliation audit - counties summed per date by the database
+    @Query("SELECT new covidapp.covid.dto.AuditTotals(u.date, SUM(u.confirmed), SUM(u.deaths), COUNT(u)) " +
+            "FROM UsaCountryWise u GROUP BY u.date")
+    List<AuditTotals> sumByDate();
+}
@@ -1,9 +1,23 @@
 package covidapp.covid.repository;
 
+import covidapp.covid.dto.WorldometerView;
 import covidapp.covid.entity.WorldometerData;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
 
 public interface WorldometerRepository extends JpaRepository<WorldometerData, Long> {
 
     WorldometerData findByCountryRegion(String countryRegion);
+
+    // List endpoint - constructor projection, rows are never managed
+    List<WorldometerView> findAllBy();
+
+    // Global summary rebuild - rows are loaded read-only (no dirty-checking snapshots)
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<WorldometerData> findAll();
 }
@@ -1,8 +1,15 @@
 package covidapp.covid.service;
 
+import covidapp.covid.dataset.Dataset;
 import covidapp.covid.entity.CountryWiseLatest;
 import covidapp.covid.repository.CountryWiseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -15,51 +22,129 @@ import java.util.List;
  * - CRUD operations (Create, Read, Update, Delete) for country data
  * 
  * Red Alert Logic:
- * - A country gets red alert if deaths:recovered ratio > 1:10
- * - Formula: (deaths / recovered) > 0.1
+ * - A country gets red alert if deaths:recovered ratio > threshold (default 1:10)
+ * - Formula: (deaths / recovered) > app.country.red-alert-threshold
  * - This indicates high mortality rate relative to recoveries
+ * - The ratio and the flag are stored on the row when it is saved, so reads do no work
+ * - At startup, rows whose flag disagrees with the configured threshold are fixed with
+ *   two bulk UPDATEs (changing the threshold only rewrites the rows that cross it)
  */
 @Service
 public class CountryWiseService {
 
+    private static final Logger log = LoggerFactory.getLogger(CountryWiseService.class);
+
     // Repository for database operations on CountryWiseLatest entity
     private final CountryWiseRepository repo;
 
+    // Incrementally maintained global totals (notified on every write)
+    private final GlobalSummaryService summaryService;
+
+    // Version counters behind the ETag of the list endpoints (advanced on every write)
+    private final DatasetVersions versions;
+
+    // Deaths:recovered ratio above which a country is flagged
+    private final double redAlertThreshold;
+
     /**
      * Constructor - Dependency injection
-     * Spring automatically injects CountryWiseRepository
+     * Spring automatically injects CountryWiseRepository, GlobalSummaryService, DatasetVersions and the threshold
      */
-    public CountryWiseService(CountryWiseRepository repo) {
+    public CountryWiseService(CountryWiseRepository repo, GlobalSummaryService summaryService,
+                              DatasetVersions versions,
+                              @Value("${app.country.red-alert-threshold:0.1}") double redAlertThreshold) {
         this.repo = repo;
+        this.summaryService = summaryService;
+        this.versions = versions;
+        this.redAlertThreshold = redAlertThreshold;
+    }
+
+    /**
+     * Calculate Deaths to Recovered Ratio
+     *
+     * @param country Country data
+     * @return deaths / recovered, or null if recovered is 0 or missing
+     */
+    public static Double deathsRecoveredRatio(CountryWiseLatest country) {
+        Integer deaths = country.getDeaths();
+        Integer recovered = country.getRecovered();
+        if (deaths == null || recovered == null || recovered == 0) {
+            return null;
+        }
+        return (double) deaths / recovered;
+    }
+
+    /**
+     * Set Stored Ratio and Red Alert Flag
+     *
+     * Called before every save so the persisted columns always match the row's numbers
+     * (also by FullGroupedViewMaintainer, which writes rows derived from full_grouped)
+     *
+     * @param country Country data to update in place
+     */
+    public void applyRedAlert(CountryWiseLatest country) {
+        Double ratio = deathsRecoveredRatio(country);
+        country.setDeathsRecoveredRatio(ratio);
+        country.setRedAlert(ratio != null && ratio > redAlertThreshold);
+    }
+
+    /**
+     * Sync Stored Red Alert Flags at Startup
+     *
+     * Process:
+     * 1. Fill the ratio on rows that do not have it yet (e.g. loaded from CSV)
+     * 2. Raise the flag on rows above the threshold that are not flagged
+     * 3. Clear the flag on flagged rows that are no longer above it
+     *
+     * Each step is a single bulk UPDATE that only touches rows needing a change
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void syncRedAlerts() {
+        try {
+            int ratios = repo.backfillDeathsRecoveredRatio();
+            int raised = repo.raiseRedAlerts(redAlertThreshold);
+            int cleared = repo.clearRedAlerts(redAlertThreshold);
+            if (ratios + raised + cleared > 0) {
+                log.info("Red alert sync (threshold {}): {} ratios filled, {} flags raised, {} flags cleared",
+                        redAlertThreshold, ratios, raised, cleared);
+                summaryService.invalidate();
+                versions.bump(Dataset.COUNTRY_WISE_LATEST);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Red alert sync failed: {}", e.getMessage());
+        }
     }
 
     /**
      * Get All Countries
      * 
      * Retrieves all country-wise COVID-19 data from database
-     * and calculates red alert status for each country
+     * Red alert status is read from the stored column (no per-row calculation)
      * 
      * @return List of all countries with their COVID-19 statistics
-     * 
-     * Red Alert Calculation:
-     * - If recovered > 0: Calculate deaths:recovered ratio
-     * - If ratio > 0.1 (1:10): Set redAlert = true (high mortality rate)
-     * - Otherwise: Set redAlert = false
      */
+    @Transactional(readOnly = true)
     public List<CountryWiseLatest> getAll() {
-        // Fetch all countries from database
-        List<CountryWiseLatest> list = repo.findAll();
-
-        // Calculate and set red alert status for each country
-        // Red alert = deaths:recovered ratio > 1:10 (more than 1 death per 10 recoveries)
-        list.forEach(country -> {
-            // Check if recovered is not zero to avoid division by zero
-            boolean alert = country.getRecovered() != 0 &&
-                    ((double) country.getDeaths() / country.getRecovered()) > 0.1;
-            country.setRedAlert(alert);
-        });
-
-        return list;
+        return repo.findAll();
+    }
+
+    /**
+     * Get Red Alert Countries
+     *
+     * Uses an indexed query instead of loading and filtering every country
+     *
+     * @param threshold Optional ratio to use instead of the configured one (null = stored flag)
+     * @return Countries above the threshold, highest deaths:recovered ratio first
+     */
+    @Transactional(readOnly = true)
+    public List<CountryWiseLatest> getAlerts(Double threshold) {
+        if (threshold == null) {
+            return repo.findByRedAlertTrueOrderByDeathsRecoveredRatioDesc();
+        }
+        if (threshold.isNaN() || threshold < 0) {
+            throw new IllegalArgumentException("threshold must be a non-negative number");
+        }
+        return repo.findByDeathsRecoveredRatioGreaterThanOrderByDeathsRecoveredRatioDesc(threshold);
     }
 
     /**
@@ -70,18 +155,10 @@ public class CountryWiseService {
      * @param country Country name (used as primary key)
      * @return CountryWiseLatest object with data and red alert status, or null if not found
      */
+    @Transactional(readOnly = true)
     public CountryWiseLatest getByCountry(String country) {
         // Find country in database by name (primary key)
-        CountryWiseLatest data = repo.findById(country).orElse(null);
-
-        // Calculate red alert status if country exists
-        if (data != null) {
-            boolean alert = data.getRecovered() != 0 &&
-                    ((double) data.getDeaths() / data.getRecovered()) > 0.1;
-            data.setRedAlert(alert);
-        }
-
-        return data;
+        return repo.findById(country).orElse(null);
     }
 
     /**
@@ -93,13 +170,14 @@ public class CountryWiseService {
      * @return Saved CountryWiseLatest object with red alert status calculated
      */
     public CountryWiseLatest saveCountry(CountryWiseLatest data) {
-        // Calculate red alert status before saving
-        boolean alert = data.getRecovered() != 0 &&
-                ((double) data.getDeaths() / data.getRecovered()) > 0.1;
-        data.setRedAlert(alert);
-
-        // Save to database and return
-        return repo.save(data);
+        // Calculate ratio and red alert status before saving (both are stored)
+        applyRedAlert(data);
+
+        // Save to database and update global totals
+        CountryWiseLatest saved = repo.save(data);
+        summaryService.onCountrySaved(saved);
+        versions.bump(Dataset.COUNTRY_WISE_LATEST);
+        return saved;
     }
 
     /**
@@ -141,13 +219,14 @@ public class CountryWiseService {
         if (data.getOneWeekPercentIncrease() != null) existing.setOneWeekPercentIncrease(data.getOneWeekPercentIncrease());
         if (data.getWhoRegion() != null) existing.setWhoRegion(data.getWhoRegion());
 
-        // Recalculate red alert status with updated data
-        boolean alert = existing.getRecovered() != 0 &&
-                ((double) existing.getDeaths() / existing.getRecovered()) > 0.1;
-        existing.setRedAlert(alert);
+        // Recalculate ratio and red alert status with updated data
+        applyRedAlert(existing);
 
-        // Save updated country to database
-        return repo.save(existing);
+        // Save updated country to database and update global totals
+        CountryWiseLatest saved = repo.save(existing);
+        summaryService.onCountrySaved(saved);
+        versions.bump(Dataset.COUNTRY_WISE_LATEST);
+        return saved;
     }
 
     /**
@@ -165,5 +244,7 @@ public class CountryWiseService {
         }
         // Delete country from database
         repo.deleteById(country);
+        summaryService.onCountryDeleted(country);
+        versions.bump(Dataset.COUNTRY_WISE_LATEST);
     }
 }
@@ -0,0 +1,166 @@
+package covidapp.covid.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Covid Clean Complete Exporter
+ *
+ * Streams the "covid_19_clean_complete" table straight from JDBC to the HTTP response
+ * without building entities or a persistence context
+ *
+ * Features:
+ * - Constant memory: rows are read with a streaming result set and written one at a time
+ * - Low time-to-first-byte: output is flushed after the first row and then every FLUSH_EVERY rows
+ * - Same JSON shape as the CovidCleanComplete entity ({"id": {...}, "lat": ..., ...})
+ *
+ * Formats:
+ * - NDJSON: one JSON object per line (application/x-ndjson)
+ * - JSON: a single JSON array written incrementally (application/json, chunked)
+ */
+@Component
+public class CovidCleanCompleteExporter {
+
+    /**
+     * Output format for the export
+     */
+    public enum Format {
+        NDJSON("application/x-ndjson"),
+        JSON("application/json");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public static Format from(String value) {
+            if (value == null || value.isBlank()) {
+                return NDJSON;
+            }
+            try {
+                return Format.valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + value + " (use ndjson or json)");
+            }
+        }
+    }
+
+    private static final String SELECT_ALL =
+            "SELECT `province/state`, `country/region`, `date`, `lat`, `long`, " +
+            "`confirmed`, `deaths`, `recovered`, `active`, `who region` " +
+            "FROM covid_19_clean_complete";
+
+    // Flush the response every N rows so the client sees steady chunks
+    private static final int FLUSH_EVERY = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    // JDBC fetch size; Integer.MIN_VALUE makes MySQL Connector/J stream rows one by one
+    @Value("${app.export.fetch-size:-2147483648}")
+    private int fetchSize;
+
+    public CovidCleanCompleteExporter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Export All Rows
+     *
+     * @param out Response output stream (not closed by this method)
+     * @param format NDJSON or JSON array
+     * @return Number of rows written
+     */
+    public long export(OutputStream out, Format format) throws IOException {
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            // Leave the servlet stream open - the container owns it
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (format == Format.NDJSON) {
+                gen.setRootValueSeparator(null);
+            } else {
+                gen.writeStartArray();
+            }
+
+            long[] count = {0};
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(SELECT_ALL,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(fetchSize);
+                return ps;
+            }, (ResultSet rs) -> {
+                try {
+                    writeRow(gen, rs);
+                    if (format == Format.NDJSON) {
+                        gen.writeRaw('\n');
+                    }
+                    if (++count[0] == 1 || count[0] % FLUSH_EVERY == 0) {
+                        gen.flush();
+                    }
+                } catch (IOException e) {
+                    // Client went away - abort the query instead of reading the rest of the table
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            if (format == Format.JSON) {
+                gen.writeEndArray();
+            }
+            gen.flush();
+            return count[0];
+        }
+    }
+
+    private static void writeRow(JsonGenerator gen, ResultSet rs) throws IOException, SQLException {
+        gen.writeStartObject();
+
+        gen.writeObjectFieldStart("id");
+        gen.writeStringField("provinceState", rs.getString(1));
+        gen.writeStringField("countryRegion", rs.getString(2));
+        gen.writeStringField("date", rs.getString(3));
+        gen.writeEndObject();
+
+        writeDouble(gen, "lat", rs, 4);
+        writeDouble(gen, "lon", rs, 5);
+        writeInt(gen, "confirmed", rs, 6);
+        writeInt(gen, "deaths", rs, 7);
+        writeInt(gen, "recovered", rs, 8);
+        writeInt(gen, "active", rs, 9);
+        gen.writeStringField("whoRegion", rs.getString(10));
+
+        gen.writeEndObject();
+    }
+
+    private static void writeInt(JsonGenerator gen, String name, ResultSet rs, int column) throws IOException, SQLException {
+        int value = rs.getInt(column);
+        if (rs.wasNull()) {
+            gen.writeNullField(name);
+        } else {
+            gen.writeNumberField(name, value);
+        }
+    }
+
+    private static void writeDouble(JsonGenerator gen, String name, ResultSet rs, int column) throws IOException, SQLException {
+        double value = rs.getDouble(column);
+        if (rs.wasNull()) {
+            gen.writeNullField(name);
+        } else {
+            gen.writeNumberField(name, value);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import covidapp.covid.entity.CovidCleanComplete;
 import covidapp.covid.entity.CovidKey;
 import covidapp.covid.repository.CovidCleanCompleteRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -12,15 +13,30 @@ public class CovidCleanCompleteService {
 
     private final CovidCleanCompleteRepository repo;
 
-    public CovidCleanCompleteService(CovidCleanCompleteRepository repo) {
+    // In-memory grid over lat/lon for viewport queries
+    private final CovidCleanSpatialIndex spatialIndex;
+
+    public CovidCleanCompleteService(CovidCleanCompleteRepository repo, CovidCleanSpatialIndex spatialIndex) {
         this.repo = repo;
+        this.spatialIndex = spatialIndex;
     }
 
+    @Transactional(readOnly = true)
     public List<CovidCleanComplete> getAll() {
         return repo.findAll();
     }
 
+    @Transactional(readOnly = true)
     public CovidCleanComplete getById(CovidKey id) {
         return repo.findById(id).orElse(null);
     }
+
+    /**
+     * Rows of one date inside a bounding box (answered from the spatial index)
+     *
+     * @param date yyyy-MM-dd, or null for the latest date
+     */
+    public List<CovidCleanComplete> getInBox(double minLat, double maxLat, double minLon, double maxLon, String date) {
+        return spatialIndex.findInBox(minLat, maxLat, minLon, maxLon, date);
+    }
 }
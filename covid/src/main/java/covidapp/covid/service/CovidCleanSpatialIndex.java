@@ -0,0 +1,297 @@
+package covidapp.covid.service;
+
+import covidapp.covid.dataset.Dataset;
+import covidapp.covid.entity.CovidCleanComplete;
+import covidapp.covid.entity.CovidKey;
+import covidapp.covid.repository.CovidCleanCompleteRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Covid Clean Complete Spatial Index
+ *
+ * In-memory uniform grid over the coordinates of "covid_19_clean_complete",
+ * used to answer map viewport (bounding box) queries without reading the table
+ *
+ * Layout:
+ * - Each distinct location (province/state + country/region) with coordinates gets an id,
+ *   assigned in country, then province order (so results come back in a stable order)
+ * - The world is split into cells of cellDegrees x cellDegrees; each cell lists the ids
+ *   of the locations inside it (compact int arrays, CSR style)
+ * - Rows are kept per date as an array indexed by location id
+ * - Rows are copies of the repository's entities, holding the NameDictionary's canonical
+ *   country, province and WHO region instances (and one instance per date), so the ~49k
+ *   cached rows share a few hundred strings instead of holding their own copies
+ * - Locations are matched by their (country, province) names, so two names never share
+ *   a location, even once the dictionary is full
+ *
+ * Query:
+ * - Only the cells overlapping the box are visited, and each location in them is checked
+ *   against the exact box, so cost depends on the visible points, not the table size
+ * - A box with minLon > maxLon crosses the antimeridian (e.g. 170 to -170)
+ *
+ * Lifecycle:
+ * - Built lazily (LazyLoader) from the repository on the first query
+ * - Dropped whenever the dataset version changes (rebuilt on the next query)
+ * - Immutable once built, so queries need no locking
+ */
+@Component
+public class CovidCleanSpatialIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CovidCleanSpatialIndex.class);
+
+    private final CovidCleanCompleteRepository repo;
+    private final DatasetVersions versions;
+    private final NameDictionary names;
+    private final double cellDegrees;
+    private final int latCells;
+    private final int lonCells;
+
+    private final LazyLoader<Grid> grid;
+
+    /**
+     * Built index (never modified after construction)
+     *
+     * @param lats Latitude per location id
+     * @param lons Longitude per location id
+     * @param cellStart Offset of each cell's first entry in cellLocations (length cells + 1)
+     * @param cellLocations Location ids, grouped by cell
+     * @param rowsByDate Date -> row per location id (null where the location has no row)
+     * @param latestDate Last date in the dataset (null if empty)
+     */
+    private record Grid(double[] lats, double[] lons, int[] cellStart, int[] cellLocations,
+                        Map<String, CovidCleanComplete[]> rowsByDate, String latestDate) {
+    }
+
+    /**
+     * Location key: canonical country and province names ("" when missing)
+     */
+    private record Location(String country, String province) {
+    }
+
+    public CovidCleanSpatialIndex(CovidCleanCompleteRepository repo, DatasetVersions versions, NameDictionary names,
+                                  @Value("${app.clean.grid-cell-degrees:2.0}") double cellDegrees) {
+        if (!(cellDegrees > 0 && cellDegrees <= 180)) {
+            throw new IllegalArgumentException("app.clean.grid-cell-degrees must be in (0, 180]");
+        }
+        this.repo = repo;
+        this.versions = versions;
+        this.names = names;
+        this.cellDegrees = cellDegrees;
+        this.latCells = (int) Math.ceil(180 / cellDegrees);
+        this.lonCells = (int) Math.ceil(360 / cellDegrees);
+        this.grid = new LazyLoader<>(() -> build(repo.findAll()));
+    }
+
+    /**
+     * Drop the index whenever covid_19_clean_complete changes
+     * (registered after construction, so the listener never sees a half-built instance)
+     */
+    @PostConstruct
+    public void subscribe() {
+        versions.onChange(dataset -> {
+            if (dataset == Dataset.COVID_19_CLEAN_COMPLETE) {
+                invalidate();
+            }
+        });
+    }
+
+    /**
+     * Find Rows inside a Bounding Box
+     *
+     * @param minLat Southern edge (-90..90)
+     * @param maxLat Northern edge (-90..90, not below minLat)
+     * @param minLon Western edge (-180..180)
+     * @param maxLon Eastern edge (-180..180; below minLon to cross the antimeridian)
+     * @param date Date (yyyy-MM-dd); null for the latest date in the dataset
+     * @return Rows of that date whose coordinates are inside the box (edges included),
+     *         ordered by country, then province
+     * @throws IllegalArgumentException if a bound is out of range or the date is invalid
+     */
+    public List<CovidCleanComplete> findInBox(double minLat, double maxLat, double minLon, double maxLon, String date) {
+        if (!inRange(minLat, 90) || !inRange(maxLat, 90) || minLat > maxLat) {
+            throw new IllegalArgumentException("minLat/maxLat must be between -90 and 90, minLat <= maxLat");
+        }
+        if (!inRange(minLon, 180) || !inRange(maxLon, 180)) {
+            throw new IllegalArgumentException("minLon/maxLon must be between -180 and 180");
+        }
+        Grid g = grid.get();
+        String day = date == null || date.isBlank() ? g.latestDate() : normalizeDate(date);
+        CovidCleanComplete[] rows = day == null ? null : g.rowsByDate().get(day);
+        if (rows == null) {
+            return List.of();
+        }
+
+        List<Integer> ids = new ArrayList<>();
+        if (minLon <= maxLon) {
+            collect(g, minLat, maxLat, minLon, maxLon, ids);
+        } else {
+            collect(g, minLat, maxLat, minLon, 180, ids);
+            collect(g, minLat, maxLat, -180, maxLon, ids);
+        }
+        ids.sort(Comparator.naturalOrder());
+
+        List<CovidCleanComplete> result = new ArrayList<>(ids.size());
+        int previous = -1;
+        for (int id : ids) {
+            // A location on lon = 180 / -180 is found by both halves of a wrapped box
+            if (id != previous && rows[id] != null) {
+                result.add(rows[id]);
+            }
+            previous = id;
+        }
+        return result;
+    }
+
+    /**
+     * Drop the Index (rebuilt from the repository on the next query)
+     */
+    public void invalidate() {
+        grid.invalidate();
+    }
+
+    private void collect(Grid g, double minLat, double maxLat, double minLon, double maxLon, List<Integer> ids) {
+        int fromLat = latCell(minLat);
+        int toLat = latCell(maxLat);
+        int fromLon = lonCell(minLon);
+        int toLon = lonCell(maxLon);
+        for (int la = fromLat; la <= toLat; la++) {
+            for (int lo = fromLon; lo <= toLon; lo++) {
+                int cell = la * lonCells + lo;
+                for (int i = g.cellStart()[cell]; i < g.cellStart()[cell + 1]; i++) {
+                    int id = g.cellLocations()[i];
+                    double lat = g.lats()[id];
+                    double lon = g.lons()[id];
+                    if (lat >= minLat && lat <= maxLat && lon >= minLon && lon <= maxLon) {
+                        ids.add(id);
+                    }
+                }
+            }
+        }
+    }
+
+    private Grid build(List<CovidCleanComplete> all) {
+        long start = System.nanoTime();
+
+        // 1. Distinct locations in country, province order (first coordinates seen win)
+        Map<String, Map<String, double[]>> locations = new TreeMap<>();
+        for (CovidCleanComplete row : all) {
+            CovidKey key = row.getId();
+            if (key == null || row.getLat() == null || row.getLon() == null
+                    || !inRange(row.getLat(), 90) || !inRange(row.getLon(), 180)) {
+                continue;
+            }
+            locations.computeIfAbsent(nullToEmpty(key.getCountryRegion()), c -> new TreeMap<>())
+                    .putIfAbsent(nullToEmpty(key.getProvinceState()), new double[]{row.getLat(), row.getLon()});
+        }
+        Map<Location, Integer> ids = new HashMap<>();
+        int count = 0;
+        for (Map.Entry<String, Map<String, double[]>> country : locations.entrySet()) {
+            count += country.getValue().size();
+        }
+        double[] lats = new double[count];
+        double[] lons = new double[count];
+        int[] cellOf = new int[count];
+        int[] cellStart = new int[latCells * lonCells + 1];
+        int id = 0;
+        for (Map.Entry<String, Map<String, double[]>> country : locations.entrySet()) {
+            for (Map.Entry<String, double[]> province : country.getValue().entrySet()) {
+                ids.put(new Location(country.getKey(), province.getKey()), id);
+                lats[id] = province.getValue()[0];
+                lons[id] = province.getValue()[1];
+                cellOf[id] = latCell(lats[id]) * lonCells + lonCell(lons[id]);
+                cellStart[cellOf[id] + 1]++;
+                id++;
+            }
+        }
+
+        // 2. Cell lists: prefix sums, then place each id (ids stay ascending within a cell)
+        for (int c = 0; c < latCells * lonCells; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        int[] fill = Arrays.copyOf(cellStart, cellStart.length - 1);
+        int[] cellLocations = new int[count];
+        for (int i = 0; i < count; i++) {
+            cellLocations[fill[cellOf[i]]++] = i;
+        }
+
+        // 3. Rows per date: copies holding shared name and date instances
+        Map<String, CovidCleanComplete[]> rowsByDate = new HashMap<>();
+        Map<String, String> dates = new HashMap<>();
+        String latestDate = null;
+        for (CovidCleanComplete row : all) {
+            CovidKey key = row.getId();
+            if (key == null || key.getDate() == null) {
+                continue;
+            }
+            Integer location = ids.get(new Location(nullToEmpty(key.getCountryRegion()), nullToEmpty(key.getProvinceState())));
+            if (location == null) {
+                continue;
+            }
+            String date = dates.computeIfAbsent(key.getDate(), d -> d);
+            rowsByDate.computeIfAbsent(date, d -> new CovidCleanComplete[lats.length])[location] = copy(row, date);
+            if (latestDate == null || date.compareTo(latestDate) > 0) {
+                latestDate = date;
+            }
+        }
+
+        log.info("Built spatial index for covid_19_clean_complete: {} locations, {} dates, {} rows in {} ms",
+                count, rowsByDate.size(), all.size(), (System.nanoTime() - start) / 1_000_000);
+        return new Grid(lats, lons, cellStart, cellLocations, rowsByDate, latestDate);
+    }
+
+    private int latCell(double lat) {
+        return Math.min(latCells - 1, (int) ((lat + 90) / cellDegrees));
+    }
+
+    private int lonCell(double lon) {
+        return Math.min(lonCells - 1, (int) ((lon + 180) / cellDegrees));
+    }
+
+    private static boolean inRange(double value, double limit) {
+        return value >= -limit && value <= limit;
+    }
+
+    private static String normalizeDate(String date) {
+        try {
+            return LocalDate.parse(date.trim()).toString();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("date must be yyyy-MM-dd");
+        }
+    }
+
+    /**
+     * Copy of a repository row with canonical names and the shared date instance
+     * (the repository's entity is left as it was)
+     */
+    private CovidCleanComplete copy(CovidCleanComplete row, String date) {
+        CovidKey key = row.getId();
+        CovidCleanComplete copy = new CovidCleanComplete();
+        copy.setId(new CovidKey(names.canonical(key.getProvinceState()), names.canonical(key.getCountryRegion()), date));
+        copy.setLat(row.getLat());
+        copy.setLon(row.getLon());
+        copy.setConfirmed(row.getConfirmed());
+        copy.setDeaths(row.getDeaths());
+        copy.setRecovered(row.getRecovered());
+        copy.setActive(row.getActive());
+        copy.setWhoRegion(names.canonical(row.getWhoRegion()));
+        return copy;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
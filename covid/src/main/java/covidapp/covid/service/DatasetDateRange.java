@@ -0,0 +1,72 @@
+package covidapp.covid.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Dataset Date Range
+ *
+ * First and last date a daily row may carry (app.dataset.min-date / app.dataset.max-date)
+ *
+ * The in-memory day-indexed caches (FullGroupedColumnStore, DayWiseAnalytics) size their
+ * arrays by the span between the oldest and newest date they hold, so a single row dated
+ * 0001-01-01 or 9999-12-31 would grow every series to hundreds of thousands of slots.
+ * Writes outside the range are rejected with 400, and the caches skip such rows on load
+ */
+@Component
+public class DatasetDateRange {
+
+    private final LocalDate min;
+    private final LocalDate max;
+
+    /**
+     * Constructor - Dependency injection
+     * Spring automatically injects app.dataset.min-date and app.dataset.max-date (yyyy-MM-dd)
+     */
+    public DatasetDateRange(@Value("${app.dataset.min-date:2019-12-01}") String min,
+                            @Value("${app.dataset.max-date:2023-12-31}") String max) {
+        try {
+            this.min = LocalDate.parse(min.trim());
+            this.max = LocalDate.parse(max.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("app.dataset.min-date and max-date must be yyyy-MM-dd", e);
+        }
+        if (this.max.isBefore(this.min)) {
+            throw new IllegalArgumentException("app.dataset.max-date is before app.dataset.min-date");
+        }
+    }
+
+    /**
+     * @return true if the date is inside the range (null is not)
+     */
+    public boolean contains(LocalDate date) {
+        return date != null && !date.isBefore(min) && !date.isAfter(max);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the date is outside the range
+     */
+    public void check(LocalDate date) {
+        if (date != null && !contains(date)) {
+            throw new IllegalArgumentException(message(date));
+        }
+    }
+
+    /**
+     * @return Error message for a date outside the range
+     */
+    public String message(LocalDate date) {
+        return "date " + date + " is outside the dataset range " + min + " to " + max;
+    }
+
+    public LocalDate getMin() {
+        return min;
+    }
+
+    public LocalDate getMax() {
+        return max;
+    }
+}
@@ -0,0 +1,140 @@
+package covidapp.covid.service;
+
+import covidapp.covid.dataset.Dataset;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Dataset Versions
+ *
+ * One version counter per dataset, advanced after every committed write
+ * (service create/update/delete, bulk ingest, startup backfills)
+ *
+ * Used for HTTP conditional requests on list endpoints:
+ * - ETag: strong, "{table}-{boot id}-{version}" (the boot id keeps ETags from
+ *   matching across restarts, when the counters start over)
+ * - If-None-Match is answered with 304 before any data is read
+ * - No Last-Modified: HTTP dates have one-second precision, so two writes within the
+ *   same second would share a Last-Modified and an If-Modified-Since client would keep
+ *   the first version; the ETag changes on every write
+ *
+ * Writers must call bump() AFTER the change is committed, so a reader can never
+ * pair the new ETag with the old data
+ *
+ * Listeners registered with onChange() run after every bump (e.g. to rebuild caches)
+ */
+@Component
+public class DatasetVersions {
+
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Map<Dataset, AtomicLong> versions = new EnumMap<>(Dataset.class);
+    private final List<Consumer<Dataset>> listeners = new CopyOnWriteArrayList<>();
+
+    public DatasetVersions() {
+        for (Dataset dataset : Dataset.values()) {
+            versions.put(dataset, new AtomicLong());
+        }
+    }
+
+    /**
+     * Record a Committed Write
+     *
+     * @param dataset Dataset that changed
+     */
+    public void bump(Dataset dataset) {
+        versions.get(dataset).incrementAndGet();
+        for (Consumer<Dataset> listener : listeners) {
+            listener.accept(dataset);
+        }
+    }
+
+    /**
+     * Register a Change Listener
+     *
+     * Called on the writing thread after each bump - listeners must return quickly
+     *
+     * @param listener Receives the dataset that changed
+     */
+    public void onChange(Consumer<Dataset> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @return Current version counter of the dataset
+     */
+    public long version(Dataset dataset) {
+        return versions.get(dataset).get();
+    }
+
+    /**
+     * Build the ETag for a Response Built from One or More Datasets
+     *
+     * @param datasets Datasets the response depends on
+     * @return Quoted strong ETag
+     */
+    public String etag(Dataset... datasets) {
+        return etag(null, datasets);
+    }
+
+    /**
+     * Build the ETag for One Representation of a Response
+     *
+     * @param variant Suffix for a differently encoded body, e.g. "gz" (null = plain body)
+     * @param datasets Datasets the response depends on
+     * @return Quoted strong ETag, e.g. "full_grouped-{boot id}-7-gz"
+     */
+    public String etag(String variant, Dataset... datasets) {
+        StringBuilder etag = new StringBuilder("\"");
+        for (Dataset dataset : datasets) {
+            etag.append(dataset.getTable()).append('-');
+        }
+        etag.append(bootId);
+        for (Dataset dataset : datasets) {
+            etag.append('-').append(version(dataset));
+        }
+        if (variant != null) {
+            etag.append('-').append(variant);
+        }
+        return etag.append('"').toString();
+    }
+
+    /**
+     * Conditional GET Check
+     *
+     * Sets ETag and "Cache-Control: no-cache" (browsers may keep the
+     * response but must revalidate it) and checks the request's conditional headers
+     *
+     * Usage in a controller:
+     *   if (versions.checkNotModified(request, Dataset.FULL_GROUPED)) return null;
+     *
+     * @param request Current request
+     * @param datasets Datasets the response depends on
+     * @return true if the client copy is current - the 304 status is already set, return null
+     */
+    public boolean checkNotModified(ServletWebRequest request, Dataset... datasets) {
+        return checkNotModified(request, null, datasets);
+    }
+
+    /**
+     * Conditional GET Check for One Representation (see etag(String, Dataset...))
+     *
+     * @param variant Suffix of the ETag, e.g. "gz" for a gzip body (null = plain body)
+     */
+    public boolean checkNotModified(ServletWebRequest request, String variant, Dataset... datasets) {
+        // Read the versions before the data, so a concurrent write can only make the ETag older than the body
+        String etag = etag(variant, datasets);
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        }
+        return request.checkNotModified(etag);
+    }
+}
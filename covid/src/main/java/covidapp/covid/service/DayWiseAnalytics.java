@@ -0,0 +1,419 @@
+package covidapp.covid.service;
+
+import covidapp.covid.dto.RollingWindowPoint;
+import covidapp.covid.entity.DayWise;
+import covidapp.covid.repository.DayWiseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Day Wise Analytics
+ *
+ * Rolling-window figures for the global "day_wise" series: moving averages of new
+ * cases and deaths, daily growth rate of confirmed cases and doubling time
+ *
+ * Layout:
+ * - Daily values in primitive arrays indexed by day offset from the first date
+ * - Only dates inside DatasetDateRange are stored (others are skipped on load and on put),
+ *   so the arrays never span more than that range
+ * - The table does not enforce one row per date: every row is tracked by id, and a date
+ *   with several rows shows the one with the highest id (deleting it reveals the next one)
+ * - For each tracked window N (app.daywise.analytics.windows, e.g. 7 and 14), the sum of
+ *   the last N days and the number of days with a value, kept for every day
+ *
+ * Updates:
+ * - Writing one day changes only the window sums of the N days that include it,
+ *   so a create/update/delete costs O(N) per tracked window, independent of the series length
+ * - Growth rate and doubling time compare a day with the day N days earlier (O(1) per day)
+ *
+ * Lifecycle:
+ * - Loaded lazily from the repository on the first read
+ * - Kept in sync by DayWiseService on create/update/delete
+ * - Dropped after a bulk ingest (the next read reloads it)
+ * - Guarded by a read/write lock (many concurrent readers, one writer)
+ */
+@Component
+public class DayWiseAnalytics {
+
+    private static final Logger log = LoggerFactory.getLogger(DayWiseAnalytics.class);
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final double LN_2 = Math.log(2);
+
+    private final DayWiseRepository repo;
+    private final DatasetDateRange dateRange;
+
+    // Tracked window lengths in days (ascending, distinct)
+    private final int[] windows;
+    private final int maxWindow;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Row id -> its values (to move or remove the day on update/delete)
+    private final Map<Long, Day> rowsById = new HashMap<>();
+
+    // Date -> ids of its rows; the day shows the row with the highest id
+    private final Map<LocalDate, TreeSet<Long>> idsByDate = new HashMap<>();
+
+    // Date stored at offset 0 (null while empty) and number of offsets in use
+    private LocalDate baseDate;
+    private int dayCount;
+
+    // Daily values
+    private boolean[] present = new boolean[INITIAL_CAPACITY];
+    private long[] confirmed = new long[INITIAL_CAPACITY];
+    private long[] newCases = new long[INITIAL_CAPACITY];
+    private long[] newDeaths = new long[INITIAL_CAPACITY];
+    private boolean[] hasConfirmed = new boolean[INITIAL_CAPACITY];
+    private boolean[] hasNewCases = new boolean[INITIAL_CAPACITY];
+    private boolean[] hasNewDeaths = new boolean[INITIAL_CAPACITY];
+
+    // Per tracked window [window index][day]: sum over the window ending that day, and days with a value
+    private long[][] caseSums;
+    private long[][] deathSums;
+    private int[][] caseCounts;
+    private int[][] deathCounts;
+
+    private volatile boolean loaded;
+
+    /**
+     * Values of one row that the series uses
+     */
+    private record Day(LocalDate date, Integer confirmed, Integer newCases, Integer newDeaths) {
+    }
+
+    public DayWiseAnalytics(DayWiseRepository repo,
+                            @Value("${app.daywise.analytics.windows:7,14}") int[] windows,
+                            DatasetDateRange dateRange) {
+        this.repo = repo;
+        this.dateRange = dateRange;
+        this.windows = Arrays.stream(windows).distinct().sorted().toArray();
+        if (this.windows.length == 0 || this.windows[0] < 1) {
+            throw new IllegalArgumentException("app.daywise.analytics.windows must list window lengths of at least 1 day");
+        }
+        this.maxWindow = this.windows[this.windows.length - 1];
+        caseSums = new long[this.windows.length][INITIAL_CAPACITY];
+        deathSums = new long[this.windows.length][INITIAL_CAPACITY];
+        caseCounts = new int[this.windows.length][INITIAL_CAPACITY];
+        deathCounts = new int[this.windows.length][INITIAL_CAPACITY];
+    }
+
+    /**
+     * @return Window lengths that can be queried
+     */
+    public int[] getWindows() {
+        return windows.clone();
+    }
+
+    /**
+     * Get the Series with Rolling-Window Figures
+     *
+     * @param window Window length in days (one of getWindows())
+     * @return One point per stored day, ordered by date
+     * @throws IllegalArgumentException if the window is not tracked
+     */
+    public List<RollingWindowPoint> getSeries(int window) {
+        int k = Arrays.binarySearch(windows, window);
+        if (k < 0) {
+            throw new IllegalArgumentException("window must be one of " + Arrays.toString(windows));
+        }
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            List<RollingWindowPoint> points = new ArrayList<>();
+            for (int day = 0; day < dayCount; day++) {
+                if (present[day]) {
+                    points.add(point(k, window, day));
+                }
+            }
+            return points;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Insert or Replace One Day
+     *
+     * Called by DayWiseService after a successful save (also when the row moved to another date)
+     * Ignored while not loaded yet (the load will read it from the database)
+     * A row dated outside DatasetDateRange is not stored (and leaves its previous date)
+     *
+     * @param row Saved DayWise entity
+     */
+    public void put(DayWise row) {
+        if (row == null || row.getDate() == null) {
+            return;
+        }
+        if (!dateRange.contains(row.getDate())) {
+            log.warn("Not tracking day_wise row {}: {}", row.getId(), dateRange.message(row.getDate()));
+            remove(row.getId());
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                write(row);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove One Day
+     *
+     * @param id Id of the deleted DayWise row
+     */
+    public void remove(Long id) {
+        if (id == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            Day previous = rowsById.remove(id);
+            if (previous != null) {
+                detach(id, previous.date());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drop All Data
+     *
+     * The next read reloads the series from the database
+     */
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            loaded = false;
+            rowsById.clear();
+            idsByDate.clear();
+            baseDate = null;
+            dayCount = 0;
+            resize(INITIAL_CAPACITY, 0, true);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private RollingWindowPoint point(int k, int window, int day) {
+        Double casesAverage = caseCounts[k][day] == window ? (double) caseSums[k][day] / window : null;
+        Double deathsAverage = deathCounts[k][day] == window ? (double) deathSums[k][day] / window : null;
+
+        Double growthRate = null;
+        Double doublingTime = null;
+        int earlier = day - window;
+        if (earlier >= 0 && hasConfirmed[day] && hasConfirmed[earlier] && confirmed[earlier] > 0) {
+            double ratio = (double) confirmed[day] / confirmed[earlier];
+            growthRate = Math.pow(ratio, 1.0 / window) - 1;
+            if (ratio > 1) {
+                doublingTime = window * LN_2 / Math.log(ratio);
+            }
+        }
+
+        return new RollingWindowPoint(baseDate.plusDays(day),
+                hasConfirmed[day] ? confirmed[day] : null,
+                hasNewCases[day] ? newCases[day] : null,
+                hasNewDeaths[day] ? newDeaths[day] : null,
+                casesAverage, deathsAverage, growthRate, doublingTime);
+    }
+
+    /**
+     * Load the series from the database on first use
+     */
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            int skipped = 0;
+            for (DayWise row : repo.findAll()) {
+                if (!dateRange.contains(row.getDate())) {
+                    skipped++;
+                    continue;
+                }
+                write(row);
+            }
+            if (skipped > 0) {
+                log.warn("Skipped {} day_wise rows without a date or dated outside {} to {}",
+                        skipped, dateRange.getMin(), dateRange.getMax());
+            }
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void write(DayWise row) {
+        Day values = new Day(row.getDate(), row.getConfirmed(), row.getNewCases(), row.getNewDeaths());
+        if (row.getId() == null) {
+            show(values);
+            return;
+        }
+        Day previous = rowsById.put(row.getId(), values);
+        if (previous != null && !previous.date().equals(values.date())) {
+            detach(row.getId(), previous.date());
+        }
+        idsByDate.computeIfAbsent(values.date(), d -> new TreeSet<>()).add(row.getId());
+        refresh(values.date());
+    }
+
+    /**
+     * Take a row off a date; the date then shows its next row, or nothing
+     */
+    private void detach(Long id, LocalDate date) {
+        TreeSet<Long> ids = idsByDate.get(date);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                idsByDate.remove(date);
+            }
+        }
+        refresh(date);
+    }
+
+    /**
+     * Show the row with the highest id on the date (clear the day if it has none)
+     */
+    private void refresh(LocalDate date) {
+        TreeSet<Long> ids = idsByDate.get(date);
+        if (ids == null) {
+            clear(offsetOf(date));
+        } else {
+            show(rowsById.get(ids.last()));
+        }
+    }
+
+    private void show(Day values) {
+        int day = reserve(values.date());
+        present[day] = true;
+        dayCount = Math.max(dayCount, day + 1);
+        set(day, values.confirmed(), values.newCases(), values.newDeaths());
+    }
+
+    private void clear(int day) {
+        if (day < 0 || day >= dayCount || !present[day]) {
+            return;
+        }
+        set(day, null, null, null);
+        present[day] = false;
+    }
+
+    /**
+     * Store one day's values and apply the differences to the window sums that include it
+     */
+    private void set(int day, Integer confirmedValue, Integer casesValue, Integer deathsValue) {
+        hasConfirmed[day] = confirmedValue != null;
+        confirmed[day] = confirmedValue != null ? confirmedValue : 0;
+
+        long caseDelta = (casesValue != null ? casesValue : 0) - newCases[day];
+        int caseCountDelta = (casesValue != null ? 1 : 0) - (hasNewCases[day] ? 1 : 0);
+        long deathDelta = (deathsValue != null ? deathsValue : 0) - newDeaths[day];
+        int deathCountDelta = (deathsValue != null ? 1 : 0) - (hasNewDeaths[day] ? 1 : 0);
+        newCases[day] += caseDelta;
+        newDeaths[day] += deathDelta;
+        hasNewCases[day] = casesValue != null;
+        hasNewDeaths[day] = deathsValue != null;
+
+        for (int k = 0; k < windows.length; k++) {
+            int end = day + windows[k];
+            for (int d = day; d < end; d++) {
+                caseSums[k][d] += caseDelta;
+                caseCounts[k][d] += caseCountDelta;
+                deathSums[k][d] += deathDelta;
+                deathCounts[k][d] += deathCountDelta;
+            }
+        }
+    }
+
+    /**
+     * Offset for a date, growing or shifting the arrays as needed
+     * (room is kept for the window sums of the maxWindow days that follow it)
+     */
+    private int reserve(LocalDate date) {
+        if (baseDate == null) {
+            baseDate = date;
+        }
+        int day = offsetOf(date);
+        if (day < 0) {
+            int shift = -day;
+            resize(Math.max(present.length + shift, dayCount + shift + maxWindow), shift, false);
+            baseDate = date;
+            dayCount += shift;
+            day = 0;
+        }
+        if (day + maxWindow >= present.length) {
+            resize(Math.max(day + maxWindow + 1, present.length * 2), 0, false);
+        }
+        return day;
+    }
+
+    /**
+     * Copy every array into new arrays of the given capacity, moving values right by shift days
+     */
+    private void resize(int capacity, int shift, boolean empty) {
+        present = move(present, capacity, shift, empty);
+        hasConfirmed = move(hasConfirmed, capacity, shift, empty);
+        hasNewCases = move(hasNewCases, capacity, shift, empty);
+        hasNewDeaths = move(hasNewDeaths, capacity, shift, empty);
+        confirmed = move(confirmed, capacity, shift, empty);
+        newCases = move(newCases, capacity, shift, empty);
+        newDeaths = move(newDeaths, capacity, shift, empty);
+        for (int k = 0; k < windows.length; k++) {
+            caseSums[k] = move(caseSums[k], capacity, shift, empty);
+            deathSums[k] = move(deathSums[k], capacity, shift, empty);
+            caseCounts[k] = move(caseCounts[k], capacity, shift, empty);
+            deathCounts[k] = move(deathCounts[k], capacity, shift, empty);
+        }
+    }
+
+    private static boolean[] move(boolean[] values, int capacity, int shift, boolean empty) {
+        boolean[] moved = new boolean[capacity];
+        if (!empty) {
+            System.arraycopy(values, 0, moved, shift, Math.min(values.length, capacity - shift));
+        }
+        return moved;
+    }
+
+    private static long[] move(long[] values, int capacity, int shift, boolean empty) {
+        long[] moved = new long[capacity];
+        if (!empty) {
+            System.arraycopy(values, 0, moved, shift, Math.min(values.length, capacity - shift));
+        }
+        return moved;
+    }
+
+    private static int[] move(int[] values, int capacity, int shift, boolean empty) {
+        int[] moved = new int[capacity];
+        if (!empty) {
+            System.arraycopy(values, 0, moved, shift, Math.min(values.length, capacity - shift));
+        }
+        return moved;
+    }
+
+    private int offsetOf(LocalDate date) {
+        return baseDate == null ? -1 : (int) ChronoUnit.DAYS.between(baseDate, date);
+    }
+}
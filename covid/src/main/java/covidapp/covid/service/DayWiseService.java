@@ -1,8 +1,13 @@
 package covidapp.covid.service;
 
+import covidapp.covid.dataset.Dataset;
+import covidapp.covid.dto.RollingWindowPoint;
 import covidapp.covid.entity.DayWise;
 import covidapp.covid.repository.DayWiseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -10,42 +15,73 @@ import java.util.List;
 @Service
 public class DayWiseService {
 
+    private static final Logger log = LoggerFactory.getLogger(DayWiseService.class);
+
     private final DayWiseRepository repository;
 
-    public DayWiseService(DayWiseRepository repository) {
+    // Version counters behind the ETag of the list endpoint (advanced on every write)
+    private final DatasetVersions versions;
+
+    // Rolling-window figures, updated per written day instead of recomputed
+    private final DayWiseAnalytics analytics;
+
+    // Dates a row may carry (writes outside it are rejected with 400)
+    private final DatasetDateRange dateRange;
+
+    public DayWiseService(DayWiseRepository repository, DatasetVersions versions, DayWiseAnalytics analytics,
+                          DatasetDateRange dateRange) {
         this.repository = repository;
+        this.versions = versions;
+        this.analytics = analytics;
+        this.dateRange = dateRange;
     }
 
+    // Not @Transactional: a failed query must not mark a surrounding transaction rollback-only
+    // (the fallback returns an empty list); findAll loads the rows read-only on its own
     public List<DayWise> getAll() {
         try {
             List<DayWise> data = repository.findAll();
             // Return empty list if null (shouldn't happen, but safety check)
             return data != null ? data : new java.util.ArrayList<>();
         } catch (Exception e) {
-            // Log the error for debugging
-            System.err.println("Error fetching day-wise data: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error fetching day-wise data: {}", e.getMessage(), e);
             // Return empty list instead of throwing exception
             // This prevents 500 error if table doesn't exist
             return new java.util.ArrayList<>();
         }
     }
 
+    /**
+     * Rolling-window series (moving averages, growth rate, doubling time)
+     *
+     * @param window Window length in days
+     */
+    public List<RollingWindowPoint> getAnalytics(int window) {
+        return analytics.getSeries(window);
+    }
+
+    @Transactional(readOnly = true)
     public DayWise getById(Long id) {
         return repository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Record not found"));
     }
 
+    @Transactional(readOnly = true)
     public DayWise getByDate(LocalDate date) {
         return repository.findByDate(date).orElse(null);
     }
 
     public DayWise create(DayWise dayWise) {
+        dateRange.check(dayWise.getDate());
         dayWise.setId(null); // Auto-generate ID
-        return repository.save(dayWise);
+        DayWise saved = repository.save(dayWise);
+        analytics.put(saved);
+        versions.bump(Dataset.DAY_WISE);
+        return saved;
     }
 
     public DayWise update(Long id, DayWise dayWise) {
+        dateRange.check(dayWise.getDate());
         DayWise existing = getById(id);
 
         existing.setDate(dayWise.getDate());
@@ -61,10 +97,15 @@ public class DayWiseService {
         existing.setDeathsPer100Recovered(dayWise.getDeathsPer100Recovered());
         existing.setNumberOfCountries(dayWise.getNumberOfCountries());
 
-        return repository.save(existing);
+        DayWise saved = repository.save(existing);
+        analytics.put(saved);
+        versions.bump(Dataset.DAY_WISE);
+        return saved;
     }
 
     public void delete(Long id) {
         repository.deleteById(id);
+        analytics.remove(id);
+        versions.bump(Dataset.DAY_WISE);
     }
 }
@@ -1,5 +1,7 @@
 package covidapp.covid.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
@@ -8,6 +10,8 @@ import org.springframework.stereotype.Service;
 @Service
 public class EmailService {
 
+    private static final Logger log = LoggerFactory.getLogger(EmailService.class);
+
     @Autowired
     private JavaMailSender mailSender;
 
@@ -24,9 +28,9 @@ public class EmailService {
                     "Best regards,\nCOVID Dashboard Team");
 
             mailSender.send(message);
-            System.out.println("OTP email sent successfully to: " + toEmail);
+            log.info("OTP email sent successfully to: {}", toEmail);
         } catch (Exception e) {
-            System.err.println("Error sending email: " + e.getMessage());
+            log.warn("Error sending email to {}: {}", toEmail, e.getMessage());
             throw new RuntimeException("Failed to send OTP email", e);
         }
     }
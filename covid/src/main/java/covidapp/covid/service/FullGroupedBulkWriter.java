@@ -0,0 +1,363 @@
+package covidapp.covid.service;
+
+import covidapp.covid.dataset.Dataset;
+import covidapp.covid.dto.BulkWriteReport.RowResult;
+import covidapp.covid.dto.BulkWriteReport;
+import covidapp.covid.entity.FullGrouped;
+import covidapp.covid.entity.FullGroupedId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Full Grouped Bulk Writer
+ *
+ * Writes many "full_grouped" rows in one request and one database transaction,
+ * e.g. a daily feed of ~190 country rows
+ *
+ * Process:
+ * 1. Validate every row (date and country required, date inside DatasetDateRange,
+ *    no key twice in one request)
+ * 2. Read and lock the existing rows for the requested keys (one SELECT ... FOR UPDATE per
+ *    chunk of keys), so a concurrent request cannot insert or change them before step 3
+ * 3. Write with multi-row statements of up to ROWS_PER_STATEMENT rows:
+ *    - create: INSERT of the rows that do not exist yet (existing keys are reported as conflict)
+ *    - upsert: INSERT ... ON DUPLICATE KEY UPDATE; like the single-row PUT, null fields
+ *      keep the stored value
+ *    - delete: DELETE ... WHERE (date, country) IN (...) of the keys that exist
+ * 4. In the same transaction, apply the changes to day_wise and country_wise_latest
+ *    (FullGroupedViewMaintainer)
+ * 5. After the commit, update the column store and advance the dataset versions once
+ *
+ * Keys are compared the way the table's collation compares them: the country ignores case
+ * and trailing spaces ("Italy" = "italy "). Otherwise a CREATE would miss the stored row and
+ * fail the whole batch on the duplicate key, and an UPSERT would skip the merge and overwrite
+ * the stored values with the request's nulls. Matched rows keep their stored spelling
+ *
+ * Every request row gets a result (inserted/updated/deleted/conflict/not_found/invalid)
+ */
+@Component
+public class FullGroupedBulkWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(FullGroupedBulkWriter.class);
+
+    // Rows per multi-row INSERT/DELETE/SELECT (10 parameters per row)
+    private static final int ROWS_PER_STATEMENT = 500;
+
+    private static final String TABLE = "`full_grouped`";
+    private static final String DATE = "`date`";
+    private static final String COUNTRY = "`country/region`";
+    private static final List<String> COLUMNS = Dataset.FULL_GROUPED.getColumns().stream()
+            .map(column -> "`" + column.column() + "`")
+            .toList();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final FullGroupedColumnStore store;
+    private final DatasetVersions versions;
+    private final FullGroupedViewMaintainer viewMaintainer;
+    private final DatasetDateRange dateRange;
+    private final int maxRows;
+
+    /**
+     * Key as the database compares it (see matchKey)
+     */
+    private record MatchKey(LocalDate date, String country) {
+    }
+
+    /**
+     * Kind of bulk write
+     */
+    public enum Mode {
+        CREATE, UPSERT, DELETE
+    }
+
+    public FullGroupedBulkWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                 FullGroupedColumnStore store, DatasetVersions versions,
+                                 FullGroupedViewMaintainer viewMaintainer, DatasetDateRange dateRange,
+                                 @Value("${app.fullgrouped.bulk.max-rows:5000}") int maxRows) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.store = store;
+        this.versions = versions;
+        this.viewMaintainer = viewMaintainer;
+        this.dateRange = dateRange;
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * Bulk Create or Upsert
+     *
+     * @param rows Rows to write
+     * @param mode CREATE or UPSERT
+     * @return Report with one result per row
+     * @throws IllegalArgumentException if the request has more than maxRows rows
+     */
+    public BulkWriteReport write(List<FullGrouped> rows, Mode mode) {
+        List<FullGroupedId> keys = rows.stream()
+                .map(row -> row == null ? null : new FullGroupedId(row.getDate(), row.getCountryRegion()))
+                .toList();
+        return run(keys, rows, mode);
+    }
+
+    /**
+     * Bulk Delete
+     *
+     * @param keys Keys (date + countryRegion) to delete
+     * @return Report with one result per key
+     * @throws IllegalArgumentException if the request has more than maxRows keys
+     */
+    public BulkWriteReport delete(List<FullGroupedId> keys) {
+        return run(keys, null, Mode.DELETE);
+    }
+
+    private BulkWriteReport run(List<FullGroupedId> keys, List<FullGrouped> rows, Mode mode) {
+        if (keys.size() > maxRows) {
+            throw new IllegalArgumentException("At most " + maxRows + " rows per bulk request (got " + keys.size() + ")");
+        }
+        long start = System.nanoTime();
+        RowResult[] results = new RowResult[keys.size()];
+
+        // 1. Validation
+        Map<MatchKey, Integer> accepted = new HashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            FullGroupedId key = keys.get(i);
+            if (key == null || key.getDate() == null || key.getCountryRegion() == null || key.getCountryRegion().isBlank()) {
+                results[i] = result(i, key, "invalid", "date and countryRegion are required");
+            } else if (mode != Mode.DELETE && !dateRange.contains(key.getDate())) {
+                results[i] = result(i, key, "invalid", dateRange.message(key.getDate()));
+            } else if (accepted.putIfAbsent(matchKey(key.getDate(), key.getCountryRegion()), i) != null) {
+                results[i] = result(i, key, "invalid", "duplicate of row "
+                        + accepted.get(matchKey(key.getDate(), key.getCountryRegion())));
+            }
+        }
+
+        List<FullGrouped> written = new ArrayList<>();
+        List<FullGroupedId> removed = new ArrayList<>();
+        // The rows' locks keep the store updates in commit order (see FullGroupedColumnStore.writeLocked)
+        FullGroupedViewMaintainer.Result derived = store.writeLocked(keys, () -> {
+            FullGroupedViewMaintainer.Result committed = transactionTemplate.execute(status -> {
+                // 2. Existing rows, locked until the commit
+                Map<MatchKey, FullGrouped> existing = findExisting(accepted.keySet());
+
+                // 3. Writes
+                List<FullGrouped> toWrite = new ArrayList<>();
+                List<FullGroupedId> toDelete = new ArrayList<>();
+                List<FullGroupedViewMaintainer.Change> changes = new ArrayList<>();
+                for (Map.Entry<MatchKey, Integer> entry : sortedByIndex(accepted)) {
+                    int i = entry.getValue();
+                    FullGroupedId key = keys.get(i);
+                    FullGrouped current = existing.get(entry.getKey());
+                    switch (mode) {
+                        case CREATE -> {
+                            if (current != null) {
+                                results[i] = result(i, key, "conflict", "row already exists");
+                            } else {
+                                toWrite.add(rows.get(i));
+                                changes.add(new FullGroupedViewMaintainer.Change(null, rows.get(i)));
+                                results[i] = result(i, key, "inserted", null);
+                            }
+                        }
+                        case UPSERT -> {
+                            FullGrouped row = current == null ? rows.get(i) : merge(current, rows.get(i));
+                            toWrite.add(row);
+                            changes.add(new FullGroupedViewMaintainer.Change(current, row));
+                            results[i] = result(i, key, current == null ? "inserted" : "updated", null);
+                        }
+                        case DELETE -> {
+                            if (current == null) {
+                                results[i] = result(i, key, "not_found", "no row for this date and country");
+                            } else {
+                                // The stored spelling, so the column store drops the row it holds
+                                toDelete.add(new FullGroupedId(current.getDate(), current.getCountryRegion()));
+                                changes.add(new FullGroupedViewMaintainer.Change(current, null));
+                                results[i] = result(i, key, "deleted", null);
+                            }
+                        }
+                    }
+                }
+                insert(toWrite, mode == Mode.UPSERT);
+                deleteKeys(toDelete);
+                written.addAll(toWrite);
+                removed.addAll(toDelete);
+
+                // 4. Derived tables
+                return viewMaintainer.apply(changes);
+            });
+
+            // 5. In-memory copies follow the committed data
+            written.forEach(store::put);
+            removed.forEach(key -> store.remove(key.getDate(), key.getCountryRegion()));
+            return committed;
+        });
+        if (!written.isEmpty() || !removed.isEmpty()) {
+            versions.bump(Dataset.FULL_GROUPED);
+        }
+        viewMaintainer.afterCommit(derived);
+
+        List<RowResult> resultList = Arrays.asList(results);
+        int inserted = count(resultList, "inserted");
+        int updated = count(resultList, "updated");
+        int deleted = count(resultList, "deleted");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Bulk {} on full_grouped: {} rows, {} inserted, {} updated, {} deleted in {} ms",
+                mode.name().toLowerCase(), keys.size(), inserted, updated, deleted, elapsedMillis);
+        return new BulkWriteReport(keys.size(), inserted, updated, deleted,
+                keys.size() - inserted - updated - deleted, elapsedMillis, resultList);
+    }
+
+    /**
+     * Existing rows for the accepted keys, read and locked (FOR UPDATE) in chunks
+     * (date IN (...) AND country IN (...) can match extra rows; they are filtered out here)
+     */
+    private Map<MatchKey, FullGrouped> findExisting(Set<MatchKey> accepted) {
+        Map<MatchKey, FullGrouped> existing = new HashMap<>();
+        List<MatchKey> all = new ArrayList<>(accepted);
+        for (int from = 0; from < all.size(); from += ROWS_PER_STATEMENT) {
+            List<MatchKey> chunk = all.subList(from, Math.min(all.size(), from + ROWS_PER_STATEMENT));
+            Set<LocalDate> dates = chunk.stream().map(MatchKey::date).collect(Collectors.toCollection(LinkedHashSet::new));
+            Set<String> countries = chunk.stream().map(MatchKey::country).collect(Collectors.toCollection(LinkedHashSet::new));
+            String sql = "SELECT " + String.join(", ", COLUMNS) + " FROM " + TABLE +
+                    " WHERE " + DATE + " IN (" + placeholders(dates.size()) + ")" +
+                    " AND " + COUNTRY + " IN (" + placeholders(countries.size()) + ")" +
+                    " FOR UPDATE";
+            List<Object> params = new ArrayList<>();
+            dates.forEach(date -> params.add(Date.valueOf(date)));
+            params.addAll(countries);
+            jdbcTemplate.query(sql, rs -> {
+                FullGrouped row = mapRow(rs);
+                MatchKey key = matchKey(row.getDate(), row.getCountryRegion());
+                if (accepted.contains(key)) {
+                    existing.put(key, row);
+                }
+            }, params.toArray());
+        }
+        return existing;
+    }
+
+    /**
+     * Key as a case-insensitive, PAD SPACE collation compares it: trailing spaces are
+     * ignored and case is folded (the folded country is also what the SELECT sends, which
+     * the collation matches against any stored spelling)
+     */
+    private static MatchKey matchKey(LocalDate date, String country) {
+        return new MatchKey(date, FullGroupedColumnStore.countryKey(country));
+    }
+
+    private void insert(List<FullGrouped> rows, boolean upsert) {
+        for (int from = 0; from < rows.size(); from += ROWS_PER_STATEMENT) {
+            List<FullGrouped> chunk = rows.subList(from, Math.min(rows.size(), from + ROWS_PER_STATEMENT));
+            StringBuilder sql = new StringBuilder("INSERT INTO ").append(TABLE)
+                    .append(" (").append(String.join(", ", COLUMNS)).append(") VALUES ");
+            String tuple = "(" + placeholders(COLUMNS.size()) + ")";
+            List<Object> params = new ArrayList<>(chunk.size() * COLUMNS.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                sql.append(i == 0 ? "" : ", ").append(tuple);
+                FullGrouped row = chunk.get(i);
+                params.addAll(Arrays.asList(Date.valueOf(row.getDate()), row.getCountryRegion(),
+                        row.getConfirmed(), row.getDeaths(), row.getRecovered(), row.getActive(),
+                        row.getNewCases(), row.getNewDeaths(), row.getNewRecovered(), row.getWhoRegion()));
+            }
+            if (upsert) {
+                // Rows are already merged with the stored values, so every column is replaced
+                sql.append(" ON DUPLICATE KEY UPDATE ").append(COLUMNS.stream()
+                        .skip(2)
+                        .map(column -> column + " = VALUES(" + column + ")")
+                        .collect(Collectors.joining(", ")));
+            }
+            jdbcTemplate.update(sql.toString(), params.toArray());
+        }
+    }
+
+    private void deleteKeys(List<FullGroupedId> keys) {
+        for (int from = 0; from < keys.size(); from += ROWS_PER_STATEMENT) {
+            List<FullGroupedId> chunk = keys.subList(from, Math.min(keys.size(), from + ROWS_PER_STATEMENT));
+            String sql = "DELETE FROM " + TABLE + " WHERE (" + DATE + ", " + COUNTRY + ") IN (" +
+                    chunk.stream().map(key -> "(?, ?)").collect(Collectors.joining(", ")) + ")";
+            List<Object> params = new ArrayList<>(chunk.size() * 2);
+            for (FullGroupedId key : chunk) {
+                params.add(Date.valueOf(key.getDate()));
+                params.add(key.getCountryRegion());
+            }
+            jdbcTemplate.update(sql, params.toArray());
+        }
+    }
+
+    /**
+     * Same rule as FullGroupedService.update: non-null request fields replace stored values
+     * (returns a new row; current is kept as the "before" of the change)
+     */
+    private static FullGrouped merge(FullGrouped stored, FullGrouped data) {
+        FullGrouped current = new FullGrouped();
+        current.setDate(stored.getDate());
+        current.setCountryRegion(stored.getCountryRegion());
+        current.setConfirmed(stored.getConfirmed());
+        current.setDeaths(stored.getDeaths());
+        current.setRecovered(stored.getRecovered());
+        current.setActive(stored.getActive());
+        current.setNewCases(stored.getNewCases());
+        current.setNewDeaths(stored.getNewDeaths());
+        current.setNewRecovered(stored.getNewRecovered());
+        current.setWhoRegion(stored.getWhoRegion());
+        if (data.getConfirmed() != null) current.setConfirmed(data.getConfirmed());
+        if (data.getDeaths() != null) current.setDeaths(data.getDeaths());
+        if (data.getRecovered() != null) current.setRecovered(data.getRecovered());
+        if (data.getActive() != null) current.setActive(data.getActive());
+        if (data.getNewCases() != null) current.setNewCases(data.getNewCases());
+        if (data.getNewDeaths() != null) current.setNewDeaths(data.getNewDeaths());
+        if (data.getNewRecovered() != null) current.setNewRecovered(data.getNewRecovered());
+        if (data.getWhoRegion() != null) current.setWhoRegion(data.getWhoRegion());
+        return current;
+    }
+
+    private static FullGrouped mapRow(ResultSet rs) throws SQLException {
+        FullGrouped row = new FullGrouped();
+        row.setDate(rs.getObject(1, LocalDate.class));
+        row.setCountryRegion(rs.getString(2));
+        row.setConfirmed(rs.getObject(3, Integer.class));
+        row.setDeaths(rs.getObject(4, Integer.class));
+        row.setRecovered(rs.getObject(5, Integer.class));
+        row.setActive(rs.getObject(6, Integer.class));
+        row.setNewCases(rs.getObject(7, Integer.class));
+        row.setNewDeaths(rs.getObject(8, Integer.class));
+        row.setNewRecovered(rs.getObject(9, Integer.class));
+        row.setWhoRegion(rs.getString(10));
+        return row;
+    }
+
+    private static List<Map.Entry<MatchKey, Integer>> sortedByIndex(Map<MatchKey, Integer> accepted) {
+        List<Map.Entry<MatchKey, Integer>> entries = new ArrayList<>(accepted.entrySet());
+        entries.sort(Map.Entry.comparingByValue());
+        return entries;
+    }
+
+    private static RowResult result(int index, FullGroupedId key, String status, String message) {
+        return new RowResult(index, key == null ? null : key.getDate(), key == null ? null : key.getCountryRegion(),
+                status, message);
+    }
+
+    private static int count(List<RowResult> results, String status) {
+        return (int) results.stream().filter(r -> status.equals(r.status())).count();
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", java.util.Collections.nCopies(count, "?"));
+    }
+}
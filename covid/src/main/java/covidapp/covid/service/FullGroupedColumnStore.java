@@ -0,0 +1,790 @@
+package covidapp.covid.service;
+
+import covidapp.covid.dto.RollupPoint;
+import covidapp.covid.entity.FullGrouped;
+import covidapp.covid.entity.FullGroupedId;
+import covidapp.covid.repository.FullGroupedRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Full Grouped Column Store
+ *
+ * In-memory columnar copy of the "full_grouped" table used to serve
+ * FullGroupedService reads without going to MySQL
+ *
+ * Layout:
+ * - One series per country
+ * - Each series keeps one primitive int[] per metric
+ *   (confirmed, deaths, recovered, active, newCases, newDeaths, newRecovered)
+ * - Arrays are indexed by day offset from the first date in the store
+ * - A null metric is stored as Integer.MIN_VALUE, a missing day as an unset presence flag
+ * - WHO region is kept once per country (latest non-null value written), together with its
+ *   NameDictionary code so region filters compare ints
+ * - Country and region strings are the dictionary's canonical instances, shared by every row
+ *   returned (no per-row copies)
+ * - Countries are matched the way the table's collation matches them: case-insensitive,
+ *   trailing spaces ignored, so "india" reads and writes the "India" series as MySQL does
+ *   (the series keeps the spelling it was first stored with)
+ *
+ * Rollups:
+ * - Each series also keeps one pre-aggregated bucket per ISO week and per month
+ *   (cumulative metrics as of the last day with data, daily "new" metrics summed)
+ * - A write or delete recomputes only the week and month buckets of its day (at most 31 days)
+ * - WHO region and world rollups add up the country buckets at query time
+ *
+ * Lifecycle:
+ * - Loaded lazily from the repository on the first read
+ * - Rows dated outside DatasetDateRange are never stored (skipped on load and on put), so
+ *   one extreme date cannot grow every series to millions of slots
+ * - Kept in sync by FullGroupedService on create/update/delete (and by bulk writes)
+ * - Guarded by a read/write lock (many concurrent readers, one writer)
+ * - Writers run their transaction and the put/remove that follows it inside writeLocked(),
+ *   so two writes to the same row update the store in the order they committed
+ */
+@Component
+public class FullGroupedColumnStore {
+
+    private static final Logger log = LoggerFactory.getLogger(FullGroupedColumnStore.class);
+
+    // Sentinel for a null Integer value in a primitive column
+    static final int NULL = Integer.MIN_VALUE;
+
+    // Metric column indexes (order matches the FullGrouped entity)
+    static final int CONFIRMED = 0;
+    static final int DEATHS = 1;
+    static final int RECOVERED = 2;
+    static final int ACTIVE = 3;
+    static final int NEW_CASES = 4;
+    static final int NEW_DEATHS = 5;
+    static final int NEW_RECOVERED = 6;
+    static final int METRIC_COUNT = 7;
+
+    // First metric summed over a rollup period (earlier ones are taken from its last day)
+    static final int FIRST_FLOW_METRIC = NEW_CASES;
+
+    // Extra slots of a rollup bucket after the metrics
+    static final int BUCKET_DAYS = METRIC_COUNT;
+    static final int BUCKET_LAST_DAY = METRIC_COUNT + 1;
+    static final int BUCKET_SIZE = METRIC_COUNT + 2;
+
+    // Sentinel for a missing value in a rollup bucket
+    static final long NULL_TOTAL = Long.MIN_VALUE;
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    // Row lock stripes for writeLocked() (rows sharing a stripe also share the lock)
+    private static final int ROW_LOCK_STRIPES = 64;
+
+    // Repository used for the initial load
+    private final FullGroupedRepository repo;
+
+    // Shared codes / canonical instances for country and WHO region names
+    private final NameDictionary names;
+
+    // Dates a row may carry (bounds the length of every series)
+    private final DatasetDateRange dateRange;
+
+    // Country name -> series (collation order, so results come back in a stable order)
+    private final Map<String, CountrySeries> series = new TreeMap<>(FullGroupedColumnStore::compareCountries);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Orders the writes of each (date, country) row, see writeLocked()
+    private final ReentrantLock[] rowLocks = new ReentrantLock[ROW_LOCK_STRIPES];
+
+    // Date stored at offset 0 of every series (null while the store is empty)
+    private LocalDate baseDate;
+
+    // Number of day offsets in use across all series (max offset + 1)
+    private int dayCount;
+
+    private volatile boolean loaded;
+
+    public FullGroupedColumnStore(FullGroupedRepository repo, NameDictionary names, DatasetDateRange dateRange) {
+        this.repo = repo;
+        this.names = names;
+        this.dateRange = dateRange;
+        for (int i = 0; i < rowLocks.length; i++) {
+            rowLocks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Rollup period length
+     */
+    public enum Granularity {
+        WEEK,
+        MONTH;
+
+        /**
+         * @return Period index of the date (consecutive periods have consecutive indexes)
+         */
+        int index(LocalDate date) {
+            return this == WEEK
+                    // Epoch day 0 (1970-01-01) is a Thursday; +3 puts each week's Monday on a multiple of 7
+                    ? (int) Math.floorDiv(date.toEpochDay() + 3, 7)
+                    : date.getYear() * 12 + date.getMonthValue() - 1;
+        }
+
+        LocalDate start(int index) {
+            return this == WEEK
+                    ? LocalDate.ofEpochDay(index * 7L - 3)
+                    : LocalDate.of(Math.floorDiv(index, 12), Math.floorMod(index, 12) + 1, 1);
+        }
+
+        String label(int index) {
+            LocalDate start = start(index);
+            return this == WEEK
+                    ? String.format(Locale.ROOT, "%d-W%02d", start.get(IsoFields.WEEK_BASED_YEAR),
+                            start.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR))
+                    : String.format(Locale.ROOT, "%d-%02d", start.getYear(), start.getMonthValue());
+        }
+
+        /**
+         * @param value "week" or "month" (case-insensitive)
+         * @throws IllegalArgumentException for anything else
+         */
+        public static Granularity from(String value) {
+            if (value != null) {
+                for (Granularity g : values()) {
+                    if (g.name().equalsIgnoreCase(value.trim())) {
+                        return g;
+                    }
+                }
+            }
+            throw new IllegalArgumentException("granularity must be week or month");
+        }
+    }
+
+    /**
+     * Per-country columnar series
+     */
+    static final class CountrySeries {
+        final String country;
+        String whoRegion;
+        int whoRegionCode = NameDictionary.NONE;
+        int[][] columns = new int[METRIC_COUNT][];
+        boolean[] present;
+        int rowCount;
+
+        // Period index -> rollup bucket (BUCKET_SIZE longs)
+        final TreeMap<Integer, long[]> weeks = new TreeMap<>();
+        final TreeMap<Integer, long[]> months = new TreeMap<>();
+
+        CountrySeries(String country, int capacity) {
+            this.country = country;
+            for (int m = 0; m < METRIC_COUNT; m++) {
+                columns[m] = new int[capacity];
+            }
+            present = new boolean[capacity];
+        }
+
+        void ensureCapacity(int offset) {
+            if (offset < present.length) {
+                return;
+            }
+            int capacity = Math.max(offset + 1, present.length * 2);
+            for (int m = 0; m < METRIC_COUNT; m++) {
+                columns[m] = Arrays.copyOf(columns[m], capacity);
+            }
+            present = Arrays.copyOf(present, capacity);
+        }
+
+        void shiftRight(int days) {
+            int capacity = present.length + days;
+            for (int m = 0; m < METRIC_COUNT; m++) {
+                int[] shifted = new int[capacity];
+                System.arraycopy(columns[m], 0, shifted, days, columns[m].length);
+                columns[m] = shifted;
+            }
+            boolean[] shifted = new boolean[capacity];
+            System.arraycopy(present, 0, shifted, days, present.length);
+            present = shifted;
+        }
+
+        TreeMap<Integer, long[]> rollup(Granularity granularity) {
+            return granularity == Granularity.WEEK ? weeks : months;
+        }
+    }
+
+    /**
+     * Get All Rows
+     *
+     * @return All rows ordered by date, then country
+     */
+    public List<FullGrouped> findAll() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            List<FullGrouped> result = new ArrayList<>();
+            for (int offset = 0; offset < dayCount; offset++) {
+                for (CountrySeries s : series.values()) {
+                    if (offset < s.present.length && s.present[offset]) {
+                        result.add(toEntity(s, offset));
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get Time Series for One Country
+     *
+     * @param country Country name
+     * @return Rows for the country ordered by date (empty if unknown)
+     */
+    public List<FullGrouped> findByCountry(String country) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            CountrySeries s = series.get(country);
+            if (s == null) {
+                return new ArrayList<>();
+            }
+            List<FullGrouped> result = new ArrayList<>(s.rowCount);
+            for (int offset = 0; offset < s.present.length; offset++) {
+                if (s.present[offset]) {
+                    result.add(toEntity(s, offset));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get All Countries for One Date
+     *
+     * @param date Date to look up
+     * @return Rows for the date ordered by country (empty if out of range)
+     */
+    public List<FullGrouped> findByDate(LocalDate date) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            List<FullGrouped> result = new ArrayList<>();
+            int offset = offsetOf(date);
+            if (offset < 0 || offset >= dayCount) {
+                return result;
+            }
+            for (CountrySeries s : series.values()) {
+                if (offset < s.present.length && s.present[offset]) {
+                    result.add(toEntity(s, offset));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get All Rows for One WHO Region
+     *
+     * @param whoRegion WHO region name
+     * @return Rows for countries in the region, ordered by country then date
+     */
+    public List<FullGrouped> findByWhoRegion(String whoRegion) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            List<FullGrouped> result = new ArrayList<>();
+            if (whoRegion == null) {
+                return result;
+            }
+            int code = names.find(whoRegion);
+            for (CountrySeries s : series.values()) {
+                if (!inRegion(s, code, whoRegion)) {
+                    continue;
+                }
+                for (int offset = 0; offset < s.present.length; offset++) {
+                    if (s.present[offset]) {
+                        result.add(toEntity(s, offset));
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Names of all countries with rows, in name order
+     */
+    public List<String> findCountries() {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(series.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param country Country name
+     * @return Latest date with a row for the country, or null if it has none
+     */
+    public LocalDate findLatestDate(String country) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            CountrySeries s = series.get(country);
+            if (s == null) {
+                return null;
+            }
+            for (int offset = s.present.length - 1; offset >= 0; offset--) {
+                if (s.present[offset]) {
+                    return baseDate.plusDays(offset);
+                }
+            }
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get Weekly or Monthly Rollup
+     *
+     * @param granularity Period length
+     * @param country Only this country (null for all countries)
+     * @param whoRegion Only countries of this WHO region (null for all countries)
+     * @return One point per period with data, oldest first (empty if nothing matches)
+     */
+    public List<RollupPoint> findRollup(Granularity granularity, String country, String whoRegion) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            List<CountrySeries> selected = new ArrayList<>();
+            if (country != null) {
+                CountrySeries s = series.get(country);
+                if (s != null && (whoRegion == null || inRegion(s, names.find(whoRegion), whoRegion))) {
+                    selected.add(s);
+                }
+            } else {
+                int code = whoRegion == null ? NameDictionary.NONE : names.find(whoRegion);
+                for (CountrySeries s : series.values()) {
+                    if (whoRegion == null || inRegion(s, code, whoRegion)) {
+                        selected.add(s);
+                    }
+                }
+            }
+
+            // A single country is returned as stored; several are added up period by period
+            Map<Integer, long[]> totals = selected.size() == 1
+                    ? selected.get(0).rollup(granularity)
+                    : new TreeMap<>();
+            if (selected.size() > 1) {
+                for (CountrySeries s : selected) {
+                    for (Map.Entry<Integer, long[]> bucket : s.rollup(granularity).entrySet()) {
+                        add(totals.computeIfAbsent(bucket.getKey(), k -> emptyBucket()), bucket.getValue());
+                    }
+                }
+            }
+
+            List<RollupPoint> result = new ArrayList<>(totals.size());
+            for (Map.Entry<Integer, long[]> bucket : totals.entrySet()) {
+                long[] b = bucket.getValue();
+                result.add(new RollupPoint(granularity.label(bucket.getKey()), granularity.start(bucket.getKey()),
+                        LocalDate.ofEpochDay(b[BUCKET_LAST_DAY]), (int) b[BUCKET_DAYS],
+                        total(b[CONFIRMED]), total(b[DEATHS]), total(b[RECOVERED]), total(b[ACTIVE]),
+                        total(b[NEW_CASES]), total(b[NEW_DEATHS]), total(b[NEW_RECOVERED])));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get One Row by Composite Key
+     *
+     * @param date Date of the record
+     * @param country Country name
+     * @return FullGrouped object, or null if not found
+     */
+    public FullGrouped findById(LocalDate date, String country) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            CountrySeries s = series.get(country);
+            int offset = offsetOf(date);
+            if (s == null || offset < 0 || offset >= s.present.length || !s.present[offset]) {
+                return null;
+            }
+            return toEntity(s, offset);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Insert or Replace One Row
+     *
+     * Called by FullGroupedService after a successful save
+     * Ignored while the store has not been loaded yet (the load will read it from the database)
+     *
+     * @param row Saved FullGrouped entity
+     */
+    public void put(FullGrouped row) {
+        if (row == null || row.getCountryRegion() == null) {
+            return;
+        }
+        if (!dateRange.contains(row.getDate())) {
+            log.warn("Not caching full_grouped row {} / {}: {}", row.getDate(), row.getCountryRegion(),
+                    dateRange.message(row.getDate()));
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                CountrySeries s = write(row);
+                refreshRollups(s, row.getDate());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove One Row
+     *
+     * @param date Date of the record
+     * @param country Country name
+     */
+    public void remove(LocalDate date, String country) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            CountrySeries s = series.get(country);
+            int offset = offsetOf(date);
+            if (s == null || offset < 0 || offset >= s.present.length || !s.present[offset]) {
+                return;
+            }
+            s.present[offset] = false;
+            for (int m = 0; m < METRIC_COUNT; m++) {
+                s.columns[m][offset] = NULL;
+            }
+            if (--s.rowCount == 0) {
+                series.remove(country);
+            } else {
+                refreshRollups(s, date);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Run a Write under the Locks of Its Rows
+     *
+     * The write commits its transaction and then updates the store (put/remove); holding the
+     * rows' locks across both means a second write to the same row can neither commit nor
+     * update the store in between, so the store always ends with the last committed value
+     *
+     * Rows are matched like the collation (see compareCountries); stripes are locked in
+     * ascending order, so writes of several rows (bulk) cannot deadlock each other, and
+     * before any transaction starts, so they cannot deadlock with database row locks
+     * Reads do not take these locks
+     *
+     * @param keys Rows the write touches (null keys and null fields are ignored)
+     * @param write Transaction plus store update
+     * @return Result of write
+     */
+    public <T> T writeLocked(Collection<FullGroupedId> keys, Supplier<T> write) {
+        BitSet stripes = new BitSet(ROW_LOCK_STRIPES);
+        for (FullGroupedId key : keys) {
+            if (key != null && key.getDate() != null && key.getCountryRegion() != null) {
+                int h = 31 * key.getDate().hashCode() + countryKey(key.getCountryRegion()).hashCode();
+                stripes.set(Math.floorMod(h ^ (h >>> 16), ROW_LOCK_STRIPES));
+            }
+        }
+        int locked = 0;
+        try {
+            for (int s = stripes.nextSetBit(0); s >= 0; s = stripes.nextSetBit(s + 1)) {
+                rowLocks[s].lock();
+                locked++;
+            }
+            return write.get();
+        } finally {
+            for (int s = stripes.nextSetBit(0); s >= 0 && locked > 0; s = stripes.nextSetBit(s + 1), locked--) {
+                rowLocks[s].unlock();
+            }
+        }
+    }
+
+    /**
+     * Drop All Data
+     *
+     * The next read reloads the store from the database
+     */
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            series.clear();
+            baseDate = null;
+            dayCount = 0;
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Load the store from the database on first use
+     */
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            int skipped = 0;
+            for (FullGrouped row : repo.findAll()) {
+                if (row.getCountryRegion() == null || !dateRange.contains(row.getDate())) {
+                    skipped++;
+                } else {
+                    write(row);
+                }
+            }
+            if (skipped > 0) {
+                log.warn("Skipped {} full_grouped rows without a country or dated outside {} to {}",
+                        skipped, dateRange.getMin(), dateRange.getMax());
+            }
+            // Rollups are built once per series after the load, not once per row
+            for (CountrySeries s : series.values()) {
+                buildRollups(s);
+            }
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Write one row into its series (caller holds the write lock and has checked the date range)
+     *
+     * @return The series written to (its rollups are not updated here)
+     */
+    private CountrySeries write(FullGrouped row) {
+        LocalDate date = row.getDate();
+        if (baseDate == null) {
+            baseDate = date;
+        } else if (date.isBefore(baseDate)) {
+            // Rare: a date older than anything stored - move every series to the new origin
+            int days = (int) ChronoUnit.DAYS.between(date, baseDate);
+            series.values().forEach(s -> s.shiftRight(days));
+            baseDate = date;
+            dayCount += days;
+        }
+
+        int offset = offsetOf(date);
+        CountrySeries s = series.computeIfAbsent(names.canonical(row.getCountryRegion()),
+                country -> new CountrySeries(country, Math.max(INITIAL_CAPACITY, dayCount)));
+        s.ensureCapacity(offset);
+
+        s.columns[CONFIRMED][offset] = encode(row.getConfirmed());
+        s.columns[DEATHS][offset] = encode(row.getDeaths());
+        s.columns[RECOVERED][offset] = encode(row.getRecovered());
+        s.columns[ACTIVE][offset] = encode(row.getActive());
+        s.columns[NEW_CASES][offset] = encode(row.getNewCases());
+        s.columns[NEW_DEATHS][offset] = encode(row.getNewDeaths());
+        s.columns[NEW_RECOVERED][offset] = encode(row.getNewRecovered());
+        if (row.getWhoRegion() != null) {
+            s.whoRegionCode = names.code(row.getWhoRegion());
+            s.whoRegion = s.whoRegionCode != NameDictionary.NONE ? names.name(s.whoRegionCode) : row.getWhoRegion();
+        }
+        if (!s.present[offset]) {
+            s.present[offset] = true;
+            s.rowCount++;
+        }
+        dayCount = Math.max(dayCount, offset + 1);
+        return s;
+    }
+
+    /**
+     * Build every rollup bucket of a series from its daily columns (caller holds the write lock)
+     */
+    private void buildRollups(CountrySeries s) {
+        for (Granularity g : Granularity.values()) {
+            s.rollup(g).clear();
+            int previous = Integer.MIN_VALUE;
+            for (int offset = 0; offset < s.present.length; offset++) {
+                if (s.present[offset]) {
+                    int index = g.index(baseDate.plusDays(offset));
+                    if (index != previous) {
+                        refreshBucket(s, g, index);
+                        previous = index;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Recompute the week and month buckets containing a date (caller holds the write lock)
+     */
+    private void refreshRollups(CountrySeries s, LocalDate date) {
+        for (Granularity g : Granularity.values()) {
+            refreshBucket(s, g, g.index(date));
+        }
+    }
+
+    private void refreshBucket(CountrySeries s, Granularity g, int index) {
+        int from = Math.max(0, offsetOf(g.start(index)));
+        int to = Math.min(s.present.length, offsetOf(g.start(index + 1)));
+        long[] bucket = emptyBucket();
+        for (int offset = from; offset < to; offset++) {
+            if (!s.present[offset]) {
+                continue;
+            }
+            for (int m = 0; m < METRIC_COUNT; m++) {
+                int value = s.columns[m][offset];
+                if (m >= FIRST_FLOW_METRIC) {
+                    if (value != NULL) {
+                        bucket[m] = bucket[m] == NULL_TOTAL ? value : bucket[m] + value;
+                    }
+                } else {
+                    bucket[m] = value != NULL ? value : NULL_TOTAL;
+                }
+            }
+            bucket[BUCKET_DAYS]++;
+            bucket[BUCKET_LAST_DAY] = baseDate.toEpochDay() + offset;
+        }
+        if (bucket[BUCKET_DAYS] == 0) {
+            s.rollup(g).remove(index);
+        } else {
+            s.rollup(g).put(index, bucket);
+        }
+    }
+
+    /**
+     * Add one country's bucket into a region / world total
+     */
+    private static void add(long[] total, long[] bucket) {
+        for (int m = 0; m < METRIC_COUNT; m++) {
+            if (bucket[m] != NULL_TOTAL) {
+                total[m] = total[m] == NULL_TOTAL ? bucket[m] : total[m] + bucket[m];
+            }
+        }
+        total[BUCKET_DAYS] = Math.max(total[BUCKET_DAYS], bucket[BUCKET_DAYS]);
+        total[BUCKET_LAST_DAY] = Math.max(total[BUCKET_LAST_DAY], bucket[BUCKET_LAST_DAY]);
+    }
+
+    private static long[] emptyBucket() {
+        long[] bucket = new long[BUCKET_SIZE];
+        Arrays.fill(bucket, 0, METRIC_COUNT, NULL_TOTAL);
+        bucket[BUCKET_LAST_DAY] = Long.MIN_VALUE;
+        return bucket;
+    }
+
+    private static Long total(long value) {
+        return value != NULL_TOTAL ? value : null;
+    }
+
+    /**
+     * Int comparison; string comparison only for names the dictionary could not hold
+     */
+    private static boolean inRegion(CountrySeries s, int code, String whoRegion) {
+        return code != NameDictionary.NONE ? s.whoRegionCode == code : whoRegion.equals(s.whoRegion);
+    }
+
+    private int offsetOf(LocalDate date) {
+        if (baseDate == null || date == null) {
+            return -1;
+        }
+        return (int) ChronoUnit.DAYS.between(baseDate, date);
+    }
+
+    private FullGrouped toEntity(CountrySeries s, int offset) {
+        FullGrouped row = new FullGrouped();
+        row.setDate(baseDate.plusDays(offset));
+        row.setCountryRegion(s.country);
+        row.setConfirmed(decode(s.columns[CONFIRMED][offset]));
+        row.setDeaths(decode(s.columns[DEATHS][offset]));
+        row.setRecovered(decode(s.columns[RECOVERED][offset]));
+        row.setActive(decode(s.columns[ACTIVE][offset]));
+        row.setNewCases(decode(s.columns[NEW_CASES][offset]));
+        row.setNewDeaths(decode(s.columns[NEW_DEATHS][offset]));
+        row.setNewRecovered(decode(s.columns[NEW_RECOVERED][offset]));
+        row.setWhoRegion(s.whoRegion);
+        return row;
+    }
+
+    /**
+     * Country order of the table's collation: case-insensitive, trailing spaces ignored
+     * (0 exactly when countryKey() of both names is equal)
+     */
+    static int compareCountries(String a, String b) {
+        int lengthA = trimmedLength(a);
+        int lengthB = trimmedLength(b);
+        for (int i = 0; i < Math.min(lengthA, lengthB); i++) {
+            char ca = a.charAt(i);
+            char cb = b.charAt(i);
+            if (ca != cb) {
+                ca = Character.toLowerCase(ca);
+                cb = Character.toLowerCase(cb);
+                if (ca != cb) {
+                    return ca - cb;
+                }
+            }
+        }
+        return lengthA - lengthB;
+    }
+
+    /**
+     * @return The country as the collation compares it (lower case, no trailing spaces)
+     */
+    static String countryKey(String country) {
+        int length = trimmedLength(country);
+        StringBuilder key = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            key.append(Character.toLowerCase(country.charAt(i)));
+        }
+        return key.toString();
+    }
+
+    private static int trimmedLength(String value) {
+        int length = value.length();
+        while (length > 0 && value.charAt(length - 1) == ' ') {
+            length--;
+        }
+        return length;
+    }
+
+    private static int encode(Integer value) {
+        return value != null ? value : NULL;
+    }
+
+    private static Integer decode(int value) {
+        return value != NULL ? value : null;
+    }
+}
@@ -1,8 +1,16 @@
 package covidapp.covid.service;
 
+import covidapp.covid.dataset.Dataset;
+import covidapp.covid.dto.BulkWriteReport;
+import covidapp.covid.dto.RollupPoint;
 import covidapp.covid.entity.FullGrouped;
+import covidapp.covid.entity.FullGroupedId;
 import covidapp.covid.repository.FullGroupedRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -17,30 +25,69 @@ import java.util.List;
  * - CRUD operations with composite key
  * - Query by country, date, or WHO region
  * - Partial updates (only update provided fields)
+ * - Reads served from an in-memory columnar store (FullGroupedColumnStore)
+ *   which is kept in sync on every create/update/delete
+ * - Bulk create/upsert/delete in one transaction (FullGroupedBulkWriter)
+ * - Every write also updates day_wise and country_wise_latest in the same transaction
+ *   (FullGroupedViewMaintainer)
+ * - Weekly / monthly rollups per country, WHO region or world, pre-aggregated by the store
  */
 @Service
 public class FullGroupedService {
 
+    private static final Logger log = LoggerFactory.getLogger(FullGroupedService.class);
+
     // Repository for database operations on FullGrouped entity
     private final FullGroupedRepository repo;
 
+    // In-memory columnar copy of full_grouped used for all reads
+    private final FullGroupedColumnStore store;
+
+    // Version counters behind the ETag of the list endpoints (advanced on every write)
+    private final DatasetVersions versions;
+
+    // Multi-row JDBC writes for the bulk endpoints
+    private final FullGroupedBulkWriter bulkWriter;
+
+    // Applies each write to the derived day_wise / country_wise_latest rows
+    private final FullGroupedViewMaintainer viewMaintainer;
+
+    // One transaction for the full_grouped write and the derived rows
+    private final TransactionTemplate transactionTemplate;
+
+    // Dates a new row may carry
+    private final DatasetDateRange dateRange;
+
+    /**
+     * A committed single-row write and the derived rows it changed
+     */
+    private record Written(FullGrouped row, FullGroupedViewMaintainer.Result derived) {
+    }
+
     /**
      * Constructor - Dependency injection
-     * Spring automatically injects FullGroupedRepository
+     * Spring automatically injects FullGroupedRepository, FullGroupedColumnStore, DatasetVersions,
+     * FullGroupedBulkWriter, FullGroupedViewMaintainer, the transaction manager and DatasetDateRange
      */
-    public FullGroupedService(FullGroupedRepository repo) {
+    public FullGroupedService(FullGroupedRepository repo, FullGroupedColumnStore store, DatasetVersions versions,
+                              FullGroupedBulkWriter bulkWriter, FullGroupedViewMaintainer viewMaintainer,
+                              PlatformTransactionManager transactionManager, DatasetDateRange dateRange) {
         this.repo = repo;
+        this.store = store;
+        this.versions = versions;
+        this.bulkWriter = bulkWriter;
+        this.viewMaintainer = viewMaintainer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dateRange = dateRange;
     }
 
     public List<FullGrouped> getAll() {
         try {
-            List<FullGrouped> data = repo.findAll();
+            List<FullGrouped> data = store.findAll();
             // Return empty list if null (shouldn't happen, but safety check)
             return data != null ? data : new java.util.ArrayList<>();
         } catch (Exception e) {
-            // Log the error for debugging
-            System.err.println("Error fetching full grouped data: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error fetching full grouped data: {}", e.getMessage(), e);
             // Return empty list instead of throwing exception
             // This prevents 500 error if table doesn't exist
             return new java.util.ArrayList<>();
@@ -48,15 +95,33 @@ public class FullGroupedService {
     }
 
     public List<FullGrouped> getByCountry(String country) {
-        return repo.findByCountryRegion(country);
+        return store.findByCountry(country);
     }
 
     public List<FullGrouped> getByDate(LocalDate date) {
-        return repo.findByDate(date);
+        return store.findByDate(date);
     }
 
     public List<FullGrouped> getByRegion(String region) {
-        return repo.findByWhoRegion(region);
+        return store.findByWhoRegion(region);
+    }
+
+    /**
+     * Get Weekly or Monthly Rollup
+     *
+     * Served from the store's pre-aggregated buckets: a multi-month chart gets one point
+     * per week or month instead of one row per day
+     *
+     * @param granularity "week" or "month"
+     * @param country Country name (null or blank = all countries)
+     * @param whoRegion WHO region (null or blank = all regions)
+     * @return One point per period, oldest first
+     * @throws IllegalArgumentException if the granularity is invalid
+     */
+    public List<RollupPoint> getRollup(String granularity, String country, String whoRegion) {
+        return store.findRollup(FullGroupedColumnStore.Granularity.from(granularity),
+                country == null || country.isBlank() ? null : country,
+                whoRegion == null || whoRegion.isBlank() ? null : whoRegion);
     }
 
     /**
@@ -69,38 +134,132 @@ public class FullGroupedService {
      * @return FullGrouped object, or null if not found
      */
     public FullGrouped getById(LocalDate date, String countryRegion) {
-        // Create composite key object (date + country)
-        covidapp.covid.entity.FullGroupedId id = new covidapp.covid.entity.FullGroupedId(date, countryRegion);
-        return repo.findById(id).orElse(null);
+        // Served from the column store (same composite key: date + country)
+        return store.findById(date, countryRegion);
     }
 
+    /**
+     * Create or Replace One Row
+     *
+     * @throws IllegalArgumentException if the date is outside DatasetDateRange
+     */
     public FullGrouped create(FullGrouped data) {
-        return repo.save(data);
+        dateRange.check(data.getDate());
+        // The row lock keeps the store update in commit order (see FullGroupedColumnStore.writeLocked)
+        Written written = store.writeLocked(List.of(new FullGroupedId(data.getDate(), data.getCountryRegion())), () -> {
+            Written committed = transactionTemplate.execute(status -> {
+                // Saving an existing key replaces the row, so the stored one is the "before" of the change
+                // (a copy: save merges data into the loaded entity)
+                FullGrouped before = data.getDate() != null && data.getCountryRegion() != null
+                        ? repo.findForUpdateByDateAndCountryRegion(data.getDate(), data.getCountryRegion())
+                                .map(FullGroupedService::copy).orElse(null)
+                        : null;
+                FullGrouped saved = repo.save(data);
+                return new Written(saved, viewMaintainer.apply(List.of(new FullGroupedViewMaintainer.Change(before, saved))));
+            });
+            store.put(committed.row());
+            return committed;
+        });
+        versions.bump(Dataset.FULL_GROUPED);
+        viewMaintainer.afterCommit(written.derived());
+        return written.row();
     }
 
     public FullGrouped update(LocalDate date, String countryRegion, FullGrouped data) {
-        FullGrouped existing = getById(date, countryRegion);
-        if (existing == null) {
-            throw new RuntimeException("FullGrouped data not found");
-        }
-        
-        if (data.getConfirmed() != null) existing.setConfirmed(data.getConfirmed());
-        if (data.getDeaths() != null) existing.setDeaths(data.getDeaths());
-        if (data.getRecovered() != null) existing.setRecovered(data.getRecovered());
-        if (data.getActive() != null) existing.setActive(data.getActive());
-        if (data.getNewCases() != null) existing.setNewCases(data.getNewCases());
-        if (data.getNewDeaths() != null) existing.setNewDeaths(data.getNewDeaths());
-        if (data.getNewRecovered() != null) existing.setNewRecovered(data.getNewRecovered());
-        if (data.getWhoRegion() != null) existing.setWhoRegion(data.getWhoRegion());
-
-        return repo.save(existing);
+        // The stored row is read and locked inside the transaction, so the merge and the
+        // "before" of the change are based on the committed row; the row lock keeps the
+        // store update in commit order
+        Written written = store.writeLocked(List.of(new FullGroupedId(date, countryRegion)), () -> {
+            Written committed = transactionTemplate.execute(status -> {
+                FullGrouped existing = repo.findForUpdateByDateAndCountryRegion(date, countryRegion)
+                        .orElseThrow(() -> new RuntimeException("FullGrouped data not found"));
+                FullGrouped before = copy(existing);
+
+                if (data.getConfirmed() != null) existing.setConfirmed(data.getConfirmed());
+                if (data.getDeaths() != null) existing.setDeaths(data.getDeaths());
+                if (data.getRecovered() != null) existing.setRecovered(data.getRecovered());
+                if (data.getActive() != null) existing.setActive(data.getActive());
+                if (data.getNewCases() != null) existing.setNewCases(data.getNewCases());
+                if (data.getNewDeaths() != null) existing.setNewDeaths(data.getNewDeaths());
+                if (data.getNewRecovered() != null) existing.setNewRecovered(data.getNewRecovered());
+                if (data.getWhoRegion() != null) existing.setWhoRegion(data.getWhoRegion());
+
+                FullGrouped saved = repo.save(existing);
+                return new Written(saved, viewMaintainer.apply(List.of(new FullGroupedViewMaintainer.Change(before, saved))));
+            });
+            store.put(committed.row());
+            return committed;
+        });
+        versions.bump(Dataset.FULL_GROUPED);
+        viewMaintainer.afterCommit(written.derived());
+        return written.row();
     }
 
     public void delete(LocalDate date, String countryRegion) {
-        FullGrouped existing = getById(date, countryRegion);
-        if (existing == null) {
-            throw new RuntimeException("FullGrouped data not found");
-        }
-        repo.delete(existing);
+        FullGroupedViewMaintainer.Result derived = store.writeLocked(List.of(new FullGroupedId(date, countryRegion)), () -> {
+            FullGroupedViewMaintainer.Result committed = transactionTemplate.execute(status -> {
+                FullGrouped existing = repo.findForUpdateByDateAndCountryRegion(date, countryRegion)
+                        .orElseThrow(() -> new RuntimeException("FullGrouped data not found"));
+                repo.delete(existing);
+                return viewMaintainer.apply(List.of(new FullGroupedViewMaintainer.Change(existing, null)));
+            });
+            store.remove(date, countryRegion);
+            return committed;
+        });
+        versions.bump(Dataset.FULL_GROUPED);
+        viewMaintainer.afterCommit(derived);
+    }
+
+    /**
+     * Bulk Create
+     *
+     * Inserts all new rows in one transaction; rows whose key already exists are reported as conflict
+     *
+     * @param rows Rows to insert
+     * @return Per-row results
+     */
+    public BulkWriteReport bulkCreate(List<FullGrouped> rows) {
+        return bulkWriter.write(rows, FullGroupedBulkWriter.Mode.CREATE);
+    }
+
+    /**
+     * Bulk Upsert
+     *
+     * Inserts new rows and updates existing ones in one transaction
+     * (same partial-update rule as update: null fields keep the stored value)
+     *
+     * @param rows Rows to insert or update
+     * @return Per-row results
+     */
+    public BulkWriteReport bulkUpsert(List<FullGrouped> rows) {
+        return bulkWriter.write(rows, FullGroupedBulkWriter.Mode.UPSERT);
+    }
+
+    /**
+     * Bulk Delete
+     *
+     * @param keys Keys (date + countryRegion) to delete in one transaction
+     * @return Per-row results (not_found for keys without a row)
+     */
+    public BulkWriteReport bulkDelete(List<FullGroupedId> keys) {
+        return bulkWriter.delete(keys);
+    }
+
+    /**
+     * Detached copy of a row (the "before" of a change, unaffected by the save that follows)
+     */
+    private static FullGrouped copy(FullGrouped row) {
+        FullGrouped copy = new FullGrouped();
+        copy.setDate(row.getDate());
+        copy.setCountryRegion(row.getCountryRegion());
+        copy.setConfirmed(row.getConfirmed());
+        copy.setDeaths(row.getDeaths());
+        copy.setRecovered(row.getRecovered());
+        copy.setActive(row.getActive());
+        copy.setNewCases(row.getNewCases());
+        copy.setNewDeaths(row.getNewDeaths());
+        copy.setNewRecovered(row.getNewRecovered());
+        copy.setWhoRegion(row.getWhoRegion());
+        return copy;
     }
 }
@@ -0,0 +1,321 @@
+package covidapp.covid.service;
+
+import covidapp.covid.dataset.Dataset;
+import covidapp.covid.entity.CountryWiseLatest;
+import covidapp.covid.entity.DayWise;
+import covidapp.covid.entity.FullGrouped;
+import covidapp.covid.entity.FullGroupedId;
+import covidapp.covid.repository.CountryWiseRepository;
+import covidapp.covid.repository.DayWiseRepository;
+import covidapp.covid.repository.FullGroupedRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Full Grouped View Maintainer
+ *
+ * Keeps "day_wise" and "country_wise_latest" in step with "full_grouped", the table
+ * both are derived from, by applying the delta of each full_grouped write instead of
+ * recomputing them
+ *
+ * day_wise (world totals per date):
+ * - Each changed row adds (after - before) of every metric to its date's totals,
+ *   and +1 / -1 to the number of countries when a row is inserted / deleted
+ * - The date's row is read with a write lock (SELECT ... FOR UPDATE), so two transactions
+ *   changing the same date add their deltas in turn instead of the later save dropping the other's
+ * - The per-100 ratios are recomputed from the new totals
+ * - A date without a day_wise row (or without a country count) is summed from
+ *   full_grouped once; a date whose last country row is deleted loses its day_wise row
+ *
+ * country_wise_latest (each country's latest figures):
+ * - Rebuilt from the country's latest full_grouped row and the row 7 days before it
+ *   (confirmedLastWeek, oneWeekChange, oneWeekPercentIncrease), with the red-alert flag
+ * - Skipped when every change of the country is more than 7 days older than its latest
+ *   row (such changes cannot affect it); the latest row is read from the database inside
+ *   the transaction, never from the in-memory column store
+ * - Deleted when the country has no full_grouped rows left
+ *
+ * Usage (by FullGroupedService and FullGroupedBulkWriter):
+ * 1. apply() inside the transaction that writes full_grouped, so all three tables commit together
+ * 2. afterCommit() with its result, to update in-memory copies and advance the dataset versions
+ *
+ * Disabled with app.fullgrouped.maintain-views=false (when day_wise and country_wise_latest
+ * are loaded from their own CSV files and must not be overwritten)
+ */
+@Component
+public class FullGroupedViewMaintainer {
+
+    private static final Logger log = LoggerFactory.getLogger(FullGroupedViewMaintainer.class);
+
+    private final FullGroupedRepository fullGroupedRepo;
+    private final DayWiseRepository dayWiseRepo;
+    private final CountryWiseRepository countryWiseRepo;
+    private final CountryWiseService countryWiseService;
+    private final DayWiseAnalytics dayWiseAnalytics;
+    private final GlobalSummaryService summaryService;
+    private final DatasetVersions versions;
+    private final boolean enabled;
+
+    /**
+     * One full_grouped row change
+     *
+     * @param before Row before the write (null for an insert)
+     * @param after Row after the write (null for a delete)
+     */
+    public record Change(FullGrouped before, FullGrouped after) {
+
+        FullGrouped any() {
+            return after != null ? after : before;
+        }
+    }
+
+    /**
+     * Derived rows written by apply(), for afterCommit()
+     */
+    public record Result(List<DayWise> savedDays, List<Long> deletedDays,
+                         List<CountryWiseLatest> savedCountries, List<String> deletedCountries) {
+
+        static final Result NONE = new Result(List.of(), List.of(), List.of(), List.of());
+    }
+
+    /**
+     * Constructor - Dependency injection
+     * Spring automatically injects the three repositories, the in-memory copies to keep
+     * in sync, DatasetVersions and app.fullgrouped.maintain-views
+     */
+    public FullGroupedViewMaintainer(FullGroupedRepository fullGroupedRepo, DayWiseRepository dayWiseRepo,
+                                     CountryWiseRepository countryWiseRepo, CountryWiseService countryWiseService, DayWiseAnalytics dayWiseAnalytics,
+                                     GlobalSummaryService summaryService, DatasetVersions versions,
+                                     @Value("${app.fullgrouped.maintain-views:true}") boolean enabled) {
+        this.fullGroupedRepo = fullGroupedRepo;
+        this.dayWiseRepo = dayWiseRepo;
+        this.countryWiseRepo = countryWiseRepo;
+        this.countryWiseService = countryWiseService;
+        this.dayWiseAnalytics = dayWiseAnalytics;
+        this.summaryService = summaryService;
+        this.versions = versions;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Apply full_grouped Changes to day_wise and country_wise_latest
+     *
+     * Must run inside the transaction that wrote the changes (after the writes, before
+     * the column store is updated)
+     *
+     * @param changes Changed rows
+     * @return Derived rows written, to pass to afterCommit()
+     */
+    public Result apply(List<Change> changes) {
+        if (!enabled || changes.isEmpty()) {
+            return Result.NONE;
+        }
+        Map<LocalDate, List<Change>> byDate = new TreeMap<>();
+        Map<String, List<Change>> byCountry = new TreeMap<>();
+        for (Change change : changes) {
+            FullGrouped row = change.any();
+            byDate.computeIfAbsent(row.getDate(), d -> new ArrayList<>()).add(change);
+            byCountry.computeIfAbsent(row.getCountryRegion(), c -> new ArrayList<>()).add(change);
+        }
+
+        List<DayWise> savedDays = new ArrayList<>();
+        List<Long> deletedDays = new ArrayList<>();
+        for (Map.Entry<LocalDate, List<Change>> date : byDate.entrySet()) {
+            applyDay(date.getKey(), date.getValue(), savedDays, deletedDays);
+        }
+
+        List<CountryWiseLatest> savedCountries = new ArrayList<>();
+        List<String> deletedCountries = new ArrayList<>();
+        for (Map.Entry<String, List<Change>> country : byCountry.entrySet()) {
+            Optional<FullGrouped> latest = fullGroupedRepo.findFirstByCountryRegionOrderByDateDesc(country.getKey());
+            if (affectsLatest(latest, country.getValue())) {
+                rebuildCountry(country.getKey(), latest, savedCountries, deletedCountries);
+            }
+        }
+        log.debug("full_grouped: {} changes -> {} day_wise rows, {} country_wise_latest rows",
+                changes.size(), savedDays.size() + deletedDays.size(), savedCountries.size() + deletedCountries.size());
+        return new Result(savedDays, deletedDays, savedCountries, deletedCountries);
+    }
+
+    /**
+     * Update In-Memory Copies after the Commit
+     *
+     * @param result Result of apply() in the committed transaction
+     */
+    public void afterCommit(Result result) {
+        result.savedDays().forEach(dayWiseAnalytics::put);
+        result.deletedDays().forEach(dayWiseAnalytics::remove);
+        if (!result.savedDays().isEmpty() || !result.deletedDays().isEmpty()) {
+            versions.bump(Dataset.DAY_WISE);
+        }
+        result.savedCountries().forEach(summaryService::onCountrySaved);
+        result.deletedCountries().forEach(summaryService::onCountryDeleted);
+        if (!result.savedCountries().isEmpty() || !result.deletedCountries().isEmpty()) {
+            versions.bump(Dataset.COUNTRY_WISE_LATEST);
+        }
+    }
+
+    private void applyDay(LocalDate date, List<Change> changes, List<DayWise> saved, List<Long> deleted) {
+        Optional<DayWise> existing = dayWiseRepo.findForUpdateByDate(date);
+        DayWise day;
+        if (existing.isPresent() && existing.get().getNumberOfCountries() != null) {
+            day = existing.get();
+            int countries = day.getNumberOfCountries();
+            int[] delta = new int[7];
+            for (Change change : changes) {
+                int[] before = metrics(change.before());
+                int[] after = metrics(change.after());
+                for (int m = 0; m < delta.length; m++) {
+                    delta[m] += after[m] - before[m];
+                }
+                countries += (change.after() != null ? 1 : 0) - (change.before() != null ? 1 : 0);
+            }
+            day.setConfirmed(plus(day.getConfirmed(), delta[0]));
+            day.setDeaths(plus(day.getDeaths(), delta[1]));
+            day.setRecovered(plus(day.getRecovered(), delta[2]));
+            day.setActive(plus(day.getActive(), delta[3]));
+            day.setNewCases(plus(day.getNewCases(), delta[4]));
+            day.setNewDeaths(plus(day.getNewDeaths(), delta[5]));
+            day.setNewRecovered(plus(day.getNewRecovered(), delta[6]));
+            day.setNumberOfCountries(countries);
+        } else {
+            // No running totals to adjust yet: sum the date once (the changes are already written)
+            day = existing.orElseGet(DayWise::new);
+            day.setDate(date);
+            sumDay(day, fullGroupedRepo.findByDate(date));
+        }
+
+        if (day.getNumberOfCountries() <= 0) {
+            if (day.getId() != null) {
+                dayWiseRepo.delete(day);
+                deleted.add(day.getId());
+            }
+            return;
+        }
+        day.setDeathsPer100Cases(per100(day.getDeaths(), day.getConfirmed()));
+        day.setRecoveredPer100Cases(per100(day.getRecovered(), day.getConfirmed()));
+        day.setDeathsPer100Recovered(per100(day.getDeaths(), day.getRecovered()));
+        saved.add(dayWiseRepo.save(day));
+    }
+
+    private static void sumDay(DayWise day, List<FullGrouped> rows) {
+        int[] totals = new int[7];
+        for (FullGrouped row : rows) {
+            int[] values = metrics(row);
+            for (int m = 0; m < totals.length; m++) {
+                totals[m] += values[m];
+            }
+        }
+        day.setConfirmed(totals[0]);
+        day.setDeaths(totals[1]);
+        day.setRecovered(totals[2]);
+        day.setActive(totals[3]);
+        day.setNewCases(totals[4]);
+        day.setNewDeaths(totals[5]);
+        day.setNewRecovered(totals[6]);
+        day.setNumberOfCountries(rows.size());
+    }
+
+    /**
+     * confirmed, deaths, recovered, active, newCases, newDeaths, newRecovered (null as 0; all 0 for no row)
+     */
+    private static int[] metrics(FullGrouped row) {
+        if (row == null) {
+            return new int[7];
+        }
+        return new int[]{value(row.getConfirmed()), value(row.getDeaths()), value(row.getRecovered()),
+                value(row.getActive()), value(row.getNewCases()), value(row.getNewDeaths()),
+                value(row.getNewRecovered())};
+    }
+
+    /**
+     * The country's latest row (or the one 7 days before it) can only change if a change is at
+     * most 7 days older than the latest row after this write (a write that moves the latest
+     * row, by inserting a newer one or deleting it, is itself within those 7 days)
+     *
+     * @param latest The country's latest row, read inside the write transaction
+     */
+    private static boolean affectsLatest(Optional<FullGrouped> latest, List<Change> changes) {
+        if (latest.isEmpty()) {
+            return true;
+        }
+        LocalDate oldestRelevant = latest.get().getDate().minusDays(7);
+        for (Change change : changes) {
+            if (!change.any().getDate().isBefore(oldestRelevant)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void rebuildCountry(String country, Optional<FullGrouped> latest,
+                                List<CountryWiseLatest> saved, List<String> deleted) {
+        Optional<CountryWiseLatest> existing = countryWiseRepo.findById(country);
+        if (latest.isEmpty()) {
+            if (existing.isPresent()) {
+                countryWiseRepo.delete(existing.get());
+                deleted.add(country);
+            }
+            return;
+        }
+        FullGrouped row = latest.get();
+        Integer lastWeek = fullGroupedRepo.findById(new FullGroupedId(row.getDate().minusDays(7), country))
+                .map(FullGrouped::getConfirmed)
+                .orElse(null);
+
+        CountryWiseLatest target = existing.orElseGet(CountryWiseLatest::new);
+        target.setCountry(country);
+        target.setConfirmed(row.getConfirmed());
+        target.setDeaths(row.getDeaths());
+        target.setRecovered(row.getRecovered());
+        target.setActive(row.getActive());
+        target.setNewCases(row.getNewCases());
+        target.setNewDeaths(row.getNewDeaths());
+        target.setNewRecovered(row.getNewRecovered());
+        target.setDeathsPer100Cases(per100(row.getDeaths(), row.getConfirmed()));
+        target.setRecoveredPer100Cases(per100(row.getRecovered(), row.getConfirmed()));
+        target.setDeathsPer100Recovered(per100(row.getDeaths(), row.getRecovered()));
+        target.setConfirmedLastWeek(lastWeek);
+        Integer change = row.getConfirmed() != null && lastWeek != null ? row.getConfirmed() - lastWeek : null;
+        target.setOneWeekChange(change);
+        target.setOneWeekPercentIncrease(per100(change, lastWeek));
+        if (row.getWhoRegion() != null) {
+            target.setWhoRegion(row.getWhoRegion());
+        }
+        countryWiseService.applyRedAlert(target);
+        saved.add(countryWiseRepo.save(target));
+    }
+
+    /**
+     * total + delta, treating a null total as 0 (null stays null if nothing is added)
+     */
+    private static Integer plus(Integer total, int delta) {
+        if (delta == 0) {
+            return total;
+        }
+        return value(total) + delta;
+    }
+
+    /**
+     * part * 100 / whole rounded to 2 decimals (as in the CSV files), null if whole is 0 or missing
+     */
+    private static Double per100(Integer part, Integer whole) {
+        if (part == null || whole == null || whole == 0) {
+            return null;
+        }
+        return Math.round(part * 10000.0 / whole) / 100.0;
+    }
+
+    private static int value(Integer value) {
+        return value != null ? value : 0;
+    }
+}
@@ -0,0 +1,312 @@
+package covidapp.covid.service;
+
+import covidapp.covid.dto.GlobalSummary;
+import covidapp.covid.entity.CountryWiseLatest;
+import covidapp.covid.entity.WorldometerData;
+import covidapp.covid.repository.CountryWiseRepository;
+import covidapp.covid.repository.WorldometerRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Global Summary Service
+ *
+ * Maintains global COVID-19 totals so the dashboard does not have to download
+ * and reduce the full worldometer / country-wise tables
+ *
+ * How it works:
+ * - On first request, totals are built once from both repositories
+ * - After that, WorldometerService and CountryWiseService report every write here
+ * - Each write subtracts the row's previous contribution and adds the new one (O(1))
+ * - The response object is cached and rebuilt only after a write
+ *
+ * Source selection (same rule the Dashboard used):
+ * - Worldometer totals if that table has data
+ * - Otherwise country-wise totals
+ */
+@Service
+public class GlobalSummaryService {
+
+    private final WorldometerRepository worldometerRepository;
+    private final CountryWiseRepository countryWiseRepository;
+
+    // Worldometer row id -> contribution to the totals
+    private final Map<Long, Contribution> worldometerRows = new HashMap<>();
+
+    // Country name -> contribution of its country-wise row
+    private final Map<String, Contribution> countryWiseRows = new HashMap<>();
+
+    private final Aggregate worldometer = new Aggregate();
+    private final Aggregate countryWise = new Aggregate();
+
+    private int redAlertCountries;
+
+    private boolean loaded;
+
+    // Cached response, cleared on every write
+    private volatile GlobalSummary snapshot;
+
+    // Guards the totals; the first load runs queries while holding it (a lock, not
+    // synchronized, for the reason given in LazyLoader)
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public GlobalSummaryService(WorldometerRepository worldometerRepository,
+                                CountryWiseRepository countryWiseRepository) {
+        this.worldometerRepository = worldometerRepository;
+        this.countryWiseRepository = countryWiseRepository;
+    }
+
+    /**
+     * Contribution of one row to the totals
+     */
+    private record Contribution(String continent, String whoRegion, long cases, long deaths,
+                                long recovered, long active, long newCases, boolean redAlert) {
+    }
+
+    /**
+     * Running totals plus per-continent and per-WHO-region breakdowns
+     */
+    private static final class Aggregate {
+        final Totals total = new Totals();
+        final Map<String, Totals> byContinent = new TreeMap<>();
+        final Map<String, Totals> byWhoRegion = new TreeMap<>();
+
+        void apply(Contribution c, int sign) {
+            total.apply(c, sign);
+            if (c.continent() != null) {
+                applyTo(byContinent, c.continent(), c, sign);
+            }
+            if (c.whoRegion() != null) {
+                applyTo(byWhoRegion, c.whoRegion(), c, sign);
+            }
+        }
+
+        private static void applyTo(Map<String, Totals> map, String key, Contribution c, int sign) {
+            Totals totals = map.computeIfAbsent(key, k -> new Totals());
+            totals.apply(c, sign);
+            if (totals.countries == 0) {
+                map.remove(key);
+            }
+        }
+
+        void clear() {
+            total.clear();
+            byContinent.clear();
+            byWhoRegion.clear();
+        }
+    }
+
+    private static final class Totals {
+        long cases, deaths, recovered, active, newCases;
+        int countries;
+
+        void apply(Contribution c, int sign) {
+            cases += sign * c.cases();
+            deaths += sign * c.deaths();
+            recovered += sign * c.recovered();
+            active += sign * c.active();
+            newCases += sign * c.newCases();
+            countries += sign;
+        }
+
+        void clear() {
+            cases = deaths = recovered = active = newCases = 0;
+            countries = 0;
+        }
+
+        GlobalSummary.Totals toDto() {
+            return new GlobalSummary.Totals(cases, deaths, recovered, active, newCases, countries);
+        }
+    }
+
+    /**
+     * Get Global Summary
+     *
+     * @return Cached global totals (rebuilt only after a write)
+     */
+    public GlobalSummary getSummary() {
+        GlobalSummary current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        lock.lock();
+        try {
+            if (snapshot == null) {
+                ensureLoaded();
+                snapshot = buildSnapshot();
+            }
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Called by WorldometerService after a create/update
+     */
+    public void onWorldometerSaved(WorldometerData data) {
+        lock.lock();
+        try {
+            if (!loaded || data == null || data.getId() == null) {
+                return;
+            }
+            Contribution next = fromWorldometer(data);
+            Contribution previous = worldometerRows.put(data.getId(), next);
+            if (previous != null) {
+                worldometer.apply(previous, -1);
+            }
+            worldometer.apply(next, 1);
+            snapshot = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Called by WorldometerService after a delete
+     */
+    public void onWorldometerDeleted(Long id) {
+        lock.lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            Contribution previous = worldometerRows.remove(id);
+            if (previous != null) {
+                worldometer.apply(previous, -1);
+                snapshot = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Called by CountryWiseService after a create/update
+     */
+    public void onCountrySaved(CountryWiseLatest data) {
+        lock.lock();
+        try {
+            if (!loaded || data == null || data.getCountry() == null) {
+                return;
+            }
+            Contribution next = fromCountryWise(data);
+            Contribution previous = countryWiseRows.put(data.getCountry(), next);
+            if (previous != null) {
+                removeCountry(previous);
+            }
+            countryWise.apply(next, 1);
+            if (next.redAlert()) {
+                redAlertCountries++;
+            }
+            snapshot = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Called by CountryWiseService after a delete
+     */
+    public void onCountryDeleted(String country) {
+        lock.lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            Contribution previous = countryWiseRows.remove(country);
+            if (previous != null) {
+                removeCountry(previous);
+                snapshot = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drop all totals - the next request rebuilds them from the database
+     */
+    public void invalidate() {
+        lock.lock();
+        try {
+            loaded = false;
+            worldometerRows.clear();
+            countryWiseRows.clear();
+            worldometer.clear();
+            countryWise.clear();
+            redAlertCountries = 0;
+            snapshot = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void removeCountry(Contribution previous) {
+        countryWise.apply(previous, -1);
+        if (previous.redAlert()) {
+            redAlertCountries--;
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        for (WorldometerData data : worldometerRepository.findAll()) {
+            if (data.getId() != null) {
+                Contribution c = fromWorldometer(data);
+                worldometerRows.put(data.getId(), c);
+                worldometer.apply(c, 1);
+            }
+        }
+        for (CountryWiseLatest data : countryWiseRepository.findAll()) {
+            if (data.getCountry() != null) {
+                Contribution c = fromCountryWise(data);
+                countryWiseRows.put(data.getCountry(), c);
+                countryWise.apply(c, 1);
+                if (c.redAlert()) {
+                    redAlertCountries++;
+                }
+            }
+        }
+        loaded = true;
+    }
+
+    private GlobalSummary buildSnapshot() {
+        boolean useWorldometer = worldometer.total.cases > 0;
+        Aggregate source = useWorldometer ? worldometer : countryWise;
+        Totals total = source.total;
+        return new GlobalSummary(
+                total.cases, total.deaths, total.recovered, total.active, total.newCases,
+                total.countries, redAlertCountries,
+                useWorldometer ? "worldometer" : "country_wise",
+                toDto(source.byContinent), toDto(source.byWhoRegion));
+    }
+
+    private static Map<String, GlobalSummary.Totals> toDto(Map<String, Totals> map) {
+        Map<String, GlobalSummary.Totals> result = new TreeMap<>();
+        map.forEach((key, totals) -> result.put(key, totals.toDto()));
+        return result;
+    }
+
+    private static Contribution fromWorldometer(WorldometerData d) {
+        return new Contribution(d.getContinent(), d.getWhoRegion(),
+                orZero(d.getTotalCases()), orZero(d.getTotalDeaths()), orZero(d.getTotalRecovered()),
+                orZero(d.getActiveCases()), orZero(d.getNewCases()), false);
+    }
+
+    private static Contribution fromCountryWise(CountryWiseLatest d) {
+        return new Contribution(null, d.getWhoRegion(),
+                orZero(d.getConfirmed()), orZero(d.getDeaths()), orZero(d.getRecovered()),
+                orZero(d.getActive()), orZero(d.getNewCases()), Boolean.TRUE.equals(d.getRedAlert()));
+    }
+
+    private static long orZero(Number value) {
+        return value != null ? value.longValue() : 0L;
+    }
+}
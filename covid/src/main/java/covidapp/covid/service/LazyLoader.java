@@ -0,0 +1,77 @@
+package covidapp.covid.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Lazy Loader
+ *
+ * Holds a value that is loaded from the database on first use and dropped when the
+ * data behind it changes (the in-memory caches and indexes of the services)
+ *
+ * Features:
+ * - get() returns the loaded value without locking; only a missing value takes the lock
+ * - One load at a time: concurrent callers wait for the running load and share its result
+ * - invalidate() never blocks, so it can run on a writing thread (DatasetVersions listeners)
+ *
+ * Why a ReentrantLock, not synchronized:
+ * - The load runs database queries while holding the lock, and a virtual thread blocked
+ *   inside synchronized pins its carrier thread for the whole query
+ *
+ * Why a generation:
+ * - invalidate() advances it, so a load that overlapped a write is not kept
+ * - The load publishes its value first and then re-checks the generation: an invalidate()
+ *   that raced the publish either clears the value after it, or is seen by the re-check,
+ *   which withdraws the value (the caller still gets it, as if it had read just before the write)
+ *
+ * @param <T> Loaded value (should not be modified once loaded)
+ */
+final class LazyLoader<T> {
+
+    private final Supplier<T> loader;
+    private final AtomicReference<T> value = new AtomicReference<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    /**
+     * @param loader Loads the value (must not return null)
+     */
+    LazyLoader(Supplier<T> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * @return The current value, loaded first if missing
+     */
+    T get() {
+        T current = value.get();
+        if (current != null) {
+            return current;
+        }
+        loadLock.lock();
+        try {
+            current = value.get();
+            if (current == null) {
+                long loaded = generation.get();
+                current = loader.get();
+                value.set(current);
+                if (generation.get() != loaded) {
+                    value.compareAndSet(current, null);
+                }
+            }
+            return current;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * Drop the value (loaded again on the next get())
+     */
+    void invalidate() {
+        generation.incrementAndGet();
+        value.set(null);
+    }
+}
@@ -0,0 +1,177 @@
+package covidapp.covid.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Login Rate Limiter
+ *
+ * Token buckets in front of POST /api/auth/login and /api/auth/verify-otp, so a burst of
+ * attempts cannot tie up worker threads, flood the OTP outbox and use up the mail quota,
+ * or brute-force a 6-digit OTP
+ *
+ * Features:
+ * - Two buckets per endpoint: one per username and one per client IP; a request must get
+ *   a token from both, and a rejected request keeps neither (the IP token is taken first
+ *   and given back if the username bucket rejects, so a locked-out username does not use
+ *   up its address's budget)
+ * - Each bucket holds up to "capacity" tokens and refills at "per-minute" tokens a minute
+ * - Rejections carry the wait until the next token (sent as Retry-After with 429)
+ *
+ * Layout (lock-free, bounded memory):
+ * - Keys are hashed onto a fixed array of stripes (app.ratelimit.stripes per bucket kind),
+ *   so random usernames or spoofed IPs cannot grow memory; keys sharing a stripe share a bucket
+ * - A bucket is a single long, its "theoretical arrival time" (GCRA, equivalent to a token
+ *   bucket): each token pushes it one refill interval into the future, and a request is
+ *   allowed while it is at most (capacity - 1) intervals ahead of now
+ * - Updated with compare-and-set, so concurrent attempts never block each other
+ */
+@Service
+public class LoginRateLimiter {
+
+    /**
+     * Rate-limited endpoints (each has its own buckets)
+     */
+    public enum Endpoint {
+        LOGIN, VERIFY_OTP
+    }
+
+    /**
+     * Thrown when a bucket is empty (mapped to 429 Too Many Requests)
+     */
+    public static class RateLimitedException extends RuntimeException {
+        private final long retryAfterSeconds;
+
+        public RateLimitedException(long retryAfterSeconds) {
+            super("Too many attempts. Please try again in " + retryAfterSeconds + " seconds.");
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+
+        public long getRetryAfterSeconds() {
+            return retryAfterSeconds;
+        }
+    }
+
+    private final boolean enabled;
+
+    // Indexed by Endpoint.ordinal()
+    private final Buckets[] byUsername;
+    private final Buckets[] byIp;
+
+    // Bucket times are relative to this, so an untouched stripe (0) is always in the past
+    private final long origin = System.nanoTime();
+
+    /**
+     * Constructor - Dependency injection
+     * Spring automatically injects the app.ratelimit.* settings
+     */
+    public LoginRateLimiter(@Value("${app.ratelimit.enabled:true}") boolean enabled,
+                            @Value("${app.ratelimit.stripes:4096}") int stripes,
+                            @Value("${app.ratelimit.login.username.capacity:5}") int loginUsernameCapacity,
+                            @Value("${app.ratelimit.login.username.per-minute:5}") int loginUsernamePerMinute,
+                            @Value("${app.ratelimit.login.ip.capacity:20}") int loginIpCapacity,
+                            @Value("${app.ratelimit.login.ip.per-minute:30}") int loginIpPerMinute,
+                            @Value("${app.ratelimit.verify-otp.username.capacity:5}") int otpUsernameCapacity,
+                            @Value("${app.ratelimit.verify-otp.username.per-minute:5}") int otpUsernamePerMinute,
+                            @Value("${app.ratelimit.verify-otp.ip.capacity:20}") int otpIpCapacity,
+                            @Value("${app.ratelimit.verify-otp.ip.per-minute:30}") int otpIpPerMinute) {
+        this.enabled = enabled;
+        this.byUsername = new Buckets[] {
+                new Buckets(stripes, loginUsernameCapacity, loginUsernamePerMinute),
+                new Buckets(stripes, otpUsernameCapacity, otpUsernamePerMinute)};
+        this.byIp = new Buckets[] {
+                new Buckets(stripes, loginIpCapacity, loginIpPerMinute),
+                new Buckets(stripes, otpIpCapacity, otpIpPerMinute)};
+    }
+
+    /**
+     * Take a Token for One Attempt
+     *
+     * @param endpoint Endpoint being called
+     * @param username Username from the request body (null = IP bucket only)
+     * @param clientIp Client address (null = username bucket only)
+     * @throws RateLimitedException if either bucket is empty
+     */
+    public void acquire(Endpoint endpoint, String username, String clientIp) {
+        acquire(endpoint, username, clientIp, System.nanoTime() - origin);
+    }
+
+    void acquire(Endpoint endpoint, String username, String clientIp, long now) {
+        if (!enabled) {
+            return;
+        }
+        Buckets ips = byIp[endpoint.ordinal()];
+        long wait = clientIp == null ? 0 : ips.take(clientIp, now);
+        if (wait == 0 && username != null) {
+            wait = byUsername[endpoint.ordinal()].take(username, now);
+            if (wait > 0 && clientIp != null) {
+                ips.refund(clientIp);
+            }
+        }
+        if (wait > 0) {
+            throw new RateLimitedException(Math.max(1, (wait + TimeUnit.SECONDS.toNanos(1) - 1)
+                    / TimeUnit.SECONDS.toNanos(1)));
+        }
+    }
+
+    /**
+     * One kind of bucket (e.g. login per username), striped over a fixed array
+     */
+    private static final class Buckets {
+
+        // Theoretical arrival time per stripe, in nanoseconds since origin
+        private final AtomicLongArray arrivals;
+        private final int mask;
+
+        // Nanoseconds per token, and how far ahead of now a bucket may run (0 interval = unlimited)
+        private final long interval;
+        private final long tolerance;
+
+        Buckets(int stripes, int capacity, int perMinute) {
+            int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+            this.arrivals = new AtomicLongArray(size);
+            this.mask = size - 1;
+            this.interval = perMinute > 0 ? TimeUnit.MINUTES.toNanos(1) / perMinute : 0;
+            this.tolerance = interval * (Math.max(1, capacity) - 1);
+        }
+
+        /**
+         * @return 0 if a token was taken, otherwise nanoseconds until the next one
+         */
+        long take(String key, long now) {
+            if (interval == 0) {
+                return 0;
+            }
+            int stripe = stripe(key);
+            while (true) {
+                long arrival = arrivals.get(stripe);
+                long start = Math.max(arrival, now);
+                long wait = start - now - tolerance;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (arrivals.compareAndSet(stripe, arrival, start + interval)) {
+                    return 0;
+                }
+            }
+        }
+
+        /**
+         * Give back a token taken by take() (moves the arrival time back one interval;
+         * a time in the past is the same as a full bucket)
+         */
+        void refund(String key) {
+            if (interval != 0) {
+                arrivals.addAndGet(stripe(key), -interval);
+            }
+        }
+
+        private int stripe(String key) {
+            int h = key.hashCode();
+            return (h ^ (h >>> 16)) & mask;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package covidapp.covid.service;
+
+import com.fasterxml.jackson.core.io.SerializedString;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Name Dictionary
+ *
+ * Shared dictionary for the few hundred country, province/state, WHO region and continent
+ * names that repeat across every row of the datasets
+ *
+ * Features:
+ * - Each distinct name gets a compact int code (0, 1, 2, ... in order of first use)
+ * - One canonical String instance per name: in-memory caches keep that instance (or the code)
+ *   instead of one copy per loaded row, and compare codes instead of strings
+ * - One pre-encoded Jackson SerializedString per name (quoted and UTF-8 encoded once),
+ *   written by NameJsonSerializer instead of escaping and encoding the name on every row
+ *
+ * Limits:
+ * - At most app.dictionary.max-names names (free-text values from writes cannot grow it
+ *   without bound); names beyond the limit get NONE and are used as they are
+ * - Codes are never reused or removed, so they stay valid for the lifetime of the process
+ *
+ * Thread safety:
+ * - Lookups are lock-free; adding a name takes a lock
+ */
+@Component
+public class NameDictionary {
+
+    // Code for null, and for names not in the dictionary
+    public static final int NONE = -1;
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final int maxNames;
+
+    // Name -> code (written after the arrays below, so a code seen here is always readable there)
+    private final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+
+    // Code -> canonical name / pre-encoded JSON string (replaced when grown)
+    private volatile String[] names = new String[INITIAL_CAPACITY];
+    private volatile SerializedString[] serialized = new SerializedString[INITIAL_CAPACITY];
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private int size;
+
+    public NameDictionary(@Value("${app.dictionary.max-names:65536}") int maxNames) {
+        this.maxNames = maxNames;
+    }
+
+    /**
+     * Code for a Name, Adding It if New
+     *
+     * @param name Name (may be null)
+     * @return Code, or NONE for null or when the dictionary is full
+     */
+    public int code(String name) {
+        if (name == null) {
+            return NONE;
+        }
+        Integer code = codes.get(name);
+        return code != null ? code : add(name);
+    }
+
+    /**
+     * Code for a Name, Without Adding It
+     *
+     * @param name Name (may be null)
+     * @return Code, or NONE if the name is not in the dictionary
+     */
+    public int find(String name) {
+        if (name == null) {
+            return NONE;
+        }
+        Integer code = codes.get(name);
+        return code != null ? code : NONE;
+    }
+
+    /**
+     * @param code Code from code() or find()
+     * @return Canonical name, or null for NONE
+     */
+    public String name(int code) {
+        return code == NONE ? null : names[code];
+    }
+
+    /**
+     * Canonical Instance of a Name
+     *
+     * @param name Name (may be null)
+     * @return The shared instance equal to name (name itself if null or the dictionary is full)
+     */
+    public String canonical(String name) {
+        int code = code(name);
+        return code == NONE ? name : names[code];
+    }
+
+    /**
+     * @param code Code from code() or find()
+     * @return Pre-encoded JSON string for the name, or null for NONE
+     */
+    public SerializedString serialized(int code) {
+        return code == NONE ? null : serialized[code];
+    }
+
+    /**
+     * @return Number of names in the dictionary
+     */
+    public int size() {
+        return codes.size();
+    }
+
+    private int add(String name) {
+        lock.lock();
+        try {
+            Integer existing = codes.get(name);
+            if (existing != null) {
+                return existing;
+            }
+            if (size >= maxNames) {
+                return NONE;
+            }
+            String[] n = names;
+            SerializedString[] s = serialized;
+            if (size == n.length) {
+                n = Arrays.copyOf(n, n.length * 2);
+                s = Arrays.copyOf(s, s.length * 2);
+            }
+            n[size] = name;
+            s[size] = new SerializedString(name);
+            names = n;
+            serialized = s;
+            codes.put(name, size);
+            return size++;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package covidapp.covid.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * OTP Email Outbox
+ *
+ * Sends OTP emails asynchronously so login requests do not wait for the SMTP handshake
+ *
+ * How it works:
+ * - AuthController.login puts the email in a bounded in-memory queue and returns immediately
+ * - A dispatcher takes emails from the queue and delivers each one on a virtual thread
+ * - Failed deliveries are retried with exponential backoff (up to maxAttempts)
+ * - At most maxConcurrent deliveries talk to the SMTP server at the same time
+ *
+ * Back-pressure:
+ * - If the queue is full, enqueue() returns false and the caller answers 503
+ *
+ * Metrics (see stats()):
+ * - Queue depth, enqueued/delivered/failed/rejected/retry counts
+ * - Delivery latency (time from enqueue to successful send): average and maximum
+ * - The same figures are published to Micrometer as otp.email.outbox.* (see bindTo())
+ */
+@Service
+public class OtpEmailOutbox implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(OtpEmailOutbox.class);
+
+    private final EmailService emailService;
+    private final BlockingQueue<OtpEmail> queue;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final Semaphore inFlight;
+    private final int maxConcurrent;
+
+    // Virtual-thread executor: one cheap thread per delivery (blocking SMTP I/O and backoff sleeps are fine)
+    private final ExecutorService deliveryExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private Thread dispatcher;
+    private volatile boolean running;
+
+    // Metrics
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder totalLatencyMillis = new LongAdder();
+    private final AtomicLong maxLatencyMillis = new AtomicLong();
+    private volatile Timer latencyTimer;
+
+    /**
+     * One queued OTP email
+     */
+    private record OtpEmail(String toEmail, String otp, long enqueuedAtNanos) {
+    }
+
+    /**
+     * Outbox metrics snapshot
+     */
+    public record OutboxStats(int queueDepth, int capacity, long enqueued, long delivered, long failed,
+                              long rejected, long retries, double averageLatencyMillis, long maxLatencyMillis) {
+    }
+
+    public OtpEmailOutbox(EmailService emailService,
+                          @Value("${app.email.outbox.capacity:1000}") int capacity,
+                          @Value("${app.email.outbox.max-attempts:4}") int maxAttempts,
+                          @Value("${app.email.outbox.initial-backoff-ms:500}") long initialBackoffMillis,
+                          @Value("${app.email.outbox.max-backoff-ms:30000}") long maxBackoffMillis,
+                          @Value("${app.email.outbox.max-concurrent:8}") int maxConcurrent) {
+        this.emailService = emailService;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.inFlight = new Semaphore(this.maxConcurrent);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        dispatcher = Thread.ofVirtual().name("otp-email-dispatcher").start(this::dispatchLoop);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+        deliveryExecutor.shutdown();
+        if (!deliveryExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("OTP email deliveries were still running at shutdown");
+        }
+        if (!queue.isEmpty()) {
+            log.warn("OTP email outbox stopped with {} emails still queued", queue.size());
+        }
+    }
+
+    /**
+     * Queue an OTP Email
+     *
+     * @param toEmail Recipient address
+     * @param otp One-time password to send
+     * @return true if queued, false if the outbox is full (caller should ask the user to retry)
+     */
+    public boolean enqueue(String toEmail, String otp) {
+        boolean accepted = queue.offer(new OtpEmail(toEmail, otp, System.nanoTime()));
+        if (accepted) {
+            enqueued.increment();
+        } else {
+            rejected.increment();
+        }
+        return accepted;
+    }
+
+    /**
+     * @return Current outbox metrics
+     */
+    public OutboxStats stats() {
+        long deliveredCount = delivered.sum();
+        double averageLatency = deliveredCount == 0 ? 0.0 : (double) totalLatencyMillis.sum() / deliveredCount;
+        return new OutboxStats(queue.size(), queue.size() + queue.remainingCapacity(),
+                enqueued.sum(), deliveredCount, failed.sum(), rejected.sum(), retries.sum(),
+                averageLatency, maxLatencyMillis.get());
+    }
+
+    /**
+     * Register Outbox Metrics
+     *
+     * Called by Spring Boot with the application's MeterRegistry:
+     * - otp.email.outbox.queue.depth / capacity / in.flight (gauges)
+     * - otp.email.outbox.emails{result=enqueued|delivered|failed|rejected} and .retries (counters)
+     * - otp.email.outbox.delivery.latency (timer with percentiles)
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("otp.email.outbox.queue.depth", queue, BlockingQueue::size)
+                .description("OTP emails waiting to be sent").register(registry);
+        Gauge.builder("otp.email.outbox.queue.capacity", queue, q -> q.size() + q.remainingCapacity())
+                .description("Maximum OTP emails the outbox holds").register(registry);
+        Gauge.builder("otp.email.outbox.in.flight", inFlight, s -> maxConcurrent - s.availablePermits())
+                .description("OTP emails currently being sent").register(registry);
+        FunctionCounter.builder("otp.email.outbox.emails", enqueued, LongAdder::sum)
+                .tag("result", "enqueued").register(registry);
+        FunctionCounter.builder("otp.email.outbox.emails", delivered, LongAdder::sum)
+                .tag("result", "delivered").register(registry);
+        FunctionCounter.builder("otp.email.outbox.emails", failed, LongAdder::sum)
+                .tag("result", "failed").register(registry);
+        FunctionCounter.builder("otp.email.outbox.emails", rejected, LongAdder::sum)
+                .tag("result", "rejected").register(registry);
+        FunctionCounter.builder("otp.email.outbox.retries", retries, LongAdder::sum)
+                .description("Delivery attempts that were retried").register(registry);
+        latencyTimer = Timer.builder("otp.email.outbox.delivery.latency")
+                .description("Time from enqueue to successful send")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+    }
+
+    /**
+     * Dispatcher loop - takes emails off the queue and hands each one to a delivery thread
+     */
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                OtpEmail email = queue.take();
+                // Bound concurrent SMTP connections; waits here while the limit is reached
+                inFlight.acquire();
+                deliveryExecutor.execute(() -> {
+                    try {
+                        deliver(email);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Deliver one email, retrying with exponential backoff
+     */
+    private void deliver(OtpEmail email) {
+        long backoff = initialBackoffMillis;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                emailService.sendOtpEmail(email.toEmail(), email.otp());
+                recordLatency(email);
+                delivered.increment();
+                return;
+            } catch (RuntimeException e) {
+                if (attempt == maxAttempts) {
+                    failed.increment();
+                    log.error("Giving up on OTP email to {} after {} attempts: {}", email.toEmail(), attempt, e.getMessage());
+                    return;
+                }
+                retries.increment();
+                log.warn("OTP email to {} failed (attempt {}/{}), retrying in {} ms: {}",
+                        email.toEmail(), attempt, maxAttempts, backoff, e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    failed.increment();
+                    return;
+                }
+                backoff = Math.min(backoff * 2, maxBackoffMillis);
+            }
+        }
+    }
+
+    private void recordLatency(OtpEmail email) {
+        long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - email.enqueuedAtNanos());
+        totalLatencyMillis.add(latency);
+        maxLatencyMillis.accumulateAndGet(latency, Math::max);
+        Timer timer = latencyTimer;
+        if (timer != null) {
+            timer.record(latency, TimeUnit.MILLISECONDS);
+        }
+    }
+}
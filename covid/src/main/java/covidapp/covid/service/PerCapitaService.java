@@ -0,0 +1,231 @@
+package covidapp.covid.service;
+
+import covidapp.covid.dataset.Dataset;
+import covidapp.covid.dto.PerCapitaSeries;
+import covidapp.covid.dto.WorldometerView;
+import covidapp.covid.entity.FullGrouped;
+import covidapp.covid.repository.WorldometerRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per Capita Service
+ *
+ * Joins the worldometer population onto the full_grouped daily series, so countries
+ * can be compared per 100,000 people without downloading both datasets
+ *
+ * Name reconciliation (the two tables spell some countries differently):
+ * - Names are compared normalized: accents, case, punctuation and spaces are ignored
+ *   ("Taiwan*" = "Taiwan", "Côte d'Ivoire" = "Cote d'Ivoire")
+ * - Otherwise a built-in alias is used ("US" -> "USA", "Congo (Kinshasa)" -> "DRC", ...),
+ *   extended by app.per-capita.aliases ("Full grouped name=Worldometer name;...")
+ *
+ * Lifecycle:
+ * - The country -> population map is loaded lazily from worldometer and dropped when
+ *   worldometer changes
+ * - Each country's series is computed on first request (from FullGroupedColumnStore) and
+ *   cached until full_grouped or worldometer changes
+ */
+@Service
+public class PerCapitaService {
+
+    // full_grouped name -> worldometer name, for names that differ beyond normalization
+    private static final String DEFAULT_ALIASES = String.join(";",
+            "US=USA",
+            "United Kingdom=UK",
+            "South Korea=S. Korea",
+            "Korea, South=S. Korea",
+            "Congo (Kinshasa)=DRC",
+            "Congo (Brazzaville)=Congo",
+            "Cote d'Ivoire=Ivory Coast",
+            "Burma=Myanmar",
+            "United Arab Emirates=UAE",
+            "Central African Republic=CAR",
+            "Saint Vincent and the Grenadines=St. Vincent Grenadines",
+            "West Bank and Gaza=Palestine",
+            "Holy See=Vatican City",
+            "Czechia=Czech Republic");
+
+    private static final double PER = 100_000;
+
+    private final FullGroupedColumnStore store;
+    private final WorldometerRepository worldometerRepo;
+    private final DatasetVersions versions;
+
+    // Normalized full_grouped name -> normalized worldometer name
+    private final Map<String, String> aliases = new HashMap<>();
+
+    // Normalized worldometer name -> row with a population
+    private final LazyLoader<Map<String, WorldometerView>> populations = new LazyLoader<>(this::loadPopulations);
+
+    // Country -> computed series
+    private final Map<String, PerCapitaSeries> series = new ConcurrentHashMap<>();
+
+    // Advanced on every change, so a series computed from older data is not kept (as in LazyLoader)
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Constructor - Dependency injection
+     * Spring automatically injects FullGroupedColumnStore, WorldometerRepository, DatasetVersions
+     * and app.per-capita.aliases
+     */
+    public PerCapitaService(FullGroupedColumnStore store, WorldometerRepository worldometerRepo,
+                            DatasetVersions versions, @Value("${app.per-capita.aliases:}") String extraAliases) {
+        this.store = store;
+        this.worldometerRepo = worldometerRepo;
+        this.versions = versions;
+        parseAliases(DEFAULT_ALIASES);
+        parseAliases(extraAliases);
+    }
+
+    /**
+     * Drop cached series whenever full_grouped or worldometer changes
+     * (registered after construction, so the listener never sees a half-built instance)
+     */
+    @PostConstruct
+    public void subscribe() {
+        versions.onChange(dataset -> {
+            if (dataset == Dataset.WORLDOMETER) {
+                invalidate(true);
+            } else if (dataset == Dataset.FULL_GROUPED) {
+                invalidate(false);
+            }
+        });
+    }
+
+    /**
+     * Get Per Capita Series for One Country
+     *
+     * @param country Country name as in full_grouped
+     * @return Daily figures per 100,000 people, or null if the country has no rows
+     *         or no population could be matched
+     */
+    public PerCapitaSeries getSeries(String country) {
+        PerCapitaSeries cached = series.get(country);
+        if (cached != null) {
+            return cached;
+        }
+        long computed = generation.get();
+        WorldometerView population = findPopulation(country);
+        if (population == null) {
+            return null;
+        }
+        List<FullGrouped> rows = store.findByCountry(country);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        double scale = PER / population.population();
+        List<PerCapitaSeries.Point> points = new ArrayList<>(rows.size());
+        for (FullGrouped row : rows) {
+            points.add(new PerCapitaSeries.Point(row.getDate(),
+                    scaled(row.getConfirmed(), scale), scaled(row.getDeaths(), scale),
+                    scaled(row.getRecovered(), scale), scaled(row.getActive(), scale),
+                    scaled(row.getNewCases(), scale), scaled(row.getNewDeaths(), scale),
+                    scaled(row.getNewRecovered(), scale)));
+        }
+        PerCapitaSeries result = new PerCapitaSeries(rows.get(0).getCountryRegion(), population.countryRegion(),
+                population.population(), points);
+        series.put(country, result);
+        if (generation.get() != computed) {
+            series.remove(country, result);
+        }
+        return result;
+    }
+
+    /**
+     * Get Population Matches
+     *
+     * Shows how every full_grouped country was matched, so missing aliases are easy to spot
+     *
+     * @return One entry per full_grouped country, in name order
+     */
+    public List<PerCapitaSeries.Match> getMatches() {
+        List<PerCapitaSeries.Match> matches = new ArrayList<>();
+        for (String country : store.findCountries()) {
+            WorldometerView population = findPopulation(country);
+            matches.add(population == null
+                    ? new PerCapitaSeries.Match(country, null, null)
+                    : new PerCapitaSeries.Match(country, population.countryRegion(), population.population()));
+        }
+        return matches;
+    }
+
+    /**
+     * Drop cached series (and the population map when worldometer changed)
+     */
+    private void invalidate(boolean populationsChanged) {
+        generation.incrementAndGet();
+        if (populationsChanged) {
+            populations.invalidate();
+        }
+        series.clear();
+    }
+
+    /**
+     * Match a Country Name to Worldometer
+     *
+     * Tries the normalized name first, then its alias (ReconciliationAudit matches
+     * country_wise_latest rows to worldometer this way too)
+     *
+     * @param country Country name as in full_grouped or country_wise_latest
+     * @param byNormalizedName Values keyed by normalize(worldometer name)
+     * @return Matching value, or null
+     */
+    public <T> T matchWorldometer(String country, Map<String, T> byNormalizedName) {
+        String key = normalize(country);
+        T match = byNormalizedName.get(key);
+        if (match == null && aliases.containsKey(key)) {
+            match = byNormalizedName.get(aliases.get(key));
+        }
+        return match;
+    }
+
+    private WorldometerView findPopulation(String country) {
+        return matchWorldometer(country, populations.get());
+    }
+
+    private Map<String, WorldometerView> loadPopulations() {
+        Map<String, WorldometerView> p = new HashMap<>();
+        for (WorldometerView row : worldometerRepo.findAllBy()) {
+            if (row.countryRegion() != null && row.population() != null && row.population() > 0) {
+                p.putIfAbsent(normalize(row.countryRegion()), row);
+            }
+        }
+        return p;
+    }
+
+    private void parseAliases(String value) {
+        if (value == null || value.isBlank()) {
+            return;
+        }
+        for (String pair : value.split(";")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0 || eq == pair.length() - 1) {
+                throw new IllegalArgumentException("app.per-capita.aliases entries must be 'name=worldometer name': " + pair);
+            }
+            aliases.put(normalize(pair.substring(0, eq)), normalize(pair.substring(eq + 1)));
+        }
+    }
+
+    /**
+     * Lower case ASCII letters and digits only ("Côte d'Ivoire" -> "cotedivoire")
+     */
+    public static String normalize(String name) {
+        String stripped = Normalizer.normalize(name, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return stripped.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+    }
+
+    private static Double scaled(Integer value, double scale) {
+        return value == null ? null : Math.round(value * scale * 1000) / 1000.0;
+    }
+}
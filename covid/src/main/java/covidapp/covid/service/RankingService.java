@@ -0,0 +1,256 @@
+package covidapp.covid.service;
+
+import covidapp.covid.dataset.Dataset;
+import covidapp.covid.dto.Ranking;
+import covidapp.covid.dto.WorldometerView;
+import covidapp.covid.entity.CountryWiseLatest;
+import covidapp.covid.repository.CountryWiseRepository;
+import covidapp.covid.repository.WorldometerRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Ranking Service
+ *
+ * Top-N leaderboards ("worst hit" countries) over any numeric column of
+ * "worldometer" or "country_wise_latest", so clients no longer download and sort
+ * the whole list to show the first few rows
+ *
+ * Features:
+ * - Bounded-heap selection: one pass over the rows keeps only the best n in a heap of
+ *   size n, so a ranking costs O(rows * log n) and only n rows are returned
+ * - Highest first (desc) or lowest first (asc); ties are ordered by country name
+ * - Rows without a value for the metric are skipped
+ * - Optional continent (worldometer only) and WHO region filters
+ *
+ * Lifecycle:
+ * - Rows of each dataset are loaded lazily (LazyLoader) on the first ranking over it
+ * - Dropped whenever that dataset's version changes (reloaded on the next ranking)
+ * - The loaded lists are never modified, so rankings need no locking
+ */
+@Service
+public class RankingService {
+
+    public static final String WORLDOMETER = "worldometer";
+    public static final String COUNTRY_WISE = "country_wise";
+
+    private final Source<WorldometerView> worldometer;
+    private final Source<CountryWiseLatest> countryWise;
+
+    private final DatasetVersions versions;
+
+    // Largest n a client may ask for
+    private final int maxN;
+
+    /**
+     * Constructor - Dependency injection
+     * Spring automatically injects both repositories, DatasetVersions and app.rankings.max-n
+     */
+    public RankingService(WorldometerRepository worldometerRepo, CountryWiseRepository countryWiseRepo,
+                          DatasetVersions versions, @Value("${app.rankings.max-n:250}") int maxN) {
+        Map<String, Function<WorldometerView, Number>> worldometerMetrics = new LinkedHashMap<>();
+        worldometerMetrics.put("population", WorldometerView::population);
+        worldometerMetrics.put("totalCases", WorldometerView::totalCases);
+        worldometerMetrics.put("newCases", WorldometerView::newCases);
+        worldometerMetrics.put("totalDeaths", WorldometerView::totalDeaths);
+        worldometerMetrics.put("newDeaths", WorldometerView::newDeaths);
+        worldometerMetrics.put("totalRecovered", WorldometerView::totalRecovered);
+        worldometerMetrics.put("newRecovered", WorldometerView::newRecovered);
+        worldometerMetrics.put("activeCases", WorldometerView::activeCases);
+        worldometerMetrics.put("seriousCritical", WorldometerView::seriousCritical);
+        worldometerMetrics.put("totalCases1M", WorldometerView::totalCases1M);
+        worldometerMetrics.put("deaths1M", WorldometerView::deaths1M);
+        worldometerMetrics.put("totalTests", WorldometerView::totalTests);
+        worldometerMetrics.put("tests1M", WorldometerView::tests1M);
+        this.worldometer = new Source<>(WORLDOMETER, worldometerMetrics, worldometerRepo::findAllBy,
+                WorldometerView::countryRegion, WorldometerView::continent, WorldometerView::whoRegion);
+
+        Map<String, Function<CountryWiseLatest, Number>> countryMetrics = new LinkedHashMap<>();
+        countryMetrics.put("confirmed", CountryWiseLatest::getConfirmed);
+        countryMetrics.put("deaths", CountryWiseLatest::getDeaths);
+        countryMetrics.put("recovered", CountryWiseLatest::getRecovered);
+        countryMetrics.put("active", CountryWiseLatest::getActive);
+        countryMetrics.put("newCases", CountryWiseLatest::getNewCases);
+        countryMetrics.put("newDeaths", CountryWiseLatest::getNewDeaths);
+        countryMetrics.put("newRecovered", CountryWiseLatest::getNewRecovered);
+        countryMetrics.put("deathsPer100Cases", CountryWiseLatest::getDeathsPer100Cases);
+        countryMetrics.put("recoveredPer100Cases", CountryWiseLatest::getRecoveredPer100Cases);
+        countryMetrics.put("deathsPer100Recovered", CountryWiseLatest::getDeathsPer100Recovered);
+        countryMetrics.put("confirmedLastWeek", CountryWiseLatest::getConfirmedLastWeek);
+        countryMetrics.put("oneWeekChange", CountryWiseLatest::getOneWeekChange);
+        countryMetrics.put("oneWeekPercentIncrease", CountryWiseLatest::getOneWeekPercentIncrease);
+        countryMetrics.put("deathsRecoveredRatio", CountryWiseLatest::getDeathsRecoveredRatio);
+        this.countryWise = new Source<>(COUNTRY_WISE, countryMetrics, countryWiseRepo::findAll,
+                CountryWiseLatest::getCountry, null, CountryWiseLatest::getWhoRegion);
+
+        this.maxN = maxN;
+        this.versions = versions;
+    }
+
+    /**
+     * Drop a source's rows whenever its dataset changes
+     * (registered after construction, so the listener never sees a half-built instance)
+     */
+    @PostConstruct
+    public void subscribe() {
+        versions.onChange(dataset -> {
+            if (dataset == Dataset.WORLDOMETER) {
+                worldometer.invalidate();
+            } else if (dataset == Dataset.COUNTRY_WISE_LATEST) {
+                countryWise.invalidate();
+            }
+        });
+    }
+
+    /**
+     * Rank Countries by a Metric
+     *
+     * @param metric Column to rank by (see metrics())
+     * @param n Number of rows to return (1 to app.rankings.max-n)
+     * @param order "desc" (default, highest first) or "asc"
+     * @param continent Only rows of this continent (worldometer only; null or blank = all)
+     * @param whoRegion Only rows of this WHO region (null or blank = all)
+     * @param source "worldometer" or "country_wise"; null or blank picks worldometer when it has
+     *               the metric, otherwise country_wise
+     * @return Top n rows, best first
+     * @throws IllegalArgumentException if a parameter is invalid or the metric is unknown
+     */
+    public Ranking rank(String metric, int n, String order, String continent, String whoRegion, String source) {
+        if (n < 1 || n > maxN) {
+            throw new IllegalArgumentException("n must be between 1 and " + maxN);
+        }
+        boolean descending = parseOrder(order);
+        if (isBlank(source)) {
+            if (worldometer.metrics.containsKey(metric)) {
+                return worldometer.rank(metric, n, descending, continent, whoRegion);
+            }
+            if (countryWise.metrics.containsKey(metric)) {
+                return countryWise.rank(metric, n, descending, continent, whoRegion);
+            }
+            throw new IllegalArgumentException("Unknown metric: " + metric + " (use one of " + metrics() + ")");
+        }
+        return switch (source.trim().toLowerCase(Locale.ROOT)) {
+            case WORLDOMETER -> worldometer.rank(metric, n, descending, continent, whoRegion);
+            case COUNTRY_WISE, "country_wise_latest" -> countryWise.rank(metric, n, descending, continent, whoRegion);
+            default -> throw new IllegalArgumentException("source must be " + WORLDOMETER + " or " + COUNTRY_WISE);
+        };
+    }
+
+    /**
+     * @return Rankable metrics per source
+     */
+    public Map<String, List<String>> metrics() {
+        Map<String, List<String>> metrics = new LinkedHashMap<>();
+        metrics.put(WORLDOMETER, List.copyOf(worldometer.metrics.keySet()));
+        metrics.put(COUNTRY_WISE, List.copyOf(countryWise.metrics.keySet()));
+        return metrics;
+    }
+
+    private static boolean parseOrder(String order) {
+        if (isBlank(order) || order.trim().equalsIgnoreCase("desc")) {
+            return true;
+        }
+        if (order.trim().equalsIgnoreCase("asc")) {
+            return false;
+        }
+        throw new IllegalArgumentException("order must be asc or desc");
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    /**
+     * Row kept while selecting
+     */
+    private record Candidate(double key, Number value, String country, Object row) {
+    }
+
+    /**
+     * One dataset: its rankable columns and its lazily loaded rows
+     */
+    private static final class Source<T> {
+
+        private final String name;
+        private final Map<String, Function<T, Number>> metrics;
+        private final Function<T, String> country;
+        private final Function<T, String> continent;
+        private final Function<T, String> whoRegion;
+
+        private final LazyLoader<List<T>> rows;
+
+        Source(String name, Map<String, Function<T, Number>> metrics, Supplier<List<T>> loader,
+               Function<T, String> country, Function<T, String> continent, Function<T, String> whoRegion) {
+            this.name = name;
+            this.metrics = metrics;
+            this.rows = new LazyLoader<>(() -> List.copyOf(loader.get()));
+            this.country = country;
+            this.continent = continent;
+            this.whoRegion = whoRegion;
+        }
+
+        Ranking rank(String metric, int n, boolean descending, String continentFilter, String whoRegionFilter) {
+            Function<T, Number> value = metrics.get(metric);
+            if (value == null) {
+                throw new IllegalArgumentException("Unknown " + name + " metric: " + metric +
+                        " (use one of " + metrics.keySet() + ")");
+            }
+            if (!isBlank(continentFilter) && continent == null) {
+                throw new IllegalArgumentException("continent filter is only available for " + WORLDOMETER);
+            }
+
+            // Best first; the heap keeps the worst of the current top n at its head
+            Comparator<Candidate> better = descending
+                    ? Comparator.comparingDouble(Candidate::key).reversed()
+                    : Comparator.comparingDouble(Candidate::key);
+            better = better.thenComparing(Candidate::country, Comparator.nullsLast(Comparator.naturalOrder()));
+            PriorityQueue<Candidate> heap = new PriorityQueue<>(n + 1, better.reversed());
+
+            int matched = 0;
+            for (T row : rows.get()) {
+                if (!matches(continentFilter, continent, row) || !matches(whoRegionFilter, whoRegion, row)) {
+                    continue;
+                }
+                Number v = value.apply(row);
+                if (v == null || Double.isNaN(v.doubleValue())) {
+                    continue;
+                }
+                matched++;
+                Candidate candidate = new Candidate(v.doubleValue(), v, country.apply(row), row);
+                if (heap.size() < n) {
+                    heap.add(candidate);
+                } else if (better.compare(candidate, heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(candidate);
+                }
+            }
+
+            List<Candidate> top = new ArrayList<>(heap);
+            top.sort(better);
+            List<Ranking.Entry> entries = new ArrayList<>(top.size());
+            for (Candidate c : top) {
+                entries.add(new Ranking.Entry(entries.size() + 1, c.country(), c.value(), c.row()));
+            }
+            return new Ranking(metric, name, descending ? "desc" : "asc", matched, entries);
+        }
+
+        void invalidate() {
+            rows.invalidate();
+        }
+
+        private static <T> boolean matches(String filter, Function<T, String> field, T row) {
+            return isBlank(filter) || filter.trim().equalsIgnoreCase(field.apply(row));
+        }
+    }
+}
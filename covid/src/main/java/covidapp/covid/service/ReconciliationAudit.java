@@ -0,0 +1,508 @@
+package covidapp.covid.service;
+
+import covidapp.covid.dto.AuditReport;
+import covidapp.covid.dto.AuditTotals;
+import covidapp.covid.dto.WorldometerView;
+import covidapp.covid.entity.CountryWiseLatest;
+import covidapp.covid.entity.DayWise;
+import covidapp.covid.entity.FullGrouped;
+import covidapp.covid.repository.CountryWiseRepository;
+import covidapp.covid.repository.CovidCleanCompleteRepository;
+import covidapp.covid.repository.DayWiseRepository;
+import covidapp.covid.repository.FullGroupedRepository;
+import covidapp.covid.repository.UsaCountryWiseRepository;
+import covidapp.covid.repository.WorldometerRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Reconciliation Audit
+ *
+ * Cross-checks the six COVID datasets and reports where they disagree, instead of
+ * pulling every table and comparing by hand
+ *
+ * Checks (full_grouped is the reference the other tables are derived from or overlap with):
+ * - day_wise: each date against SUM(full_grouped) of that date, and its number of countries
+ * - country_wise_latest: each country against its latest full_grouped row, and
+ *   confirmedLastWeek against the row seven days earlier
+ * - covid_19_clean_complete: provinces summed per country and date against the full_grouped row
+ * - usa_county_wise: counties summed per date against the full_grouped row of app.audit.usa-country
+ * - worldometer: a later snapshot, so its totals must not be below country_wise_latest, and
+ *   totalCases must equal totalDeaths + totalRecovered + activeCases
+ * A null figure counts as 0 (SUM skips nulls); a check is skipped when its table is empty
+ *
+ * Execution (on a dedicated ForkJoinPool of app.audit.parallelism threads):
+ * 1. The small inputs are read in parallel, one task per query: day_wise, country_wise_latest,
+ *    worldometer, the full_grouped US rows, the country lists, and the per-date sums of
+ *    full_grouped and usa_county_wise (summed by the database, one row per date)
+ * 2. Two fork-join tasks run side by side: one partitioned by country (each leaf of
+ *    app.audit.countries-per-task countries reads only its own full_grouped rows and
+ *    clean sums) and one partitioned by date (app.audit.dates-per-task dates per leaf)
+ *
+ * Memory is bounded: row-level data only exists for the leaves currently running, the other
+ * inputs are one row per date or per country, and at most app.audit.max-samples discrepancies
+ * are kept per check (the rest are only counted)
+ */
+@Service
+public class ReconciliationAudit {
+
+    private static final Logger log = LoggerFactory.getLogger(ReconciliationAudit.class);
+
+    /**
+     * Thrown when an audit is requested while another one is running
+     */
+    public static class AuditInProgressException extends RuntimeException {
+        public AuditInProgressException() {
+            super("Another audit is already running");
+        }
+    }
+
+    private final FullGroupedRepository fullGroupedRepo;
+    private final DayWiseRepository dayWiseRepo;
+    private final CountryWiseRepository countryWiseRepo;
+    private final CovidCleanCompleteRepository cleanRepo;
+    private final UsaCountryWiseRepository usaRepo;
+    private final WorldometerRepository worldometerRepo;
+
+    // Matches country_wise_latest names to worldometer names
+    private final PerCapitaService perCapitaService;
+
+    private final ForkJoinPool pool;
+    private final int countriesPerTask;
+    private final int datesPerTask;
+    private final int maxSamples;
+
+    // full_grouped name of the country usa_county_wise adds up to
+    private final String usaCountry;
+
+    // One audit at a time
+    private final ReentrantLock running = new ReentrantLock();
+
+    /**
+     * Constructor - Dependency injection
+     * Spring automatically injects the six dataset repositories, PerCapitaService and the
+     * app.audit.* settings
+     */
+    public ReconciliationAudit(FullGroupedRepository fullGroupedRepo, DayWiseRepository dayWiseRepo,
+                               CountryWiseRepository countryWiseRepo, CovidCleanCompleteRepository cleanRepo,
+                               UsaCountryWiseRepository usaRepo, WorldometerRepository worldometerRepo,
+                               PerCapitaService perCapitaService,
+                               @Value("${app.audit.parallelism:0}") int parallelism,
+                               @Value("${app.audit.countries-per-task:16}") int countriesPerTask,
+                               @Value("${app.audit.dates-per-task:32}") int datesPerTask,
+                               @Value("${app.audit.max-samples:100}") int maxSamples,
+                               @Value("${app.audit.usa-country:US}") String usaCountry) {
+        this.fullGroupedRepo = fullGroupedRepo;
+        this.dayWiseRepo = dayWiseRepo;
+        this.countryWiseRepo = countryWiseRepo;
+        this.cleanRepo = cleanRepo;
+        this.usaRepo = usaRepo;
+        this.worldometerRepo = worldometerRepo;
+        this.perCapitaService = perCapitaService;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.countriesPerTask = Math.max(1, countriesPerTask);
+        this.datesPerTask = Math.max(1, datesPerTask);
+        this.maxSamples = Math.max(0, maxSamples);
+        this.usaCountry = usaCountry;
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Run the Audit
+     *
+     * @return Discrepancy report over all five checks
+     * @throws AuditInProgressException if another audit is running
+     */
+    public AuditReport run() {
+        if (!running.tryLock()) {
+            throw new AuditInProgressException();
+        }
+        try {
+            Instant startedAt = Instant.now();
+            long start = System.nanoTime();
+
+            Findings dayWise = new Findings("day_wise", "SUM(full_grouped) per date", maxSamples);
+            Findings countryWise = new Findings("country_wise_latest",
+                    "latest full_grouped row per country", maxSamples);
+            Findings clean = new Findings("covid_19_clean_complete",
+                    "full_grouped row per country and date", maxSamples);
+            Findings usa = new Findings("usa_county_wise", "full_grouped " + usaCountry + " row per date", maxSamples);
+            Findings worldometer = new Findings("worldometer", "country_wise_latest per country", maxSamples);
+
+            // 1. Small inputs, one query per task
+            ForkJoinTask<List<AuditTotals>> fullGroupedSums = read(fullGroupedRepo::sumByDate);
+            ForkJoinTask<List<AuditTotals>> usaSums = read(usaRepo::sumByDate);
+            ForkJoinTask<List<DayWise>> dayWiseRows = read(dayWiseRepo::findAll);
+            ForkJoinTask<List<CountryWiseLatest>> countryWiseRows = read(countryWiseRepo::findAll);
+            ForkJoinTask<List<WorldometerView>> worldometerRows = read(worldometerRepo::findAllBy);
+            ForkJoinTask<List<FullGrouped>> usaRows = read(() -> fullGroupedRepo.findByCountryRegion(usaCountry));
+            ForkJoinTask<List<String>> fullGroupedCountries = read(fullGroupedRepo::findCountryRegions);
+            ForkJoinTask<List<String>> cleanCountries = read(cleanRepo::findCountryRegions);
+
+            Inputs in = new Inputs();
+            for (AuditTotals sum : fullGroupedSums.join()) {
+                in.fullGroupedByDate.put(sum.date(), sum);
+            }
+            for (AuditTotals sum : usaSums.join()) {
+                if (sum.date() == null) {
+                    usa.add(new AuditReport.Discrepancy(null, null, "date", null, null,
+                            "unparsable date: " + sum.rawDate()));
+                } else {
+                    in.usaByDate.merge(sum.date(), sum, ReconciliationAudit::plus);
+                }
+            }
+            for (DayWise row : dayWiseRows.join()) {
+                if (row.getDate() != null && in.dayWise.putIfAbsent(row.getDate(), row) != null) {
+                    dayWise.add(new AuditReport.Discrepancy(null, row.getDate(), "row", null, null, "duplicate"));
+                }
+            }
+            for (CountryWiseLatest row : countryWiseRows.join()) {
+                in.countryWise.put(row.getCountry(), row);
+            }
+            for (WorldometerView row : worldometerRows.join()) {
+                if (row.countryRegion() != null) {
+                    in.worldometer.putIfAbsent(PerCapitaService.normalize(row.countryRegion()), row);
+                }
+            }
+            for (FullGrouped row : usaRows.join()) {
+                in.usaRows.put(row.getDate(), row);
+            }
+            List<String> cleanNames = cleanCountries.join();
+            in.cleanLoaded = !cleanNames.isEmpty();
+
+            dayWise.skipped = in.dayWise.isEmpty();
+            countryWise.skipped = in.countryWise.isEmpty();
+            clean.skipped = !in.cleanLoaded;
+            usa.skipped = in.usaByDate.isEmpty() && usa.count.get() == 0;
+            worldometer.skipped = in.worldometer.isEmpty();
+
+            TreeSet<String> countrySet = new TreeSet<>(fullGroupedCountries.join());
+            countrySet.addAll(cleanNames);
+            countrySet.addAll(in.countryWise.keySet());
+            List<String> countries = new ArrayList<>(countrySet);
+
+            TreeSet<LocalDate> dateSet = new TreeSet<>(in.fullGroupedByDate.keySet());
+            dateSet.addAll(in.dayWise.keySet());
+            dateSet.addAll(in.usaByDate.keySet());
+            List<LocalDate> dates = new ArrayList<>(dateSet);
+
+            // 2. Country and date partitions side by side
+            Partition<String> byCountry = new Partition<>(countries, 0, countries.size(), countriesPerTask,
+                    batch -> auditCountries(batch, in, countryWise, clean, worldometer));
+            Partition<LocalDate> byDate = new Partition<>(dates, 0, dates.size(), datesPerTask,
+                    batch -> auditDates(batch, in, dayWise, usa));
+            pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(byCountry, byDate)));
+
+            List<AuditReport.Check> checks = List.of(dayWise.toCheck(), countryWise.toCheck(), clean.toCheck(),
+                    usa.toCheck(), worldometer.toCheck());
+            long total = checks.stream().mapToLong(AuditReport.Check::discrepancies).sum();
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            log.info("Reconciliation audit: {} discrepancies over {} countries and {} dates in {} ms",
+                    total, countries.size(), dates.size(), elapsedMillis);
+            return new AuditReport(startedAt, elapsedMillis, pool.getParallelism(), countries.size(), dates.size(),
+                    total, checks);
+        } finally {
+            running.unlock();
+        }
+    }
+
+    private <T> ForkJoinTask<T> read(Callable<T> query) {
+        return pool.submit(query);
+    }
+
+    /**
+     * One country partition: reads only these countries' full_grouped rows and clean sums
+     */
+    private void auditCountries(List<String> batch, Inputs in,
+                                Findings countryWise, Findings clean, Findings worldometer) {
+        Map<String, NavigableMap<LocalDate, FullGrouped>> series = new HashMap<>();
+        for (FullGrouped row : fullGroupedRepo.findByCountryRegionIn(batch)) {
+            series.computeIfAbsent(row.getCountryRegion(), c -> new TreeMap<>()).put(row.getDate(), row);
+        }
+        Map<String, Map<LocalDate, AuditTotals>> cleanSums = new HashMap<>();
+        if (in.cleanLoaded) {
+            for (AuditTotals sum : cleanRepo.sumByCountryAndDate(batch)) {
+                if (sum.date() == null) {
+                    clean.add(new AuditReport.Discrepancy(sum.country(), null, "date", null, null,
+                            "unparsable date: " + sum.rawDate()));
+                } else {
+                    cleanSums.computeIfAbsent(sum.country(), c -> new HashMap<>())
+                            .merge(sum.date(), sum, ReconciliationAudit::plus);
+                }
+            }
+        }
+
+        for (String country : batch) {
+            NavigableMap<LocalDate, FullGrouped> rows = series.getOrDefault(country, Collections.emptyNavigableMap());
+            CountryWiseLatest latest = in.countryWise.get(country);
+            if (!clean.skipped) {
+                auditClean(country, rows, cleanSums.getOrDefault(country, Map.of()), clean);
+            }
+            if (!countryWise.skipped) {
+                auditCountryWise(country, rows, latest, countryWise);
+            }
+            if (!worldometer.skipped && latest != null) {
+                auditWorldometer(country, latest, in, worldometer);
+            }
+        }
+    }
+
+    private static void auditClean(String country, NavigableMap<LocalDate, FullGrouped> rows,
+                                   Map<LocalDate, AuditTotals> sums, Findings clean) {
+        TreeSet<LocalDate> dates = new TreeSet<>(rows.keySet());
+        dates.addAll(sums.keySet());
+        for (LocalDate date : dates) {
+            FullGrouped expected = rows.get(date);
+            AuditTotals actual = sums.get(date);
+            clean.compared.incrementAndGet();
+            if (actual == null) {
+                clean.add(new AuditReport.Discrepancy(country, date, "row", null, null, "missing"));
+            } else if (expected == null) {
+                clean.add(new AuditReport.Discrepancy(country, date, "row", null, null, "unexpected"));
+            } else {
+                clean.compare(country, date, "confirmed", expected.getConfirmed(), actual.confirmed());
+                clean.compare(country, date, "deaths", expected.getDeaths(), actual.deaths());
+                clean.compare(country, date, "recovered", expected.getRecovered(), actual.recovered());
+                clean.compare(country, date, "active", expected.getActive(), actual.active());
+            }
+        }
+    }
+
+    private static void auditCountryWise(String country, NavigableMap<LocalDate, FullGrouped> rows,
+                                         CountryWiseLatest actual, Findings countryWise) {
+        if (rows.isEmpty() && actual == null) {
+            return;
+        }
+        countryWise.compared.incrementAndGet();
+        if (actual == null) {
+            countryWise.add(new AuditReport.Discrepancy(country, rows.lastKey(), "row", null, null, "missing"));
+            return;
+        }
+        if (rows.isEmpty()) {
+            countryWise.add(new AuditReport.Discrepancy(country, null, "row", null, null, "unexpected"));
+            return;
+        }
+        LocalDate date = rows.lastKey();
+        FullGrouped expected = rows.lastEntry().getValue();
+        countryWise.compare(country, date, "confirmed", expected.getConfirmed(), actual.getConfirmed());
+        countryWise.compare(country, date, "deaths", expected.getDeaths(), actual.getDeaths());
+        countryWise.compare(country, date, "recovered", expected.getRecovered(), actual.getRecovered());
+        countryWise.compare(country, date, "active", expected.getActive(), actual.getActive());
+        countryWise.compare(country, date, "newCases", expected.getNewCases(), actual.getNewCases());
+        countryWise.compare(country, date, "newDeaths", expected.getNewDeaths(), actual.getNewDeaths());
+        countryWise.compare(country, date, "newRecovered", expected.getNewRecovered(), actual.getNewRecovered());
+        FullGrouped weekAgo = rows.get(date.minusDays(7));
+        if (weekAgo != null) {
+            countryWise.compare(country, date, "confirmedLastWeek", weekAgo.getConfirmed(),
+                    actual.getConfirmedLastWeek());
+        }
+    }
+
+    private void auditWorldometer(String country, CountryWiseLatest latest, Inputs in, Findings worldometer) {
+        WorldometerView row = perCapitaService.matchWorldometer(country, in.worldometer);
+        if (row == null) {
+            return;
+        }
+        worldometer.compared.incrementAndGet();
+        worldometer.atLeast(country, "totalCases", latest.getConfirmed(), row.totalCases());
+        worldometer.atLeast(country, "totalDeaths", latest.getDeaths(), row.totalDeaths());
+        worldometer.atLeast(country, "totalRecovered", latest.getRecovered(), row.totalRecovered());
+        if (row.totalCases() != null && row.totalDeaths() != null && row.totalRecovered() != null
+                && row.activeCases() != null) {
+            long parts = row.totalDeaths() + row.totalRecovered() + row.activeCases();
+            if (parts != row.totalCases()) {
+                worldometer.add(new AuditReport.Discrepancy(country, null, "totalCases", parts, row.totalCases(),
+                        "inconsistent"));
+            }
+        }
+    }
+
+    /**
+     * One date partition: day_wise and usa_county_wise against the per-date inputs
+     */
+    private void auditDates(List<LocalDate> batch, Inputs in, Findings dayWise, Findings usa) {
+        for (LocalDate date : batch) {
+            AuditTotals expected = in.fullGroupedByDate.get(date);
+            DayWise actual = in.dayWise.get(date);
+            if (!dayWise.skipped && (expected != null || actual != null)) {
+                dayWise.compared.incrementAndGet();
+                if (actual == null) {
+                    dayWise.add(new AuditReport.Discrepancy(null, date, "row", null, null, "missing"));
+                } else if (expected == null) {
+                    dayWise.add(new AuditReport.Discrepancy(null, date, "row", null, null, "unexpected"));
+                } else {
+                    dayWise.compare(null, date, "confirmed", expected.confirmed(), actual.getConfirmed());
+                    dayWise.compare(null, date, "deaths", expected.deaths(), actual.getDeaths());
+                    dayWise.compare(null, date, "recovered", expected.recovered(), actual.getRecovered());
+                    dayWise.compare(null, date, "active", expected.active(), actual.getActive());
+                    dayWise.compare(null, date, "newCases", expected.newCases(), actual.getNewCases());
+                    dayWise.compare(null, date, "newDeaths", expected.newDeaths(), actual.getNewDeaths());
+                    dayWise.compare(null, date, "newRecovered", expected.newRecovered(), actual.getNewRecovered());
+                    dayWise.compare(null, date, "numberOfCountries", expected.rows(), actual.getNumberOfCountries());
+                }
+            }
+            if (!usa.skipped) {
+                FullGrouped usaRow = in.usaRows.get(date);
+                AuditTotals counties = in.usaByDate.get(date);
+                if (usaRow == null && counties == null) {
+                    continue;
+                }
+                usa.compared.incrementAndGet();
+                if (counties == null) {
+                    usa.add(new AuditReport.Discrepancy(usaCountry, date, "row", null, null, "missing"));
+                } else if (usaRow == null) {
+                    usa.add(new AuditReport.Discrepancy(usaCountry, date, "row", null, null, "unexpected"));
+                } else {
+                    usa.compare(usaCountry, date, "confirmed", usaRow.getConfirmed(), counties.confirmed());
+                    usa.compare(usaCountry, date, "deaths", usaRow.getDeaths(), counties.deaths());
+                }
+            }
+        }
+    }
+
+    /**
+     * Two groups whose text dates parse to the same day
+     */
+    private static AuditTotals plus(AuditTotals a, AuditTotals b) {
+        return new AuditTotals(a.country(), a.date(), a.rawDate(),
+                sum(a.confirmed(), b.confirmed()), sum(a.deaths(), b.deaths()),
+                sum(a.recovered(), b.recovered()), sum(a.active(), b.active()),
+                sum(a.newCases(), b.newCases()), sum(a.newDeaths(), b.newDeaths()),
+                sum(a.newRecovered(), b.newRecovered()), a.rows() + b.rows());
+    }
+
+    private static Long sum(Long a, Long b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null ? a : a + b;
+    }
+
+    private static long value(Number n) {
+        return n == null ? 0 : n.longValue();
+    }
+
+    /**
+     * Inputs read in step 1 (filled before the partitions start, then only read)
+     */
+    private static final class Inputs {
+        final Map<LocalDate, AuditTotals> fullGroupedByDate = new HashMap<>();
+        final Map<LocalDate, AuditTotals> usaByDate = new HashMap<>();
+        final Map<LocalDate, FullGrouped> usaRows = new HashMap<>();
+        final Map<LocalDate, DayWise> dayWise = new HashMap<>();
+        final Map<String, CountryWiseLatest> countryWise = new HashMap<>();
+        // Keyed by PerCapitaService.normalize(countryRegion)
+        final Map<String, WorldometerView> worldometer = new HashMap<>();
+        boolean cleanLoaded;
+    }
+
+    /**
+     * Fork-join task over keys[from, to): splits in halves down to leafSize keys per leaf
+     */
+    private static final class Partition<K> extends RecursiveAction {
+
+        private final List<K> keys;
+        private final int from;
+        private final int to;
+        private final int leafSize;
+        private final Consumer<List<K>> leaf;
+
+        Partition(List<K> keys, int from, int to, int leafSize, Consumer<List<K>> leaf) {
+            this.keys = keys;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+            this.leaf = leaf;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= leafSize) {
+                if (to > from) {
+                    leaf.accept(keys.subList(from, to));
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Partition<>(keys, from, mid, leafSize, leaf), new Partition<>(keys, mid, to, leafSize, leaf));
+        }
+    }
+
+    /**
+     * Discrepancies of one check, collected concurrently by the partitions
+     */
+    private static final class Findings {
+
+        private static final Comparator<AuditReport.Discrepancy> ORDER = Comparator
+                .comparing(AuditReport.Discrepancy::country, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(AuditReport.Discrepancy::date, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(AuditReport.Discrepancy::field);
+
+        final String name;
+        final String expected;
+        final int maxSamples;
+        final AtomicLong compared = new AtomicLong();
+        final AtomicLong count = new AtomicLong();
+        final ConcurrentLinkedQueue<AuditReport.Discrepancy> samples = new ConcurrentLinkedQueue<>();
+        volatile boolean skipped;
+
+        Findings(String name, String expected, int maxSamples) {
+            this.name = name;
+            this.expected = expected;
+            this.maxSamples = maxSamples;
+        }
+
+        void add(AuditReport.Discrepancy discrepancy) {
+            if (count.incrementAndGet() <= maxSamples) {
+                samples.add(discrepancy);
+            }
+        }
+
+        void compare(String country, LocalDate date, String field, Number expected, Number actual) {
+            if (value(expected) != value(actual)) {
+                add(new AuditReport.Discrepancy(country, date, field, value(expected), value(actual), "mismatch"));
+            }
+        }
+
+        void atLeast(String country, String field, Number minimum, Number actual) {
+            if (actual != null && actual.longValue() < value(minimum)) {
+                add(new AuditReport.Discrepancy(country, null, field, value(minimum), actual.longValue(),
+                        "below expected"));
+            }
+        }
+
+        AuditReport.Check toCheck() {
+            List<AuditReport.Discrepancy> sorted = new ArrayList<>(samples);
+            sorted.sort(ORDER);
+            String status = skipped ? "skipped" : count.get() == 0 ? "ok" : "mismatch";
+            return new AuditReport.Check(name, expected, status, compared.get(), count.get(), sorted);
+        }
+    }
+}
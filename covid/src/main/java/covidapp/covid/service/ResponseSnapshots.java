@@ -0,0 +1,272 @@
+package covidapp.covid.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import covidapp.covid.dataset.Dataset;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Response Snapshots
+ *
+ * Keeps the JSON body of each large /all endpoint as ready-made byte arrays,
+ * so serving it is a memory copy instead of query + entity mapping + Jackson
+ *
+ * Each snapshot holds:
+ * - identity: the JSON exactly as the controller would have serialized it
+ * - gzip: the same bytes, gzip-compressed once at build time
+ * - version: the DatasetVersions counter the data was read at
+ *
+ * Rebuilds:
+ * - All configured datasets are built when the application is ready
+ * - Every DatasetVersions bump schedules a rebuild on a background thread
+ *   (several bumps while a rebuild is pending collapse into one rebuild)
+ *
+ * Serving (see checkNotModified() and serve()):
+ * - Only a snapshot whose version is still current is served; while a rebuild
+ *   is pending the controller falls back to the normal query, so writes are
+ *   visible immediately
+ * - gzip is chosen when the client's Accept-Encoding allows it, identity otherwise
+ * - The gzip body is a different representation, so its ETag ends in "-gz"
+ *   ("Vary: Accept-Encoding" is on every response, 304s included)
+ */
+@Component
+public class ResponseSnapshots {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseSnapshots.class);
+
+    // ETag suffix of the gzip body
+    private static final String GZIP_VARIANT = "gz";
+
+    /**
+     * One pre-serialized response body
+     */
+    private record Snapshot(long version, byte[] identity, byte[] gzip) {
+    }
+
+    private final DatasetVersions versions;
+    private final ObjectMapper objectMapper;
+
+    // Source of the rows for each dataset (same service calls as the /all endpoints)
+    private final Map<Dataset, Supplier<List<?>>> loaders = new EnumMap<>(Dataset.class);
+    private final Set<Dataset> enabled = EnumSet.noneOf(Dataset.class);
+
+    private final Map<Dataset, Snapshot> snapshots = new EnumMap<>(Dataset.class);
+    private final Map<Dataset, AtomicBoolean> pending = new EnumMap<>(Dataset.class);
+
+    // One background thread: rebuilds run one at a time so they never compete for the database
+    private final ExecutorService rebuilder =
+            Executors.newSingleThreadExecutor(Thread.ofVirtual().name("response-snapshots").factory());
+
+    public ResponseSnapshots(DatasetVersions versions, ObjectMapper objectMapper,
+                             FullGroupedService fullGroupedService, CountryWiseService countryWiseService,
+                             WorldometerService worldometerService, DayWiseService dayWiseService,
+                             CovidCleanCompleteService cleanService, UsaCountryWiseService usaService,
+                             @Value("${app.snapshot.datasets:full_grouped,country_wise_latest,worldometer,day_wise,covid_19_clean_complete}") String[] datasets) {
+        this.versions = versions;
+        this.objectMapper = objectMapper;
+        loaders.put(Dataset.FULL_GROUPED, fullGroupedService::getAll);
+        loaders.put(Dataset.COUNTRY_WISE_LATEST, countryWiseService::getAll);
+        loaders.put(Dataset.WORLDOMETER, worldometerService::getAll);
+        loaders.put(Dataset.DAY_WISE, dayWiseService::getAll);
+        loaders.put(Dataset.COVID_19_CLEAN_COMPLETE, cleanService::getAll);
+        loaders.put(Dataset.USA_COUNTY_WISE, usaService::getAll);
+        for (String name : datasets) {
+            if (!name.isBlank()) {
+                enabled.add(Dataset.from(name));
+            }
+        }
+        for (Dataset dataset : Dataset.values()) {
+            pending.put(dataset, new AtomicBoolean());
+        }
+    }
+
+    /**
+     * Rebuild on every version bump (registered after construction, not from the constructor)
+     */
+    @PostConstruct
+    public void subscribe() {
+        versions.onChange(this::scheduleRebuild);
+    }
+
+    /**
+     * Build All Snapshots at Startup
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildAll() {
+        enabled.forEach(this::scheduleRebuild);
+    }
+
+    @PreDestroy
+    public void stop() {
+        rebuilder.shutdownNow();
+    }
+
+    /**
+     * Conditional GET Check for a Snapshot Endpoint
+     *
+     * Use instead of DatasetVersions.checkNotModified() on endpoints that call serve():
+     * sets "Vary: Accept-Encoding" before the check (so a 304 carries it too) and
+     * checks against the ETag of the representation serve() would send
+     *
+     * @param request Current request
+     * @param dataset Dataset the endpoint serves
+     * @return true if the client copy is current - the 304 status is already set, return null
+     */
+    public boolean checkNotModified(ServletWebRequest request, Dataset dataset) {
+        setHeader(request, HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        return versions.checkNotModified(request, sendsGzip(request, current(dataset)) ? GZIP_VARIANT : null, dataset);
+    }
+
+    /**
+     * Serve a Dataset from Its Snapshot
+     *
+     * Adds "Vary: Accept-Encoding" and the ETag of the chosen representation
+     *
+     * @param request Current request (Accept-Encoding is read from it)
+     * @param dataset Dataset to serve
+     * @return Response with the pre-serialized body, or null if there is no current
+     *         snapshot (the caller then runs its normal query)
+     */
+    public ResponseEntity<byte[]> serve(ServletWebRequest request, Dataset dataset) {
+        setHeader(request, HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        Snapshot snapshot = current(dataset);
+        if (snapshot == null) {
+            // The fallback query sends the plain body
+            setHeader(request, HttpHeaders.ETAG, versions.etag(dataset));
+            return null;
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+        if (sendsGzip(request, snapshot)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .eTag(versions.etag(GZIP_VARIANT, dataset))
+                    .contentLength(snapshot.gzip().length)
+                    .body(snapshot.gzip());
+        }
+        return response.eTag(versions.etag(dataset))
+                .contentLength(snapshot.identity().length)
+                .body(snapshot.identity());
+    }
+
+    /**
+     * @return Snapshot of the dataset if its version is still current, otherwise null
+     */
+    private Snapshot current(Dataset dataset) {
+        Snapshot snapshot;
+        synchronized (snapshots) {
+            snapshot = snapshots.get(dataset);
+        }
+        return snapshot != null && snapshot.version() == versions.version(dataset) ? snapshot : null;
+    }
+
+    private static boolean sendsGzip(ServletWebRequest request, Snapshot snapshot) {
+        return snapshot != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    private static void setHeader(ServletWebRequest request, String name, String value) {
+        if (request.getResponse() != null) {
+            request.getResponse().setHeader(name, value);
+        }
+    }
+
+    /**
+     * Does an Accept-Encoding Header Allow gzip?
+     *
+     * Accepts "gzip" or "*" unless given with q=0, e.g. "gzip, deflate, br" or "*;q=0.5"
+     *
+     * @param acceptEncoding Header value (may be null)
+     * @return true if a gzip body may be sent
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.split(";");
+            String coding = parts[0].trim();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) {
+                continue;
+            }
+            double q = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (q > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void scheduleRebuild(Dataset dataset) {
+        if (enabled.contains(dataset) && pending.get(dataset).compareAndSet(false, true)) {
+            rebuilder.execute(() -> rebuild(dataset));
+        }
+    }
+
+    /**
+     * Rebuild One Snapshot
+     *
+     * The version is read before the data: if a write lands during the rebuild the
+     * snapshot is already stale when stored, is never served, and the write's own
+     * bump has scheduled the next rebuild
+     */
+    private void rebuild(Dataset dataset) {
+        pending.get(dataset).set(false);
+        long version = versions.version(dataset);
+        long start = System.nanoTime();
+        try {
+            byte[] identity = objectMapper.writeValueAsBytes(loaders.get(dataset).get());
+            byte[] gzip = gzip(identity);
+            synchronized (snapshots) {
+                snapshots.put(dataset, new Snapshot(version, identity, gzip));
+            }
+            log.info("Snapshot {} v{}: {} bytes JSON, {} bytes gzip in {} ms", dataset.getTable(), version,
+                    identity.length, gzip.length, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            // Requests keep falling back to the normal query until the next successful rebuild
+            log.warn("Snapshot rebuild for {} failed: {}", dataset.getTable(), e.getMessage());
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 8));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out, 1 << 16)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
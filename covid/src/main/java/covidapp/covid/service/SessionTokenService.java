@@ -0,0 +1,202 @@
+package covidapp.covid.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Session Token Service
+ *
+ * Issues and validates stateless, HMAC-signed session tokens
+ * Validation is a pure CPU check - no database round-trip
+ *
+ * Token format:
+ * - v1.{base64url(username)}.{expiryMillis}.{issuedAtMillis}.{base64url(HMAC-SHA256 of everything before it)}
+ *
+ * Revocation (kept in memory, per application instance):
+ * - Each user has a "not before" time: tokens issued earlier are rejected
+ * - A new login moves it to the new token's issue time (single session per user)
+ * - Logout moves it to "never" until the next login
+ * - Entries are dropped once every token they could reject has expired anyway
+ *
+ * Modes (app.session.token.mode):
+ * - signed: verifyOtp issues signed tokens, validate-session checks them without the database
+ * - database: legacy UUID tokens stored on the User row
+ */
+@Service
+public class SessionTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionTokenService.class);
+
+    private static final String VERSION = "v1";
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final long NEVER = Long.MAX_VALUE;
+
+    // Purge stale revocation entries every N writes
+    private static final int PURGE_EVERY = 256;
+
+    private final boolean signedMode;
+    private final SecretKeySpec key;
+    private final long maxLifetimeMillis;
+
+    // username -> revocation entry
+    private final Map<String, Revocation> revocations = new ConcurrentHashMap<>();
+    private final AtomicInteger writesSincePurge = new AtomicInteger();
+
+    /**
+     * Revocation entry for one user
+     *
+     * @param notBefore Tokens issued before this time are rejected (NEVER after logout)
+     * @param recordedAt When this entry was written (for purging)
+     */
+    private record Revocation(long notBefore, long recordedAt) {
+    }
+
+    /**
+     * Parsed and verified token
+     *
+     * @param username User the token was issued to
+     * @param expiryMillis Expiry time (milliseconds since epoch)
+     */
+    public record TokenClaims(String username, long expiryMillis) {
+    }
+
+    public SessionTokenService(@Value("${app.session.token.mode:database}") String mode,
+                               @Value("${app.session.token.secret:}") String secret,
+                               @Value("${app.session.timeout.minutes:30}") int sessionTimeoutMinutes) {
+        this.signedMode = "signed".equalsIgnoreCase(mode.trim());
+        this.maxLifetimeMillis = sessionTimeoutMinutes * 60 * 1000L;
+
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            // No configured secret: random per-instance key (tokens do not survive a restart)
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+            if (signedMode) {
+                log.warn("app.session.token.secret is not set - using a random key, sessions will not survive a restart");
+            }
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+    }
+
+    /**
+     * @return true if verifyOtp should issue signed tokens
+     */
+    public boolean isSignedMode() {
+        return signedMode;
+    }
+
+    /**
+     * @return true if the token has the signed-token shape (legacy UUID tokens do not)
+     */
+    public boolean isSignedToken(String token) {
+        return token != null && token.startsWith(VERSION + ".");
+    }
+
+    /**
+     * Issue a Token
+     *
+     * Also invalidates every earlier token of the same user (single session)
+     *
+     * @param username User to issue the token for
+     * @param expiryMillis Expiry time (milliseconds since epoch)
+     * @return Signed token string
+     */
+    public String issue(String username, long expiryMillis) {
+        long issuedAt = System.currentTimeMillis();
+        String payload = VERSION + "." + encode(username.getBytes(StandardCharsets.UTF_8)) + "." + expiryMillis + "." + issuedAt;
+        String token = payload + "." + encode(sign(payload));
+        recordRevocation(username, issuedAt);
+        return token;
+    }
+
+    /**
+     * Verify a Token
+     *
+     * @param username Username the client claims
+     * @param token Token from the client
+     * @return Claims if the token is authentic, belongs to the user, is not expired and not revoked; null otherwise
+     */
+    public TokenClaims verify(String username, String token) {
+        if (username == null || !isSignedToken(token)) {
+            return null;
+        }
+        String[] parts = token.split("\\.");
+        if (parts.length != 5) {
+            return null;
+        }
+        try {
+            String payload = parts[0] + "." + parts[1] + "." + parts[2] + "." + parts[3];
+            byte[] expected = sign(payload);
+            byte[] actual = Base64.getUrlDecoder().decode(parts[4]);
+            // Constant-time comparison
+            if (!MessageDigest.isEqual(expected, actual)) {
+                return null;
+            }
+
+            String tokenUser = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
+            long expiry = Long.parseLong(parts[2]);
+            long issuedAt = Long.parseLong(parts[3]);
+
+            if (!tokenUser.equals(username) || System.currentTimeMillis() > expiry) {
+                return null;
+            }
+            Revocation revocation = revocations.get(username);
+            if (revocation != null && issuedAt < revocation.notBefore()) {
+                return null;
+            }
+            return new TokenClaims(tokenUser, expiry);
+        } catch (IllegalArgumentException e) {
+            // Bad Base64 or number - treat as invalid token
+            return null;
+        }
+    }
+
+    /**
+     * Revoke All Tokens of a User (logout)
+     *
+     * @param username User to log out
+     */
+    public void revokeAll(String username) {
+        if (username != null) {
+            recordRevocation(username, NEVER);
+        }
+    }
+
+    private void recordRevocation(String username, long notBefore) {
+        long now = System.currentTimeMillis();
+        revocations.put(username, new Revocation(notBefore, now));
+        if (writesSincePurge.incrementAndGet() % PURGE_EVERY == 0) {
+            // Any token an old entry could reject was issued before it was recorded, so it has expired by now
+            revocations.values().removeIf(r -> r.recordedAt() + maxLifetimeMillis < now);
+        }
+    }
+
+    private byte[] sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    private static String encode(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
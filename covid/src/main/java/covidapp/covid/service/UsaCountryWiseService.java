@@ -1,35 +1,227 @@
 package covidapp.covid.service;
 
+import covidapp.covid.dataset.Dataset;
+import covidapp.covid.dto.CursorPage;
+import covidapp.covid.dto.UsaCountryWiseView;
 import covidapp.covid.entity.UsaCountryWise;
 import covidapp.covid.repository.UsaCountryWiseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
 
 @Service
 public class UsaCountryWiseService {
 
+    private static final Logger log = LoggerFactory.getLogger(UsaCountryWiseService.class);
+
+    // Prefix inside the opaque cursor token, lets us change the key later without breaking clients silently
+    private static final String CURSOR_PREFIX = "uid-date:";
+
+    // Cursors issued before Report_Date joined the key (UID only) - still accepted, resume at the next UID
+    private static final String LEGACY_CURSOR_PREFIX = "uid:";
+
+    // Open range bounds - kept inside the DATE range every database supports (LocalDate.MIN/MAX are not)
+    private static final LocalDate EARLIEST = LocalDate.of(1000, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
+    // Stands in for a missing Report_Date in the cursor (sorts before every real date, like NULL does;
+    // the keyset queries compare COALESCE(Report_Date, this date), see UsaCountryWiseRepository)
+    private static final LocalDate NO_REPORT_DATE = UsaCountryWiseRepository.NO_REPORT_DATE;
+
     private final UsaCountryWiseRepository repo;
 
-    public UsaCountryWiseService(UsaCountryWiseRepository repo) {
+    // Version counters behind the ETag of the list endpoints
+    private final DatasetVersions versions;
+
+    // Page size used when the client does not send one
+    private final int defaultPageSize;
+
+    // Hard upper bound on page size, whatever the client asks for
+    private final int maxPageSize;
+
+    /**
+     * Constructor - Dependency injection
+     * Spring automatically injects the repository, DatasetVersions and the app.pagination.* settings
+     */
+    public UsaCountryWiseService(UsaCountryWiseRepository repo, DatasetVersions versions,
+                                 @Value("${app.pagination.default-page-size:500}") int defaultPageSize,
+                                 @Value("${app.pagination.max-page-size:2000}") int maxPageSize) {
         this.repo = repo;
+        this.versions = versions;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    // Whole table - only for the opt-in pre-serialized snapshot (ResponseSnapshots), never per request
+    @Transactional(readOnly = true)
+    public List<UsaCountryWiseView> getAll() {
+        return repo.findAllBy();
+    }
+
+    /**
+     * Get One State's Rows for a Date Range
+     *
+     * Served from the (Province_State, Report_Date) index, so only the requested days are read
+     *
+     * @param province State name
+     * @param from First day (inclusive, null = no lower bound)
+     * @param to Last day (inclusive, null = no upper bound)
+     * @return Rows ordered by date, then UID
+     * @throws IllegalArgumentException if from is after to
+     */
+    @Transactional(readOnly = true)
+    public List<UsaCountryWiseView> getByProvinceBetween(String province, LocalDate from, LocalDate to) {
+        LocalDate start = from != null ? from : EARLIEST;
+        LocalDate end = to != null ? to : LATEST;
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        return repo.findByProvinceStateAndReportDateBetweenOrderByReportDateAscUidAsc(province, start, end);
+    }
+
+    /**
+     * Backfill Report_Date at Startup
+     *
+     * Rows loaded straight into the table (CSV import) only have the string Date
+     * Parses each distinct string date once and fills all its rows with one UPDATE
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillReportDates() {
+        try {
+            int rows = 0;
+            int unparsable = 0;
+            for (String date : repo.findDatesMissingReportDate()) {
+                LocalDate reportDate = UsaCountryWise.parseDate(date);
+                if (reportDate == null) {
+                    unparsable++;
+                    continue;
+                }
+                rows += repo.backfillReportDate(date, reportDate);
+            }
+            if (rows > 0) {
+                versions.bump(Dataset.USA_COUNTY_WISE);
+            }
+            if (rows > 0 || unparsable > 0) {
+                log.info("Report_Date backfill: {} rows filled, {} unparsable date values skipped", rows, unparsable);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Report_Date backfill failed: {}", e.getMessage());
+        }
     }
 
-    public List<UsaCountryWise> getAll() {
-        return repo.findAll();
+    /**
+     * Keyset-Paginated Variants
+     *
+     * Rows are ordered by (UID, Report_Date) and each page starts after the last key
+     * of the previous page, so every page is an index range scan no matter how deep
+     * the client pages (no OFFSET). A county has one row per day under the same UID,
+     * so the date is part of the key - a page boundary inside one UID resumes at the
+     * next day instead of skipping the rest of that county
+     *
+     * Rows whose Report_Date is still missing (filled at startup) sort first within their
+     * UID and are compared as NO_REPORT_DATE, so a page boundary on one of them resumes
+     * at the UID's dated rows instead of comparing NULL (which would match nothing)
+     *
+     * @param cursor Continuation token from the previous page (null for the first page)
+     * @param limit Requested page size (null for default, capped at the configured maximum)
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<UsaCountryWiseView> getAllPage(String cursor, Integer limit) {
+        return page(cursor, limit, repo::findPageAfter);
     }
 
-    public List<UsaCountryWise> getByCountry(String country) {
-        return repo.findByCountryRegion(country);
+    @Transactional(readOnly = true)
+    public CursorPage<UsaCountryWiseView> getByCountryPage(String country, String cursor, Integer limit) {
+        return page(cursor, limit, (uid, date, l) -> repo.findPageByCountryRegionAfter(country, uid, date, l));
     }
 
-    public List<UsaCountryWise> getByProvince(String province) {
-        return repo.findByProvinceState(province);
+    @Transactional(readOnly = true)
+    public CursorPage<UsaCountryWiseView> getByProvincePage(String province, String cursor, Integer limit) {
+        return page(cursor, limit, (uid, date, l) -> repo.findPageByProvinceStateAfter(province, uid, date, l));
     }
 
-    public List<UsaCountryWise> getByDate(String date) {
-        return repo.findByDate(date);
+    @Transactional(readOnly = true)
+    public CursorPage<UsaCountryWiseView> getByDatePage(String date, String cursor, Integer limit) {
+        return page(cursor, limit, (uid, reportDate, l) -> repo.findPageByDateAfter(date, uid, reportDate, l));
     }
 
+    private CursorPage<UsaCountryWiseView> page(String cursor, Integer limit,
+                                            PageQuery query) {
+        int size = resolvePageSize(limit);
+        Key after = decodeCursor(cursor);
+
+        // Fetch one extra row to know whether another page exists
+        List<UsaCountryWiseView> rows = query.find(after.uid(), after.reportDate(), Limit.of(size + 1));
+        boolean hasMore = rows.size() > size;
+        List<UsaCountryWiseView> items = hasMore ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            UsaCountryWiseView last = items.get(items.size() - 1);
+            nextCursor = encodeCursor(last.uid(), last.reportDate());
+        }
+        return new CursorPage<>(items, size, nextCursor, hasMore);
+    }
+
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return Math.min(defaultPageSize, maxPageSize);
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        return Math.min(limit, maxPageSize);
+    }
+
+    private static String encodeCursor(Long uid, LocalDate reportDate) {
+        String key = CURSOR_PREFIX + uid + ":" + (reportDate != null ? reportDate : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Key decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return new Key(Long.MIN_VALUE, NO_REPORT_DATE);
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (decoded.startsWith(CURSOR_PREFIX)) {
+                String key = decoded.substring(CURSOR_PREFIX.length());
+                int colon = key.indexOf(':');
+                if (colon < 0) {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+                String date = key.substring(colon + 1);
+                return new Key(Long.parseLong(key.substring(0, colon)),
+                        date.isEmpty() ? NO_REPORT_DATE : LocalDate.parse(date));
+            }
+            if (decoded.startsWith(LEGACY_CURSOR_PREFIX)) {
+                return new Key(Long.parseLong(decoded.substring(LEGACY_CURSOR_PREFIX.length())), LATEST);
+            }
+            throw new IllegalArgumentException("Invalid cursor");
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // Also covers NumberFormatException and bad Base64
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    // Position of the last row of a page
+    private record Key(long uid, LocalDate reportDate) {
+    }
+
+    // One keyset query: rows after (uid, reportDate), at most limit of them
+    @FunctionalInterface
+    private interface PageQuery {
+        List<UsaCountryWiseView> find(Long uid, LocalDate reportDate, Limit limit);
+    }
 }
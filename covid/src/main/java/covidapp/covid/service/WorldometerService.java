@@ -1,8 +1,13 @@
 package covidapp.covid.service;
 
+import covidapp.covid.dataset.Dataset;
+import covidapp.covid.dto.WorldometerView;
 import covidapp.covid.entity.WorldometerData;
 import covidapp.covid.repository.WorldometerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -20,33 +25,44 @@ import java.util.List;
 @Service
 public class WorldometerService {
 
+    private static final Logger log = LoggerFactory.getLogger(WorldometerService.class);
+
     // Repository for database operations on WorldometerData entity
     private final WorldometerRepository repo;
 
+    // Incrementally maintained global totals (notified on every write)
+    private final GlobalSummaryService summaryService;
+
+    // Version counters behind the ETag of the list endpoints (advanced on every write)
+    private final DatasetVersions versions;
+
     /**
      * Constructor - Dependency injection
-     * Spring automatically injects WorldometerRepository
+     * Spring automatically injects WorldometerRepository, GlobalSummaryService and DatasetVersions
      */
-    public WorldometerService(WorldometerRepository repo) {
+    public WorldometerService(WorldometerRepository repo, GlobalSummaryService summaryService,
+                              DatasetVersions versions) {
         this.repo = repo;
+        this.summaryService = summaryService;
+        this.versions = versions;
     }
 
     /**
      * Get All Worldometer Data
      * 
      * Retrieves all worldometer records from database
+     * Read-only: rows are selected straight into WorldometerView records
+     * (no surrounding transaction, so a failed query still falls back to an empty list)
      * 
-     * @return List of all WorldometerData objects
+     * @return List of all worldometer rows
      */
-    public List<WorldometerData> getAll() {
+    public List<WorldometerView> getAll() {
         try {
-            List<WorldometerData> data = repo.findAll();
+            List<WorldometerView> data = repo.findAllBy();
             // Return empty list if null (shouldn't happen, but safety check)
             return data != null ? data : new java.util.ArrayList<>();
         } catch (Exception e) {
-            // Log the error for debugging
-            System.err.println("Error fetching worldometer data: " + e.getMessage());
-            e.printStackTrace();
+            log.error("Error fetching worldometer data: {}", e.getMessage(), e);
             // Return empty list instead of throwing exception
             // This prevents 500 error if table doesn't exist
             return new java.util.ArrayList<>();
@@ -61,6 +77,7 @@ public class WorldometerService {
      * @param country Country name to search for
      * @return WorldometerData object, or null if not found
      */
+    @Transactional(readOnly = true)
     public WorldometerData getByCountry(String country) {
         return repo.findByCountryRegion(country);
     }
@@ -74,6 +91,7 @@ public class WorldometerService {
      * @return WorldometerData object
      * @throws RuntimeException if record not found
      */
+    @Transactional(readOnly = true)
     public WorldometerData getById(Long id) {
         return repo.findById(id)
                 .orElseThrow(() -> new RuntimeException("Worldometer data not found with id: " + id));
@@ -88,7 +106,10 @@ public class WorldometerService {
      * @return Saved WorldometerData object (with generated ID)
      */
     public WorldometerData create(WorldometerData data) {
-        return repo.save(data);
+        WorldometerData saved = repo.save(data);
+        summaryService.onWorldometerSaved(saved);
+        versions.bump(Dataset.WORLDOMETER);
+        return saved;
     }
 
     /**
@@ -131,8 +152,11 @@ public class WorldometerService {
         if (data.getTests1M() != null) existing.setTests1M(data.getTests1M());
         if (data.getWhoRegion() != null) existing.setWhoRegion(data.getWhoRegion());
 
-        // Save updated record to database
-        return repo.save(existing);
+        // Save updated record to database and update global totals
+        WorldometerData saved = repo.save(existing);
+        summaryService.onWorldometerSaved(saved);
+        versions.bump(Dataset.WORLDOMETER);
+        return saved;
     }
 
     /**
@@ -150,5 +174,7 @@ public class WorldometerService {
         }
         // Delete record from database
         repo.deleteById(id);
+        summaryService.onWorldometerDeleted(id);
+        versions.bump(Dataset.WORLDOMETER);
     }
 }
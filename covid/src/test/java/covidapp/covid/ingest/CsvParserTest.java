@@ -0,0 +1,81 @@
+package covidapp.covid.ingest;
+
+import covidapp.covid.dataset.Dataset;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvParserTest {
+
+	@Test
+	void splitsQuotedFieldsAndEscapedQuotes() {
+		assertArrayEquals(new String[]{"2020-01-22", "Korea, South", "", "say \"hi\""},
+				CsvParser.parse("2020-01-22,\"Korea, South\",,\"say \"\"hi\"\"\""));
+		assertArrayEquals(new String[]{"Country/Region", "Confirmed"},
+				CsvParser.parse("\uFEFFCountry/Region,Confirmed\r"));
+	}
+
+	@Test
+	void readsRecordsSpanningLines() throws Exception {
+		BufferedReader reader = new BufferedReader(new StringReader("a,\"line 1\nline 2\",b\nc,d\n"));
+
+		assertEquals("a,\"line 1\nline 2\",b", CsvParser.readRecord(reader));
+		assertEquals("c,d", CsvParser.readRecord(reader));
+		assertNull(CsvParser.readRecord(reader));
+	}
+
+	@Test
+	void bindsHeadersAndConvertsRows() {
+		Dataset dataset = Dataset.USA_COUNTY_WISE;
+		int[] indexes = dataset.bind(CsvParser.parse("uid,Province_State,Date,Confirmed,Unused"));
+
+		Object[] row = dataset.toRow(CsvParser.parse("84001001,Alabama,1/22/20,,x"), indexes);
+
+		assertEquals(84001001L, row[column(dataset, "uid")]);
+		assertEquals("Alabama", row[column(dataset, "province_state")]);
+		assertEquals("1/22/20", row[column(dataset, "date")]);
+		assertEquals(LocalDate.of(2020, 1, 22), row[column(dataset, "report_date")]);
+		assertNull(row[column(dataset, "confirmed")]);
+		assertNull(row[column(dataset, "iso2")]);
+	}
+
+	@Test
+	void rejectsInvalidRowsAndMissingColumns() {
+		Dataset dataset = Dataset.FULL_GROUPED;
+		int[] indexes = dataset.bind(CsvParser.parse("Date,Country/Region,Confirmed"));
+
+		IllegalArgumentException badNumber = assertThrows(IllegalArgumentException.class,
+				() -> dataset.toRow(CsvParser.parse("2020-01-22,India,12a"), indexes));
+		assertTrue(badNumber.getMessage().startsWith("Confirmed"));
+		assertThrows(IllegalArgumentException.class,
+				() -> dataset.toRow(CsvParser.parse("2020-01-22,,1"), indexes));
+		assertThrows(IllegalArgumentException.class,
+				() -> dataset.bind(CsvParser.parse("Country/Region,Confirmed")));
+	}
+
+	@Test
+	void keepsEmptyKeyTextAndRoundsDecimalLongs() {
+		Dataset clean = Dataset.COVID_19_CLEAN_COMPLETE;
+		Object[] row = clean.toRow(CsvParser.parse(",India,2020-01-22"),
+				clean.bind(CsvParser.parse("Province/State,Country/Region,Date")));
+		assertEquals("", row[column(clean, "province/state")]);
+
+		Dataset worldometer = Dataset.WORLDOMETER;
+		Object[] stats = worldometer.toRow(CsvParser.parse("USA,14916.0"),
+				worldometer.bind(CsvParser.parse("Country/Region,Tot Cases/1M pop")));
+		assertEquals(14916L, stats[column(worldometer, "tot cases/1m pop")]);
+	}
+
+	private static int column(Dataset dataset, String name) {
+		for (int i = 0; i < dataset.getColumns().size(); i++) {
+			if (dataset.getColumns().get(i).column().equals(name)) {
+				return i;
+			}
+		}
+		throw new AssertionError("No column " + name);
+	}
+}
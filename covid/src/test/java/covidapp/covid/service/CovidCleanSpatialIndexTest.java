@@ -0,0 +1,112 @@
+package covidapp.covid.service;
+
+import covidapp.covid.dataset.Dataset;
+import covidapp.covid.entity.CovidCleanComplete;
+import covidapp.covid.entity.CovidKey;
+import covidapp.covid.repository.CovidCleanCompleteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CovidCleanSpatialIndexTest {
+
+	private CovidCleanCompleteRepository repo;
+	private DatasetVersions versions;
+	private CovidCleanSpatialIndex index;
+
+	@BeforeEach
+	void setUp() {
+		repo = mock(CovidCleanCompleteRepository.class);
+		when(repo.findAll()).thenReturn(List.of(
+				row("", "Italy", "2020-01-22", 41.9, 12.6),
+				row("", "Italy", "2020-01-23", 41.9, 12.6),
+				row("", "Greece", "2020-01-23", 39.1, 21.8),
+				row("Ontario", "Canada", "2020-01-23", 51.2, -85.3),
+				row("", "Fiji", "2020-01-23", -17.7, 178.1),
+				row("", "Samoa", "2020-01-23", -13.8, -172.1),
+				row("", "Nowhere", "2020-01-23", null, null)));
+		versions = new DatasetVersions();
+		index = new CovidCleanSpatialIndex(repo, versions, new NameDictionary(1000), 2.0);
+		index.subscribe();
+	}
+
+	@Test
+	void returnsOnlyPointsInsideTheBoxForTheDate() {
+		assertEquals(List.of("Greece", "Italy"), countries(index.findInBox(35, 47, 6, 25, "2020-01-23")));
+		assertEquals(List.of("Italy"), countries(index.findInBox(35, 47, 6, 25, "2020-01-22")));
+		assertEquals(List.of(), index.findInBox(35, 47, 6, 25, "2021-01-01"));
+		verify(repo, times(1)).findAll();
+	}
+
+	@Test
+	void usesLatestDateAndIncludesEdges() {
+		assertEquals(List.of("Canada"), countries(index.findInBox(51.2, 51.2, -85.3, -85.3, null)));
+		assertEquals(5, index.findInBox(-90, 90, -180, 180, null).size());
+	}
+
+	@Test
+	void crossesTheAntimeridianWhenMinLonIsGreater() {
+		assertEquals(List.of("Fiji", "Samoa"), countries(index.findInBox(-20, -10, 170, -170, null)));
+	}
+
+	@Test
+	void rejectsInvalidBoundsAndDates() {
+		assertThrows(IllegalArgumentException.class, () -> index.findInBox(50, 40, 0, 10, null));
+		assertThrows(IllegalArgumentException.class, () -> index.findInBox(0, 91, 0, 10, null));
+		assertThrows(IllegalArgumentException.class, () -> index.findInBox(0, 10, -181, 10, null));
+		assertThrows(IllegalArgumentException.class, () -> index.findInBox(0, 10, 0, 10, "1/22/20"));
+	}
+
+	@Test
+	void rebuildsAfterTheDatasetChanges() {
+		index.findInBox(-90, 90, -180, 180, null);
+		versions.bump(Dataset.FULL_GROUPED);
+		index.findInBox(-90, 90, -180, 180, null);
+		verify(repo, times(1)).findAll();
+
+		versions.bump(Dataset.COVID_19_CLEAN_COMPLETE);
+		index.findInBox(-90, 90, -180, 180, null);
+		verify(repo, times(2)).findAll();
+	}
+
+	@Test
+	void keepsCollidingNamesApartOnceTheDictionaryIsFull() {
+		// "Aa" and "BB" have the same hashCode and get no dictionary code
+		CovidCleanComplete aa = row("", "Aa", "2020-01-23", 10.0, 10.0);
+		when(repo.findAll()).thenReturn(List.of(aa, row("", "BB", "2020-01-23", -10.0, -10.0)));
+		CovidCleanSpatialIndex full = new CovidCleanSpatialIndex(repo, versions, new NameDictionary(0), 2.0);
+
+		assertEquals(List.of("Aa"), countries(full.findInBox(0, 20, 0, 20, null)));
+		assertEquals(List.of("BB"), countries(full.findInBox(-20, 0, -20, 0, null)));
+	}
+
+	@Test
+	void cachesCopiesAndLeavesTheRepositoryRowsAlone() {
+		CovidCleanComplete italy = repo.findAll().get(1);
+		CovidKey key = italy.getId();
+
+		CovidCleanComplete cached = index.findInBox(35, 47, 6, 13, null).get(0);
+
+		assertNotSame(italy, cached);
+		assertSame(key, italy.getId());
+		assertEquals(key, cached.getId());
+		assertEquals(italy.getConfirmed(), cached.getConfirmed());
+	}
+
+	private static List<String> countries(List<CovidCleanComplete> rows) {
+		return rows.stream().map(r -> r.getId().getCountryRegion()).toList();
+	}
+
+	private static CovidCleanComplete row(String province, String country, String date, Double lat, Double lon) {
+		CovidCleanComplete row = new CovidCleanComplete();
+		row.setId(new CovidKey(province, country, date));
+		row.setLat(lat);
+		row.setLon(lon);
+		row.setConfirmed(1);
+		return row;
+	}
+}
@@ -0,0 +1,137 @@
+package covidapp.covid.service;
+
+import covidapp.covid.dto.RollingWindowPoint;
+import covidapp.covid.entity.DayWise;
+import covidapp.covid.repository.DayWiseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DayWiseAnalyticsTest {
+
+	private static final LocalDate DAY_1 = LocalDate.of(2020, 1, 22);
+	private static final DatasetDateRange RANGE = new DatasetDateRange("2019-12-01", "2023-12-31");
+
+	private DayWiseRepository repo;
+	private DayWiseAnalytics analytics;
+
+	@BeforeEach
+	void setUp() {
+		// Confirmed doubles every 3 days; new cases are 10, 20, 30, ...
+		List<DayWise> rows = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			rows.add(day(i + 1L, DAY_1.plusDays(i), (int) Math.round(100 * Math.pow(2, i / 3.0)), 10 * (i + 1), i));
+		}
+		repo = mock(DayWiseRepository.class);
+		when(repo.findAll()).thenReturn(rows);
+		analytics = new DayWiseAnalytics(repo, new int[]{7, 3}, RANGE);
+	}
+
+	@Test
+	void computesMovingAveragesOnceTheWindowIsFull() {
+		List<RollingWindowPoint> series = analytics.getSeries(3);
+
+		assertEquals(10, series.size());
+		assertNull(series.get(1).newCasesAverage());
+		assertEquals(20.0, series.get(2).newCasesAverage(), 1e-9);
+		assertEquals(90.0, series.get(9).newCasesAverage(), 1e-9);
+		assertEquals(8.0, series.get(9).newDeathsAverage(), 1e-9);
+		assertEquals(70.0, analytics.getSeries(7).get(9).newCasesAverage(), 1e-9);
+		verify(repo, times(1)).findAll();
+	}
+
+	@Test
+	void computesGrowthRateAndDoublingTime() {
+		RollingWindowPoint last = analytics.getSeries(3).get(9);
+
+		assertEquals(Math.pow(2, 1 / 3.0) - 1, last.growthRate(), 1e-3);
+		assertEquals(3.0, last.doublingTimeDays(), 0.05);
+		assertNull(analytics.getSeries(7).get(6).growthRate());
+	}
+
+	@Test
+	void updatesWindowsIncrementally() {
+		analytics.getSeries(3);
+
+		// Day 10 changes, day 11 is added and day 2 moves to an earlier date
+		analytics.put(day(10L, DAY_1.plusDays(9), 5000, 0, 9));
+		analytics.put(day(11L, DAY_1.plusDays(10), 5100, 300, 0));
+		analytics.put(day(2L, DAY_1.minusDays(1), 50, 5, 0));
+
+		List<RollingWindowPoint> series = analytics.getSeries(3);
+		assertEquals(DAY_1.minusDays(1), series.get(0).date());
+		assertEquals(DAY_1.plusDays(10), series.get(series.size() - 1).date());
+		assertEquals((80 + 90 + 0) / 3.0, series.get(series.size() - 2).newCasesAverage(), 1e-9);
+		assertEquals((90 + 0 + 300) / 3.0, series.get(series.size() - 1).newCasesAverage(), 1e-9);
+		// Day 2 is now missing, so windows covering it are incomplete
+		assertNull(find(series, DAY_1.plusDays(2)).newCasesAverage());
+		assertEquals((30 + 40 + 50) / 3.0, find(series, DAY_1.plusDays(4)).newCasesAverage(), 1e-9);
+
+		analytics.remove(11L);
+		assertEquals(DAY_1.plusDays(9), analytics.getSeries(3).get(series.size() - 2).date());
+		verify(repo, times(1)).findAll();
+	}
+
+	@Test
+	void rejectsUntrackedWindowsAndReloadsAfterInvalidate() {
+		assertThrows(IllegalArgumentException.class, () -> analytics.getSeries(5));
+
+		analytics.getSeries(7);
+		analytics.invalidate();
+		assertEquals(10, analytics.getSeries(7).size());
+		verify(repo, times(2)).findAll();
+	}
+
+	@Test
+	void keepsEveryRowOfADuplicatedDate() {
+		analytics.getSeries(3);
+
+		// A second row for day 5 hides the first; deleting it shows the first again
+		analytics.put(day(20L, DAY_1.plusDays(4), 999, 500, 0));
+		assertEquals(500L, find(analytics.getSeries(3), DAY_1.plusDays(4)).newCases());
+
+		analytics.remove(20L);
+		assertEquals(50L, find(analytics.getSeries(3), DAY_1.plusDays(4)).newCases());
+
+		// Moving the duplicate away leaves the original day in place
+		analytics.put(day(20L, DAY_1.plusDays(4), 999, 500, 0));
+		analytics.put(day(20L, DAY_1.plusDays(12), 999, 500, 0));
+		assertEquals(50L, find(analytics.getSeries(3), DAY_1.plusDays(4)).newCases());
+		assertEquals(11, analytics.getSeries(3).size());
+	}
+
+	@Test
+	void neverStoresDatesOutsideTheDatasetRange() {
+		List<DayWise> rows = new ArrayList<>(repo.findAll());
+		rows.add(day(30L, LocalDate.of(9999, 12, 31), 1, 1, 1));
+		when(repo.findAll()).thenReturn(rows);
+
+		assertEquals(10, analytics.getSeries(3).size());
+
+		// An update that moves a day out of range takes it off its old date
+		analytics.put(day(5L, LocalDate.of(1, 1, 1), 1, 1, 1));
+		List<RollingWindowPoint> series = analytics.getSeries(3);
+		assertEquals(9, series.size());
+		assertEquals(DAY_1, series.get(0).date());
+	}
+
+	private static RollingWindowPoint find(List<RollingWindowPoint> series, LocalDate date) {
+		return series.stream().filter(p -> p.date().equals(date)).findFirst().orElseThrow();
+	}
+
+	private static DayWise day(Long id, LocalDate date, Integer confirmed, Integer newCases, Integer newDeaths) {
+		DayWise row = new DayWise();
+		row.setId(id);
+		row.setDate(date);
+		row.setConfirmed(confirmed);
+		row.setNewCases(newCases);
+		row.setNewDeaths(newDeaths);
+		return row;
+	}
+}
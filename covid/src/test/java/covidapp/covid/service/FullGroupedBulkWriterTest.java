@@ -0,0 +1,121 @@
+package covidapp.covid.service;
+
+import covidapp.covid.dto.BulkWriteReport;
+import covidapp.covid.entity.FullGrouped;
+import covidapp.covid.service.FullGroupedBulkWriter.Mode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class FullGroupedBulkWriterTest {
+
+	private static final LocalDate DAY = LocalDate.of(2020, 7, 27);
+
+	private JdbcTemplate jdbcTemplate;
+	private FullGroupedColumnStore store;
+	private FullGroupedViewMaintainer viewMaintainer;
+	private FullGroupedBulkWriter writer;
+
+	// Rows the mocked SELECT ... FOR UPDATE returns
+	private final List<FullGrouped> stored = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() throws Exception {
+		jdbcTemplate = mock(JdbcTemplate.class);
+		store = mock(FullGroupedColumnStore.class);
+		when(store.writeLocked(any(), any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get());
+		viewMaintainer = mock(FullGroupedViewMaintainer.class);
+		writer = new FullGroupedBulkWriter(jdbcTemplate, mock(PlatformTransactionManager.class), store,
+				new DatasetVersions(), viewMaintainer, new DatasetDateRange("2020-01-22", "2020-07-27"), 100);
+		doAnswer(invocation -> {
+			RowCallbackHandler handler = invocation.getArgument(1);
+			for (FullGrouped row : stored) {
+				handler.processRow(resultSet(row));
+			}
+			return null;
+		}).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+	}
+
+	@Test
+	void createConflictsWithAKeyStoredInAnotherCaseOrWithTrailingSpaces() {
+		stored.add(row("Italy", 100, 10, "Europe"));
+
+		BulkWriteReport report = writer.write(List.of(row("italy ", 1, 1, null)), Mode.CREATE);
+
+		assertEquals("conflict", report.results().get(0).status());
+		verify(jdbcTemplate, never()).update(startsWith("INSERT"), any(Object[].class));
+		ArgumentCaptor<String> select = ArgumentCaptor.forClass(String.class);
+		verify(jdbcTemplate).query(select.capture(), any(RowCallbackHandler.class), any(Object[].class));
+		assertTrue(select.getValue().endsWith(" FOR UPDATE"));
+	}
+
+	@Test
+	void upsertMergesIntoTheStoredRowWhateverTheCase() {
+		stored.add(row("Italy", 100, 10, "Europe"));
+
+		BulkWriteReport report = writer.write(List.of(row("ITALY", 120, null, null)), Mode.UPSERT);
+
+		assertEquals("updated", report.results().get(0).status());
+		// Stored spelling, the new confirmed and the stored deaths/whoRegion
+		assertEquals(Arrays.asList(Date.valueOf(DAY), "Italy", 120, 10, null, null, null, null, null, "Europe"),
+				insertedValues());
+		ArgumentCaptor<FullGrouped> put = ArgumentCaptor.forClass(FullGrouped.class);
+		verify(store).put(put.capture());
+		assertEquals("Italy", put.getValue().getCountryRegion());
+		assertEquals(10, put.getValue().getDeaths());
+	}
+
+	@Test
+	void insertsPartialNullRowsAndRejectsKeysTheCollationTreatsAsEqual() {
+		BulkWriteReport report = writer.write(List.of(
+				row("Peru", 5, null, null),
+				row("peru  ", 6, null, null)), Mode.UPSERT);
+
+		assertEquals("inserted", report.results().get(0).status());
+		assertEquals("invalid", report.results().get(1).status());
+		assertEquals("duplicate of row 0", report.results().get(1).message());
+		assertEquals(Arrays.asList(Date.valueOf(DAY), "Peru", 5, null, null, null, null, null, null, null),
+				insertedValues());
+	}
+
+	private List<Object> insertedValues() {
+		ArgumentCaptor<Object[]> params = ArgumentCaptor.forClass(Object[].class);
+		verify(jdbcTemplate).update(startsWith("INSERT"), params.capture());
+		return Arrays.asList(params.getValue());
+	}
+
+	private static FullGrouped row(String country, Integer confirmed, Integer deaths, String whoRegion) {
+		FullGrouped row = new FullGrouped();
+		row.setDate(DAY);
+		row.setCountryRegion(country);
+		row.setConfirmed(confirmed);
+		row.setDeaths(deaths);
+		row.setWhoRegion(whoRegion);
+		return row;
+	}
+
+	private static ResultSet resultSet(FullGrouped row) throws Exception {
+		ResultSet rs = mock(ResultSet.class);
+		when(rs.getObject(1, LocalDate.class)).thenReturn(row.getDate());
+		when(rs.getString(2)).thenReturn(row.getCountryRegion());
+		when(rs.getObject(3, Integer.class)).thenReturn(row.getConfirmed());
+		when(rs.getObject(4, Integer.class)).thenReturn(row.getDeaths());
+		when(rs.getString(10)).thenReturn(row.getWhoRegion());
+		return rs;
+	}
+}
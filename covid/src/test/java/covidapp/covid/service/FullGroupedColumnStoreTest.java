@@ -0,0 +1,218 @@
+package covidapp.covid.service;
+
+import covidapp.covid.dto.RollupPoint;
+import covidapp.covid.entity.FullGrouped;
+import covidapp.covid.entity.FullGroupedId;
+import covidapp.covid.service.FullGroupedColumnStore.Granularity;
+import covidapp.covid.repository.FullGroupedRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class FullGroupedColumnStoreTest {
+
+	private static final LocalDate DAY_1 = LocalDate.of(2020, 1, 22);
+	private static final DatasetDateRange RANGE = new DatasetDateRange("2019-12-01", "2023-12-31");
+
+	private FullGroupedRepository repo;
+	private FullGroupedColumnStore store;
+
+	@BeforeEach
+	void setUp() {
+		repo = mock(FullGroupedRepository.class);
+		when(repo.findAll()).thenReturn(List.of(
+				row(DAY_1, "India", 10, "South-East Asia"),
+				row(DAY_1.plusDays(1), "India", 12, "South-East Asia"),
+				row(DAY_1, "Brazil", 5, "Americas")));
+		store = new FullGroupedColumnStore(repo, new NameDictionary(1000), RANGE);
+	}
+
+	@Test
+	void loadsLazilyOnceAndServesReads() {
+		assertEquals(2, store.findByCountry("India").size());
+		assertEquals(List.of("Brazil", "India"),
+				store.findByDate(DAY_1).stream().map(FullGrouped::getCountryRegion).toList());
+		assertEquals(12, store.findById(DAY_1.plusDays(1), "India").getConfirmed());
+		assertEquals(1, store.findByWhoRegion("Americas").size());
+		assertEquals(3, store.findAll().size());
+		verify(repo, times(1)).findAll();
+	}
+
+	@Test
+	void keepsNullsAndMissingDays() {
+		FullGrouped sparse = row(DAY_1.plusDays(5), "Brazil", null, null);
+		store.findAll();
+		store.put(sparse);
+
+		FullGrouped stored = store.findById(DAY_1.plusDays(5), "Brazil");
+		assertNull(stored.getConfirmed());
+		assertEquals("Americas", stored.getWhoRegion());
+		assertNull(store.findById(DAY_1.plusDays(3), "Brazil"));
+		assertEquals(2, store.findByCountry("Brazil").size());
+	}
+
+	@Test
+	void handlesDatesBeforeTheFirstLoadedDay() {
+		store.findAll();
+		store.put(row(DAY_1.minusDays(2), "India", 1, null));
+
+		List<FullGrouped> india = store.findByCountry("India");
+		assertEquals(DAY_1.minusDays(2), india.get(0).getDate());
+		assertEquals(10, store.findById(DAY_1, "India").getConfirmed());
+		assertEquals(5, store.findById(DAY_1, "Brazil").getConfirmed());
+	}
+
+	@Test
+	void removeDropsRowAndEmptyCountry() {
+		store.findAll();
+		store.remove(DAY_1, "Brazil");
+
+		assertNull(store.findById(DAY_1, "Brazil"));
+		assertTrue(store.findByCountry("Brazil").isEmpty());
+		assertEquals(1, store.findByDate(DAY_1).size());
+	}
+
+	@Test
+	void sharesOneNameInstanceAcrossRows() {
+		store.put(row(DAY_1.plusDays(2), "India", 14, null));
+		List<FullGrouped> india = store.findByCountry("India");
+
+		assertSame(india.get(0).getCountryRegion(), india.get(1).getCountryRegion());
+		assertSame(india.get(0).getWhoRegion(), store.findByDate(DAY_1.plusDays(1)).get(0).getWhoRegion());
+		assertTrue(store.findByWhoRegion("Unknown region").isEmpty());
+		assertEquals(2, store.findByWhoRegion(new String("South-East Asia")).size());
+	}
+
+	@Test
+	void rollsUpWeeksAndMonthsAndFollowsWrites() {
+		FullGrouped monday = row(LocalDate.of(2020, 1, 27), "India", 20, null);
+		monday.setNewCases(5);
+		FullGrouped tuesday = row(LocalDate.of(2020, 1, 28), "India", 23, null);
+		tuesday.setNewCases(3);
+		store.findAll();
+		store.put(monday);
+		store.put(tuesday);
+
+		List<RollupPoint> weeks = store.findRollup(Granularity.WEEK, "India", null);
+		assertEquals(List.of("2020-W04", "2020-W05"), weeks.stream().map(RollupPoint::period).toList());
+		assertEquals(LocalDate.of(2020, 1, 20), weeks.get(0).start());
+		assertEquals(DAY_1.plusDays(1), weeks.get(0).end());
+		assertEquals(2, weeks.get(0).days());
+		assertEquals(12L, weeks.get(0).confirmed());
+		assertNull(weeks.get(0).newCases());
+		assertEquals(23L, weeks.get(1).confirmed());
+		assertEquals(8L, weeks.get(1).newCases());
+
+		List<RollupPoint> months = store.findRollup(Granularity.MONTH, "India", null);
+		assertEquals(1, months.size());
+		assertEquals("2020-01", months.get(0).period());
+		assertEquals(4, months.get(0).days());
+
+		store.remove(LocalDate.of(2020, 1, 28), "India");
+		assertEquals(20L, store.findRollup(Granularity.WEEK, "India", null).get(1).confirmed());
+		assertEquals(5L, store.findRollup(Granularity.MONTH, "India", null).get(0).newCases());
+	}
+
+	@Test
+	void addsUpCountriesForRegionAndWorldRollups() {
+		assertEquals(17L, store.findRollup(Granularity.WEEK, null, null).get(0).confirmed());
+		assertEquals(5L, store.findRollup(Granularity.WEEK, null, "Americas").get(0).confirmed());
+		assertTrue(store.findRollup(Granularity.MONTH, "India", "Americas").isEmpty());
+		assertTrue(store.findRollup(Granularity.MONTH, "Atlantis", null).isEmpty());
+		assertThrows(IllegalArgumentException.class, () -> Granularity.from("day"));
+	}
+
+	@Test
+	void ignoresWritesUntilLoaded() {
+		store.put(row(DAY_1.plusDays(9), "Chile", 1, "Americas"));
+
+		assertTrue(store.findByCountry("Chile").isEmpty());
+	}
+
+	@Test
+	void neverStoresDatesOutsideTheDatasetRange() {
+		when(repo.findAll()).thenReturn(List.of(
+				row(DAY_1, "India", 10, "South-East Asia"),
+				row(LocalDate.of(1, 1, 1), "India", 1, null)));
+
+		assertEquals(1, store.findByCountry("India").size());
+		store.put(row(LocalDate.of(9999, 12, 31), "India", 1, null));
+		store.put(row(LocalDate.of(1, 1, 1), "Brazil", 1, null));
+
+		assertEquals(1, store.findByCountry("India").size());
+		assertEquals(List.of("India"), store.findCountries());
+		assertEquals(List.of(DAY_1), store.findAll().stream().map(FullGrouped::getDate).toList());
+		assertThrows(IllegalArgumentException.class, () -> RANGE.check(LocalDate.of(9999, 12, 31)));
+	}
+
+	@Test
+	void matchesCountriesLikeTheCollation() {
+		// Reads find the stored series whatever the case or trailing spaces
+		assertEquals(2, store.findByCountry("india").size());
+		assertEquals(10, store.findById(DAY_1, "INDIA ").getConfirmed());
+		assertEquals(DAY_1.plusDays(1), store.findLatestDate("India  "));
+		assertEquals(1, store.findRollup(Granularity.MONTH, "india", null).size());
+
+		// Writes land in the same series (MySQL updates the stored row) and keep its spelling
+		store.put(row(DAY_1, "india", 11, null));
+		store.put(row(DAY_1.plusDays(2), "india ", 13, null));
+		assertEquals(List.of("Brazil", "India"), store.findCountries());
+		assertEquals(11, store.findById(DAY_1, "India").getConfirmed());
+		assertEquals("India", store.findById(DAY_1.plusDays(2), "India").getCountryRegion());
+		assertEquals(3, store.findByCountry("India").size());
+
+		store.remove(DAY_1.plusDays(2), "INDIA");
+		assertEquals(2, store.findByCountry("India").size());
+	}
+
+	@Test
+	void writeLockedOrdersWritesToTheSameRow() throws InterruptedException {
+		CountDownLatch firstHolds = new CountDownLatch(1);
+		CountDownLatch releaseFirst = new CountDownLatch(1);
+		List<String> order = new CopyOnWriteArrayList<>();
+		Thread first = Thread.ofPlatform().start(() -> store.writeLocked(List.of(new FullGroupedId(DAY_1, "India")), () -> {
+			firstHolds.countDown();
+			await(releaseFirst);
+			order.add("first");
+			return null;
+		}));
+		await(firstHolds);
+
+		// Same row in another spelling: waits for the first write
+		Thread second = Thread.ofPlatform().start(() -> store.writeLocked(List.of(new FullGroupedId(DAY_1, "india ")), () -> {
+			order.add("second");
+			return null;
+		}));
+		second.join(200);
+		assertTrue(order.isEmpty());
+
+		releaseFirst.countDown();
+		first.join();
+		second.join();
+		assertEquals(List.of("first", "second"), order);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static FullGrouped row(LocalDate date, String country, Integer confirmed, String region) {
+		FullGrouped row = new FullGrouped();
+		row.setDate(date);
+		row.setCountryRegion(country);
+		row.setConfirmed(confirmed);
+		row.setWhoRegion(region);
+		return row;
+	}
+}
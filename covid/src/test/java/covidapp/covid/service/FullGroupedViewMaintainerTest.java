@@ -0,0 +1,161 @@
+package covidapp.covid.service;
+
+import covidapp.covid.dataset.Dataset;
+import covidapp.covid.entity.CountryWiseLatest;
+import covidapp.covid.entity.DayWise;
+import covidapp.covid.entity.FullGrouped;
+import covidapp.covid.entity.FullGroupedId;
+import covidapp.covid.repository.CountryWiseRepository;
+import covidapp.covid.repository.DayWiseRepository;
+import covidapp.covid.repository.FullGroupedRepository;
+import covidapp.covid.service.FullGroupedViewMaintainer.Change;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class FullGroupedViewMaintainerTest {
+
+	private static final LocalDate DAY = LocalDate.of(2020, 7, 27);
+
+	private FullGroupedRepository fullGroupedRepo;
+	private DayWiseRepository dayWiseRepo;
+	private CountryWiseRepository countryWiseRepo;
+	private DayWiseAnalytics analytics;
+	private GlobalSummaryService summary;
+	private DatasetVersions versions;
+	private FullGroupedViewMaintainer maintainer;
+
+	@BeforeEach
+	void setUp() {
+		fullGroupedRepo = mock(FullGroupedRepository.class);
+		dayWiseRepo = mock(DayWiseRepository.class);
+		countryWiseRepo = mock(CountryWiseRepository.class);
+		analytics = mock(DayWiseAnalytics.class);
+		summary = mock(GlobalSummaryService.class);
+		versions = new DatasetVersions();
+		when(dayWiseRepo.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+		when(countryWiseRepo.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+		when(countryWiseRepo.findById(any())).thenReturn(Optional.empty());
+		maintainer = maintainer(true);
+	}
+
+	@Test
+	void appliesTheDeltaToTheDayTotals() {
+		DayWise day = day(100, 10, 2);
+		when(dayWiseRepo.findForUpdateByDate(DAY)).thenReturn(Optional.of(day));
+
+		FullGroupedViewMaintainer.Result result = maintainer.apply(List.of(
+				new Change(row(DAY, "Peru", 40, 4), row(DAY, "Peru", 50, 6)),
+				new Change(null, row(DAY, "Chile", 5, null))));
+
+		assertEquals(List.of(day), result.savedDays());
+		assertEquals(115, day.getConfirmed());
+		assertEquals(12, day.getDeaths());
+		assertEquals(3, day.getNumberOfCountries());
+		assertEquals(10.43, day.getDeathsPer100Cases());
+		verify(fullGroupedRepo, never()).findByDate(any());
+	}
+
+	@Test
+	void sumsADateWithoutTotalsAndDropsAnEmptyOne() {
+		when(dayWiseRepo.findForUpdateByDate(DAY)).thenReturn(Optional.empty());
+		when(fullGroupedRepo.findByDate(DAY)).thenReturn(List.of(row(DAY, "Peru", 50, 6), row(DAY, "Chile", 5, 1)));
+
+		FullGroupedViewMaintainer.Result result = maintainer.apply(List.of(new Change(null, row(DAY, "Chile", 5, 1))));
+		assertEquals(55, result.savedDays().get(0).getConfirmed());
+		assertEquals(2, result.savedDays().get(0).getNumberOfCountries());
+
+		DayWise last = day(5, 1, 1);
+		last.setId(7L);
+		when(dayWiseRepo.findForUpdateByDate(DAY)).thenReturn(Optional.of(last));
+		result = maintainer.apply(List.of(new Change(row(DAY, "Chile", 5, 1), null)));
+		assertEquals(List.of(7L), result.deletedDays());
+		verify(dayWiseRepo).delete(last);
+	}
+
+	@Test
+	void rebuildsTheCountryFromItsLatestRowAndLastWeek() {
+		when(dayWiseRepo.findForUpdateByDate(any())).thenReturn(Optional.of(day(0, 0, 0)));
+		FullGrouped latest = row(DAY, "Peru", 1200, 300);
+		latest.setRecovered(1000);
+		when(fullGroupedRepo.findFirstByCountryRegionOrderByDateDesc("Peru")).thenReturn(Optional.of(latest));
+		when(fullGroupedRepo.findById(new FullGroupedId(DAY.minusDays(7), "Peru")))
+				.thenReturn(Optional.of(row(DAY.minusDays(7), "Peru", 1000, 200)));
+
+		FullGroupedViewMaintainer.Result result = maintainer.apply(List.of(new Change(null, latest)));
+
+		CountryWiseLatest peru = result.savedCountries().get(0);
+		assertEquals(1200, peru.getConfirmed());
+		assertEquals(1000, peru.getConfirmedLastWeek());
+		assertEquals(200, peru.getOneWeekChange());
+		assertEquals(20.0, peru.getOneWeekPercentIncrease());
+		assertEquals(25.0, peru.getDeathsPer100Cases());
+		assertTrue(peru.getRedAlert());
+	}
+
+	@Test
+	void skipsCountryForChangesOlderThanItsLastWeek() {
+		when(dayWiseRepo.findForUpdateByDate(any())).thenReturn(Optional.of(day(0, 0, 0)));
+		// The latest row as the write transaction sees it
+		when(fullGroupedRepo.findFirstByCountryRegionOrderByDateDesc("Peru")).thenReturn(Optional.of(row(DAY, "Peru", 9, 0)));
+
+		FullGroupedViewMaintainer.Result result = maintainer.apply(List.of(
+				new Change(null, row(DAY.minusDays(8), "Peru", 1, 0))));
+
+		assertTrue(result.savedCountries().isEmpty());
+		verify(countryWiseRepo, never()).save(any());
+		verify(fullGroupedRepo, never()).findById(any());
+	}
+
+	@Test
+	void afterCommitUpdatesCopiesAndVersions() {
+		DayWise day = day(1, 0, 1);
+		CountryWiseLatest peru = new CountryWiseLatest();
+		maintainer.afterCommit(new FullGroupedViewMaintainer.Result(List.of(day), List.of(), List.of(peru), List.of("Chile")));
+
+		verify(analytics).put(day);
+		verify(summary).onCountrySaved(peru);
+		verify(summary).onCountryDeleted("Chile");
+		assertEquals(1, versions.version(Dataset.DAY_WISE));
+		assertEquals(1, versions.version(Dataset.COUNTRY_WISE_LATEST));
+	}
+
+	@Test
+	void doesNothingWhenDisabled() {
+		FullGroupedViewMaintainer.Result result = maintainer(false).apply(List.of(new Change(null, row(DAY, "Peru", 1, 0))));
+
+		assertTrue(result.savedDays().isEmpty());
+		verifyNoInteractions(dayWiseRepo, countryWiseRepo, fullGroupedRepo);
+	}
+
+	private FullGroupedViewMaintainer maintainer(boolean enabled) {
+		CountryWiseService countryWiseService = new CountryWiseService(countryWiseRepo, summary, versions, 0.1);
+		return new FullGroupedViewMaintainer(fullGroupedRepo, dayWiseRepo, countryWiseRepo, countryWiseService,
+				analytics, summary, versions, enabled);
+	}
+
+	private static DayWise day(int confirmed, int deaths, int countries) {
+		DayWise day = new DayWise();
+		day.setDate(DAY);
+		day.setConfirmed(confirmed);
+		day.setDeaths(deaths);
+		day.setNumberOfCountries(countries);
+		return day;
+	}
+
+	private static FullGrouped row(LocalDate date, String country, Integer confirmed, Integer deaths) {
+		FullGrouped row = new FullGrouped();
+		row.setDate(date);
+		row.setCountryRegion(country);
+		row.setConfirmed(confirmed);
+		row.setDeaths(deaths);
+		return row;
+	}
+}
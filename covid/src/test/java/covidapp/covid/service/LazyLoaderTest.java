@@ -0,0 +1,44 @@
+package covidapp.covid.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LazyLoaderTest {
+
+	@Test
+	void loadsOnceUntilInvalidated() {
+		AtomicInteger loads = new AtomicInteger();
+		LazyLoader<Integer> loader = new LazyLoader<>(loads::incrementAndGet);
+
+		assertEquals(1, loader.get());
+		assertEquals(1, loader.get());
+
+		loader.invalidate();
+		assertEquals(2, loader.get());
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	void doesNotKeepALoadThatOverlappedAnInvalidate() {
+		AtomicInteger loads = new AtomicInteger();
+		AtomicReference<LazyLoader<Integer>> self = new AtomicReference<>();
+		LazyLoader<Integer> loader = new LazyLoader<>(() -> {
+			int load = loads.incrementAndGet();
+			if (load == 1) {
+				// A write lands while the first load is reading
+				self.get().invalidate();
+			}
+			return load;
+		});
+		self.set(loader);
+
+		// The caller still gets the overlapping load, but it is not cached
+		assertEquals(1, loader.get());
+		assertEquals(2, loader.get());
+		assertEquals(2, loader.get());
+	}
+}
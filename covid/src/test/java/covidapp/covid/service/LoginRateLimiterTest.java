@@ -0,0 +1,121 @@
+package covidapp.covid.service;
+
+import covidapp.covid.service.LoginRateLimiter.Endpoint;
+import covidapp.covid.service.LoginRateLimiter.RateLimitedException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginRateLimiterTest {
+
+	private static final long SECOND = 1_000_000_000L;
+
+	// 3 attempts in a burst, then one every 10 seconds per username; 10 per IP, one every 6 seconds
+	private final LoginRateLimiter limiter = new LoginRateLimiter(true, 1024, 3, 6, 10, 10, 3, 6, 10, 10);
+
+	@Test
+	void allowsABurstThenAsksToRetryAfterTheNextToken() {
+		for (int i = 0; i < 3; i++) {
+			limiter.acquire(Endpoint.LOGIN, "alice", null, 0);
+		}
+
+		RateLimitedException e = assertThrows(RateLimitedException.class,
+				() -> limiter.acquire(Endpoint.LOGIN, "alice", null, 0));
+		assertEquals(10, e.getRetryAfterSeconds());
+
+		assertThrows(RateLimitedException.class, () -> limiter.acquire(Endpoint.LOGIN, "alice", null, 9 * SECOND));
+		limiter.acquire(Endpoint.LOGIN, "alice", null, 10 * SECOND);
+		assertThrows(RateLimitedException.class, () -> limiter.acquire(Endpoint.LOGIN, "alice", null, 10 * SECOND));
+	}
+
+	@Test
+	void limitsUsernamesAndIpsSeparately() {
+		for (int i = 0; i < 3; i++) {
+			limiter.acquire(Endpoint.LOGIN, "alice", "10.0.0.1", 0);
+		}
+
+		// alice is exhausted from any address; the address still serves other users
+		assertThrows(RateLimitedException.class, () -> limiter.acquire(Endpoint.LOGIN, "alice", "10.0.0.2", 0));
+		limiter.acquire(Endpoint.LOGIN, "bob", "10.0.0.1", 0);
+
+		// One address spraying usernames runs out at its own capacity
+		for (int i = 4; i < 10; i++) {
+			limiter.acquire(Endpoint.LOGIN, "user" + i, "10.0.0.1", 0);
+		}
+		RateLimitedException e = assertThrows(RateLimitedException.class,
+				() -> limiter.acquire(Endpoint.LOGIN, "carol", "10.0.0.1", 0));
+		assertEquals(6, e.getRetryAfterSeconds());
+	}
+
+	@Test
+	void aRejectedUsernameDoesNotUseUpTheIpBudget() {
+		for (int i = 0; i < 3; i++) {
+			limiter.acquire(Endpoint.LOGIN, "alice", "10.0.0.1", 0);
+		}
+		for (int i = 0; i < 20; i++) {
+			assertThrows(RateLimitedException.class, () -> limiter.acquire(Endpoint.LOGIN, "alice", "10.0.0.1", 0));
+		}
+
+		// The address still has the 7 tokens the successful attempts left
+		for (int i = 0; i < 7; i++) {
+			limiter.acquire(Endpoint.LOGIN, "user" + i, "10.0.0.1", 0);
+		}
+		assertThrows(RateLimitedException.class, () -> limiter.acquire(Endpoint.LOGIN, "carol", "10.0.0.1", 0));
+	}
+
+	@Test
+	void keepsSeparateBudgetsPerEndpoint() {
+		for (int i = 0; i < 3; i++) {
+			limiter.acquire(Endpoint.LOGIN, "alice", null, 0);
+		}
+
+		limiter.acquire(Endpoint.VERIFY_OTP, "alice", null, 0);
+	}
+
+	@Test
+	void disabledOrZeroRateNeverLimits() {
+		LoginRateLimiter disabled = new LoginRateLimiter(false, 16, 1, 1, 1, 1, 1, 1, 1, 1);
+		LoginRateLimiter unlimited = new LoginRateLimiter(true, 16, 1, 0, 1, 0, 1, 0, 1, 0);
+
+		for (int i = 0; i < 100; i++) {
+			disabled.acquire(Endpoint.LOGIN, "alice", "10.0.0.1", 0);
+			unlimited.acquire(Endpoint.VERIFY_OTP, "alice", "10.0.0.1", 0);
+		}
+	}
+
+	@Test
+	void concurrentAttemptsGetExactlyTheCapacity() throws InterruptedException {
+		LoginRateLimiter shared = new LoginRateLimiter(true, 1024, 50, 1, 1000, 0, 50, 1, 1000, 0);
+		AtomicInteger allowed = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 8; t++) {
+			threads.add(Thread.ofPlatform().start(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for (int i = 0; i < 100; i++) {
+					try {
+						shared.acquire(Endpoint.LOGIN, "alice", null, 0);
+						allowed.incrementAndGet();
+					} catch (RateLimitedException e) {
+						// expected once the bucket is empty
+					}
+				}
+			}));
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals(50, allowed.get());
+	}
+}
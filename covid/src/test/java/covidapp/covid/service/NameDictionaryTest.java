@@ -0,0 +1,73 @@
+package covidapp.covid.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import covidapp.covid.entity.FullGrouped;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.SpringHandlerInstantiator;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NameDictionaryTest {
+
+	@Test
+	void assignsStableCodesAndCanonicalInstances() {
+		NameDictionary names = new NameDictionary(100);
+
+		int india = names.code("India");
+		assertEquals(india, names.code(new String("India")));
+		assertNotEquals(india, names.code("Brazil"));
+		assertSame(names.name(india), names.canonical(new String("India")));
+		assertEquals(NameDictionary.NONE, names.code(null));
+		assertNull(names.canonical(null));
+	}
+
+	@Test
+	void findDoesNotAddNames() {
+		NameDictionary names = new NameDictionary(100);
+
+		assertEquals(NameDictionary.NONE, names.find("Chile"));
+		assertEquals(0, names.size());
+	}
+
+	@Test
+	void stopsAddingAtTheLimit() {
+		NameDictionary names = new NameDictionary(300);
+		for (int i = 0; i < 300; i++) {
+			assertEquals(i, names.code("Region " + i));
+		}
+
+		String extra = new String("One too many");
+		assertEquals(NameDictionary.NONE, names.code(extra));
+		assertSame(extra, names.canonical(extra));
+		assertEquals("Region 299", names.name(299));
+		assertEquals(300, names.size());
+	}
+
+	@Test
+	void serializerWritesTheSameJsonAsPlainStrings() throws Exception {
+		NameDictionary names = new NameDictionary(100);
+		// Same wiring as Spring Boot's ObjectMapper: the serializer gets the dictionary bean injected
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.registerBean(NameDictionary.class, () -> names);
+		context.refresh();
+		ObjectMapper withDictionary = Jackson2ObjectMapperBuilder.json()
+				.handlerInstantiator(new SpringHandlerInstantiator(context.getAutowireCapableBeanFactory())).build();
+		ObjectMapper plain = Jackson2ObjectMapperBuilder.json().build();
+
+		FullGrouped row = new FullGrouped();
+		row.setDate(LocalDate.of(2020, 1, 22));
+		row.setCountryRegion("Côte d'Ivoire \"CI\"");
+		row.setWhoRegion("Africa");
+		// Loaded names are written pre-encoded; names only seen in responses are not added
+		names.code("Côte d'Ivoire \"CI\"");
+
+		assertEquals(plain.writeValueAsString(row), withDictionary.writeValueAsString(row));
+		assertEquals(1, names.size());
+		assertEquals(NameDictionary.NONE, names.find("Africa"));
+		context.close();
+	}
+}
@@ -0,0 +1,104 @@
+package covidapp.covid.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OtpEmailOutboxTest {
+
+	@RegisterExtension
+	static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+	private OtpEmailOutbox outbox;
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		if (outbox != null) {
+			outbox.stop();
+		}
+	}
+
+	@Test
+	void deliversQueuedEmailsToSmtpServer() throws Exception {
+		outbox = start(emailService(greenMail.getSmtp().getPort()), 10, 3);
+
+		assertTrue(outbox.enqueue("alice@example.com", "123456"));
+		assertTrue(outbox.enqueue("bob@example.com", "654321"));
+
+		assertTrue(greenMail.waitForIncomingEmail(5000, 2));
+		MimeMessage[] messages = greenMail.getReceivedMessages();
+		assertEquals(2, messages.length);
+		assertTrue(String.valueOf(messages[0].getContent()).contains("123456")
+				|| String.valueOf(messages[1].getContent()).contains("123456"));
+
+		await(() -> outbox.stats().delivered() == 2);
+		OtpEmailOutbox.OutboxStats stats = outbox.stats();
+		assertEquals(2, stats.enqueued());
+		assertEquals(0, stats.failed());
+		assertEquals(0, stats.queueDepth());
+	}
+
+	@Test
+	void retriesThenGivesUpWhenSmtpIsDown() {
+		// Nothing listens on this port - every attempt fails
+		outbox = start(emailService(greenMail.getSmtp().getPort() + 1), 10, 3);
+
+		assertTrue(outbox.enqueue("carol@example.com", "111111"));
+
+		await(() -> outbox.stats().failed() == 1);
+		OtpEmailOutbox.OutboxStats stats = outbox.stats();
+		assertEquals(2, stats.retries());
+		assertEquals(0, stats.delivered());
+	}
+
+	@Test
+	void rejectsWhenQueueIsFull() {
+		// Not started: nothing drains the queue
+		outbox = new OtpEmailOutbox(emailService(greenMail.getSmtp().getPort()), 2, 1, 1, 1, 1);
+
+		assertTrue(outbox.enqueue("a@example.com", "1"));
+		assertTrue(outbox.enqueue("b@example.com", "2"));
+		assertFalse(outbox.enqueue("c@example.com", "3"));
+
+		OtpEmailOutbox.OutboxStats stats = outbox.stats();
+		assertEquals(2, stats.queueDepth());
+		assertEquals(1, stats.rejected());
+	}
+
+	private static OtpEmailOutbox start(EmailService emailService, int capacity, int maxAttempts) {
+		OtpEmailOutbox outbox = new OtpEmailOutbox(emailService, capacity, maxAttempts, 1, 5, 2);
+		outbox.start();
+		return outbox;
+	}
+
+	private static EmailService emailService(int port) {
+		JavaMailSenderImpl sender = new JavaMailSenderImpl();
+		sender.setHost("127.0.0.1");
+		sender.setPort(port);
+		EmailService emailService = new EmailService();
+		ReflectionTestUtils.setField(emailService, "mailSender", sender);
+		return emailService;
+	}
+
+	private static void await(BooleanSupplier condition) {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.currentTimeMillis() < deadline, "condition not met within 5 seconds");
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				fail(e);
+			}
+		}
+	}
+}
@@ -0,0 +1,112 @@
+package covidapp.covid.service;
+
+import covidapp.covid.dataset.Dataset;
+import covidapp.covid.dto.PerCapitaSeries;
+import covidapp.covid.dto.WorldometerView;
+import covidapp.covid.entity.FullGrouped;
+import covidapp.covid.repository.FullGroupedRepository;
+import covidapp.covid.repository.WorldometerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PerCapitaServiceTest {
+
+	private static final LocalDate DAY_1 = LocalDate.of(2020, 1, 22);
+
+	private WorldometerRepository worldometerRepo;
+	private DatasetVersions versions;
+	private PerCapitaService service;
+
+	@BeforeEach
+	void setUp() {
+		FullGroupedRepository fullGroupedRepo = mock(FullGroupedRepository.class);
+		when(fullGroupedRepo.findAll()).thenReturn(List.of(
+				row(DAY_1, "US", 1000, null),
+				row(DAY_1.plusDays(1), "US", 2000, 1000),
+				row(DAY_1, "Taiwan*", 47, 1),
+				row(DAY_1, "Eswatini", 3, 0),
+				row(DAY_1, "Atlantis", 9, 9)));
+		worldometerRepo = mock(WorldometerRepository.class);
+		when(worldometerRepo.findAllBy()).thenReturn(List.of(
+				view("USA", 330_000_000L),
+				view("Taiwan", 23_500_000L),
+				view("Eswatini", null)));
+		versions = new DatasetVersions();
+		FullGroupedColumnStore store = new FullGroupedColumnStore(fullGroupedRepo, new NameDictionary(1000),
+				new DatasetDateRange("2019-12-01", "2023-12-31"));
+		service = new PerCapitaService(store, worldometerRepo, versions, "Atlantis=Nowhere");
+		service.subscribe();
+	}
+
+	@Test
+	void dividesByTheMatchedPopulation() {
+		PerCapitaSeries us = service.getSeries("US");
+
+		assertEquals("USA", us.populationCountry());
+		assertEquals(330_000_000L, us.population());
+		assertEquals(2, us.points().size());
+		assertEquals(0.303, us.points().get(0).confirmed());
+		assertNull(us.points().get(0).newCases());
+		assertEquals(0.303, us.points().get(1).newCases());
+		assertEquals(0.2, service.getSeries("Taiwan*").points().get(0).confirmed());
+	}
+
+	@Test
+	void returnsNullWithoutRowsOrPopulation() {
+		assertNull(service.getSeries("Eswatini"));
+		assertNull(service.getSeries("Atlantis"));
+		assertNull(service.getSeries("USA"));
+	}
+
+	@Test
+	void cachesSeriesUntilEitherDatasetChanges() {
+		PerCapitaSeries first = service.getSeries("US");
+		assertSame(first, service.getSeries("US"));
+		verify(worldometerRepo, times(1)).findAllBy();
+
+		versions.bump(Dataset.FULL_GROUPED);
+		assertNotSame(first, service.getSeries("US"));
+		verify(worldometerRepo, times(1)).findAllBy();
+
+		versions.bump(Dataset.WORLDOMETER);
+		service.getSeries("US");
+		verify(worldometerRepo, times(2)).findAllBy();
+	}
+
+	@Test
+	void reportsEveryCountryMatch() {
+		List<PerCapitaSeries.Match> matches = service.getMatches();
+
+		assertEquals(List.of("Atlantis", "Eswatini", "Taiwan*", "US"),
+				matches.stream().map(PerCapitaSeries.Match::countryRegion).toList());
+		assertNull(matches.get(0).populationCountry());
+		assertEquals("Taiwan", matches.get(2).populationCountry());
+	}
+
+	@Test
+	void normalizesNamesAndRejectsBadAliases() {
+		assertEquals("cotedivoire", PerCapitaService.normalize("Côte d'Ivoire"));
+		assertThrows(IllegalArgumentException.class,
+				() -> new PerCapitaService(null, worldometerRepo, versions, "NoEqualsSign"));
+	}
+
+	private static FullGrouped row(LocalDate date, String country, Integer confirmed, Integer newCases) {
+		FullGrouped row = new FullGrouped();
+		row.setDate(date);
+		row.setCountryRegion(country);
+		row.setConfirmed(confirmed);
+		row.setNewCases(newCases);
+		return row;
+	}
+
+	private static WorldometerView view(String country, Long population) {
+		return new WorldometerView(null, country, null, population, null, null, null, null, null, null,
+				null, null, null, null, null, null, null);
+	}
+}
@@ -0,0 +1,102 @@
+package covidapp.covid.service;
+
+import covidapp.covid.dataset.Dataset;
+import covidapp.covid.dto.Ranking;
+import covidapp.covid.dto.WorldometerView;
+import covidapp.covid.entity.CountryWiseLatest;
+import covidapp.covid.repository.CountryWiseRepository;
+import covidapp.covid.repository.WorldometerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RankingServiceTest {
+
+	private WorldometerRepository worldometerRepo;
+	private CountryWiseRepository countryWiseRepo;
+	private DatasetVersions versions;
+	private RankingService service;
+
+	@BeforeEach
+	void setUp() {
+		worldometerRepo = mock(WorldometerRepository.class);
+		when(worldometerRepo.findAllBy()).thenReturn(List.of(
+				view("Belgium", "Europe", 850L),
+				view("Peru", "South America", 610L),
+				view("Italy", "Europe", 582L),
+				view("Spain", "Europe", 610L),
+				view("Chile", "South America", null),
+				view("Japan", "Asia", 8L)));
+		countryWiseRepo = mock(CountryWiseRepository.class);
+		CountryWiseLatest france = new CountryWiseLatest();
+		france.setCountry("France");
+		france.setDeaths(30212);
+		france.setNewCases(2551);
+		when(countryWiseRepo.findAll()).thenReturn(List.of(france));
+		versions = new DatasetVersions();
+		service = new RankingService(worldometerRepo, countryWiseRepo, versions, 50);
+		service.subscribe();
+	}
+
+	@Test
+	void keepsTheTopNWithTiesByCountryName() {
+		Ranking ranking = service.rank("deaths1M", 3, null, null, null, null);
+
+		assertEquals("worldometer", ranking.source());
+		assertEquals(5, ranking.matched());
+		assertEquals(List.of("Belgium", "Peru", "Spain"), countries(ranking));
+		assertEquals(List.of(1, 2, 3), ranking.entries().stream().map(Ranking.Entry::rank).toList());
+		assertEquals(850L, ranking.entries().get(0).value());
+	}
+
+	@Test
+	void ranksAscendingAndFiltersByContinent() {
+		assertEquals(List.of("Japan", "Italy"), countries(service.rank("deaths1M", 2, "asc", null, null, null)));
+		assertEquals(List.of("Belgium", "Spain", "Italy"),
+				countries(service.rank("deaths1M", 10, "desc", "europe", null, null)));
+	}
+
+	@Test
+	void picksTheSourceThatHasTheMetric() {
+		Ranking deaths = service.rank("deaths", 5, null, null, null, null);
+		assertEquals("country_wise", deaths.source());
+		assertEquals(List.of("France"), countries(deaths));
+
+		assertEquals("worldometer", service.rank("newCases", 5, null, null, null, null).source());
+		assertEquals("country_wise", service.rank("newCases", 5, null, null, null, "country_wise").source());
+	}
+
+	@Test
+	void reloadsRowsOnlyAfterAWrite() {
+		service.rank("deaths1M", 3, null, null, null, null);
+		service.rank("totalCases", 3, null, null, null, null);
+		verify(worldometerRepo, times(1)).findAllBy();
+
+		versions.bump(Dataset.WORLDOMETER);
+		service.rank("deaths1M", 3, null, null, null, null);
+		verify(worldometerRepo, times(2)).findAllBy();
+		verify(countryWiseRepo, never()).findAll();
+	}
+
+	@Test
+	void rejectsInvalidParameters() {
+		assertThrows(IllegalArgumentException.class, () -> service.rank("deaths1M", 0, null, null, null, null));
+		assertThrows(IllegalArgumentException.class, () -> service.rank("deaths1M", 51, null, null, null, null));
+		assertThrows(IllegalArgumentException.class, () -> service.rank("deaths1M", 5, "up", null, null, null));
+		assertThrows(IllegalArgumentException.class, () -> service.rank("nope", 5, null, null, null, null));
+		assertThrows(IllegalArgumentException.class, () -> service.rank("deaths", 5, null, "Europe", null, null));
+	}
+
+	private static WorldometerView view(String country, String continent, Long deaths1M) {
+		return new WorldometerView(null, country, continent, null, null, null, null, null, null, null,
+				null, null, null, deaths1M, null, null, null);
+	}
+
+	private static List<String> countries(Ranking ranking) {
+		return ranking.entries().stream().map(Ranking.Entry::countryRegion).toList();
+	}
+}
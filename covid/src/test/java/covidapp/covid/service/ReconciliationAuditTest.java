@@ -0,0 +1,223 @@
+package covidapp.covid.service;
+
+import covidapp.covid.dto.AuditReport;
+import covidapp.covid.dto.AuditTotals;
+import covidapp.covid.dto.WorldometerView;
+import covidapp.covid.entity.CountryWiseLatest;
+import covidapp.covid.entity.DayWise;
+import covidapp.covid.entity.FullGrouped;
+import covidapp.covid.repository.CountryWiseRepository;
+import covidapp.covid.repository.CovidCleanCompleteRepository;
+import covidapp.covid.repository.DayWiseRepository;
+import covidapp.covid.repository.FullGroupedRepository;
+import covidapp.covid.repository.UsaCountryWiseRepository;
+import covidapp.covid.repository.WorldometerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class ReconciliationAuditTest {
+
+	private static final LocalDate DAY_1 = LocalDate.of(2020, 1, 22);
+	private static final LocalDate DAY_8 = DAY_1.plusDays(7);
+
+	private FullGroupedRepository fullGroupedRepo;
+	private DayWiseRepository dayWiseRepo;
+	private CountryWiseRepository countryWiseRepo;
+	private CovidCleanCompleteRepository cleanRepo;
+	private UsaCountryWiseRepository usaRepo;
+	private WorldometerRepository worldometerRepo;
+	private PerCapitaService perCapitaService;
+	private ReconciliationAudit audit;
+
+	@BeforeEach
+	void setUp() {
+		List<FullGrouped> rows = List.of(
+				row("Italy", DAY_1, 10, 1, 2, 7, 10),
+				row("Italy", DAY_8, 30, 3, 5, 22, 20),
+				row("US", DAY_1, 5, 0, 0, 5, 5),
+				row("US", DAY_8, 9, 1, 0, 8, 4),
+				row("Chile", DAY_8, 4, 0, 0, 4, 4));
+		fullGroupedRepo = mock(FullGroupedRepository.class);
+		when(fullGroupedRepo.findCountryRegions()).thenReturn(List.of("Italy", "US", "Chile"));
+		when(fullGroupedRepo.findByCountryRegionIn(anyCollection())).thenAnswer(call -> {
+			Collection<?> countries = call.getArgument(0);
+			return rows.stream().filter(r -> countries.contains(r.getCountryRegion())).toList();
+		});
+		when(fullGroupedRepo.findByCountryRegion("US")).thenReturn(rows.subList(2, 4));
+		when(fullGroupedRepo.sumByDate()).thenReturn(List.of(
+				new AuditTotals(DAY_1, 15L, 1L, 2L, 12L, 15L, null, null, 2L),
+				new AuditTotals(DAY_8, 43L, 4L, 5L, 34L, 28L, null, null, 3L)));
+
+		dayWiseRepo = mock(DayWiseRepository.class);
+		when(dayWiseRepo.findAll()).thenReturn(List.of(
+				day(DAY_1, 15, 1, 2, 12, 15, 2),
+				day(DAY_8, 40, 4, 5, 34, 28, 3)));
+
+		countryWiseRepo = mock(CountryWiseRepository.class);
+		when(countryWiseRepo.findAll()).thenReturn(List.of(
+				latest("Italy", 30, 3, 5, 22, 20, 10),
+				latest("US", 8, 1, 0, 8, 4, 5),
+				latest("Atlantis", 1, 0, 0, 1, 1, null)));
+
+		cleanRepo = mock(CovidCleanCompleteRepository.class);
+		when(cleanRepo.findCountryRegions()).thenReturn(List.of("Italy"));
+		when(cleanRepo.sumByCountryAndDate(anyCollection())).thenAnswer(call -> {
+			Collection<?> countries = call.getArgument(0);
+			List<AuditTotals> sums = new ArrayList<>();
+			if (countries.contains("Italy")) {
+				sums.add(new AuditTotals("Italy", "2020-01-22", 10L, 1L, 2L, 7L, 2L));
+			}
+			return sums;
+		});
+
+		usaRepo = mock(UsaCountryWiseRepository.class);
+		when(usaRepo.sumByDate()).thenReturn(List.of(
+				new AuditTotals("1/22/20", 5L, 0L, 3L),
+				new AuditTotals("1/29/20", 9L, 0L, 3L),
+				new AuditTotals("someday", 1L, 0L, 1L)));
+
+		worldometerRepo = mock(WorldometerRepository.class);
+		when(worldometerRepo.findAllBy()).thenReturn(List.of(
+				view("Italy", 25L, 3L, 5L, 17L),
+				view("USA", 12L, 1L, 1L, 10L)));
+
+		perCapitaService = new PerCapitaService(mock(FullGroupedColumnStore.class), worldometerRepo,
+				new DatasetVersions(), "");
+		audit = new ReconciliationAudit(fullGroupedRepo, dayWiseRepo, countryWiseRepo, cleanRepo, usaRepo,
+				worldometerRepo, perCapitaService, 2, 1, 1, 100, "US");
+	}
+
+	@AfterEach
+	void tearDown() {
+		audit.stop();
+	}
+
+	@Test
+	void reportsDiscrepanciesPerCheck() {
+		AuditReport report = audit.run();
+
+		assertEquals(4, report.countries());
+		assertEquals(2, report.dates());
+
+		AuditReport.Check dayWise = check(report, "day_wise");
+		assertEquals("mismatch", dayWise.status());
+		assertEquals(2, dayWise.compared());
+		assertEquals(List.of(new AuditReport.Discrepancy(null, DAY_8, "confirmed", 43L, 40L, "mismatch")),
+				dayWise.samples());
+
+		AuditReport.Check countryWise = check(report, "country_wise_latest");
+		assertEquals(4, countryWise.compared());
+		assertEquals(List.of(
+				new AuditReport.Discrepancy("Atlantis", null, "row", null, null, "unexpected"),
+				new AuditReport.Discrepancy("Chile", DAY_8, "row", null, null, "missing"),
+				new AuditReport.Discrepancy("US", DAY_8, "confirmed", 9L, 8L, "mismatch")),
+				countryWise.samples());
+
+		AuditReport.Check clean = check(report, "covid_19_clean_complete");
+		assertTrue(clean.samples().contains(new AuditReport.Discrepancy("Italy", DAY_8, "row", null, null, "missing")));
+		assertFalse(clean.samples().stream().anyMatch(d -> "Italy".equals(d.country()) && DAY_1.equals(d.date())));
+
+		AuditReport.Check usa = check(report, "usa_county_wise");
+		assertEquals(List.of(
+				new AuditReport.Discrepancy(null, null, "date", null, null, "unparsable date: someday"),
+				new AuditReport.Discrepancy("US", DAY_8, "deaths", 1L, 0L, "mismatch")),
+				usa.samples());
+
+		AuditReport.Check worldometer = check(report, "worldometer");
+		assertEquals(2, worldometer.compared());
+		assertEquals(List.of(
+				new AuditReport.Discrepancy("Italy", null, "totalCases", 30L, 25L, "below expected")),
+				worldometer.samples());
+
+		assertEquals(report.checks().stream().mapToLong(AuditReport.Check::discrepancies).sum(),
+				report.discrepancies());
+	}
+
+	@Test
+	void skipsEmptyTables() {
+		when(dayWiseRepo.findAll()).thenReturn(List.of());
+		when(cleanRepo.findCountryRegions()).thenReturn(List.of());
+		when(usaRepo.sumByDate()).thenReturn(List.of());
+		when(worldometerRepo.findAllBy()).thenReturn(List.of());
+
+		AuditReport report = audit.run();
+
+		for (String name : List.of("day_wise", "covid_19_clean_complete", "usa_county_wise", "worldometer")) {
+			assertEquals("skipped", check(report, name).status(), name);
+			assertEquals(0, check(report, name).discrepancies(), name);
+		}
+		verify(cleanRepo, never()).sumByCountryAndDate(anyCollection());
+		assertEquals("mismatch", check(report, "country_wise_latest").status());
+	}
+
+	@Test
+	void countsEveryDiscrepancyButKeepsOnlyTheSampleLimit() {
+		audit.stop();
+		audit = new ReconciliationAudit(fullGroupedRepo, dayWiseRepo, countryWiseRepo, cleanRepo, usaRepo,
+				worldometerRepo, perCapitaService, 2, 1, 1, 1, "US");
+
+		AuditReport.Check countryWise = check(audit.run(), "country_wise_latest");
+
+		assertEquals(3, countryWise.discrepancies());
+		assertEquals(1, countryWise.samples().size());
+	}
+
+	private static AuditReport.Check check(AuditReport report, String name) {
+		return report.checks().stream().filter(c -> c.name().equals(name)).findFirst().orElseThrow();
+	}
+
+	private static FullGrouped row(String country, LocalDate date, int confirmed, int deaths, int recovered,
+	                               int active, int newCases) {
+		FullGrouped row = new FullGrouped();
+		row.setCountryRegion(country);
+		row.setDate(date);
+		row.setConfirmed(confirmed);
+		row.setDeaths(deaths);
+		row.setRecovered(recovered);
+		row.setActive(active);
+		row.setNewCases(newCases);
+		return row;
+	}
+
+	private static DayWise day(LocalDate date, int confirmed, int deaths, int recovered, int active,
+	                           int newCases, int countries) {
+		DayWise day = new DayWise();
+		day.setDate(date);
+		day.setConfirmed(confirmed);
+		day.setDeaths(deaths);
+		day.setRecovered(recovered);
+		day.setActive(active);
+		day.setNewCases(newCases);
+		day.setNumberOfCountries(countries);
+		return day;
+	}
+
+	private static CountryWiseLatest latest(String country, int confirmed, int deaths, int recovered, int active,
+	                                        int newCases, Integer confirmedLastWeek) {
+		CountryWiseLatest latest = new CountryWiseLatest();
+		latest.setCountry(country);
+		latest.setConfirmed(confirmed);
+		latest.setDeaths(deaths);
+		latest.setRecovered(recovered);
+		latest.setActive(active);
+		latest.setNewCases(newCases);
+		latest.setConfirmedLastWeek(confirmedLastWeek);
+		return latest;
+	}
+
+	private static WorldometerView view(String country, Long totalCases, Long totalDeaths, Long totalRecovered,
+	                                    Long activeCases) {
+		return new WorldometerView(null, country, null, 1_000_000L, totalCases, null, totalDeaths, null,
+				totalRecovered, null, activeCases, null, null, null, null, null, null);
+	}
+}
@@ -0,0 +1,66 @@
+package covidapp.covid.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionTokenServiceTest {
+
+	private final SessionTokenService service = new SessionTokenService("signed", "test-secret-test-secret-test-secret", 30);
+
+	private static long inMinutes(int minutes) {
+		return System.currentTimeMillis() + minutes * 60_000L;
+	}
+
+	@Test
+	void issuedTokenVerifiesForItsUser() {
+		String token = service.issue("alice", inMinutes(5));
+
+		assertTrue(service.isSignedToken(token));
+		SessionTokenService.TokenClaims claims = service.verify("alice", token);
+		assertNotNull(claims);
+		assertEquals("alice", claims.username());
+		assertNull(service.verify("bob", token));
+	}
+
+	@Test
+	void rejectsTamperedAndForeignTokens() {
+		String token = service.issue("alice", inMinutes(5));
+		String[] parts = token.split("\\.");
+		String extended = parts[0] + "." + parts[1] + "." + inMinutes(600) + "." + parts[3] + "." + parts[4];
+		SessionTokenService other = new SessionTokenService("signed", "another-secret-another-secret", 30);
+
+		assertNull(service.verify("alice", extended));
+		assertNull(other.verify("alice", token));
+		assertNull(service.verify("alice", "v1.garbage"));
+		assertNull(service.verify("alice", "a1b2c3d4-e5f6-7890-abcd-ef1234567890"));
+	}
+
+	@Test
+	void rejectsExpiredToken() {
+		String token = service.issue("alice", System.currentTimeMillis() - 1);
+
+		assertNull(service.verify("alice", token));
+	}
+
+	@Test
+	void logoutRevokesUntilNextLogin() throws InterruptedException {
+		String token = service.issue("alice", inMinutes(5));
+		service.revokeAll("alice");
+		assertNull(service.verify("alice", token));
+
+		Thread.sleep(2);
+		String next = service.issue("alice", inMinutes(5));
+		assertNotNull(service.verify("alice", next));
+	}
+
+	@Test
+	void newLoginInvalidatesOlderToken() throws InterruptedException {
+		String first = service.issue("alice", inMinutes(5));
+		Thread.sleep(2);
+		String second = service.issue("alice", inMinutes(5));
+
+		assertNull(service.verify("alice", first));
+		assertNotNull(service.verify("alice", second));
+	}
+}
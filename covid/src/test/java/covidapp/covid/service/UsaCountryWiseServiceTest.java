@@ -0,0 +1,63 @@
+package covidapp.covid.service;
+
+import covidapp.covid.dto.CursorPage;
+import covidapp.covid.dto.UsaCountryWiseView;
+import covidapp.covid.repository.UsaCountryWiseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class UsaCountryWiseServiceTest {
+
+	private static final LocalDate DAY = LocalDate.of(2020, 3, 1);
+
+	private UsaCountryWiseRepository repo;
+	private UsaCountryWiseService service;
+
+	@BeforeEach
+	void setUp() {
+		repo = mock(UsaCountryWiseRepository.class);
+		service = new UsaCountryWiseService(repo, new DatasetVersions(), 2, 10);
+	}
+
+	@Test
+	void returnsAnEmptyLastPageWhenNothingMatches() {
+		when(repo.findPageByCountryRegionAfter(eq("Atlantis"), any(), any(), any())).thenReturn(List.of());
+
+		CursorPage<UsaCountryWiseView> page = service.getByCountryPage("Atlantis", null, null);
+
+		assertEquals(List.of(), page.items());
+		assertNull(page.nextCursor());
+		assertFalse(page.hasMore());
+	}
+
+	@Test
+	void resumesAfterTheLastRowIncludingOneWithoutAReportDate() {
+		when(repo.findPageAfter(Long.MIN_VALUE, UsaCountryWiseRepository.NO_REPORT_DATE, Limit.of(3)))
+				.thenReturn(List.of(row(1L, DAY), row(2L, null), row(2L, DAY)));
+
+		CursorPage<UsaCountryWiseView> first = service.getAllPage(null, null);
+		assertEquals(2, first.items().size());
+		assertTrue(first.hasMore());
+
+		// The undated row is the boundary: the next page resumes inside UID 2
+		when(repo.findPageAfter(2L, UsaCountryWiseRepository.NO_REPORT_DATE, Limit.of(3)))
+				.thenReturn(List.of(row(2L, DAY)));
+		CursorPage<UsaCountryWiseView> second = service.getAllPage(first.nextCursor(), null);
+		assertEquals(List.of(row(2L, DAY)), second.items());
+		assertFalse(second.hasMore());
+	}
+
+	private static UsaCountryWiseView row(Long uid, LocalDate reportDate) {
+		return new UsaCountryWiseView(uid, null, null, null, null, null, null, "US", null, null, null, null,
+				null, null, reportDate);
+	}
+}